@@ -24,6 +24,12 @@ android {
                 "proguard-rules.pro"
             )
         }
+        // macrobenchmark 측정용: release 와 같은 코드 경로, 기기 설치를 위해 debug 키로 서명
+        create("benchmark") {
+            initWith(getByName("release"))
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+        }
     }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
@@ -37,6 +43,9 @@ dependencies {
     implementation(libs.material)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
+    implementation(libs.recyclerview)
+    // 스토어 외 설치(사이드로드, 벤치마크)에서도 baseline-prof.txt 를 설치 시 적용
+    implementation(libs.profileinstaller)
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
@@ -0,0 +1,171 @@
+package com.example.to_dolist;
+
+import android.app.Instrumentation;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.to_dolist.data.TodoItem;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 투두 목록의 프레임 시간 벤치마크 (100 / 1,000 / 10,000 항목).
+ * 목록 제출 → 스크롤 → 단일 항목 토글 순서로 측정하고, 결과는 logcat 과 instrumentation status 로 출력합니다.
+ */
+@RunWith(Parameterized.class)
+public class TodoListFrameBenchmark {
+
+    private static final String TAG = "TodoListFrameBenchmark";
+    private static final int SCROLL_STEPS = 300;
+    private static final long FRAME_BUDGET_NS = 16_666_667L;
+
+    @Parameterized.Parameters(name = "items={0}")
+    public static Collection<Object[]> sizes() {
+        return Arrays.asList(new Object[][]{{100}, {1_000}, {10_000}});
+    }
+
+    private final int itemCount;
+
+    public TodoListFrameBenchmark(int itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    @BeforeClass
+    public static void grantExactAlarm() throws Exception {
+        // 권한 설정 화면으로 이동하지 않도록 정확한 알람 권한을 미리 허용
+        InstrumentationRegistry.getInstrumentation().getUiAutomation().executeShellCommand(
+                "appops set com.example.to_dolist SCHEDULE_EXACT_ALARM allow").close();
+    }
+
+    @Test
+    public void scrollAndToggle() throws Exception {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        List<TodoItem> items = createItems(itemCount);
+
+        try (ActivityScenario<MainActivity> scenario = ActivityScenario.launch(MainActivity.class)) {
+            final MainActivity[] holder = new MainActivity[1];
+            scenario.onActivity(activity -> holder[0] = activity);
+            MainActivity activity = holder[0];
+            RecyclerView recyclerView = activity.findViewById(R.id.todo_recycler_view);
+
+            // 1) 최초 목록 제출 (diff + 첫 레이아웃)
+            long submitNs = submitAndWait(instrumentation, activity, items);
+
+            // 2) 스크롤 프레임 측정
+            List<Long> frames = Collections.synchronizedList(new ArrayList<>());
+            HandlerThread metricsThread = new HandlerThread("frame-metrics");
+            metricsThread.start();
+            Window window = activity.getWindow();
+            Window.OnFrameMetricsAvailableListener listener =
+                    (w, metrics, dropCount) -> frames.add(metrics.getMetric(FrameMetrics.TOTAL_DURATION));
+            instrumentation.runOnMainSync(() ->
+                    window.addOnFrameMetricsAvailableListener(listener, new Handler(metricsThread.getLooper())));
+
+            int step = Math.max(1, recyclerView.getHeight() / 2);
+            for (int i = 0; i < SCROLL_STEPS; i++) {
+                instrumentation.runOnMainSync(() -> recyclerView.scrollBy(0, step));
+                instrumentation.waitForIdleSync();
+            }
+
+            // 3) 단일 항목 토글 (변경된 한 행만 다시 바인딩되어야 함)
+            List<TodoItem> toggled = new ArrayList<>(items);
+            TodoItem changed = copyOf(items.get(itemCount / 2));
+            changed.setCompleted(!changed.isCompleted());
+            toggled.set(itemCount / 2, changed);
+            long toggleNs = submitAndWait(instrumentation, activity, toggled);
+
+            instrumentation.runOnMainSync(() -> window.removeOnFrameMetricsAvailableListener(listener));
+            metricsThread.quitSafely();
+
+            report(instrumentation, frames, submitNs, toggleNs);
+            assertTrue("프레임이 측정되지 않았습니다.", !frames.isEmpty());
+        }
+    }
+
+    private long submitAndWait(Instrumentation instrumentation, MainActivity activity, List<TodoItem> list)
+            throws InterruptedException {
+        CountDownLatch committed = new CountDownLatch(1);
+        long start = System.nanoTime();
+        instrumentation.runOnMainSync(() ->
+                activity.getTodoAdapter().submitList(list, committed::countDown));
+        assertTrue(committed.await(30, TimeUnit.SECONDS));
+        instrumentation.waitForIdleSync();
+        return System.nanoTime() - start;
+    }
+
+    private void report(Instrumentation instrumentation, List<Long> frames, long submitNs, long toggleNs) {
+        List<Long> sorted;
+        synchronized (frames) {
+            sorted = new ArrayList<>(frames);
+        }
+        Collections.sort(sorted);
+        int janky = 0;
+        for (long f : sorted) {
+            if (f > FRAME_BUDGET_NS) janky++;
+        }
+
+        Bundle status = new Bundle();
+        status.putInt("items", itemCount);
+        status.putInt("frames", sorted.size());
+        status.putDouble("frame_p50_ms", percentileMs(sorted, 50));
+        status.putDouble("frame_p90_ms", percentileMs(sorted, 90));
+        status.putDouble("frame_p99_ms", percentileMs(sorted, 99));
+        status.putDouble("janky_percent", sorted.isEmpty() ? 0 : 100.0 * janky / sorted.size());
+        status.putDouble("submit_ms", submitNs / 1e6);
+        status.putDouble("toggle_ms", toggleNs / 1e6);
+        instrumentation.sendStatus(0, status);
+
+        Log.i(TAG, String.format(Locale.ROOT,
+                "items=%d frames=%d p50=%.2fms p90=%.2fms p99=%.2fms janky=%d submit=%.2fms toggle=%.2fms",
+                itemCount, sorted.size(),
+                percentileMs(sorted, 50), percentileMs(sorted, 90), percentileMs(sorted, 99),
+                janky, submitNs / 1e6, toggleNs / 1e6));
+    }
+
+    private static double percentileMs(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) return 0;
+        int index = Math.min(sorted.size() - 1, (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+
+    private static List<TodoItem> createItems(int count) {
+        long[] categories = {1, 2, 3};
+        List<TodoItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String dueTime = String.format(Locale.ROOT, "%02d:%02d", (i / 60) % 24, i % 60);
+            TodoItem item = new TodoItem("할 일 " + i, categories[i % 3], dueTime, i % 4 == 0);
+            item.setId(i + 1);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static TodoItem copyOf(TodoItem source) {
+        TodoItem copy = new TodoItem(source.getTitle(), source.getCategoryId(),
+                source.getDueTime(), source.isCompleted());
+        copy.setId(source.getId());
+        return copy;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.to_dolist.alarm;
+
+import android.content.Context;
+import android.content.Intent;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.to_dolist.data.TodoItem;
+import com.example.to_dolist.data.TodoItemDataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 알람이 죽어 있던 프로세스를 깨운 경우: 큐를 DB 에서 다시 만들 때 방금 울린 항목이 빠지지 않고 전달되는지 확인합니다.
+ * 앱의 공유 DB 를 사용하므로 전용 카테고리로 넣고 끝나면 지웁니다.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AlarmColdStartTest {
+
+    private static final String CATEGORY_NAME = "COLD_START_TEST";
+
+    private Context context;
+    private TodoItemDataSource dataSource;
+    private long category;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dataSource = new TodoItemDataSource(context);
+        dataSource.open();
+        category = dataSource.getOrCreateCategory(CATEGORY_NAME);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dataSource.bulkDelete(category, null);
+        dataSource.deleteCategory(category);
+        dataSource.close();
+        AlarmScheduler.rehydrateNow(context, "test-cleanup");
+    }
+
+    @Test
+    public void alarmOnColdProcess_deliversTaskThatTriggeredIt() throws Exception {
+        TimeZone zone = TimeZone.getDefault();
+        long now = System.currentTimeMillis();
+        // 1~2분 전에 울렸어야 하는 날짜 없는 항목 (시스템 알람이 늦게 도착한 경우)
+        int dueMinutes = TriggerTimes.minuteOfDay(now - 60_000L, zone);
+        long triggerAt = TriggerTimes.nextTriggerAt(dueMinutes, now - 120_000L, zone);
+        long id = dataSource.createTask(new TodoItem("늦게 깬 알람", category, dueMinutes, false));
+
+        AlarmScheduler.resetQueue();
+        Intent intent = new Intent(context, AlarmReceiver.class)
+                .putExtra(AlarmScheduler.EXTRA_TRIGGER_AT, triggerAt)
+                .putExtra(AlarmScheduler.EXTRA_ARMED_AT, triggerAt);
+        AlarmScheduler.onAlarmFired(context, intent, null);
+        AlarmScheduler.awaitIdle();
+
+        assertTrue("울린 항목이 전달되지 않음", context.getSharedPreferences(AlarmScheduler.PREFS_NAME, Context.MODE_PRIVATE)
+                .getBoolean(AlarmScheduler.KEY_FIRED_PREFIX + id, false));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.to_dolist.alarm;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.to_dolist.data.TodoItem;
+import com.example.to_dolist.data.TodoItemDataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 미완료·시간 지정 항목 10,000개에서 재부팅 재등록이 수신자 제한 시간 안에 끝나는지 확인합니다.
+ * 앱의 공유 DB 를 사용하므로 전용 카테고리로 넣고 끝나면 지웁니다.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AlarmRehydrationBenchmark {
+
+    private static final String TAG = "AlarmRehydrationBench";
+    private static final String CATEGORY_NAME = "REHYDRATION_BENCHMARK";
+    private static final int PENDING_TASKS = 10_000;
+    // BroadcastReceiver.goAsync 의 제한 시간
+    private static final long RECEIVER_DEADLINE_MS = 10_000L;
+
+    private Context context;
+    private TodoItemDataSource dataSource;
+    private long category;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dataSource = new TodoItemDataSource(context);
+        dataSource.open();
+        category = dataSource.getOrCreateCategory(CATEGORY_NAME);
+
+        List<TodoItem> items = new ArrayList<>(PENDING_TASKS);
+        for (int i = 0; i < PENDING_TASKS; i++) {
+            items.add(new TodoItem("재등록 " + i, category, i % 1440, false));
+        }
+        dataSource.bulkInsert(items);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dataSource.bulkDelete(category, null);
+        dataSource.deleteCategory(category);
+        // 테스트 항목이 빠진 상태로 큐와 시스템 알람을 되돌림
+        AlarmScheduler.rehydrateNow(context, "test-cleanup");
+    }
+
+    @Test
+    public void bootRehydration_finishesWithinReceiverDeadline() throws Exception {
+        AlarmScheduler.RehydrationResult result = AlarmScheduler.rehydrateNow(context, "benchmark");
+
+        Bundle status = new Bundle();
+        status.putInt("rehydrate_restored", result.restored);
+        status.putLong("rehydrate_ms", result.elapsedMs);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+        Log.i(TAG, "재등록 " + result.restored + "건, " + result.elapsedMs + "ms");
+
+        assertTrue("시간 안에 전부 읽지 못함: " + result.elapsedMs + "ms", result.isComplete);
+        assertTrue("복원 수 부족: " + result.restored, result.restored >= PENDING_TASKS);
+        assertTrue("수신자 제한 시간 초과: " + result.elapsedMs + "ms", result.elapsedMs < RECEIVER_DEADLINE_MS);
+    }
+}
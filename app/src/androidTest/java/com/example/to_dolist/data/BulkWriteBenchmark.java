@@ -0,0 +1,106 @@
+package com.example.to_dolist.data;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 행 단위 createTask (autocommit, 행마다 fsync) 와 bulkInsert (한 트랜잭션) 의 초당 행 수 비교.
+ * 실제 디스크 동기화 비용이 포함되도록 메모리 DB 가 아닌 파일 DB 를 사용합니다.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BulkWriteBenchmark {
+
+    private static final String TAG = "BulkWriteBenchmark";
+    private static final String DB_NAME = "bulk_benchmark.db";
+    private static final int ROWS = 5_000;
+
+    private Context context;
+    private TodoItemDbHelper helper;
+    private TodoItemDataSource dataSource;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        helper = new TodoItemDbHelper(context, DB_NAME);
+        dataSource = new TodoItemDataSource(helper);
+        dataSource.open();
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void perRowInsertVersusBulkInsert() {
+        long[] categories = {
+                dataSource.getOrCreateCategory("WORK"),
+                dataSource.getOrCreateCategory("STUDY"),
+                dataSource.getOrCreateCategory("ETC")};
+        List<TodoItem> items = createItems(ROWS, categories);
+
+        long start = System.nanoTime();
+        for (TodoItem item : items) {
+            dataSource.createTask(item);
+        }
+        long perRowNs = System.nanoTime() - start;
+
+        dataSource.bulkDelete(Category.ALL, null);
+
+        start = System.nanoTime();
+        long[] ids = dataSource.bulkInsert(items);
+        long bulkNs = System.nanoTime() - start;
+        assertEquals(ROWS, ids.length);
+        assertEquals(ROWS, dataSource.getTaskCount());
+
+        start = System.nanoTime();
+        List<TodoItem> completed = dataSource.bulkUpdateCompletion(categories[0], true);
+        long completeNs = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<TodoItem> deleted = dataSource.bulkDelete(Category.ALL, true);
+        long deleteNs = System.nanoTime() - start;
+
+        double perRowRate = ROWS / (perRowNs / 1e9);
+        double bulkRate = ROWS / (bulkNs / 1e9);
+
+        Bundle status = new Bundle();
+        status.putDouble("per_row_rows_per_sec", perRowRate);
+        status.putDouble("bulk_rows_per_sec", bulkRate);
+        status.putDouble("bulk_complete_ms", completeNs / 1e6);
+        status.putDouble("bulk_delete_ms", deleteNs / 1e6);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+
+        Log.i(TAG, String.format(Locale.ROOT,
+                "rows=%d perRow=%.0f rows/s bulk=%.0f rows/s (x%.1f) complete(%d)=%.1fms delete(%d)=%.1fms",
+                ROWS, perRowRate, bulkRate, bulkRate / perRowRate,
+                completed.size(), completeNs / 1e6, deleted.size(), deleteNs / 1e6));
+    }
+
+    private static List<TodoItem> createItems(int count, long[] categories) {
+        List<TodoItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String dueTime = i % 5 == 0 ? null
+                    : String.format(Locale.ROOT, "%02d:%02d", (i / 60) % 24, i % 60);
+            items.add(new TodoItem("할 일 " + i, categories[i % 3], dueTime, false));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.to_dolist.data;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 10만 행짜리 v1 DB 를 현재 버전으로 올리는 시간과 결과.
+ * 앱을 오래 쓰지 않다가 업데이트한 경우로, 첫 화면 전에 한 번 실행되므로 시간 예산 안에 끝나야 합니다.
+ * 실제 디스크 I/O 가 포함되도록 파일 DB 를 사용합니다.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationBenchmark {
+
+    private static final String TAG = "MigrationBenchmark";
+    private static final String DB_NAME = "migration_benchmark.db";
+    private static final int ROWS = 100_000;
+    // 복사 두 번(v4, v7) + 인덱스·FTS 생성 + 무결성 확인을 합친 예산 (중급 기기 기준 여유를 둔 값)
+    private static final long UPGRADE_BUDGET_MS = 5_000L;
+    private static final String[] V1_CATEGORIES = {"WORK", "STUDY", "ETC", "hobby", ""};
+
+    private Context context;
+    private TodoItemDbHelper helper;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        createV1Database();
+    }
+
+    @After
+    public void tearDown() {
+        if (helper != null) helper.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void upgradeV1_100kRows_withinBudget() {
+        helper = new TodoItemDbHelper(context, DB_NAME);
+        long start = System.nanoTime();
+        SQLiteDatabase db = helper.getWritableDatabase();
+        long upgradeMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(TodoItemDbHelper.DATABASE_VERSION, db.getVersion());
+        assertEquals(ROWS, DatabaseUtils.queryNumEntries(db, TodoItemDbHelper.TABLE_NAME));
+        // i % 7 == 0 은 시각 없음, 나머지는 v1DueTime(i) 를 분으로
+        assertEquals(ROWS / 7 + 1, DatabaseUtils.queryNumEntries(db, TodoItemDbHelper.TABLE_NAME, "due_time IS NULL"));
+        assertEquals(minutes(12345), DatabaseUtils.longForQuery(db,
+                "SELECT due_time FROM todoitem WHERE id = ?", new String[]{String.valueOf(12345 + 1)}));
+        // "hobby" 는 새 카테고리로, 빈 이름은 ETC 로 (ETC 에 두 몫)
+        assertEquals(4, DatabaseUtils.queryNumEntries(db, TodoItemDbHelper.CATEGORY_TABLE_NAME));
+        assertEquals(ROWS / V1_CATEGORIES.length * 2, DatabaseUtils.longForQuery(db,
+                "SELECT total_count FROM category WHERE name = 'ETC'", null));
+        assertEquals(DatabaseUtils.queryNumEntries(db, TodoItemDbHelper.TABLE_NAME, "is_completed = 0"),
+                DatabaseUtils.longForQuery(db, "SELECT SUM(open_count) FROM category", null));
+
+        // 데이터 소스로 읽기·검색까지 동작
+        TodoItemDataSource dataSource = new TodoItemDataSource(helper);
+        dataSource.open();
+        List<TodoItem> found = dataSource.searchTasks("항목 54321", Category.ALL, false, 10, null);
+        assertTrue(found.size() >= 1);
+        assertEquals(ROWS, dataSource.getTaskCount());
+
+        Bundle status = new Bundle();
+        status.putInt("rows", ROWS);
+        status.putLong("upgrade_ms", upgradeMs);
+        status.putLong("db_bytes", context.getDatabasePath(DB_NAME).length());
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+        Log.i(TAG, String.format(Locale.ROOT, "v1 → v%d, %d행: %dms",
+                TodoItemDbHelper.DATABASE_VERSION, ROWS, upgradeMs));
+
+        assertTrue("업그레이드 " + upgradeMs + "ms > " + UPGRADE_BUDGET_MS + "ms", upgradeMs <= UPGRADE_BUDGET_MS);
+    }
+
+    // v1 앱이 남긴 것과 같은 DB (user_version 1)
+    private void createV1Database() {
+        SQLiteDatabase v1 = SQLiteDatabase.openOrCreateDatabase(context.getDatabasePath(DB_NAME), null);
+        try {
+            v1.execSQL(TodoMigrationsTest.SQL_CREATE_V1);
+            v1.beginTransaction();
+            try (SQLiteStatement insert = v1.compileStatement(
+                    "INSERT INTO todoitem (title, category_id, due_time, is_completed) VALUES (?, ?, ?, ?)")) {
+                for (int i = 0; i < ROWS; i++) {
+                    insert.bindString(1, "항목 " + i);
+                    insert.bindString(2, V1_CATEGORIES[i % V1_CATEGORIES.length]);
+                    String dueTime = v1DueTime(i);
+                    if (dueTime == null) {
+                        insert.bindNull(3);
+                    } else {
+                        insert.bindString(3, dueTime);
+                    }
+                    insert.bindLong(4, i % 3 == 0 ? 1 : 0);
+                    insert.executeInsert();
+                }
+                v1.setTransactionSuccessful();
+            } finally {
+                v1.endTransaction();
+            }
+            v1.setVersion(1);
+        } finally {
+            v1.close();
+        }
+    }
+
+    // v1 은 "HH:mm" 과 "H:mm" 이 섞여 있었음
+    private static String v1DueTime(int i) {
+        if (i % 7 == 0) return null;
+        int hour = (i / 60) % 24;
+        return String.format(Locale.ROOT, i % 2 == 0 ? "%02d:%02d" : "%d:%02d", hour, i % 60);
+    }
+
+    private static long minutes(int i) {
+        return ((i / 60) % 24) * 60L + i % 60;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.to_dolist.data;
+
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.os.Bundle;
+import android.os.Debug;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 이전 매핑 방식(행마다 getColumnIndexOrThrow 5회 + 새 객체)과
+ * TodoItemRowMapper 의 map()/mapInto() 를 ns/row 와 행당 할당 수로 비교합니다.
+ * DB I/O 를 빼고 매핑 비용만 보기 위해 MatrixCursor 를 사용합니다.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RowMapperBenchmark {
+
+    private static final String TAG = "RowMapperBenchmark";
+    private static final int ROWS = 20_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURE_ROUNDS = 10;
+
+    private interface RowLoop {
+        long run(Cursor cursor);
+    }
+
+    @Test
+    public void legacyVersusCompiledMapper() {
+        MatrixCursor cursor = createCursor(ROWS);
+
+        Result legacy = measure(cursor, c -> {
+            long checksum = 0;
+            c.moveToPosition(-1);
+            while (c.moveToNext()) {
+                checksum += legacyCursorToTask(c).getId();
+            }
+            return checksum;
+        });
+        Result mapped = measure(cursor, c -> {
+            long checksum = 0;
+            c.moveToPosition(-1);
+            TodoItemRowMapper mapper = TodoItemRowMapper.forCursor(c);
+            while (c.moveToNext()) {
+                checksum += mapper.map(c).getId();
+            }
+            return checksum;
+        });
+        Result reused = measure(cursor, c -> {
+            long checksum = 0;
+            c.moveToPosition(-1);
+            TodoItemRowMapper mapper = TodoItemRowMapper.forCursor(c);
+            TodoItem item = new TodoItem();
+            while (c.moveToNext()) {
+                checksum += mapper.mapInto(c, item).getId();
+            }
+            return checksum;
+        });
+        cursor.close();
+
+        assertEquals(legacy.checksum, mapped.checksum);
+        assertEquals(legacy.checksum, reused.checksum);
+
+        Bundle status = new Bundle();
+        legacy.report(status, "legacy");
+        mapped.report(status, "mapper");
+        reused.report(status, "mapper_reuse");
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+    }
+
+    // user-008 이전의 cursorToTask 와 같은 방식
+    private static TodoItem legacyCursorToTask(Cursor cursor) {
+        TodoItem item = new TodoItem();
+        item.setId(cursor.getInt(cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_ID)));
+        item.setTitle(cursor.getString(cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_TITLE)));
+        item.setCategoryId(cursor.getLong(cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_CATEGORY_ID)));
+        item.setDueMinutes(cursor.getInt(cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_DUE_TIME)));
+        item.setCompleted(cursor.getInt(cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_IS_COMPLETED)) == 1);
+        return item;
+    }
+
+    private static final class Result {
+        double nsPerRow;
+        double allocsPerRow;
+        long checksum;
+
+        void report(Bundle status, String name) {
+            status.putDouble(name + "_ns_per_row", nsPerRow);
+            status.putDouble(name + "_allocs_per_row", allocsPerRow);
+            Log.i(TAG, String.format(Locale.ROOT, "%s: %.1f ns/row, %.2f allocs/row", name, nsPerRow, allocsPerRow));
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Result measure(Cursor cursor, RowLoop loop) {
+        Result result = new Result();
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            result.checksum = loop.run(cursor);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            loop.run(cursor);
+        }
+        result.nsPerRow = (System.nanoTime() - start) / (double) (MEASURE_ROUNDS * ROWS);
+
+        // 할당 수는 한 번만 따로 측정 (카운팅 자체의 오버헤드가 시간 측정에 섞이지 않도록)
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        loop.run(cursor);
+        Debug.stopAllocCounting();
+        result.allocsPerRow = Debug.getThreadAllocCount() / (double) ROWS;
+        return result;
+    }
+
+    private static MatrixCursor createCursor(int rows) {
+        String[] columns = {
+                TodoItemDbHelper.COLUMN_ID,
+                TodoItemDbHelper.COLUMN_TITLE,
+                TodoItemDbHelper.COLUMN_CATEGORY_ID,
+                TodoItemDbHelper.COLUMN_DUE_TIME,
+                TodoItemDbHelper.COLUMN_IS_COMPLETED,
+                TodoItemDbHelper.COLUMN_DUE_DATE,
+                TodoItemDbHelper.COLUMN_RECURRENCE
+        };
+        long[] categories = {1, 2, 3};
+        MatrixCursor cursor = new MatrixCursor(columns, rows);
+        for (int i = 0; i < rows; i++) {
+            cursor.addRow(new Object[]{
+                    (long) i + 1,
+                    "할 일 " + i,
+                    categories[i % 3],
+                    i % 1440,
+                    i % 2,
+                    null,
+                    null
+            });
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.to_dolist.data;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteConstraintException;
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 내보내기·가져오기: 두 형식의 왕복, 카테고리 이름 매핑, id 충돌 처리, 잘린 파일의 부분 가져오기,
+ * 그리고 많은 행을 내보낼 때 힙이 행 수에 비례해 늘지 않는지.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TodoBackupTest {
+
+    private static final String TAG = "TodoBackupTest";
+    private static final int LARGE_ROWS = 200_000;
+
+    private Context context;
+    private TodoItemDbHelper sourceHelper;
+    private TodoItemDbHelper targetHelper;
+    private TodoItemDataSource source;
+    private TodoItemDataSource target;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        sourceHelper = new TodoItemDbHelper(context, null);
+        targetHelper = new TodoItemDbHelper(context, null);
+        source = new TodoItemDataSource(sourceHelper);
+        target = new TodoItemDataSource(targetHelper);
+        source.open();
+        target.open();
+    }
+
+    @After
+    public void tearDown() {
+        source.close();
+        target.close();
+    }
+
+    @Test
+    public void roundTrip_bothFormats() throws IOException {
+        long hobby = source.createCategory("HOBBY");
+        TodoItem repeating = new TodoItem("기타 연습", hobby, 20 * 60, false);
+        repeating.setDueDate(19_900);
+        repeating.setRecurrence(Recurrence.weekly(0b0000101));
+        source.bulkInsert(Arrays.asList(
+                new TodoItem("회의 \"준비\"\n메모", source.getOrCreateCategory("WORK"), 9 * 60, true),
+                repeating));
+
+        for (TodoBackupFormat format : TodoBackupFormat.values()) {
+            TodoItemDataSource fresh = new TodoItemDataSource(new TodoItemDbHelper(context, null));
+            fresh.open();
+            TodoBackup.ImportResult result = importInto(fresh, export(source, format), TodoBackup.IdConflict.KEEP_EXISTING);
+
+            assertTrue(format + " 완료", result.isComplete());
+            assertEquals(format + " 추가", 2, result.getInserted());
+            List<TodoItem> copied = fresh.getTasks(Category.ALL, false);
+            assertEquals(2, copied.size());
+            TodoItem restored = findByTitle(copied, "기타 연습");
+            assertEquals(repeating.getRecurrence(), restored.getRecurrence());
+            assertEquals(19_900, restored.getDueDate());
+            assertEquals(20 * 60, restored.getDueMinutes());
+            // 카테고리는 이름으로 다시 만들어지고 카운터도 맞음
+            assertEquals(restored.getCategoryId(), fresh.getOrCreateCategory("HOBBY"));
+            assertEquals(2, fresh.getTaskCount());
+            assertTrue(findByTitle(copied, "회의 \"준비\"\n메모").isCompleted());
+            fresh.close();
+        }
+    }
+
+    @Test
+    public void idConflicts_followPolicy() throws IOException {
+        long work = source.getOrCreateCategory("WORK");
+        long[] ids = source.bulkInsert(Arrays.asList(
+                new TodoItem("백업 1", work, TodoItem.NO_DUE_TIME, false),
+                new TodoItem("백업 2", work, TodoItem.NO_DUE_TIME, false)));
+        byte[] backup = export(source, TodoBackupFormat.BINARY);
+
+        // target 에 같은 id 1 이 다른 내용으로 있음
+        target.bulkInsert(Arrays.asList(new TodoItem("기존", target.getOrCreateCategory("ETC"), 0, true)));
+        assertEquals(ids[0], target.getTasks(Category.ALL, false).get(0).getId());
+
+        TodoBackup.ImportResult keep = importInto(target, backup, TodoBackup.IdConflict.KEEP_EXISTING);
+        assertEquals(1, keep.getInserted());
+        assertEquals(1, keep.getSkipped());
+        assertEquals(2, target.getTaskCount());
+
+        TodoBackup.ImportResult replace = importInto(target, backup, TodoBackup.IdConflict.REPLACE);
+        assertEquals(2, replace.getReplaced());
+        assertEquals(0, target.searchTasks("기존", Category.ALL, false, 10, null).size());
+        assertEquals(1, target.searchTasks("백업 1", Category.ALL, false, 10, null).size());
+
+        TodoBackup.ImportResult both = importInto(target, backup, TodoBackup.IdConflict.KEEP_BOTH);
+        assertEquals(2, both.getInserted());
+        assertEquals(4, target.getTaskCount());
+    }
+
+    @Test
+    public void otherConstraintViolation_failsImport() throws IOException {
+        long work = source.getOrCreateCategory("WORK");
+        source.bulkInsert(Arrays.asList(
+                new TodoItem("새 항목", work, TodoItem.NO_DUE_TIME, false),
+                new TodoItem("같은 제목", work, TodoItem.NO_DUE_TIME, false)));
+        byte[] backup = export(source, TodoBackupFormat.BINARY);
+
+        // 첫 항목은 id 충돌(건너뜀), 둘째 항목은 id 와 무관한 제약(제목 UNIQUE 색인)에 걸림
+        target.createTask(new TodoItem("같은 제목", target.getOrCreateCategory("ETC"), TodoItem.NO_DUE_TIME, false));
+        targetHelper.getWritableDatabase().execSQL("CREATE UNIQUE INDEX test_title ON todoitem(title)");
+
+        TodoBackup.ImportResult result = new TodoBackup.ImportResult();
+        try (TodoBackupReader reader = TodoBackupFormat.openReader(new ByteArrayInputStream(backup))) {
+            target.importFrom(reader, TodoBackup.IdConflict.KEEP_EXISTING, result);
+            fail("건너뜀으로 세지 않고 실패해야 함");
+        } catch (SQLiteConstraintException expected) {
+            // 진행 중인 배치는 되돌려짐
+        }
+
+        assertFalse(result.isComplete());
+        assertEquals(0, result.getSkipped());
+        assertEquals(1, target.getTaskCount());
+    }
+
+    @Test
+    public void truncatedFile_keepsCommittedBatchesOnly() throws IOException {
+        long work = source.getOrCreateCategory("WORK");
+        int rows = TodoBackup.IMPORT_BATCH_ROWS * 2 + 10;
+        List<TodoItem> items = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            items.add(new TodoItem("항목 " + i, work, i % 1440, false));
+        }
+        source.bulkInsert(items);
+        byte[] backup = export(source, TodoBackupFormat.BINARY);
+
+        TodoBackup.ImportResult result = importInto(target, Arrays.copyOf(backup, backup.length - 100),
+                TodoBackup.IdConflict.KEEP_EXISTING);
+
+        assertFalse(result.isComplete());
+        assertEquals(TodoBackup.IMPORT_BATCH_ROWS * 2, result.getInserted());
+        assertEquals(TodoBackup.IMPORT_BATCH_ROWS * 2, target.getTaskCount());
+    }
+
+    @Test
+    public void largeExport_heapDoesNotGrowWithRows() throws IOException {
+        long work = source.getOrCreateCategory("WORK");
+        List<TodoItem> chunk = new ArrayList<>(10_000);
+        for (int i = 0; i < LARGE_ROWS; i++) {
+            chunk.add(new TodoItem("내보내기 " + i, work, i % 1440, i % 3 == 0));
+            if (chunk.size() == 10_000) {
+                source.bulkInsert(chunk);
+                chunk.clear();
+            }
+        }
+
+        File file = new File(context.getCacheDir(), "backup-test.todobackup");
+        long start = System.nanoTime();
+        try (TodoBackupWriter writer = TodoBackupFormat.BINARY.newWriter(new FileOutputStream(file))) {
+            assertEquals(LARGE_ROWS, source.exportTo(writer));
+        }
+        double exportMs = (System.nanoTime() - start) / 1e6;
+
+        // 같은 내보내기를 한 번 더 하며 살아 있는 힙을 잼 (GC 를 끼우므로 시간 측정과 분리)
+        HeapSamplingStream sampling = new HeapSamplingStream();
+        try (TodoBackupWriter writer = TodoBackupFormat.BINARY.newWriter(sampling)) {
+            source.exportTo(writer);
+        }
+        long peakDelta = sampling.peakHeap - sampling.baseHeap;
+
+        start = System.nanoTime();
+        TodoBackup.ImportResult result = new TodoBackup.ImportResult();
+        try (TodoBackupReader reader = TodoBackupFormat.openReader(new FileInputStream(file))) {
+            target.importFrom(reader, TodoBackup.IdConflict.KEEP_EXISTING, result);
+        }
+        double importMs = (System.nanoTime() - start) / 1e6;
+        assertEquals(LARGE_ROWS, result.getInserted());
+
+        Bundle status = new Bundle();
+        status.putDouble("export_ms", exportMs);
+        status.putDouble("import_ms", importMs);
+        status.putLong("export_bytes", file.length());
+        status.putLong("export_peak_heap_delta_bytes", peakDelta);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+        Log.i(TAG, String.format(Locale.ROOT, "%d행 내보내기 %.0fms (%d bytes, 힙 증가 최대 %d KB), 가져오기 %.0fms",
+                LARGE_ROWS, exportMs, file.length(), peakDelta / 1024, importMs));
+        file.delete();
+
+        // 행마다 객체를 모았다면 200k 행 × 수십 바이트로 수 MB 가 넘음
+        assertTrue("내보내기 중 힙 증가: " + peakDelta, peakDelta < 4 * 1024 * 1024);
+    }
+
+    // --- helpers ---
+
+    private static byte[] export(TodoItemDataSource from, TodoBackupFormat format) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TodoBackupWriter writer = format.newWriter(bytes)) {
+            from.exportTo(writer);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static TodoBackup.ImportResult importInto(TodoItemDataSource to, byte[] backup,
+                                                      TodoBackup.IdConflict onConflict) {
+        TodoBackup.ImportResult result = new TodoBackup.ImportResult();
+        try (TodoBackupReader reader = TodoBackupFormat.openReader(new ByteArrayInputStream(backup))) {
+            to.importFrom(reader, onConflict, result);
+        } catch (IOException e) {
+            // 잘린 파일: 커밋된 배치까지만 result 에 남음
+        }
+        return result;
+    }
+
+    private static TodoItem findByTitle(List<TodoItem> items, String title) {
+        for (TodoItem item : items) {
+            if (title.equals(item.getTitle())) return item;
+        }
+        throw new AssertionError("없음: " + title);
+    }
+
+    // 내용은 버리고, 버퍼가 16번 비워질 때마다(64KB × 16) GC 뒤의 살아 있는 힙을 기록하는 스트림
+    private static final class HeapSamplingStream extends OutputStream {
+        final long baseHeap = liveHeap();
+        long peakHeap = baseHeap;
+        private int writes = 0;
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (++writes % 16 == 0) {
+                peakHeap = Math.max(peakHeap, liveHeap());
+            }
+        }
+
+        private static long liveHeap() {
+            Runtime runtime = Runtime.getRuntime();
+            runtime.gc();
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.to_dolist.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 모든 필터 형태가 인덱스로 처리되는지 EXPLAIN QUERY PLAN 으로 확인하고, 카테고리 카운터가 항목과 맞는지 확인합니다.
+ * (업그레이드 단계는 TodoMigrationsTest)
+ */
+@RunWith(AndroidJUnit4.class)
+public class TodoItemQueryPlanTest {
+
+    private TodoItemDbHelper helper;
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        helper = new TodoItemDbHelper(context, null);
+        db = helper.getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+    }
+
+    @Test
+    public void allTasks_scansDueTimeIndexWithoutSorting() {
+        List<String> plan = explain(TodoItemQuery.ALL);
+        assertUsesIndex(plan, TodoItemDbHelper.INDEX_DUE);
+        assertNoTempSort(plan);
+    }
+
+    @Test
+    public void byCompletion_searchesCompletedDueIndex() {
+        List<String> plan = explain(TodoItemQuery.BY_COMPLETION, "0");
+        assertSearches(plan, TodoItemDbHelper.INDEX_COMPLETED_DUE);
+        assertNoTempSort(plan);
+    }
+
+    @Test
+    public void byCategory_searchesCategoryDueIndexWithoutSorting() {
+        List<String> plan = explain(TodoItemQuery.BY_CATEGORY, "1");
+        assertSearches(plan, TodoItemDbHelper.INDEX_CATEGORY_DUE);
+        assertNoTempSort(plan);
+    }
+
+    @Test
+    public void byCategoryAndCompletion_searchesCategoryIndexWithoutSorting() {
+        List<String> plan = explain(TodoItemQuery.BY_CATEGORY_AND_COMPLETION, "1", "0");
+        assertSearches(plan, TodoItemDbHelper.INDEX_CATEGORY_COMPLETED_DUE);
+        assertNoTempSort(plan);
+    }
+
+    @Test
+    public void upcomingForAlarm_searchesCompletedDueIndex() {
+        List<String> plan = explain(TodoItemQuery.UPCOMING_FOR_ALARM);
+        assertSearches(plan, TodoItemDbHelper.INDEX_COMPLETED_DUE);
+        assertNoTempSort(plan);
+    }
+
+    @Test
+    public void upcomingInTriggerOrder_searchesCompletedDueIndexRanges() {
+        for (TodoItemQuery query : new TodoItemQuery[]{
+                TodoItemQuery.UPCOMING_AFTER_MINUTE, TodoItemQuery.UPCOMING_UNTIL_MINUTE}) {
+            List<String> plan = explain(query, "540");
+            assertSearches(plan, TodoItemDbHelper.INDEX_COMPLETED_DUE);
+            assertNoTempSort(plan);
+        }
+    }
+
+    @Test
+    public void datedQueries_searchDateDueIndexWithoutSorting() {
+        List<String> upcoming = explain(TodoItemQuery.UPCOMING_DATED, "20000");
+        assertSearches(upcoming, TodoItemDbHelper.INDEX_DATE_DUE);
+        assertNoTempSort(upcoming);
+
+        List<String> range = explain(TodoItemQuery.DATED_IN_RANGE, "20000", "20030");
+        assertSearches(range, TodoItemDbHelper.INDEX_DATE_DUE);
+        assertNoTempSort(range);
+    }
+
+    @Test
+    public void recurringQueries_usePartialRecurringIndex() {
+        // 부분 인덱스라 조건 범위가 없는 전체 반복 조회는 SCAN 이지만, 반복 항목만 읽음
+        List<String> upcoming = explain(TodoItemQuery.UPCOMING_RECURRING);
+        assertUsesIndex(upcoming, TodoItemDbHelper.INDEX_RECURRING);
+        assertNoTempSort(upcoming);
+
+        List<String> started = explain(TodoItemQuery.RECURRING_STARTED_BY, "20030");
+        assertSearches(started, TodoItemDbHelper.INDEX_RECURRING);
+        assertNoTempSort(started);
+    }
+
+    @Test
+    public void pageQueries_areIndexRangesWithoutSorting() {
+        for (TodoItemQuery query : new TodoItemQuery[]{
+                TodoItemQuery.ALL, TodoItemQuery.BY_COMPLETION,
+                TodoItemQuery.BY_CATEGORY, TodoItemQuery.BY_CATEGORY_AND_COMPLETION}) {
+            String[] filterArgs = filterArgsFor(query);
+
+            List<String> nullSegment = explainSql(query.nullSegmentPageSql, concat(filterArgs, "0", "50"));
+            assertSearchesAnyIndex(query + " NULL 구간", nullSegment);
+            assertNoTempSort(nullSegment);
+
+            List<String> firstValues = explainSql(query.firstValuePageSql, concat(filterArgs, "50"));
+            assertSearchesAnyIndex(query + " 첫 값 페이지", firstValues);
+            assertNoTempSort(firstValues);
+
+            List<String> nextValues = explainSql(query.nextValuePageSql, concat(filterArgs, "540", "10", "50"));
+            assertSearchesAnyIndex(query + " 다음 값 페이지", nextValues);
+            assertNoTempSort(nextValues);
+        }
+    }
+
+    @Test
+    public void counterTriggers_followInsertMoveCompleteAndDelete() {
+        TodoItemDataSource dataSource = new TodoItemDataSource(helper);
+        dataSource.open();
+        long work = dataSource.getOrCreateCategory("WORK");
+        long hobby = dataSource.createCategory("HOBBY");
+        assertEquals(-1, dataSource.createCategory("hobby"));
+
+        long id = dataSource.createTask(new TodoItem("a", work, TodoItem.NO_DUE_TIME, false));
+        dataSource.createTask(new TodoItem("b", work, TodoItem.NO_DUE_TIME, true));
+        assertEquals(2, categoryCount(db, "WORK", TodoItemDbHelper.CATEGORY_COLUMN_TOTAL));
+        assertEquals(1, categoryCount(db, "WORK", TodoItemDbHelper.CATEGORY_COLUMN_OPEN));
+
+        TodoItem moved = new TodoItem("a", hobby, TodoItem.NO_DUE_TIME, true);
+        moved.setId(id);
+        dataSource.updateTask(moved);
+        assertEquals(1, categoryCount(db, "WORK", TodoItemDbHelper.CATEGORY_COLUMN_TOTAL));
+        assertEquals(0, categoryCount(db, "WORK", TodoItemDbHelper.CATEGORY_COLUMN_OPEN));
+        assertEquals(1, categoryCount(db, "HOBBY", TodoItemDbHelper.CATEGORY_COLUMN_TOTAL));
+        assertEquals(0, categoryCount(db, "HOBBY", TodoItemDbHelper.CATEGORY_COLUMN_OPEN));
+        assertEquals(2, dataSource.getTaskCount());
+
+        // 항목이 남은 카테고리는 지워지지 않음
+        assertFalse(dataSource.deleteCategory(hobby));
+        dataSource.deleteTask(id);
+        assertEquals(0, categoryCount(db, "HOBBY", TodoItemDbHelper.CATEGORY_COLUMN_TOTAL));
+        assertTrue(dataSource.deleteCategory(hobby));
+    }
+
+    // --- helpers ---
+
+    private static long categoryCount(SQLiteDatabase database, String name, String column) {
+        return DatabaseUtils.longForQuery(database, "SELECT " + column + " FROM "
+                + TodoItemDbHelper.CATEGORY_TABLE_NAME + " WHERE "
+                + TodoItemDbHelper.CATEGORY_COLUMN_NAME + " = ?", new String[]{name});
+    }
+
+    private List<String> explain(TodoItemQuery query, String... args) {
+        return explainSql(query.sql, args);
+    }
+
+    private List<String> explainSql(String sql, String... args) {
+        List<String> details = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, args)) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                details.add(cursor.getString(detail));
+            }
+        }
+        return details;
+    }
+
+    private static void assertUsesIndex(List<String> plan, String index) {
+        for (String line : plan) {
+            assertFalse("인덱스 없는 전체 스캔: " + plan,
+                    line.startsWith("SCAN " + TodoItemDbHelper.TABLE_NAME) && !line.contains("INDEX"));
+        }
+        assertTrue("인덱스 " + index + " 미사용: " + plan, contains(plan, "INDEX " + index));
+    }
+
+    private static void assertSearches(List<String> plan, String index) {
+        assertUsesIndex(plan, index);
+        assertTrue("SEARCH 가 아님: " + plan, contains(plan, "SEARCH " + TodoItemDbHelper.TABLE_NAME));
+    }
+
+    private static void assertSearchesAnyIndex(String name, List<String> plan) {
+        assertTrue(name + " 가 인덱스 SEARCH 가 아님: " + plan,
+                contains(plan, "SEARCH " + TodoItemDbHelper.TABLE_NAME + " USING"));
+    }
+
+    private static String[] filterArgsFor(TodoItemQuery query) {
+        switch (query) {
+            case BY_COMPLETION:
+                return new String[]{"0"};
+            case BY_CATEGORY:
+                return new String[]{"1"};
+            case BY_CATEGORY_AND_COMPLETION:
+                return new String[]{"1", "0"};
+            default:
+                return new String[0];
+        }
+    }
+
+    private static String[] concat(String[] first, String... rest) {
+        String[] all = new String[first.length + rest.length];
+        System.arraycopy(first, 0, all, 0, first.length);
+        System.arraycopy(rest, 0, all, first.length, rest.length);
+        return all;
+    }
+
+    private static void assertNoTempSort(List<String> plan) {
+        assertFalse("정렬용 임시 B-tree 사용: " + plan, contains(plan, "TEMP B-TREE"));
+    }
+
+    private static boolean contains(List<String> plan, String fragment) {
+        for (String line : plan) {
+            if (line.contains(fragment)) return true;
+        }
+        return false;
+    }
+}
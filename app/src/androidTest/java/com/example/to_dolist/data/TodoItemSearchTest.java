@@ -0,0 +1,169 @@
+package com.example.to_dolist.data;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.CancellationSignal;
+import android.os.OperationCanceledException;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * FTS 제목 검색: 트리거 동기화, 접두어 검색, 필터 결합, 순위, 입력 문자 처리, 취소,
+ * 그리고 100k 행에서 한 글자씩 입력할 때의 조회 시간.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TodoItemSearchTest {
+
+    private static final String TAG = "TodoItemSearchTest";
+    private static final int LARGE_ROWS = 100_000;
+
+    private TodoItemDbHelper helper;
+    private TodoItemDataSource dataSource;
+    private long work, study, etc;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        helper = new TodoItemDbHelper(context, null);
+        dataSource = new TodoItemDataSource(helper);
+        dataSource.open();
+        work = dataSource.getOrCreateCategory("WORK");
+        study = dataSource.getOrCreateCategory("STUDY");
+        etc = dataSource.getOrCreateCategory("ETC");
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    public void prefixSearch_combinesWithFilters() {
+        insert("주간 회의 준비", work, false);
+        insert("회의록 정리", work, true);
+        insert("영어 회화 공부", study, false);
+        insert("장보기", etc, false);
+
+        assertEquals(2, search("회의", Category.ALL, false).size());
+        assertEquals(1, search("회의", work, true).size());
+        assertEquals(1, search("회", study, false).size());
+        assertEquals(0, search("회의", etc, false).size());
+        // 여러 단어는 모두 포함해야 함
+        assertEquals(1, search("주간 회", Category.ALL, false).size());
+    }
+
+    @Test
+    public void ranking_prefersTitlesStartingWithQuery() {
+        insert("프로젝트 보고서 작성", work, false);
+        insert("보고서", work, false);
+        insert("보고서 초안 검토", work, false);
+
+        List<TodoItem> results = search("보고", Category.ALL, false);
+        assertEquals(3, results.size());
+        assertEquals("보고서", results.get(0).getTitle());
+        assertEquals("보고서 초안 검토", results.get(1).getTitle());
+        assertEquals("프로젝트 보고서 작성", results.get(2).getTitle());
+    }
+
+    @Test
+    public void triggers_keepIndexInSyncWithUpdatesAndDeletes() {
+        long id = insert("운동 가기", etc, false);
+
+        TodoItem renamed = new TodoItem("수영 가기", TodoItem.NO_CATEGORY, TodoItem.NO_DUE_TIME, false);
+        renamed.setId(id);
+        dataSource.updateTask(renamed);
+        assertEquals(0, search("운동", Category.ALL, false).size());
+        assertEquals(1, search("수영", Category.ALL, false).size());
+
+        // 제목이 그대로인 수정(완료 체크)은 색인에 영향 없음
+        renamed.setCompleted(true);
+        dataSource.updateTask(renamed);
+        assertEquals(1, search("수영", Category.ALL, false).size());
+
+        dataSource.deleteTask(id);
+        assertEquals(0, search("수영", Category.ALL, false).size());
+    }
+
+    @Test
+    public void specialCharacters_areIgnored() {
+        insert("50% 할인 쿠폰_사용", etc, false);
+
+        assertEquals(1, search("\"할인* (쿠폰", Category.ALL, false).size());
+        assertEquals(0, search("\"*()-:", Category.ALL, false).size());
+        assertNull(TodoItemDataSource.toMatchQuery("  ** \" "));
+        assertEquals("할인* 쿠폰*", TodoItemDataSource.toMatchQuery("할인, 쿠폰"));
+    }
+
+    @Test
+    public void canceledSignal_abortsQuery() {
+        insert("취소 테스트", etc, false);
+        CancellationSignal signal = new CancellationSignal();
+        signal.cancel();
+        try {
+            dataSource.searchTasks("취소", Category.ALL, false, 10, signal);
+            fail("취소된 검색이 실행됨");
+        } catch (OperationCanceledException expected) {
+            // 정상
+        }
+    }
+
+    @Test
+    public void keystrokeLatency_at100kRows() {
+        String[] words = {"회의", "보고서", "운동", "장보기", "report", "review", "meeting", "프로젝트", "청소", "공부"};
+        long[] categories = {work, study, etc};
+        List<TodoItem> items = new ArrayList<>(LARGE_ROWS);
+        for (int i = 0; i < LARGE_ROWS; i++) {
+            String title = words[i % words.length] + " " + words[(i / 7) % words.length] + " " + i;
+            items.add(new TodoItem(title, categories[i % 3], i % 1440, i % 2 == 0));
+        }
+        dataSource.bulkInsert(items);
+
+        String[] keystrokes = {"r", "re", "rev", "revi", "revie", "review", "회", "회의", "회의 보", "회의 보고"};
+        long totalNs = 0;
+        long maxNs = 0;
+        for (String query : keystrokes) {
+            long start = System.nanoTime();
+            List<TodoItem> results = dataSource.searchTasks(query, work, true, TodoItemSearch.DEFAULT_LIMIT, null);
+            long elapsed = System.nanoTime() - start;
+            assertTrue(query + " 결과 없음", !results.isEmpty());
+            totalNs += elapsed;
+            maxNs = Math.max(maxNs, elapsed);
+        }
+        double avgMs = totalNs / 1e6 / keystrokes.length;
+        double maxMs = maxNs / 1e6;
+
+        Bundle status = new Bundle();
+        status.putDouble("search_avg_ms", avgMs);
+        status.putDouble("search_max_ms", maxMs);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+        Log.i(TAG, String.format(Locale.ROOT, "100k 행 검색: 평균 %.1f ms, 최대 %.1f ms", avgMs, maxMs));
+
+        assertTrue("입력당 검색이 너무 느림: " + avgMs + "ms", avgMs < 50);
+    }
+
+    // --- helpers ---
+
+    private long insert(String title, long category, boolean completed) {
+        return dataSource.createTask(new TodoItem(title, category, TodoItem.NO_DUE_TIME, completed));
+    }
+
+    private List<TodoItem> search(String text, long category, boolean uncompletedOnly) {
+        return dataSource.searchTasks(text, category, uncompletedOnly, TodoItemSearch.DEFAULT_LIMIT, null);
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.to_dolist.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 마이그레이션 단계를 하나씩 확인합니다. 각 테스트는 v1 스키마에 데이터를 넣고 직전 버전까지 올린 뒤
+ * 해당 단계 하나만 적용합니다. 끝으로 v1 에서 끝까지 올린 스키마가 새로 만든 스키마와 같은지,
+ * 결과 확인(verify)이 어긋난 색인·카운터를 잡아내는지 확인합니다.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TodoMigrationsTest {
+
+    // v1 스키마 (카테고리는 이름, 시각은 "HH:mm" 문자열)
+    static final String SQL_CREATE_V1 = "CREATE TABLE todoitem (id INTEGER PRIMARY KEY AUTOINCREMENT,"
+            + "title TEXT NOT NULL, category_id TEXT NOT NULL, due_time TEXT,"
+            + "is_completed INTEGER DEFAULT 0)";
+
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        db = SQLiteDatabase.create(null);
+        db.execSQL(SQL_CREATE_V1);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void steps_coverEveryVersionInOrder() {
+        int expected = 2;
+        for (TodoMigrations.Step step : TodoMigrations.STEPS) {
+            assertEquals(step.description, expected++, step.toVersion);
+        }
+        assertEquals(TodoItemDbHelper.DATABASE_VERSION + 1, expected);
+    }
+
+    @Test
+    public void step2_addsFilterIndexes() {
+        insertV1("a", "WORK", "09:00", false);
+
+        TodoMigrations.migrate(db, 1, 2);
+
+        assertEquals(3, indexCount());
+        assertEquals(1, DatabaseUtils.queryNumEntries(db, TodoItemDbHelper.TABLE_NAME));
+    }
+
+    @Test
+    public void step3_addsCategoryPageIndex() {
+        upgradeTo(2);
+
+        TodoMigrations.migrate(db, 2, 3);
+
+        assertEquals(4, indexCount());
+        assertEquals(1, DatabaseUtils.queryNumEntries(db, "sqlite_master",
+                "type = 'index' AND name = ?", new String[]{TodoItemDbHelper.INDEX_CATEGORY_DUE}));
+    }
+
+    @Test
+    public void step4_convertsDueTimeToMinutesAndKeepsIndexes() {
+        insertV1("a", "WORK", "09:00", false);
+        insertV1("b", "ETC", null, false);
+        insertV1("c", "STUDY", "7:05", false);
+        insertV1("d", "STUDY", "25:00", false);
+        upgradeTo(3);
+
+        TodoMigrations.migrate(db, 3, 4);
+
+        assertEquals(4, DatabaseUtils.queryNumEntries(db, TodoItemDbHelper.TABLE_NAME));
+        assertEquals(540, DatabaseUtils.longForQuery(db, "SELECT due_time FROM todoitem WHERE title = 'a'", null));
+        assertEquals(425, DatabaseUtils.longForQuery(db, "SELECT due_time FROM todoitem WHERE title = 'c'", null));
+        assertEquals(2, DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM todoitem WHERE due_time IS NULL", null));
+        assertEquals(2, DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM todoitem WHERE typeof(due_time) = 'integer'", null));
+        // 테이블을 교체해도 v2, v3 인덱스가 다시 만들어짐
+        assertEquals(4, indexCount());
+    }
+
+    @Test
+    public void step5_indexesExistingTitlesForSearch() {
+        insertV1("장보기 목록", "ETC", null, false);
+        insertV1("회의 준비", "WORK", "10:00", false);
+        upgradeTo(4);
+
+        TodoMigrations.migrate(db, 4, 5);
+
+        assertEquals(1, DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM todoitem_fts WHERE todoitem_fts MATCH '회의*'", null));
+        // 이후 수정은 트리거가 색인에 반영
+        db.execSQL("UPDATE todoitem SET title = '주간 회의' WHERE title = '장보기 목록'");
+        assertEquals(2, DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM todoitem_fts WHERE todoitem_fts MATCH '회의*'", null));
+    }
+
+    @Test
+    public void step6_addsEmptyDateColumnsAndIndexes() {
+        insertV1("a", "WORK", "09:00", false);
+        upgradeTo(5);
+
+        TodoMigrations.migrate(db, 5, 6);
+
+        assertEquals(1, DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM todoitem WHERE due_date IS NULL AND recurrence IS NULL", null));
+        assertEquals(2, DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name IN ('"
+                        + TodoItemDbHelper.INDEX_DATE_DUE + "', '" + TodoItemDbHelper.INDEX_RECURRING + "')",
+                null));
+    }
+
+    @Test
+    public void step7_movesCategoryNamesToTableAndCountsItems() {
+        insertV1("a", "WORK", null, false);
+        insertV1("b", "work", null, true);
+        insertV1("c", "HOBBY", null, false);
+        insertV1("d", "", null, false);
+        upgradeTo(6);
+
+        TodoMigrations.migrate(db, 6, 7);
+
+        // 대소문자만 다른 이름은 한 카테고리로, 빈 이름은 ETC 로
+        assertEquals(4, DatabaseUtils.queryNumEntries(db, TodoItemDbHelper.CATEGORY_TABLE_NAME));
+        assertEquals(2, categoryCount("WORK", TodoItemDbHelper.CATEGORY_COLUMN_TOTAL));
+        assertEquals(1, categoryCount("WORK", TodoItemDbHelper.CATEGORY_COLUMN_OPEN));
+        assertEquals(1, categoryCount("HOBBY", TodoItemDbHelper.CATEGORY_COLUMN_TOTAL));
+        assertEquals(1, categoryCount("ETC", TodoItemDbHelper.CATEGORY_COLUMN_TOTAL));
+        assertEquals(0, DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM todoitem WHERE typeof(category_id) <> 'integer'", null));
+
+        // 업그레이드 뒤의 변경은 트리거가 카운터와 검색 색인에 반영
+        db.execSQL("UPDATE todoitem SET is_completed = 1, title = 'cc' WHERE title = 'c'");
+        assertEquals(0, categoryCount("HOBBY", TodoItemDbHelper.CATEGORY_COLUMN_OPEN));
+        assertEquals(1, DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM todoitem_fts WHERE todoitem_fts MATCH 'cc'", null));
+    }
+
+    @Test
+    public void step8_addsTombstoneColumnAndCountsOnlyLiveItems() {
+        insertV1("a", "WORK", "09:00", false);
+        insertV1("b", "WORK", null, false);
+        upgradeTo(7);
+
+        TodoMigrations.migrate(db, 7, 8);
+
+        assertEquals(0, DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM todoitem WHERE deleted_at IS NOT NULL", null));
+        // 목록 인덱스는 살아 있는 항목만 담는 부분 인덱스로 바뀜
+        assertEquals(1, DatabaseUtils.longForQuery(db, "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index'"
+                + " AND name = ? AND sql LIKE '%deleted_at IS NULL%'", new String[]{TodoItemDbHelper.INDEX_DUE}));
+
+        // 삭제 표시하면 카운터에서 빠지고, 되살리면 다시 셈
+        db.execSQL("UPDATE todoitem SET deleted_at = 1 WHERE title = 'a'");
+        assertEquals(1, categoryCount("WORK", TodoItemDbHelper.CATEGORY_COLUMN_TOTAL));
+        assertEquals(1, categoryCount("WORK", TodoItemDbHelper.CATEGORY_COLUMN_OPEN));
+        // 삭제 표시된 항목의 수정은 카운터에 영향 없음
+        db.execSQL("UPDATE todoitem SET is_completed = 1 WHERE title = 'a'");
+        assertEquals(1, categoryCount("WORK", TodoItemDbHelper.CATEGORY_COLUMN_OPEN));
+        db.execSQL("UPDATE todoitem SET deleted_at = NULL WHERE title = 'a'");
+        assertEquals(2, categoryCount("WORK", TodoItemDbHelper.CATEGORY_COLUMN_TOTAL));
+        assertEquals(1, categoryCount("WORK", TodoItemDbHelper.CATEGORY_COLUMN_OPEN));
+        TodoMigrations.verify(db, 8);
+    }
+
+    @Test
+    public void fullUpgrade_matchesFreshSchema() {
+        insertV1("a", "WORK", "09:00", false);
+        upgradeTo(TodoItemDbHelper.DATABASE_VERSION);
+
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        TodoItemDbHelper helper = new TodoItemDbHelper(context, null);
+        try {
+            SQLiteDatabase fresh = helper.getWritableDatabase();
+            // 인덱스·트리거는 정의까지, 테이블은 열 구성까지 같아야 함 (교체한 테이블은 CREATE 문이 이름만 다름)
+            assertEquals(schema(fresh), schema(db));
+            assertEquals(columns(fresh, TodoItemDbHelper.TABLE_NAME), columns(db, TodoItemDbHelper.TABLE_NAME));
+            assertEquals(columns(fresh, TodoItemDbHelper.CATEGORY_TABLE_NAME),
+                    columns(db, TodoItemDbHelper.CATEGORY_TABLE_NAME));
+        } finally {
+            helper.close();
+        }
+    }
+
+    @Test
+    public void verify_rejectsStaleSearchIndexAndCounters() {
+        insertV1("a", "WORK", null, false);
+        upgradeTo(TodoItemDbHelper.DATABASE_VERSION);
+        TodoMigrations.verify(db, TodoItemDbHelper.DATABASE_VERSION);
+
+        // 색인을 갱신하지 않고 제목을 바꿈
+        db.execSQL("DROP TRIGGER todoitem_fts_au");
+        db.execSQL("UPDATE todoitem SET title = 'b'");
+        assertVerifyFails();
+
+        db.execSQL("INSERT INTO todoitem_fts (todoitem_fts) VALUES ('rebuild')");
+        TodoMigrations.verify(db, TodoItemDbHelper.DATABASE_VERSION);
+
+        db.execSQL("UPDATE category SET total_count = total_count + 1 WHERE name = 'WORK'");
+        assertVerifyFails();
+    }
+
+    // --- helpers ---
+
+    private void insertV1(String title, String category, String dueTime, boolean completed) {
+        db.execSQL("INSERT INTO todoitem (title, category_id, due_time, is_completed) VALUES (?, ?, ?, ?)",
+                new Object[]{title, category, dueTime, completed ? 1 : 0});
+    }
+
+    private void upgradeTo(int version) {
+        TodoMigrations.migrate(db, 1, version);
+    }
+
+    private void assertVerifyFails() {
+        try {
+            TodoMigrations.verify(db, TodoItemDbHelper.DATABASE_VERSION);
+            fail("어긋난 상태를 통과시킴");
+        } catch (SQLiteException expected) {
+            // 정상
+        }
+    }
+
+    private long indexCount() {
+        return DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name LIKE 'idx_todoitem_%'", null);
+    }
+
+    private long categoryCount(String name, String column) {
+        return DatabaseUtils.longForQuery(db, "SELECT " + column + " FROM "
+                + TodoItemDbHelper.CATEGORY_TABLE_NAME + " WHERE "
+                + TodoItemDbHelper.CATEGORY_COLUMN_NAME + " = ?", new String[]{name});
+    }
+
+    // 테이블은 이름만, 인덱스·트리거는 정의까지
+    private static List<String> schema(SQLiteDatabase database) {
+        List<String> entries = new ArrayList<>();
+        try (Cursor cursor = database.rawQuery("SELECT type, name, sql FROM sqlite_master"
+                + " WHERE name NOT LIKE 'sqlite_autoindex_%' ORDER BY type, name", null)) {
+            while (cursor.moveToNext()) {
+                String type = cursor.getString(0);
+                entries.add(type + " " + cursor.getString(1) + ("table".equals(type) ? "" : " " + cursor.getString(2)));
+            }
+        }
+        assertTrue(entries.size() > 0);
+        return entries;
+    }
+
+    private static List<String> columns(SQLiteDatabase database, String table) {
+        List<String> columns = new ArrayList<>();
+        try (Cursor cursor = database.rawQuery("PRAGMA table_info(" + table + ")", null)) {
+            while (cursor.moveToNext()) {
+                columns.add(cursor.getString(cursor.getColumnIndexOrThrow("name")) + " "
+                        + cursor.getString(cursor.getColumnIndexOrThrow("type")) + " "
+                        + cursor.getInt(cursor.getColumnIndexOrThrow("notnull")) + " "
+                        + cursor.getString(cursor.getColumnIndexOrThrow("dflt_value")) + " "
+                        + cursor.getInt(cursor.getColumnIndexOrThrow("pk")));
+            }
+        }
+        return columns;
+    }
+}
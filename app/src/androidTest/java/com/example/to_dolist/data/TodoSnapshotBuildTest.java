@@ -0,0 +1,111 @@
+package com.example.to_dolist.data;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 위젯 스냅샷 만들기: 알람과 같은 순서로 앞의 몇 개만 고르고, 완료·삭제 표시·지난 항목은 빼는지 확인합니다.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TodoSnapshotBuildTest {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+    private static final long TODAY = 19_900;
+    // 오늘 12:00 (UTC)
+    private static final long NOW = TODAY * DAY_MS + 12 * 60 * 60 * 1000L;
+
+    private TodoItemDataSource dataSource;
+    private long work;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dataSource = new TodoItemDataSource(new TodoItemDbHelper(context, null));
+        dataSource.open();
+        work = dataSource.getOrCreateCategory("WORK");
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    public void build_ordersByNextTriggerAndSkipsClosedItems() {
+        long later = dataSource.createTask(new TodoItem("오늘 오후", work, 13 * 60, false));
+        long tomorrow = dataSource.createTask(new TodoItem("내일 오전", work, 11 * 60, false));
+        long dated = dataSource.createTask(dated("내일 아침", TODAY + 1, 8 * 60));
+        dataSource.createTask(dated("어제 일", TODAY - 1, 10 * 60));
+        dataSource.createTask(new TodoItem("끝난 일", work, 12 * 60 + 30, true));
+        dataSource.deleteTask(dataSource.createTask(new TodoItem("지운 일", work, 12 * 60 + 45, false)));
+        dataSource.createTask(new TodoItem("시간 없음", work, TodoItem.NO_DUE_TIME, false));
+        TodoItem daily = dated("매일", TODAY, 12 * 60 + 10);
+        daily.setRecurrence(Recurrence.daily());
+        long recurring = dataSource.createTask(daily);
+
+        TodoSnapshot snapshot = TodoSnapshot.build(dataSource, NOW, UTC);
+
+        assertEquals(ids(recurring, later, dated, tomorrow), ids(snapshot));
+        assertEquals(NOW + 10 * 60 * 1000L, snapshot.getEntries().get(0).getTriggerAt());
+        // 시간 없는 항목과 지난 날짜 항목도 남은 수에는 포함 (완료·삭제 표시만 빠짐)
+        assertEquals(6, snapshot.getOpenCount());
+    }
+
+    @Test
+    public void build_keepsOnlyEarliestRows() {
+        List<TodoItem> items = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            // 절반은 오늘 12:01~, 절반은 내일 00:00~ 에 울림
+            int minute = i % 2 == 0 ? 12 * 60 + 1 + i : i;
+            items.add(new TodoItem("항목 " + i, work, minute, false));
+        }
+        long[] inserted = dataSource.bulkInsert(items);
+
+        TodoSnapshot snapshot = TodoSnapshot.build(dataSource, NOW, UTC);
+
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < TodoSnapshot.MAX_ROWS * 2; i += 2) {
+            expected.add(inserted[i]);
+        }
+        assertEquals(expected, ids(snapshot));
+        assertEquals(40, snapshot.getOpenCount());
+    }
+
+    // --- helpers ---
+
+    private TodoItem dated(String title, long epochDay, int dueMinutes) {
+        TodoItem item = new TodoItem(title, work, dueMinutes, false);
+        item.setDueDate(epochDay);
+        return item;
+    }
+
+    private static List<Long> ids(long... ids) {
+        List<Long> list = new ArrayList<>();
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    private static List<Long> ids(TodoSnapshot snapshot) {
+        List<Long> list = new ArrayList<>();
+        for (TodoSnapshot.Entry entry : snapshot.getEntries()) {
+            list.add(entry.getItem().getId());
+        }
+        return list;
+    }
+}
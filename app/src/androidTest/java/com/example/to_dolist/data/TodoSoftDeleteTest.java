@@ -0,0 +1,261 @@
+package com.example.to_dolist.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 삭제 표시: 목록·검색·카운터에서 바로 빠지고 되살릴 수 있는지, 정리 작업이 오래된 것만 배치로 지우는지,
+ * 빈 페이지를 돌려주는지 확인합니다.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TodoSoftDeleteTest {
+
+    private static final String FILE_DB_NAME = "soft_delete_test.db";
+
+    private TodoItemDbHelper helper;
+    private SQLiteDatabase db;
+    private TodoItemDataSource dataSource;
+    private long work;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        helper = new TodoItemDbHelper(context, null);
+        dataSource = new TodoItemDataSource(helper);
+        dataSource.open();
+        db = helper.getWritableDatabase();
+        work = dataSource.getOrCreateCategory("WORK");
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    public void deleteTask_hidesRowUntilRestored() {
+        long id = dataSource.createTask(new TodoItem("회의 준비", work, 9 * 60, false));
+        dataSource.createTask(new TodoItem("회의록 정리", work, TodoItem.NO_DUE_TIME, false));
+
+        assertTrue(dataSource.deleteTask(id));
+        assertEquals(1, dataSource.getTasks(Category.ALL, false).size());
+        assertEquals(1, dataSource.getTasks(work, true).size());
+        assertEquals(0, dataSource.getUpcomingTasksForAlarm().size());
+        assertEquals(1, dataSource.searchTasks("회의", Category.ALL, false, 10, null).size());
+        assertEquals(1, dataSource.getTaskCount());
+        assertEquals(1, categoryOpenCount());
+        // 행은 남아 있음
+        assertEquals(2, DatabaseUtils.queryNumEntries(db, TodoItemDbHelper.TABLE_NAME));
+
+        List<TodoItem> restored = dataSource.restoreTasks(new long[]{id});
+        assertEquals(1, restored.size());
+        assertEquals(9 * 60, restored.get(0).getDueMinutes());
+        assertEquals(2, dataSource.getTasks(Category.ALL, false).size());
+        assertEquals(2, dataSource.searchTasks("회의", Category.ALL, false, 10, null).size());
+        assertEquals(2, categoryOpenCount());
+        // 이미 살아 있는 항목은 다시 되살리지 않음
+        assertEquals(0, dataSource.restoreTasks(new long[]{id}).size());
+    }
+
+    @Test
+    public void updates_skipDeletedRows() {
+        long id = dataSource.createTask(new TodoItem("위젯에서 완료", work, 9 * 60, false));
+        long other = dataSource.createTask(new TodoItem("목록에서 완료", work, 10 * 60, false));
+        dataSource.deleteTask(id);
+
+        // 오래된 스냅샷에서 온 완료 처리
+        TodoItem stale = new TodoItem("위젯에서 완료", work, 9 * 60, true);
+        stale.setId(id);
+        assertFalse(dataSource.updateTask(stale));
+        TodoItem live = new TodoItem("목록에서 완료", work, 10 * 60, true);
+        live.setId(other);
+        List<TodoItem> skipped = dataSource.bulkUpdate(Arrays.asList(stale, live));
+
+        assertEquals(1, skipped.size());
+        assertEquals(id, skipped.get(0).getId());
+        assertEquals(0, categoryOpenCount());
+        // 삭제 표시된 행은 그대로 미완료이므로 되살리면 원래 상태
+        List<TodoItem> restored = dataSource.restoreTasks(new long[]{id});
+        assertFalse(restored.get(0).isCompleted());
+    }
+
+    @Test
+    public void bulkDelete_isUndoneByRestore() {
+        List<TodoItem> items = new ArrayList<>();
+        for (int i = 0; i < 1_200; i++) {
+            items.add(new TodoItem("항목 " + i, work, i % 1440, i % 2 == 0));
+        }
+        dataSource.bulkInsert(items);
+
+        List<TodoItem> deleted = dataSource.bulkDelete(work, true);
+        assertEquals(600, deleted.size());
+        assertEquals(600, dataSource.getTaskCount());
+        // 이미 삭제 표시된 항목은 다시 대상이 되지 않음
+        assertEquals(0, dataSource.bulkDelete(work, true).size());
+
+        long[] ids = new long[deleted.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = deleted.get(i).getId();
+        }
+        // IN 목록을 나눠서 처리하는 경계를 넘는 수
+        assertEquals(600, dataSource.restoreTasks(ids).size());
+        assertEquals(1_200, dataSource.getTaskCount());
+        TodoMigrations.verify(db, TodoItemDbHelper.DATABASE_VERSION);
+    }
+
+    @Test
+    public void purgeDeleted_removesOldTombstonesInBatches() {
+        long[] ids = dataSource.bulkInsert(Arrays.asList(
+                new TodoItem("a", work, TodoItem.NO_DUE_TIME, false),
+                new TodoItem("b", work, TodoItem.NO_DUE_TIME, false),
+                new TodoItem("c", work, TodoItem.NO_DUE_TIME, false),
+                new TodoItem("d", work, TodoItem.NO_DUE_TIME, false)));
+        markDeletedAt(ids[0], 1_000);
+        markDeletedAt(ids[1], 2_000);
+        markDeletedAt(ids[2], 9_000);
+
+        assertEquals(1, dataSource.purgeDeleted(5_000, 1));
+        assertEquals(1, dataSource.purgeDeleted(5_000, 1));
+        assertEquals(0, dataSource.purgeDeleted(5_000, 1));
+        // 기준 시각 이후에 지운 항목은 아직 되살릴 수 있음
+        assertEquals(2, DatabaseUtils.queryNumEntries(db, TodoItemDbHelper.TABLE_NAME));
+        assertEquals(1, dataSource.restoreTasks(new long[]{ids[0], ids[2]}).size());
+        // 영구 삭제하면 검색 색인에서도 빠짐
+        TodoMigrations.verify(db, TodoItemDbHelper.DATABASE_VERSION);
+        assertEquals(2, DatabaseUtils.longForQuery(db, "SELECT COUNT(*) FROM " + TodoItemDbHelper.FTS_TABLE_NAME, null));
+    }
+
+    @Test
+    public void purgeAndListQueries_usePartialIndexes() {
+        List<String> purge = explain("SELECT id FROM todoitem WHERE deleted_at < ? ORDER BY deleted_at LIMIT ?",
+                "1000", "500");
+        assertTrue(purge.toString(), contains(purge, "INDEX " + TodoItemDbHelper.INDEX_DELETED));
+        assertTrue(purge.toString(), !contains(purge, "TEMP B-TREE"));
+
+        List<String> list = explain(TodoItemQuery.ALL.sql);
+        assertTrue(list.toString(), contains(list, "INDEX " + TodoItemDbHelper.INDEX_DUE));
+    }
+
+    @Test
+    public void deleteCategory_purgesItsTombstones() {
+        long hobby = dataSource.createCategory("HOBBY");
+        long id = dataSource.createTask(new TodoItem("기타 연습", hobby, TodoItem.NO_DUE_TIME, false));
+
+        dataSource.deleteTask(id);
+        assertTrue(dataSource.deleteCategory(hobby));
+        assertEquals(0, DatabaseUtils.queryNumEntries(db, TodoItemDbHelper.TABLE_NAME));
+    }
+
+    @Test
+    public void import_revivesTombstoneWithSameId() throws IOException {
+        long id = dataSource.createTask(new TodoItem("백업 항목", work, TodoItem.NO_DUE_TIME, false));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TodoBackupWriter writer = TodoBackupFormat.BINARY.newWriter(bytes)) {
+            dataSource.exportTo(writer);
+        }
+        dataSource.deleteTask(id);
+
+        TodoBackup.ImportResult result = new TodoBackup.ImportResult();
+        try (TodoBackupReader reader = TodoBackupFormat.openReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+            dataSource.importFrom(reader, TodoBackup.IdConflict.KEEP_EXISTING, result);
+        }
+
+        assertEquals(1, result.getInserted());
+        assertEquals(1, dataSource.getTasks(Category.ALL, false).size());
+        assertEquals(id, dataSource.getTasks(Category.ALL, false).get(0).getId());
+    }
+
+    @Test
+    public void newDatabase_startsInIncrementalAutoVacuum() {
+        assertEquals(TodoItemDbHelper.AUTO_VACUUM_INCREMENTAL,
+                DatabaseUtils.longForQuery(db, "PRAGMA auto_vacuum", null));
+
+        // 파일 DB 는 WAL 로 열려 onCreate 전에 머리말이 쓰이므로 따로 확인
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(FILE_DB_NAME);
+        TodoItemDbHelper fileHelper = new TodoItemDbHelper(context, FILE_DB_NAME);
+        try {
+            SQLiteDatabase fileDb = fileHelper.getWritableDatabase();
+            assertEquals(TodoItemDbHelper.AUTO_VACUUM_INCREMENTAL,
+                    DatabaseUtils.longForQuery(fileDb, "PRAGMA auto_vacuum", null));
+        } finally {
+            fileHelper.close();
+            context.deleteDatabase(FILE_DB_NAME);
+        }
+    }
+
+    @Test
+    public void reclaimFreePages_shrinksOnceThenIncrementally() {
+        for (int round = 0; round < 2; round++) {
+            List<TodoItem> items = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                items.add(new TodoItem("긴 제목 " + i + " " + new String(new char[200]).replace('\0', 'x'),
+                        work, TodoItem.NO_DUE_TIME, false));
+            }
+            dataSource.bulkInsert(items);
+            dataSource.bulkDelete(Category.ALL, null);
+            while (dataSource.purgeDeleted(Long.MAX_VALUE, 500) > 0) {
+                // 모두 지울 때까지
+            }
+
+            assertTrue(DatabaseUtils.longForQuery(db, "PRAGMA freelist_count", null) > 0);
+            assertTrue(dataSource.reclaimFreePages(1) > 0);
+            assertEquals(0, DatabaseUtils.longForQuery(db, "PRAGMA freelist_count", null));
+            // 처음부터 증분 모드라 전체를 다시 쓰지 않음
+            assertEquals(TodoItemDbHelper.AUTO_VACUUM_INCREMENTAL,
+                    DatabaseUtils.longForQuery(db, "PRAGMA auto_vacuum", null));
+        }
+        assertEquals(0, dataSource.reclaimFreePages(1));
+    }
+
+    // --- helpers ---
+
+    private void markDeletedAt(long id, long deletedAt) {
+        db.execSQL("UPDATE todoitem SET deleted_at = ? WHERE id = ?", new Object[]{deletedAt, id});
+    }
+
+    private long categoryOpenCount() {
+        return DatabaseUtils.longForQuery(db, "SELECT " + TodoItemDbHelper.CATEGORY_COLUMN_OPEN + " FROM "
+                + TodoItemDbHelper.CATEGORY_TABLE_NAME + " WHERE " + TodoItemDbHelper.CATEGORY_COLUMN_ID + " = ?",
+                new String[]{String.valueOf(work)});
+    }
+
+    private List<String> explain(String sql, String... args) {
+        List<String> details = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, args)) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                details.add(cursor.getString(detail));
+            }
+        }
+        return details;
+    }
+
+    private static boolean contains(List<String> plan, String text) {
+        for (String line : plan) {
+            if (line.contains(text)) return true;
+        }
+        return false;
+    }
+}
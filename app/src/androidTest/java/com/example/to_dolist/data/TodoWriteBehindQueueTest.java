@@ -0,0 +1,143 @@
+package com.example.to_dolist.data;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * write-behind 큐: 연속 토글이 메인 스레드를 막지 않는지, 같은 id 의 토글이 마지막 상태로 합쳐지는지,
+ * 원래 상태로 돌아오면 쓰기 없이 대기열에서 빠지는지 확인합니다.
+ * 앱의 공유 DB 를 사용하므로 전용 카테고리로 넣고 끝나면 지웁니다.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TodoWriteBehindQueueTest {
+
+    private static final String TAG = "TodoWriteBehindQueueTest";
+    private static final String CATEGORY_NAME = "WRITE_BEHIND_TEST";
+    private static final int TASKS = 500;
+    private static final int TOGGLES_PER_TASK = 5;
+    // 토글 한 번에 허용하는 메인 스레드 시간 (프레임 예산 16ms 보다 충분히 작게)
+    private static final long MAX_TOGGLE_NS = 4_000_000L;
+
+    private Instrumentation instrumentation;
+    private TodoRepository repository;
+    private TodoItemDataSource dataSource;
+    private long category;
+    private final List<TodoItem> items = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+        Context context = instrumentation.getTargetContext();
+        repository = TodoRepository.getInstance(context);
+        dataSource = new TodoItemDataSource(context);
+        dataSource.open();
+        category = dataSource.getOrCreateCategory(CATEGORY_NAME);
+
+        List<TodoItem> seed = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            seed.add(new TodoItem("토글 " + i, category, TodoItem.NO_DUE_TIME, false));
+        }
+        long[] ids = dataSource.bulkInsert(seed);
+        for (int i = 0; i < TASKS; i++) {
+            TodoItem item = seed.get(i);
+            item.setId(ids[i]);
+            items.add(item);
+        }
+        repository.invalidateCache();
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.bulkDelete(category, null);
+        dataSource.deleteCategory(category);
+        dataSource.close();
+        repository.invalidateCache();
+    }
+
+    @Test
+    public void rapidToggles_coalesceToLastStateWithoutBlockingMainThread() throws Exception {
+        long[] worstNs = {0};
+        instrumentation.runOnMainSync(() -> {
+            TodoWriteBehindQueue queue = repository.getWriteBehindQueue();
+            for (int round = 0; round < TOGGLES_PER_TASK; round++) {
+                for (TodoItem item : items) {
+                    TodoItem before = new TodoItem(item);
+                    item.setCompleted(!item.isCompleted());
+                    long start = System.nanoTime();
+                    queue.update(before, item);
+                    worstNs[0] = Math.max(worstNs[0], System.nanoTime() - start);
+                }
+            }
+            queue.flush();
+        });
+
+        // writer 스레드는 순서대로 실행되므로 flush 뒤의 쓰기가 끝나면 커밋도 끝난 상태
+        List<TodoItem> stored = deleteAndCollect();
+        int completed = 0;
+        for (TodoItem item : stored) {
+            if (item.isCompleted()) completed++;
+        }
+
+        Bundle status = new Bundle();
+        status.putDouble("write_behind_worst_toggle_ms", worstNs[0] / 1e6);
+        instrumentation.sendStatus(0, status);
+        Log.i(TAG, "토글 " + TASKS * TOGGLES_PER_TASK + "회, 최악 " + worstNs[0] / 1e6 + "ms");
+
+        assertEquals(TASKS, stored.size());
+        // 홀수 번 토글 → 모두 완료 상태
+        assertEquals(TASKS, completed);
+        assertTrue("토글이 메인 스레드를 오래 막음: " + worstNs[0] / 1e6 + "ms", worstNs[0] < MAX_TOGGLE_NS);
+    }
+
+    @Test
+    public void toggleBack_dropsPendingWrite() {
+        boolean[] observed = new boolean[2];
+        instrumentation.runOnMainSync(() -> {
+            TodoWriteBehindQueue queue = repository.getWriteBehindQueue();
+            TodoItem item = items.get(0);
+
+            TodoItem before = new TodoItem(item);
+            item.setCompleted(true);
+            queue.update(before, item);
+            observed[0] = queue.pendingState(item.getId()).isCompleted();
+
+            TodoItem checked = new TodoItem(item);
+            item.setCompleted(false);
+            queue.update(checked, item);
+            observed[1] = queue.hasPending();
+        });
+
+        assertTrue("낙관적 상태가 보이지 않음", observed[0]);
+        assertFalse("원래 상태로 돌아왔는데 쓰기가 남아 있음", observed[1]);
+    }
+
+    private List<TodoItem> deleteAndCollect() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        List<TodoItem> result = new ArrayList<>();
+        repository.bulkDelete(category, null, deleted -> {
+            result.addAll(deleted);
+            done.countDown();
+        });
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        return result;
+    }
+}
@@ -1,15 +1,23 @@
 package com.example.to_dolist;
 
 import android.app.AlarmManager;
+import android.app.AlertDialog;
+import android.app.DatePickerDialog;
 import android.app.TimePickerDialog;
 import android.content.Context;
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
 import android.graphics.Color;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.StrictMode;
 import android.provider.Settings;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.util.Log;
+import android.util.LongSparseArray;
+import android.view.Choreographer;
 import android.view.View;
 import android.widget.ArrayAdapter;
 import android.widget.CheckBox;
@@ -19,83 +27,196 @@ import android.widget.LinearLayout;
 import android.widget.Spinner;
 import android.widget.TextView;
 import android.widget.Toast;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 import com.example.to_dolist.alarm.AlarmScheduler;
+import com.example.to_dolist.data.Category;
+import com.example.to_dolist.data.Recurrence;
+import com.example.to_dolist.data.TodoBackup;
+import com.example.to_dolist.data.TodoBackupFormat;
+import com.example.to_dolist.data.TodoChangeBus;
+import com.example.to_dolist.data.TodoChangeEvent;
+import com.example.to_dolist.data.TodoCompactionJob;
 import com.example.to_dolist.data.TodoItem;
-import com.example.to_dolist.data.TodoItemDataSource;
-import com.example.to_dolist.data.TodoItemView;
-
+import com.example.to_dolist.data.TodoItemAdapter;
+import com.example.to_dolist.data.TodoItemPager;
+import com.example.to_dolist.data.TodoItemSearch;
+import com.example.to_dolist.data.TodoRepository;
+import com.example.to_dolist.metrics.Metrics;
+import com.google.android.material.snackbar.Snackbar;
+
+import java.time.LocalDate;
+import java.time.format.TextStyle;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class MainActivity extends AppCompatActivity {
 
     private static final String TAG = "MainActivity";
 
+    // 첫 페이지가 오기 전 첫 프레임에 보여줄 자리 표시 행 수
+    private static final int SKELETON_ROWS = 12;
+
+    // 첫 프레임과 무관한 준비 작업(알람 권한 조회 등)을 메인 스레드 밖에서 실행
+    private static final ExecutorService STARTUP_EXECUTOR = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "startup-warmup"));
+
     // 데이터 및 UI 요소
-    private TodoItemDataSource dataSource;
-    private LinearLayout todoListContainer;
+    private TodoRepository repository;
+    private RecyclerView todoRecyclerView;
+    private TextView todoEmptyView;
+    private TodoItemAdapter todoAdapter;
     private EditText todoInputField;
     private EditText dateInputField;
     private Spinner categorySpinner;
     private CheckBox filterUncompleted;
-
-    // 필터 TextView
-    private TextView filterAll, filterWork, filterStudy, filterEtc;
+    private EditText searchInputField;
+
+    // 필터 칩 (category 테이블에서 생성). 카테고리 구성이 같으면 칩은 그대로 두고 개수만 갱신
+    private LinearLayout filterChipContainer;
+    private final LongSparseArray<TextView> filterChips = new LongSparseArray<>();
+    private List<Category> categories = Collections.emptyList();
+    // 늦게 도착한 카테고리 조회 결과가 더 최신 결과를 덮지 않도록
+    private int categoryLoadCount = 0;
     private final int COLOR_SELECTED = Color.parseColor("#4285F4");
     private final int COLOR_UNSELECTED = Color.parseColor("#E0E0E0");
 
     // 현재 필터 상태
-    private String currentCategoryFilter = "ALL";
+    private long currentCategoryFilter = Category.ALL;
     private boolean isUncompletedFilterActive = false;
 
     // 앱 초기화 완료 상태 플래그
     private boolean isAppInitialized = false;
 
+    // 새 항목의 날짜(epoch day)와 반복 규칙 (시간 버튼을 길게 눌러 날짜, 시간 선택 뒤 반복을 고름)
+    private long selectedDueDate = TodoItem.NO_DUE_DATE;
+    private Recurrence selectedRecurrence = null;
+
+    // updateTodoListUI 호출 수 (Trace 비동기 구간의 cookie)
+    private int listSubmitCount = 0;
+
+    // 첫 실제 목록을 그린 뒤 reportFullyDrawn 을 한 번만 호출 (TTFD 측정)
+    private boolean isFullyDrawnReported = false;
+
+    // 현재 필터의 페이지 로더 (필터가 바뀌면 새로 만듦)
+    private TodoItemPager pager;
+
+    // 제목 검색 (검색어가 있으면 페이지 목록 대신 검색 결과를 보여줌)
+    private TodoItemSearch search;
+
+    // 백업 파일 선택 (SAF). 내보내기는 형식마다 MIME 타입이 달라 런처를 따로 둠
+    private final ActivityResultLauncher<String> exportBinaryLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(TodoBackupFormat.BINARY.mimeType),
+            uri -> exportTasks(uri, TodoBackupFormat.BINARY));
+    private final ActivityResultLauncher<String> exportJsonLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(TodoBackupFormat.JSON_LINES.mimeType),
+            uri -> exportTasks(uri, TodoBackupFormat.JSON_LINES));
+    private final ActivityResultLauncher<String[]> importLauncher = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), this::confirmImport);
+
+    // 저장소 변경 이벤트 (프레임 단위로 묶여 전달됨) → 바뀐 행만 반영
+    private final TodoChangeBus.Listener changeListener = this::onTodoChanges;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        setContentView(R.layout.activity_main);
+        enableStrictModeForDebug();
 
-        // 데이터베이스 초기화 (아직 open은 하지 않음)
-        dataSource = new TodoItemDataSource(this);
+        // 비동기 저장소: 레이아웃을 inflate 하는 동안 writer 스레드에서 DB 를 미리 연다
+        repository = TodoRepository.getInstance(this);
+        repository.warmUp();
+        // 삭제 표시 정리 작업 등록 (JobScheduler 조회는 시스템 서비스 IPC 라 메인 스레드 밖에서)
+        STARTUP_EXECUTOR.execute(() -> TodoCompactionJob.schedule(getApplicationContext()));
+
+        setContentView(R.layout.activity_main);
 
         // UI 요소 초기화 (onResume 전에 findViewById를 해야 setupApp에서 NullPointerException 방지)
-        todoListContainer = findViewById(R.id.todo_list_container);
+        todoRecyclerView = findViewById(R.id.todo_recycler_view);
+        todoEmptyView = findViewById(R.id.todo_empty_view);
         todoInputField = findViewById(R.id.todo_input_field);
         dateInputField = findViewById(R.id.date_input_field);
         categorySpinner = findViewById(R.id.input_category_spinner);
         filterUncompleted = findViewById(R.id.filter_uncompeleted);
+        searchInputField = findViewById(R.id.search_input_field);
 
         initializeFiltersUI();
+        initializeTodoList();
+
+        // 첫 프레임은 자리 표시 행으로 그리고, 첫 페이지 조회는 바로 백그라운드에서 시작 (권한 확인을 기다리지 않음)
+        updateTodoListUI(Collections.<TodoItem>nCopies(SKELETON_ROWS, null));
+        applyFilters();
+        loadCategories();
+
+        repository.getChangeBus().subscribe(changeListener);
+        AlarmScheduler.observeChanges(this, repository.getChangeBus());
+        repository.getWriteBehindQueue().setRollbackListener(this::onWritesRolledBack);
+        // 모아 쓴 수정(완료 체크 등)은 쓰기가 끝나야 카운터가 바뀌므로 그때 개수를 다시 읽음
+        repository.getWriteBehindQueue().setCommitListener(committed -> loadCategories());
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        // onResume 시마다 DB를 열고 권한을 확인하여 앱을 설정합니다.
-        dataSource.open();
-        checkAndSetupApp();
+        // onResume 시마다 권한을 확인하여 앱을 설정합니다. (첫 프레임이 그려진 뒤로 미룸)
+        Choreographer.getInstance().postFrameCallback(frameTimeNanos ->
+                todoRecyclerView.post(this::checkAndSetupApp));
     }
 
     @Override
     protected void onPause() {
         super.onPause();
-        // 일시 중지 시 DB 연결을 닫습니다.
-        dataSource.close();
+        // 화면을 벗어나면 모아 둔 수정을 바로 DB 에 씀
+        repository.getWriteBehindQueue().flush();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        repository.getChangeBus().unsubscribe(changeListener);
+        repository.getWriteBehindQueue().setRollbackListener(null);
+        repository.getWriteBehindQueue().setCommitListener(null);
+        if (search != null) {
+            search.cancel();
+        }
+    }
+
+    // 디버그 빌드에서는 메인 스레드 디스크 I/O 를 로그로 감지
+    private void enableStrictModeForDebug() {
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) == 0) return;
+
+        StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .penaltyLog()
+                .build());
     }
 
     /**
      * 알람 권한을 확인하고, 권한이 있다면 앱의 주요 기능을 초기화합니다.
+     * 권한 조회(시스템 서비스 IPC)는 백그라운드에서 하고 결과만 메인 스레드에서 처리합니다.
      */
     private void checkAndSetupApp() {
+        if (isFinishing() || isDestroyed()) return;
+        final AlarmManager alarmManager = (AlarmManager) getSystemService(Context.ALARM_SERVICE);
+        STARTUP_EXECUTOR.execute(() -> {
+            boolean canScheduleExact = alarmManager.canScheduleExactAlarms();
+            runOnUiThread(() -> onExactAlarmPermissionChecked(canScheduleExact));
+        });
+    }
+
+    private void onExactAlarmPermissionChecked(boolean canScheduleExact) {
+        if (isFinishing() || isDestroyed()) return;
         boolean canSchedule = true;
 
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-            AlarmManager alarmManager = (AlarmManager) getSystemService(Context.ALARM_SERVICE);
-
-            if (!alarmManager.canScheduleExactAlarms()) {
+            if (!canScheduleExact) {
                 canSchedule = false;
 
                 // **권한 요청**
@@ -113,8 +234,8 @@ public class MainActivity extends AppCompatActivity {
             setupAppFunctionality();
             isAppInitialized = true;
         } else if (canSchedule) {
-            // 권한이 있고 이미 초기화된 경우, 목록만 새로고침 (onResume 재진입 시)
-            applyFilters();
+            // 권한이 있고 이미 초기화된 경우, 다른 곳에서 DB 가 바뀌었을 때만 목록 새로고침 (onResume 재진입 시)
+            repository.revalidate(this::refreshList);
         } else {
             // 권한이 없는 경우, 알람/추가 버튼 비활성화 등의 처리 (선택 사항)
             Toast.makeText(this, "알람 기능 사용 불가: 권한을 허용해 주세요.", Toast.LENGTH_SHORT).show();
@@ -122,19 +243,21 @@ public class MainActivity extends AppCompatActivity {
     }
 
     /**
-     * 권한 확인 후 실행되는 앱의 주요 초기화 로직입니다.
+     * 권한 확인 후 실행되는 앱의 주요 초기화 로직입니다. (목록은 onCreate 에서 이미 읽기 시작함)
      */
     private void setupAppFunctionality() {
         // 1. 시간 선택 기능 초기화
         ImageButton datePickerButton = findViewById(R.id.date_picker_button);
         datePickerButton.setOnClickListener(v -> showTimePickerDialog());
+        datePickerButton.setOnLongClickListener(v -> {
+            showDatePickerDialog();
+            return true;
+        });
 
-        // 2. 상단 필터링 및 카테고리 스피너 초기화
-        initializeCategorySpinner();
-
-        // 미완료 필터 체크박스 리스너
+        // 2. 미완료 필터 체크박스 리스너
         filterUncompleted.setOnCheckedChangeListener((buttonView, isChecked) -> {
             isUncompletedFilterActive = isChecked;
+            updateFilterChipCounts();
             applyFilters();
         });
 
@@ -142,53 +265,286 @@ public class MainActivity extends AppCompatActivity {
         ImageButton addTodoButton = findViewById(R.id.add_todo_button);
         addTodoButton.setOnClickListener(v -> addNewTodoItem());
 
-        // 초기 데이터 로드 (필터링 적용)
-        applyFilters();
+        // 4. 검색 입력 (입력이 멈추면 조회, 이전 검색은 취소)
+        initializeSearch();
+
+        // 5. 제목을 길게 누르면 백업(내보내기/가져오기)
+        findViewById(R.id.title_text).setOnLongClickListener(v -> {
+            showBackupMenu();
+            return true;
+        });
+
         Log.d(TAG, "앱 주요 기능 초기화 완료.");
     }
 
-    // onCreate에서 필터 UI만 미리 초기화
+    private void showBackupMenu() {
+        String[] actions = {"내보내기 (바이너리)", "내보내기 (JSON Lines)", "가져오기"};
+        new AlertDialog.Builder(this)
+                .setTitle("백업")
+                .setItems(actions, (dialog, which) -> {
+                    if (which == 0) {
+                        exportBinaryLauncher.launch(backupFileName(TodoBackupFormat.BINARY));
+                    } else if (which == 1) {
+                        exportJsonLauncher.launch(backupFileName(TodoBackupFormat.JSON_LINES));
+                    } else {
+                        importLauncher.launch(new String[]{"*/*"});
+                    }
+                })
+                .show();
+    }
+
+    private static String backupFileName(TodoBackupFormat format) {
+        return "todolist-" + LocalDate.now() + "." + format.extension;
+    }
+
+    private void exportTasks(Uri uri, TodoBackupFormat format) {
+        if (uri == null) return; // 파일 선택 취소
+        repository.exportTasks(uri, format, rows -> Toast.makeText(this,
+                rows < 0 ? "내보내기에 실패했습니다." : rows + "개 항목을 내보냈습니다.", Toast.LENGTH_SHORT).show());
+    }
+
+    // 같은 id 의 항목이 이미 있을 때의 처리를 고른 뒤 가져오기
+    private void confirmImport(Uri uri) {
+        if (uri == null) return;
+        String[] choices = {"기존 항목 유지", "백업으로 덮어쓰기", "둘 다 유지"};
+        TodoBackup.IdConflict[] policies = {
+                TodoBackup.IdConflict.KEEP_EXISTING, TodoBackup.IdConflict.REPLACE, TodoBackup.IdConflict.KEEP_BOTH};
+        new AlertDialog.Builder(this)
+                .setTitle("같은 항목이 있으면")
+                .setItems(choices, (dialog, which) -> repository.importTasks(uri, policies[which], this::onImported))
+                .show();
+    }
+
+    // 가져온 행은 변경 이벤트로 오지 않으므로 목록·카운터·알람을 한 번에 다시 만듦
+    private void onImported(TodoBackup.ImportResult result) {
+        Toast.makeText(this, "가져오기: " + result, Toast.LENGTH_LONG).show();
+        refreshList();
+        loadCategories();
+        AlarmScheduler.rehydrate(this, "import");
+    }
+
+    // onCreate에서 필터 UI만 미리 초기화 (칩은 카테고리를 읽은 뒤 onCategoriesLoaded 에서 생성)
     private void initializeFiltersUI() {
-        filterAll = findViewById(R.id.filter_all);
-        filterWork = findViewById(R.id.filter_work);
-        filterStudy = findViewById(R.id.filter_study);
-        filterEtc = findViewById(R.id.filter_etc);
-
-        // 기본 상태: 'ALL' 선택
-        if (filterAll != null) {
-            filterAll.setBackgroundColor(COLOR_SELECTED);
-            filterAll.setOnClickListener(createFilterClickListener("ALL"));
+        filterChipContainer = findViewById(R.id.filter_chip_container);
+    }
+
+    /**
+     * 카테고리와 항목 수를 다시 읽어 필터 칩과 입력 스피너에 반영합니다.
+     * 항목 수는 트리거가 유지하는 카운터라 카테고리 행만 읽습니다.
+     */
+    private void loadCategories() {
+        final int request = ++categoryLoadCount;
+        repository.loadCategories(loaded -> {
+            if (request == categoryLoadCount) onCategoriesLoaded(loaded);
+        });
+    }
+
+    private void onCategoriesLoaded(List<Category> loaded) {
+        if (isDestroyed()) return;
+        boolean isSameSet = hasSameCategories(categories, loaded);
+        categories = loaded;
+        if (!isSameSet) {
+            rebuildFilterChips();
+            bindCategorySpinner();
+        }
+        updateFilterChipCounts();
+    }
+
+    // 카테고리가 추가·삭제되거나 이름이 바뀌었을 때만 칩을 다시 만듦
+    private void rebuildFilterChips() {
+        filterChipContainer.removeAllViews();
+        filterChips.clear();
+        addFilterChip(Category.ALL, "ALL");
+        for (Category category : categories) {
+            addFilterChip(category.getId(), category.getName());
+        }
+        TextView addChip = inflateFilterChip();
+        addChip.setText("+");
+        addChip.setOnClickListener(v -> showCategoryNameDialog(null));
+        filterChipContainer.addView(addChip);
+
+        // 선택했던 카테고리가 삭제되었으면 전체로
+        if (filterChips.get(currentCategoryFilter) == null) {
+            currentCategoryFilter = Category.ALL;
+            applyFilters();
+        }
+        resetFilterColors();
+        filterChips.get(currentCategoryFilter).setBackgroundColor(COLOR_SELECTED);
+    }
+
+    private void addFilterChip(long categoryId, String name) {
+        TextView chip = inflateFilterChip();
+        chip.setText(name);
+        chip.setOnClickListener(createFilterClickListener(categoryId));
+        chip.setOnLongClickListener(createBulkActionListener(categoryId, name));
+        filterChipContainer.addView(chip);
+        filterChips.put(categoryId, chip);
+    }
+
+    private TextView inflateFilterChip() {
+        return (TextView) getLayoutInflater().inflate(R.layout.filter_chip_layout, filterChipContainer, false);
+    }
+
+    // 칩 이름 옆에 항목 수 (미완료 필터가 켜져 있으면 미완료 수)
+    private void updateFilterChipCounts() {
+        int sum = 0;
+        for (Category category : categories) {
+            int count = isUncompletedFilterActive ? category.getOpenCount() : category.getTotalCount();
+            sum += count;
+            setChipCount(category.getId(), category.getName(), count);
+        }
+        setChipCount(Category.ALL, "ALL", sum);
+    }
+
+    private void setChipCount(long categoryId, String name, int count) {
+        TextView chip = filterChips.get(categoryId);
+        if (chip != null) chip.setText(name + " " + count);
+    }
+
+    private static boolean hasSameCategories(List<Category> a, List<Category> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i).getId() != b.get(i).getId() || !a.get(i).getName().equals(b.get(i).getName())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 필터를 길게 누르면 해당 카테고리에 대한 일괄 작업(모두 완료 / 완료 항목 삭제)을 선택합니다.
+     * 실제 카테고리는 이름 변경과 (비어 있으면) 삭제도 할 수 있습니다.
+     * DB 는 한 트랜잭션으로 처리되고, 목록과 알람은 변경 스트림으로 한 프레임에 한 번 반영됩니다.
+     */
+    private View.OnLongClickListener createBulkActionListener(final long categoryId, final String name) {
+        return v -> {
+            String[] actions = categoryId == Category.ALL
+                    ? new String[]{"모두 완료", "완료 항목 삭제"}
+                    : new String[]{"모두 완료", "완료 항목 삭제", "이름 변경", "카테고리 삭제"};
+            new AlertDialog.Builder(this)
+                    .setTitle(name)
+                    .setItems(actions, (dialog, which) -> {
+                        if (which == 0) {
+                            repository.bulkUpdateCompletion(categoryId, true, affected ->
+                                    Toast.makeText(this, affected.size() + "개 항목 완료", Toast.LENGTH_SHORT).show());
+                        } else if (which == 1) {
+                            // 모아 둔 수정이 삭제 뒤에 쓰이지 않도록 먼저 보냄
+                            repository.getWriteBehindQueue().flush();
+                            repository.bulkDelete(categoryId, true, this::showBulkDeleteUndo);
+                        } else if (which == 2) {
+                            showCategoryNameDialog(findCategory(categoryId));
+                        } else {
+                            deleteCategory(categoryId);
+                        }
+                    })
+                    .show();
+            return true;
+        };
+    }
+
+    // 삭제 표시만 했으므로 스낵바가 떠 있는 동안 되살릴 수 있음 (알람은 되살린 항목만 다시 예약)
+    private void showBulkDeleteUndo(List<TodoItem> deleted) {
+        if (deleted.isEmpty() || isFinishing() || isDestroyed()) return;
+        long[] ids = new long[deleted.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = deleted.get(i).getId();
+        }
+        Snackbar.make(todoRecyclerView, deleted.size() + "개 항목 삭제", Snackbar.LENGTH_LONG)
+                .setAction("실행 취소", v -> repository.restoreTasks(ids, restored ->
+                        AlarmScheduler.scheduleAlarms(this, restored)))
+                .show();
+    }
+
+    private Category findCategory(long categoryId) {
+        for (Category category : categories) {
+            if (category.getId() == categoryId) return category;
+        }
+        return null;
+    }
+
+    /**
+     * 카테고리 이름 입력 창. target 이 null 이면 새 카테고리, 아니면 이름 변경입니다.
+     */
+    private void showCategoryNameDialog(final Category target) {
+        final EditText input = new EditText(this);
+        input.setSingleLine(true);
+        if (target != null) input.setText(target.getName());
+
+        new AlertDialog.Builder(this)
+                .setTitle(target == null ? "새 카테고리" : "이름 변경")
+                .setView(input)
+                .setPositiveButton("확인", (dialog, which) -> {
+                    String name = input.getText().toString().trim();
+                    if (name.isEmpty()) return;
+                    if (target == null) {
+                        repository.createCategory(name, id -> onCategorySaved(id != -1));
+                    } else {
+                        repository.renameCategory(target.getId(), name, this::onCategorySaved);
+                    }
+                })
+                .setNegativeButton("취소", null)
+                .show();
+    }
+
+    private void onCategorySaved(boolean isSaved) {
+        if (!isSaved) {
+            Toast.makeText(this, "같은 이름의 카테고리가 있습니다.", Toast.LENGTH_SHORT).show();
+            return;
         }
+        loadCategories();
+    }
+
+    // 항목이 남은 카테고리는 지우지 않음 (항목은 카테고리 id 를 가리키므로)
+    private void deleteCategory(long categoryId) {
+        repository.deleteCategory(categoryId, isDeleted -> {
+            if (!isDeleted) {
+                Toast.makeText(this, "항목이 남아 있는 카테고리는 삭제할 수 없습니다.", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            loadCategories();
+        });
+    }
 
-        if (filterWork != null) filterWork.setOnClickListener(createFilterClickListener("WORK"));
-        if (filterStudy != null) filterStudy.setOnClickListener(createFilterClickListener("STUDY"));
-        if (filterEtc != null) filterEtc.setOnClickListener(createFilterClickListener("ETC"));
+    // 재활용되는 RecyclerView 목록 초기화 (행 View 는 화면에 보이는 만큼만 생성됨)
+    private void initializeTodoList() {
+        // 항목 변경은 변경 스트림(onTodoChanges)으로 반영되므로 새로고침 콜백이 필요 없음
+        todoAdapter = new TodoItemAdapter(repository);
+        // 바인딩 위치에 따라 다음 페이지를 미리 읽고, 멀어진 페이지는 메모리에서 내림
+        todoAdapter.setOnBindPositionListener(position -> {
+            if (pager != null) pager.onItemAccessed(position);
+        });
+        todoRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        todoRecyclerView.setHasFixedSize(true);
+        todoRecyclerView.setAdapter(todoAdapter);
     }
 
-    private View.OnClickListener createFilterClickListener(final String category) {
+    private View.OnClickListener createFilterClickListener(final long categoryId) {
         return v -> {
             resetFilterColors();
             v.setBackgroundColor(COLOR_SELECTED);
-            currentCategoryFilter = category;
+            currentCategoryFilter = categoryId;
             applyFilters();
         };
     }
 
     private void resetFilterColors() {
-        if (filterAll != null) filterAll.setBackgroundColor(COLOR_UNSELECTED);
-        if (filterWork != null) filterWork.setBackgroundColor(COLOR_UNSELECTED);
-        if (filterStudy != null) filterStudy.setBackgroundColor(COLOR_UNSELECTED);
-        if (filterEtc != null) filterEtc.setBackgroundColor(COLOR_UNSELECTED);
+        for (int i = 0; i < filterChips.size(); i++) {
+            filterChips.valueAt(i).setBackgroundColor(COLOR_UNSELECTED);
+        }
     }
 
-    private void initializeCategorySpinner() {
-        ArrayAdapter<CharSequence> adapter = ArrayAdapter.createFromResource(
-                this,
-                R.array.category_options,
-                android.R.layout.simple_spinner_item
-        );
+    // 입력 스피너도 같은 카테고리 목록으로 (선택은 id 로 유지)
+    private void bindCategorySpinner() {
+        Object selected = categorySpinner.getSelectedItem();
+        long selectedId = selected instanceof Category ? ((Category) selected).getId() : Category.ALL;
+
+        ArrayAdapter<Category> adapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, categories);
         adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         categorySpinner.setAdapter(adapter);
+        for (int i = 0; i < categories.size(); i++) {
+            if (categories.get(i).getId() == selectedId) {
+                categorySpinner.setSelection(i);
+                break;
+            }
+        }
     }
 
     /**
@@ -204,6 +560,7 @@ public class MainActivity extends AppCompatActivity {
                 (view, hourOfDay, selectedMinute) -> {
                     String timePart = String.format(Locale.KOREA, "%02d:%02d", hourOfDay, selectedMinute);
                     dateInputField.setText(timePart);
+                    showRecurrenceDialog();
                 },
                 hour,
                 minute,
@@ -213,99 +570,204 @@ public class MainActivity extends AppCompatActivity {
     }
 
     /**
-     * 필터 상태에 따라 투두 목록을 로드하고 UI를 업데이트합니다.
+     * 새 항목의 날짜를 고릅니다. (일회성이면 그 날짜에, 반복이면 그 날짜부터)
+     */
+    private void showDatePickerDialog() {
+        LocalDate initial = selectedDueDate != TodoItem.NO_DUE_DATE
+                ? LocalDate.ofEpochDay(selectedDueDate) : LocalDate.now();
+        new DatePickerDialog(this, (view, year, month, dayOfMonth) -> {
+            selectedDueDate = LocalDate.of(year, month + 1, dayOfMonth).toEpochDay();
+            Toast.makeText(this, "날짜: " + LocalDate.ofEpochDay(selectedDueDate), Toast.LENGTH_SHORT).show();
+        }, initial.getYear(), initial.getMonthValue() - 1, initial.getDayOfMonth()).show();
+    }
+
+    /**
+     * 시간을 고른 뒤 반복 여부를 고릅니다. 매주·매월은 선택한 날짜(없으면 오늘)의 요일·날짜 기준입니다.
+     */
+    private void showRecurrenceDialog() {
+        final LocalDate anchor = selectedDueDate != TodoItem.NO_DUE_DATE
+                ? LocalDate.ofEpochDay(selectedDueDate) : LocalDate.now();
+        String weekday = anchor.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.KOREA);
+        String[] options = {"반복 안 함", "매일", "평일", "매주 " + weekday + "요일", "매월 " + anchor.getDayOfMonth() + "일"};
+        final Recurrence[] rules = {null, Recurrence.daily(), Recurrence.weekly(Recurrence.WEEKDAYS),
+                Recurrence.weekly(Recurrence.maskOf(anchor.getDayOfWeek())), Recurrence.monthly()};
+
+        new AlertDialog.Builder(this)
+                .setTitle("반복")
+                .setItems(options, (dialog, which) -> selectedRecurrence = rules[which])
+                .show();
+    }
+
+    /**
+     * 필터 상태에 맞는 페이지 로더를 새로 만들고 첫 페이지를 로드합니다.
+     * 나머지는 스크롤에 따라 필요한 만큼만 백그라운드에서 읽습니다.
      */
     private void applyFilters() {
-        List<TodoItem> items;
+        if (search != null && search.isActive()) {
+            // 검색 중에는 같은 필터로 검색 결과를 다시 조회
+            runSearch();
+            return;
+        }
+        if (pager != null) {
+            pager.dispose();
+        }
+        pager = new TodoItemPager(repository, currentCategoryFilter, isUncompletedFilterActive,
+                this::updateTodoListUI);
+        pager.loadInitial();
+        Log.d(TAG, "필터 적용. 카테고리: " + currentCategoryFilter + ", 미완료 필터: " + isUncompletedFilterActive);
+    }
 
-        if (currentCategoryFilter.equals("ALL")) {
-            if (isUncompletedFilterActive) {
-                items = dataSource.getTasksByCompletionStatus(false);
-            } else {
-                items = dataSource.getAllTasksSortedByTime();
-            }
+    /**
+     * 한 프레임 동안 모인 추가/수정/삭제를 현재 목록에 반영합니다.
+     * 페이지 목록은 다시 조회하지 않고 바뀐 행만 고치며, 검색 중이면 같은 검색을 다시 실행합니다.
+     */
+    private void onTodoChanges(List<TodoChangeEvent> events) {
+        if (search != null && search.isActive()) {
+            runSearch();
+        } else if (pager != null) {
+            pager.applyChanges(events);
+        }
+        // 추가·삭제는 커밋 뒤에 이벤트가 오므로 여기서 카운터를 다시 읽음 (모아 쓰는 수정은 커밋 리스너에서)
+        loadCategories();
+    }
+
+    // 저장 실패로 되돌린 수정: 목록은 변경 스트림이 되돌리고, 완료 취소가 되돌려진 항목의 알람은 다시 예약
+    private void onWritesRolledBack(List<TodoItem> restored) {
+        AlarmScheduler.scheduleAlarms(this, restored);
+        Toast.makeText(this, "저장하지 못해 " + restored.size() + "개 항목을 되돌렸습니다.", Toast.LENGTH_SHORT).show();
+    }
+
+    /**
+     * 다른 곳에서 DB 가 바뀌었을 때(바뀐 id 를 모를 때), 메모리에 올라와 있는 페이지만 다시 읽습니다.
+     */
+    private void refreshList() {
+        if (search != null && search.isActive()) {
+            runSearch();
+        } else if (pager == null) {
+            applyFilters();
         } else {
-            if (isUncompletedFilterActive) {
-                List<TodoItem> allCategoryItems = dataSource.getTasksByCategory(currentCategoryFilter);
-                items = new java.util.ArrayList<>();
-                for (TodoItem item : allCategoryItems) {
-                    if (!item.isCompleted()) {
-                        items.add(item);
-                    }
-                }
-            } else {
-                items = dataSource.getTasksByCategory(currentCategoryFilter);
-            }
+            pager.refresh();
         }
+    }
+
+    private void initializeSearch() {
+        search = new TodoItemSearch(repository, this::onSearchResults);
+        searchInputField.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                runSearch();
+            }
+        });
+    }
 
-        updateTodoListUI(items);
-        Log.d(TAG, "필터 적용 완료. 카테고리: " + currentCategoryFilter + ", 미완료 필터: " + isUncompletedFilterActive + ", 항목 수: " + items.size());
+    private void runSearch() {
+        search.setQuery(searchInputField.getText().toString(), currentCategoryFilter, isUncompletedFilterActive);
+    }
+
+    private void onSearchResults(String query, List<TodoItem> results) {
+        if (results == null) {
+            // 검색어를 지우면 일반 목록으로 복귀
+            applyFilters();
+            return;
+        }
+        if (pager != null) {
+            pager.dispose();
+            pager = null;
+        }
+        updateTodoListUI(results);
+        Log.d(TAG, "검색 \"" + query + "\": " + results.size() + "건");
     }
 
     /**
-     * 새 투두 항목을 생성하고 데이터베이스에 추가한 후 UI를 업데이트합니다.
+     * 새 투두 항목을 생성하고 데이터베이스에 추가합니다. (목록에는 변경 스트림으로 반영)
      */
     private void addNewTodoItem() {
         String title = todoInputField.getText().toString().trim();
         String dueTime = dateInputField.getText().toString().trim();
-        String category = categorySpinner.getSelectedItem().toString().toUpperCase(Locale.ROOT);
+        Category selectedCategory = (Category) categorySpinner.getSelectedItem();
+        if (selectedCategory == null) return; // 스피너 항목이 아직 로드되지 않음
 
         if (title.isEmpty()) {
             Toast.makeText(this, "할 일을 입력해 주세요.", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        TodoItem newItem = new TodoItem(title, category, dueTime.isEmpty() ? null : dueTime, false);
-
-        // 1. DB에 저장
-        long id = dataSource.createTask(newItem);
-        newItem.setId(id);
-
-        // 2. 알람 스케줄링 (dueTime이 있을 경우)
-        // 2. 알람 스케줄링 (dueTime이 있을 경우)
-        if (newItem.getDueTime() != null) {
+        int dueMinutes = TodoItem.parseDueTime(dueTime);
+        if (!dueTime.isEmpty() && dueMinutes == TodoItem.NO_DUE_TIME) {
+            Toast.makeText(this, "시간은 HH:mm 형식으로 입력해 주세요.", Toast.LENGTH_SHORT).show();
+            return;
+        }
 
-            // 🔥 ① 기존 Notification 알람 (원하면 삭제 가능)
-            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.S ||
-                    ((AlarmManager) getSystemService(Context.ALARM_SERVICE)).canScheduleExactAlarms()) {
-                AlarmScheduler.scheduleAlarm(this, newItem);
+        TodoItem newItem = new TodoItem(title, selectedCategory.getId(), dueMinutes, false);
+        newItem.setDueDate(selectedDueDate);
+        if (selectedRecurrence != null) {
+            // 반복은 시작일이 필요하므로 날짜를 고르지 않았으면 오늘부터
+            if (!newItem.hasDueDate()) {
+                newItem.setDueDate(LocalDate.now().toEpochDay());
             }
+            newItem.setRecurrence(selectedRecurrence);
         }
 
-
-        // 3. UI 업데이트 및 입력 필드 초기화
+        // 1. 입력 필드는 바로 초기화 (DB 저장은 백그라운드에서 진행)
         todoInputField.setText("");
         dateInputField.setText("");
         categorySpinner.setSelection(0);
+        selectedDueDate = TodoItem.NO_DUE_DATE;
+        selectedRecurrence = null;
+
+        // 2. DB에 저장 → 완료되면 알람 스케줄링
+        repository.createTask(newItem, id -> {
+            if (id == -1) {
+                Toast.makeText(this, "할 일을 저장하지 못했습니다.", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            newItem.setId(id);
 
-        Toast.makeText(this, "새 투두 항목이 추가되었습니다!", Toast.LENGTH_SHORT).show();
-        applyFilters();
+            // 알람 스케줄링 (dueTime이 있을 경우)
+            if (newItem.hasDueTime()) {
+                if (Build.VERSION.SDK_INT < Build.VERSION_CODES.S ||
+                        ((AlarmManager) getSystemService(Context.ALARM_SERVICE)).canScheduleExactAlarms()) {
+                    AlarmScheduler.scheduleAlarm(this, newItem);
+                }
+            }
+
+            Toast.makeText(this, "새 투두 항목이 추가되었습니다!", Toast.LENGTH_SHORT).show();
+        });
     }
 
     /**
      * 투두 목록 UI를 업데이트합니다.
+     * 이전 목록과의 diff 는 백그라운드에서 계산되고, 변경된 행만 다시 바인딩됩니다.
      */
     private void updateTodoListUI(List<TodoItem> items) {
-        todoListContainer.removeAllViews();
-
-        if (items.isEmpty()) {
-            TextView emptyView = new TextView(this);
-            emptyView.setText("할 일 목록이 비어있습니다.");
-            emptyView.setTextColor(Color.DKGRAY);
-            emptyView.setTextSize(16);
-            emptyView.setPadding(16, 32, 16, 32);
-            todoListContainer.addView(emptyView);
-            return;
-        }
+        final boolean isSkeleton = !items.isEmpty() && items.get(0) == null;
+        // 목록 전달부터 diff 계산·반영까지 ("list.submit.us"). 더 새 목록에 밀려 버려진 전달은 기록되지 않음
+        final int cookie = ++listSubmitCount;
+        final long start = Metrics.beginAsync("list.submit", cookie);
+        todoAdapter.submitList(items, () -> {
+            Metrics.endAsync("list.submit", cookie, start);
+            boolean isEmpty = todoAdapter.getItemCount() == 0;
+            todoEmptyView.setVisibility(isEmpty ? View.VISIBLE : View.GONE);
+            todoRecyclerView.setVisibility(isEmpty ? View.GONE : View.VISIBLE);
+
+            // 실제 데이터가 처음 화면에 반영되면 "완전히 그려짐" 보고 (macrobenchmark 의 TTFD)
+            if (!isSkeleton && !isFullyDrawnReported) {
+                isFullyDrawnReported = true;
+                todoRecyclerView.post(this::reportFullyDrawn);
+            }
+        });
+    }
 
-        for (TodoItem item : items) {
-            TodoItemView itemView = new TodoItemView(
-                    this,
-                    item,
-                    dataSource,
-                    this::applyFilters // 항목 변경 시 목록을 새로고침하는 콜백
-            );
-            todoListContainer.addView(itemView.getView());
-        }
+    // 벤치마크/테스트에서 목록 어댑터에 직접 접근하기 위한 용도
+    public TodoItemAdapter getTodoAdapter() {
+        return todoAdapter;
     }
-}
\ No newline at end of file
+}
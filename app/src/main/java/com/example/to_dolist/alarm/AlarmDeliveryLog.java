@@ -0,0 +1,167 @@
+package com.example.to_dolist.alarm;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 알람 전달 정확도 기록: 최근 CAPACITY 번의 "의도한 시각 대비 실제 수신" 을 순환 버퍼로 보관합니다.
+ * 알림 지연(수신 - 항목의 due 시각)과 시스템 지연(수신 - 시스템 알람을 건 시각)을 함께 남기고,
+ * 시스템 지연으로 다음 알람을 얼마나 일찍 걸지(preFireLeadMs)와 알람 시계 방식으로 올릴지를 정합니다.
+ * 영속화는 문자열(serialize/parse)로 하고, 저장 위치는 AlarmScheduler 의 SharedPreferences 입니다.
+ * 스레드 안전하지 않으므로 AlarmScheduler 의 전용 스레드에서만 사용합니다.
+ */
+final class AlarmDeliveryLog {
+
+    // 시스템 알람 방식 (Intent 에도 같은 값으로 실림)
+    static final int MODE_INEXACT = 0;
+    static final int MODE_EXACT = 1;
+    static final int MODE_ALARM_CLOCK = 2;
+
+    static final int CAPACITY = 200;
+
+    // 판단에 쓰는 최소 표본 수와 표본 유효 기간 (오래된 기록은 기기 상태가 달라졌을 수 있음)
+    static final int MIN_SAMPLES = 5;
+    static final long SAMPLE_MAX_AGE_MS = 7L * 24 * 60 * 60 * 1000;
+
+    // 미리 거는 시간 상한 (이보다 일찍 알리면 "너무 이른 알림" 이 됨)
+    static final long MAX_LEAD_MS = 60_000L;
+    // 정확한 알람의 시스템 지연 p90 이 이보다 크면 알람 시계 방식으로 올림 (Doze·절전 앱의 지연으로 판단)
+    static final long ALARM_CLOCK_THRESHOLD_MS = 60_000L;
+
+    private final long[] receivedAt = new long[CAPACITY];
+    private final long[] lateMs = new long[CAPACITY];
+    private final long[] systemDelayMs = new long[CAPACITY];
+    private final int[] modes = new int[CAPACITY];
+    private int size = 0;
+    private int next = 0;
+
+    /**
+     * 수신 한 번을 기록합니다.
+     * triggerAt 은 항목이 울려야 했던 시각, armedAt 은 실제로 시스템 알람을 건 시각(미리 걸었다면 더 이름)입니다.
+     */
+    void add(long received, long triggerAt, long armedAt, int mode) {
+        receivedAt[next] = received;
+        lateMs[next] = received - triggerAt;
+        systemDelayMs[next] = received - armedAt;
+        modes[next] = mode;
+        next = (next + 1) % CAPACITY;
+        if (size < CAPACITY) size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 알림 지연의 백분위 (percentile 은 0~100, 일찍 도착했으면 음수). 기록이 없으면 0.
+     */
+    long latenessPercentile(double percentile) {
+        return percentileOf(orderedValues(lateMs, -1, Long.MIN_VALUE), size, percentile);
+    }
+
+    /**
+     * 다음 알람을 due 시각보다 얼마나 일찍 걸지: 같은 방식의 최근 시스템 지연 중앙값 (0 ~ MAX_LEAD_MS).
+     */
+    long preFireLeadMs(int mode, long now) {
+        long[] delays = recentSystemDelays(mode, now);
+        int count = (int) delays[delays.length - 1];
+        if (count < MIN_SAMPLES) return 0;
+        return Math.max(0, Math.min(MAX_LEAD_MS, percentileOf(delays, count, 50)));
+    }
+
+    /**
+     * 정확한 알람이 최근에 자주 늦었는지. 알람 시계 방식으로 올린 뒤에는 정확한 알람 표본이 더 쌓이지 않으므로,
+     * 그 표본이 SAMPLE_MAX_AGE_MS 가 지나 빠지면 다시 정확한 알람으로 돌아가 측정합니다.
+     */
+    boolean shouldUseAlarmClock(long now) {
+        long[] delays = recentSystemDelays(MODE_EXACT, now);
+        int count = (int) delays[delays.length - 1];
+        return count >= MIN_SAMPLES && percentileOf(delays, count, 90) > ALARM_CLOCK_THRESHOLD_MS;
+    }
+
+    /**
+     * 사람이 읽는 요약: 표본 수, 알림 지연 p50/p95/p99/최대, 방식별 건수.
+     */
+    String describe() {
+        if (size == 0) return "alarm delivery: no samples\n";
+        int[] perMode = new int[3];
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            perMode[modes[i]]++;
+            max = Math.max(max, lateMs[i]);
+        }
+        return String.format(Locale.US,
+                "alarm delivery: samples=%d late_ms p50=%d p95=%d p99=%d max=%d (inexact=%d exact=%d alarmClock=%d)%n",
+                size, latenessPercentile(50), latenessPercentile(95), latenessPercentile(99), max,
+                perMode[MODE_INEXACT], perMode[MODE_EXACT], perMode[MODE_ALARM_CLOCK]);
+    }
+
+    // --- 영속화: 오래된 것부터 "수신시각,알림지연,시스템지연,방식" 을 ; 로 이어 붙임 ---
+
+    String serialize() {
+        StringBuilder out = new StringBuilder(size * 32);
+        for (int i = 0; i < size; i++) {
+            int index = indexOf(i);
+            if (i > 0) out.append(';');
+            out.append(receivedAt[index]).append(',').append(lateMs[index]).append(',')
+                    .append(systemDelayMs[index]).append(',').append(modes[index]);
+        }
+        return out.toString();
+    }
+
+    /**
+     * serialize() 결과를 읽습니다. 형식이 맞지 않는 기록은 건너뜁니다. (null 이면 빈 기록)
+     */
+    static AlarmDeliveryLog parse(String text) {
+        AlarmDeliveryLog log = new AlarmDeliveryLog();
+        if (text == null || text.isEmpty()) return log;
+        for (String record : text.split(";")) {
+            String[] fields = record.split(",");
+            if (fields.length != 4) continue;
+            try {
+                long received = Long.parseLong(fields[0]);
+                long late = Long.parseLong(fields[1]);
+                long delay = Long.parseLong(fields[2]);
+                int mode = Integer.parseInt(fields[3]);
+                if (mode < MODE_INEXACT || mode > MODE_ALARM_CLOCK) continue;
+                log.add(received, received - late, received - delay, mode);
+            } catch (NumberFormatException ignored) {
+                // 손상된 기록 하나 때문에 전체를 버리지 않음
+            }
+        }
+        return log;
+    }
+
+    // --- 내부 로직 ---
+
+    // i 번째로 오래된 기록의 배열 위치
+    private int indexOf(int i) {
+        int oldest = size < CAPACITY ? 0 : next;
+        return (oldest + i) % CAPACITY;
+    }
+
+    // 조건에 맞는 값들을 앞에 모으고, 마지막 칸에 개수를 넣어 반환 (mode < 0 이면 전체, minReceivedAt 이후만)
+    private long[] orderedValues(long[] source, int mode, long minReceivedAt) {
+        long[] values = new long[size + 1];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (mode >= 0 && modes[i] != mode) continue;
+            if (receivedAt[i] < minReceivedAt) continue;
+            values[count++] = source[i];
+        }
+        values[size] = count;
+        return values;
+    }
+
+    private long[] recentSystemDelays(int mode, long now) {
+        return orderedValues(systemDelayMs, mode, now - SAMPLE_MAX_AGE_MS);
+    }
+
+    // values 의 앞 count 개에 대한 백분위 (가장 가까운 순위)
+    private static long percentileOf(long[] values, int count, double percentile) {
+        if (count == 0) return 0;
+        Arrays.sort(values, 0, count);
+        int rank = (int) Math.ceil(count * percentile / 100.0);
+        return values[Math.max(0, Math.min(count, rank) - 1)];
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.to_dolist.alarm;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.media.Ringtone;
+import android.media.RingtoneManager;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.service.notification.StatusBarNotification;
+import android.util.Log;
+
+import androidx.core.app.NotificationCompat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 알람 알림 전달 파이프라인.
+ * 짧은 시간(COALESCE_WINDOW_MS) 안에 들어온 알람을 모아 하나의 묶음 알림(요약 + 항목별 알림)으로 올리고,
+ * 알람음은 묶음당 하나만 재생합니다.
+ * 상태는 전용 HandlerThread 에서만 다루므로 잠금이 필요 없습니다.
+ */
+final class AlarmNotifier {
+
+    private static final String TAG = "AlarmNotifier";
+
+    static final String ACTION_STOP = "STOP_ALARM";
+    private static final String EXTRA_BATCH_ID = "BATCH_ID";
+    private static final String EXTRA_TAGS = "NOTIFICATION_TAGS";
+
+    private static final String CHANNEL_ID = "todo_alarm_channel";
+    private static final String GROUP_KEY = "com.example.to_dolist.ALARMS";
+    private static final String SUMMARY_TAG = "summary";
+    private static final int NOTIFICATION_ID = 0;
+
+    // 같은 시각의 알람이 브로드캐스트 여러 개로 나뉘어 와도 이 안이면 한 묶음으로 처리
+    private static final long COALESCE_WINDOW_MS = 1_500L;
+
+    private static final Handler handler;
+
+    static {
+        HandlerThread thread = new HandlerThread("alarm-notifier");
+        thread.start();
+        handler = new Handler(thread.getLooper());
+    }
+
+    private static final class Alarm {
+        final long id;
+        final String title;
+
+        Alarm(long id, String title) {
+            this.id = id;
+            this.title = title;
+        }
+    }
+
+    // --- 아래 상태는 handler 스레드에서만 접근 ---
+    private static final List<Alarm> pending = new ArrayList<>();
+    private static final List<BroadcastReceiver.PendingResult> heldResults = new ArrayList<>();
+    private static boolean isFlushScheduled = false;
+    private static boolean isChannelCreated = false;
+    private static int nextBatchId = 1;
+
+    // 묶음 id → 그 묶음이 재생한 알람음 (STOP 은 자기 묶음의 소리만 멈춤)
+    private static final Map<Integer, Ringtone> ringtones = new HashMap<>();
+
+    private AlarmNotifier() {
+    }
+
+    /**
+     * 알람 하나를 전달 대기열에 넣습니다. pendingResult 는 실제로 알림을 올린 뒤 finish 됩니다.
+     */
+    static void enqueue(Context context, long id, String title, BroadcastReceiver.PendingResult pendingResult) {
+        final Context appContext = context.getApplicationContext();
+        handler.post(() -> {
+            pending.add(new Alarm(id, title));
+            hold(pendingResult);
+            scheduleFlush(appContext);
+        });
+    }
+
+    /**
+     * 이미 한 묶음으로 모인 알람들을 전달 대기열에 넣습니다. (AlarmScheduler 의 단일 타이머용)
+     */
+    static void enqueueAll(Context context, long[] ids, String[] titles, BroadcastReceiver.PendingResult pendingResult) {
+        final Context appContext = context.getApplicationContext();
+        handler.post(() -> {
+            for (int i = 0; i < ids.length; i++) {
+                pending.add(new Alarm(ids[i], titles[i]));
+            }
+            hold(pendingResult);
+            scheduleFlush(appContext);
+        });
+    }
+
+    /**
+     * STOP 버튼: 해당 묶음의 알람음과 그 묶음이 올린 알림만 정리합니다.
+     */
+    static void stop(Context context, Intent intent, BroadcastReceiver.PendingResult pendingResult) {
+        final Context appContext = context.getApplicationContext();
+        final int batchId = intent.getIntExtra(EXTRA_BATCH_ID, 0);
+        final String[] tags = intent.getStringArrayExtra(EXTRA_TAGS);
+        handler.post(() -> {
+            try {
+                Ringtone ringtone = ringtones.remove(batchId);
+                if (ringtone != null && ringtone.isPlaying()) {
+                    ringtone.stop();
+                }
+
+                NotificationManager manager = notificationManager(appContext);
+                if (tags != null) {
+                    for (String tag : tags) {
+                        manager.cancel(tag, NOTIFICATION_ID);
+                    }
+                }
+                if (!hasActiveAlarmNotifications(manager)) {
+                    manager.cancel(SUMMARY_TAG, NOTIFICATION_ID);
+                }
+            } finally {
+                if (pendingResult != null) {
+                    pendingResult.finish();
+                }
+            }
+        });
+    }
+
+    // --- 내부 로직 (handler 스레드) ---
+
+    private static void hold(BroadcastReceiver.PendingResult pendingResult) {
+        if (pendingResult != null) {
+            heldResults.add(pendingResult);
+        }
+    }
+
+    private static void scheduleFlush(Context context) {
+        if (isFlushScheduled) return;
+        isFlushScheduled = true;
+        handler.postDelayed(() -> flush(context), COALESCE_WINDOW_MS);
+    }
+
+    private static void flush(Context context) {
+        isFlushScheduled = false;
+        try {
+            if (!pending.isEmpty()) {
+                post(context, new ArrayList<>(pending));
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "알람 알림 전달 실패", e);
+        } finally {
+            pending.clear();
+            for (BroadcastReceiver.PendingResult result : heldResults) {
+                result.finish();
+            }
+            heldResults.clear();
+        }
+    }
+
+    private static void post(Context context, List<Alarm> alarms) {
+        NotificationManager manager = notificationManager(context);
+        ensureChannel(manager);
+
+        int batchId = nextBatchId++;
+        String[] tags = new String[alarms.size()];
+        for (int i = 0; i < alarms.size(); i++) {
+            tags[i] = String.valueOf(alarms.get(i).id);
+        }
+        PendingIntent stopPending = stopIntent(context, batchId, tags);
+
+        // 항목별 알림은 조용히 묶고, 소리는 요약 알림 하나만 냄
+        for (int i = 0; i < alarms.size(); i++) {
+            Alarm alarm = alarms.get(i);
+            NotificationCompat.Builder builder =
+                    new NotificationCompat.Builder(context, CHANNEL_ID)
+                            .setSmallIcon(android.R.drawable.ic_lock_idle_alarm)
+                            .setContentTitle("알람")
+                            .setContentText(alarm.title + " 시간입니다!")
+                            .setPriority(NotificationCompat.PRIORITY_HIGH)
+                            .setGroup(GROUP_KEY)
+                            .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY)
+                            .addAction(android.R.drawable.ic_menu_close_clear_cancel, "알람 끄기", stopPending)
+                            .setAutoCancel(true);
+            manager.notify(tags[i], NOTIFICATION_ID, builder.build());
+        }
+
+        NotificationCompat.InboxStyle inbox = new NotificationCompat.InboxStyle();
+        for (Alarm alarm : alarms) {
+            inbox.addLine(alarm.title);
+        }
+        NotificationCompat.Builder summary =
+                new NotificationCompat.Builder(context, CHANNEL_ID)
+                        .setSmallIcon(android.R.drawable.ic_lock_idle_alarm)
+                        .setContentTitle("알람")
+                        .setContentText(alarms.size() == 1
+                                ? alarms.get(0).title + " 시간입니다!"
+                                : "할 일 " + alarms.size() + "개의 시간입니다!")
+                        .setStyle(inbox)
+                        .setPriority(NotificationCompat.PRIORITY_HIGH)
+                        .setGroup(GROUP_KEY)
+                        .setGroupSummary(true)
+                        .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY)
+                        .addAction(android.R.drawable.ic_menu_close_clear_cancel, "알람 끄기", stopPending)
+                        .setAutoCancel(true);
+        manager.notify(SUMMARY_TAG, NOTIFICATION_ID, summary.build());
+
+        playSound(context, batchId);
+        Log.d(TAG, "알람 묶음 #" + batchId + " 전달: " + alarms.size() + "건");
+    }
+
+    // 🔊 묶음당 소리 하나. 이전 묶음의 소리가 아직 울리고 있으면 새 묶음이 넘겨받음
+    private static void playSound(Context context, int batchId) {
+        for (Ringtone previous : ringtones.values()) {
+            if (previous.isPlaying()) {
+                previous.stop();
+            }
+        }
+        ringtones.clear();
+
+        try {
+            Uri alarmSound = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM);
+            Ringtone ringtone = RingtoneManager.getRingtone(context, alarmSound);
+            if (ringtone != null) {
+                ringtone.play();
+                ringtones.put(batchId, ringtone);
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "알람음 재생 실패", e);
+        }
+    }
+
+    private static PendingIntent stopIntent(Context context, int batchId, String[] tags) {
+        Intent stopIntent = new Intent(context, AlarmReceiver.class);
+        stopIntent.setAction(ACTION_STOP);
+        stopIntent.putExtra(EXTRA_BATCH_ID, batchId);
+        stopIntent.putExtra(EXTRA_TAGS, tags);
+        return PendingIntent.getBroadcast(
+                context,
+                batchId,
+                stopIntent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+    }
+
+    // 채널은 프로세스당 한 번만 생성
+    private static void ensureChannel(NotificationManager manager) {
+        if (isChannelCreated) return;
+        NotificationChannel channel = new NotificationChannel(
+                CHANNEL_ID,
+                "To-Do 알람",
+                NotificationManager.IMPORTANCE_HIGH
+        );
+        manager.createNotificationChannel(channel);
+        isChannelCreated = true;
+    }
+
+    private static boolean hasActiveAlarmNotifications(NotificationManager manager) {
+        for (StatusBarNotification notification : manager.getActiveNotifications()) {
+            if (GROUP_KEY.equals(notification.getNotification().getGroup())
+                    && !SUMMARY_TAG.equals(notification.getTag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static NotificationManager notificationManager(Context context) {
+        return (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+    }
+}
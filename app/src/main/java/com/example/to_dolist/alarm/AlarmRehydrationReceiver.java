@@ -0,0 +1,27 @@
+package com.example.to_dolist.alarm;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import com.example.to_dolist.data.TodoRepository;
+
+/**
+ * 재부팅, 시계 변경, 시간대 변경 시 알람을 다시 등록합니다.
+ * (재부팅하면 시스템 알람이 모두 사라지고, 시계·시간대가 바뀌면 큐에 계산해 둔 시각이 틀어짐)
+ * DB 조회는 goAsync 로 AlarmScheduler 의 전용 스레드에서 진행하고, 수신자 제한 시간 안에 끝냅니다.
+ * 위젯 스냅샷에 담긴 다음 알람 시각도 같은 이유로 다시 계산합니다.
+ */
+public class AlarmRehydrationReceiver extends BroadcastReceiver {
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (Intent.ACTION_BOOT_COMPLETED.equals(action)
+                || Intent.ACTION_TIME_CHANGED.equals(action)
+                || Intent.ACTION_TIMEZONE_CHANGED.equals(action)) {
+            AlarmScheduler.rehydrate(context, action, goAsync());
+            TodoRepository.getInstance(context).refreshSnapshot(null);
+        }
+    }
+}
@@ -3,108 +3,568 @@ package com.example.to_dolist.alarm;
 import android.annotation.SuppressLint;
 import android.app.AlarmManager;
 import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
-import android.os.Build;
+import android.content.SharedPreferences;
 import android.util.Log;
 
+import com.example.to_dolist.data.TodoChangeBus;
+import com.example.to_dolist.data.TodoChangeEvent;
 import com.example.to_dolist.data.TodoItem;
+import com.example.to_dolist.data.TodoItemDataSource;
+import com.example.to_dolist.metrics.Metrics;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.Locale;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * 단일 타이머 알람 엔진.
+ * 항목마다 시스템 알람을 등록하는 대신, 예정된 알람을 자체 우선순위 큐(due 시각 순)로 관리하고
+ * 시스템에는 "가장 빠른 하나"만 등록합니다. 알람이 울리면 그 시각에 도래한 항목을 한 번에 처리하고
+ * 다음 항목으로 다시 등록합니다. (시스템 알람 수는 항상 0 또는 1)
+ * 반복 항목은 울린 뒤 다음 발생 시각으로 큐에 다시 넣고, 날짜가 지난 일회성 항목은 큐에 넣지 않습니다.
+ *
+ * 큐는 getUpcomingTasksForAlarm 결과로 만들어지며, 프로세스가 다시 시작되면 DB 에서 다시 만듭니다.
+ * 재부팅·시계 변경 시에는 AlarmRehydrationReceiver 가 rehydrate() 로 큐를 다시 만들고 알람을 재등록합니다.
+ * 삭제·완료·시간/제목 변경은 observeChanges() 로 구독한 저장소 변경 스트림에서 받아 큐에 반영합니다.
+ * 모든 작업은 전용 스레드 하나에서 순서대로 실행되므로 큐에 별도 잠금이 필요 없습니다.
+ * 예약 요청부터 시스템 알람 갱신까지의 지연은 "alarm.schedule.latency.us" 에 기록됩니다. (Metrics)
+ *
+ * 전달 정확도: 시스템 알람 Intent 에 항목의 due 시각·실제로 건 시각·방식을 싣고, 수신할 때 지연을
+ * AlarmDeliveryLog 에 남깁니다. (최근 200건, SharedPreferences) 그 기록으로 다음 알람을
+ * 최근 시스템 지연만큼 미리 걸고, 정확한 알람이 자주 1분 넘게 늦으면 알람 시계 방식(setAlarmClock)으로 올립니다.
+ * 정확한 알람 권한이 없으면 부정확한 알람에 같은 보정을 적용합니다. 백분위는 describeDeliveryAccuracy() 로 확인합니다.
+ */
 public class AlarmScheduler {
 
     private static final String TAG = "AlarmScheduler";
-    private static final String TIME_FORMAT = "HH:mm";
+
+    static final String ACTION_FIRE = "com.example.to_dolist.alarm.FIRE";
+    static final String EXTRA_TRIGGER_AT = "TRIGGER_AT";
+    // 미리 걸었다면 due 시각보다 이른, 시스템 알람을 실제로 건 시각
+    static final String EXTRA_ARMED_AT = "ARMED_AT";
+    // AlarmDeliveryLog.MODE_*
+    static final String EXTRA_MODE = "ALARM_MODE";
+
+    // 시스템 알람이 정확히 같은 밀리초에 오지 않을 수 있으므로 이 범위 안의 항목은 함께 처리
+    private static final long FIRE_WINDOW_MS = 1_000L;
+    private static final int SINGLE_ALARM_REQUEST_CODE = 0;
+
+    // 한 번 울린 항목은 다시 예약되기 전까지 큐에 넣지 않음 (이전과 같은 1회성 알람 동작)
+    static final String PREFS_NAME = "alarm_scheduler";
+    static final String KEY_FIRED_PREFIX = "fired_";
+    // 전달 지연 기록 (AlarmDeliveryLog.serialize)
+    private static final String KEY_DELIVERY_LOG = "delivery_log";
+
+    // 마지막 재등록 결과 (디버깅·성능 확인용)
+    static final String KEY_LAST_REHYDRATE_REASON = "last_rehydrate_reason";
+    static final String KEY_LAST_REHYDRATE_COUNT = "last_rehydrate_count";
+    static final String KEY_LAST_REHYDRATE_MS = "last_rehydrate_ms";
+    static final String KEY_LAST_REHYDRATE_COMPLETE = "last_rehydrate_complete";
+
+    // goAsync 수신자 제한(10초)보다 여유 있게. 넘으면 그때까지 읽은(가장 먼저 울릴) 항목으로 등록
+    static final long REHYDRATE_BUDGET_MS = 7_000L;
+    // 시간 예산은 이 행 수마다 한 번씩 확인
+    private static final int BUDGET_CHECK_INTERVAL = 256;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "alarm-scheduler"));
+
+    // 예정된 알람 하나
+    private static final class Entry {
+        final long triggerAt;
+        final long id;
+        final String title;
+        // 반복 항목이면 다음 발생을 계산할 항목 (일회성이면 null)
+        final TodoItem recurring;
+
+        Entry(long triggerAt, long id, String title, TodoItem recurring) {
+            this.triggerAt = triggerAt;
+            this.id = id;
+            this.title = title;
+            this.recurring = recurring;
+        }
+    }
 
     /**
-     * ⭐ 정확한 시간에 알람 울리도록 예약하는 코드 (핵심)
+     * 재등록 결과: 복원한 알람 수, 걸린 시간, 시간 안에 전부 읽었는지 여부.
      */
-    @SuppressLint("ScheduleExactAlarm")
-    public static void scheduleAlarm(Context context, TodoItem item) {
+    static final class RehydrationResult {
+        final int restored;
+        final long elapsedMs;
+        final boolean isComplete;
+
+        RehydrationResult(int restored, long elapsedMs, boolean isComplete) {
+            this.restored = restored;
+            this.elapsedMs = elapsedMs;
+            this.isComplete = isComplete;
+        }
+    }
+
+    // --- 아래 상태는 EXECUTOR 스레드에서만 접근 ---
+    private static final TreeSet<Entry> queue = new TreeSet<>((a, b) -> {
+        int byTime = Long.compare(a.triggerAt, b.triggerAt);
+        return byTime != 0 ? byTime : Long.compare(a.id, b.id);
+    });
+    private static final Map<Long, Entry> entriesById = new HashMap<>();
+    private static boolean isLoaded = false;
+    private static long armedTriggerAt = -1;
+    private static AlarmDeliveryLog deliveryLog;
 
-        if (item.getDueTime() == null) {
+    // 메인 스레드에서만 접근
+    private static boolean isObserving = false;
+
+    /**
+     * 저장소 변경 스트림을 구독합니다. (프로세스당 한 번, 여러 번 호출해도 됨)
+     * 삭제되거나 완료·시간 없음이 된 항목은 알람을 취소하고, 대기 중인 항목의 시간/제목 변경은 큐에 반영합니다.
+     * 새 항목 예약과 미완료로 되돌린 항목의 재예약은 권한 확인이 필요하므로 화면에서 scheduleAlarm 으로 합니다.
+     */
+    public static void observeChanges(Context context, TodoChangeBus bus) {
+        if (isObserving) return;
+        isObserving = true;
+        final Context appContext = context.getApplicationContext();
+        bus.subscribe(events -> applyChanges(appContext, events));
+    }
+
+    /**
+     * 항목의 알람을 예약(또는 시간 변경)합니다.
+     */
+    public static void scheduleAlarm(Context context, TodoItem item) {
+        if (!item.hasDueTime()) {
             Log.e(TAG, "알람 시간을 찾을 수 없습니다: " + item.getTitle());
             return;
         }
+        final Context appContext = context.getApplicationContext();
+        final TodoItem snapshot = new TodoItem(item);
+        final long requestedAt = System.nanoTime();
+        EXECUTOR.execute(() -> {
+            long start = Metrics.begin("alarm.schedule");
+            ensureLoaded(appContext);
+            clearFired(appContext, snapshot.getId());
+            upsert(snapshot, System.currentTimeMillis(), TimeZone.getDefault());
+            rearm(appContext);
+            Metrics.end("alarm.schedule", start);
+            recordScheduleLatency(requestedAt);
+        });
+    }
 
-        try {
-            // 입력된 시간 파싱
-            SimpleDateFormat format = new SimpleDateFormat(TIME_FORMAT, Locale.KOREA);
-            Date date = format.parse(item.getDueTime());
-            if (date == null) return;
+    /**
+     * 여러 항목의 알람을 한 번에 예약합니다. 시스템 알람 갱신은 마지막에 한 번만 합니다.
+     */
+    public static void scheduleAlarms(Context context, List<TodoItem> items) {
+        if (items.isEmpty()) return;
+        final Context appContext = context.getApplicationContext();
+        final List<TodoItem> snapshots = copyOf(items);
+        final long requestedAt = System.nanoTime();
+        EXECUTOR.execute(() -> {
+            long start = Metrics.begin("alarm.scheduleBatch");
+            ensureLoaded(appContext);
+            long now = System.currentTimeMillis();
+            TimeZone zone = TimeZone.getDefault();
+            SharedPreferences.Editor fired = prefs(appContext).edit();
+            for (TodoItem item : snapshots) {
+                if (!item.hasDueTime() || item.isCompleted()) continue;
+                fired.remove(KEY_FIRED_PREFIX + item.getId());
+                upsert(item, now, zone);
+            }
+            fired.apply();
+            rearm(appContext);
+            Metrics.end("alarm.scheduleBatch", start);
+            recordScheduleLatency(requestedAt);
+            Log.d(TAG, "알람 일괄 예약: " + snapshots.size() + "건, 대기 " + queue.size() + "건");
+        });
+    }
 
-            // 오늘 날짜 + 입력한 시각으로 Calendar 생성
-            Calendar target = Calendar.getInstance();
-            target.setTime(date);
+    /**
+     * 알람 취소
+     */
+    public static void cancelAlarm(Context context, long itemId) {
+        final Context appContext = context.getApplicationContext();
+        EXECUTOR.execute(() -> {
+            ensureLoaded(appContext);
+            clearFired(appContext, itemId);
+            remove(itemId);
+            cancelLegacyAlarm(appContext, itemId);
+            rearm(appContext);
+            Log.d(TAG, "알람 취소됨 ID = " + itemId);
+        });
+    }
 
-            Calendar now = Calendar.getInstance();
-            target.set(Calendar.YEAR, now.get(Calendar.YEAR));
-            target.set(Calendar.MONTH, now.get(Calendar.MONTH));
-            target.set(Calendar.DAY_OF_MONTH, now.get(Calendar.DAY_OF_MONTH));
+    /**
+     * 여러 항목의 알람을 한 번에 취소합니다. (일괄 작업용)
+     */
+    public static void cancelAlarms(Context context, List<TodoItem> items) {
+        if (items.isEmpty()) return;
+        final Context appContext = context.getApplicationContext();
+        final List<TodoItem> snapshots = copyOf(items);
+        EXECUTOR.execute(() -> {
+            ensureLoaded(appContext);
+            SharedPreferences.Editor fired = prefs(appContext).edit();
+            for (TodoItem item : snapshots) {
+                fired.remove(KEY_FIRED_PREFIX + item.getId());
+                remove(item.getId());
+            }
+            fired.apply();
+            rearm(appContext);
+        });
+    }
 
-            // 만약 이미 지난 시간이면 내일로 예약
-            if (target.getTimeInMillis() <= System.currentTimeMillis()) {
-                target.add(Calendar.DAY_OF_MONTH, 1);
+    private static void applyChanges(Context context, List<TodoChangeEvent> events) {
+        final List<TodoChangeEvent> relevant = new ArrayList<>();
+        for (TodoChangeEvent event : events) {
+            if (event.getType() != TodoChangeEvent.Type.INSERTED) {
+                relevant.add(event);
             }
+        }
+        if (relevant.isEmpty()) return;
 
-            long triggerTime = target.getTimeInMillis();
-
-            Log.d(TAG, "알람 예약됨: " + item.getTitle() + " → " + target.getTime());
-
-            // 브로드캐스트 Intent 생성
-            Intent intent = new Intent(context, AlarmReceiver.class);
-            intent.putExtra("TODO_ID", item.getId());
-            intent.putExtra("TODO_TITLE", item.getTitle());
-
-            PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                    context,
-                    (int) item.getId(),
-                    intent,
-                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-            );
-
-            AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-
-            // 정확한 시간에 울리도록 설정
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                alarmManager.setExactAndAllowWhileIdle(
-                        AlarmManager.RTC_WAKEUP,
-                        triggerTime,
-                        pendingIntent
-                );
-            } else {
-                alarmManager.setExact(AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
+        EXECUTOR.execute(() -> {
+            ensureLoaded(context);
+            long now = System.currentTimeMillis();
+            TimeZone zone = TimeZone.getDefault();
+            SharedPreferences.Editor fired = prefs(context).edit();
+            for (TodoChangeEvent event : relevant) {
+                TodoItem item = event.getItem();
+                if (item == null || item.isCompleted() || !item.hasDueTime()) {
+                    fired.remove(KEY_FIRED_PREFIX + event.getId());
+                    remove(event.getId());
+                    cancelLegacyAlarm(context, event.getId());
+                } else if (entriesById.containsKey(event.getId())) {
+                    upsert(item, now, zone);
+                }
             }
+            fired.apply();
+            rearm(context);
+        });
+    }
 
-        } catch (ParseException e) {
-            Log.e(TAG, "시간 파싱 실패: " + item.getDueTime(), e);
-        }
+    /**
+     * 단일 시스템 알람이 울렸을 때 AlarmReceiver 에서 호출합니다. (goAsync 결과를 넘겨받아 끝나면 finish)
+     * 수신 지연을 기록한 뒤, 지금 시각까지 도래한 항목을 한 묶음으로 알리고 다음 항목으로 다시 등록합니다.
+     * 미리 건 알람이면 그만큼 앞선 항목까지 함께 알립니다.
+     */
+    static void onAlarmFired(Context context, Intent intent, BroadcastReceiver.PendingResult pendingResult) {
+        final long receivedAt = System.currentTimeMillis();
+        final long triggerAt = intent.getLongExtra(EXTRA_TRIGGER_AT, -1L);
+        final long armedAt = intent.getLongExtra(EXTRA_ARMED_AT, triggerAt);
+        final int mode = intent.getIntExtra(EXTRA_MODE, AlarmDeliveryLog.MODE_EXACT);
+        final Context appContext = context.getApplicationContext();
+        EXECUTOR.execute(() -> {
+            long start = Metrics.begin("alarm.fire");
+            boolean handedOff = false;
+            try {
+                // 프로세스가 알람으로 새로 뜬 경우 큐를 지금 시각 기준으로 만들면 방금 도래한 항목이
+                // 내일(또는 지난 날짜라 제외)로 밀려 알림이 사라지므로, 이번 묶음의 시각 직전을 기준으로 만듦
+                ensureLoaded(appContext, triggerAt > 0
+                        ? Math.min(triggerAt, armedAt) - FIRE_WINDOW_MS : System.currentTimeMillis());
+                armedTriggerAt = -1;
+
+                long lead = 0;
+                if (triggerAt > 0) {
+                    recordDelivery(appContext, receivedAt, triggerAt, armedAt, mode);
+                    lead = Math.max(0, Math.min(AlarmDeliveryLog.MAX_LEAD_MS, triggerAt - armedAt));
+                }
+
+                long limit = System.currentTimeMillis() + FIRE_WINDOW_MS + lead;
+                List<Entry> due = new ArrayList<>();
+                while (!queue.isEmpty() && queue.first().triggerAt <= limit) {
+                    Entry entry = queue.pollFirst();
+                    entriesById.remove(entry.id);
+                    due.add(entry);
+                }
+
+                long[] ids = new long[due.size()];
+                String[] titles = new String[due.size()];
+                SharedPreferences.Editor fired = prefs(appContext).edit();
+                TimeZone zone = TimeZone.getDefault();
+                for (int i = 0; i < due.size(); i++) {
+                    Entry entry = due.get(i);
+                    if (entry.recurring != null) {
+                        // 반복 항목: 이번 발생 다음 시각으로 다시 예약 (미리 울렸어도 이번 발생은 건너뜀)
+                        upsert(entry.recurring, Math.max(System.currentTimeMillis(), entry.triggerAt), zone);
+                    } else {
+                        fired.putBoolean(KEY_FIRED_PREFIX + entry.id, true);
+                    }
+                    ids[i] = entry.id;
+                    titles[i] = entry.title;
+                }
+                fired.apply();
+                Log.d(TAG, "알람 " + due.size() + "건 처리, 남은 대기 " + queue.size() + "건");
+
+                rearm(appContext);
+
+                // 알림 전달이 끝나면 AlarmNotifier 가 pendingResult 를 finish
+                if (ids.length > 0) {
+                    AlarmNotifier.enqueueAll(appContext, ids, titles, pendingResult);
+                    handedOff = true;
+                }
+            } finally {
+                if (!handedOff && pendingResult != null) {
+                    pendingResult.finish();
+                }
+                Metrics.end("alarm.fire", start);
+            }
+        });
     }
 
     /**
-     * 알람 취소
+     * 재부팅·시계/시간대 변경 후 호출합니다. 시스템 알람과 (시각이 바뀐) 큐를 버리고 DB 에서 다시 만든 뒤
+     * 가장 빠른 알람을 등록합니다. 끝나면 pendingResult 를 finish 합니다.
      */
-    public static void cancelAlarm(Context context, long itemId) {
+    static void rehydrate(Context context, String reason, BroadcastReceiver.PendingResult pendingResult) {
+        final Context appContext = context.getApplicationContext();
+        EXECUTOR.execute(() -> {
+            try {
+                rehydrateOnExecutor(appContext, reason);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "알람 재등록 실패: " + reason, e);
+            } finally {
+                if (pendingResult != null) {
+                    pendingResult.finish();
+                }
+            }
+        });
+    }
+
+    // 앱 안에서 항목이 한꺼번에 바뀌었을 때(백업 가져오기 등) 큐를 DB 에서 다시 만듦
+    public static void rehydrate(Context context, String reason) {
+        rehydrate(context, reason, null);
+    }
+
+    // 테스트·벤치마크용: rehydrate 를 실행하고 끝날 때까지 기다림 (메인 스레드에서 호출 금지)
+    static RehydrationResult rehydrateNow(Context context, String reason) throws Exception {
+        final Context appContext = context.getApplicationContext();
+        return EXECUTOR.submit(() -> rehydrateOnExecutor(appContext, reason)).get();
+    }
+
+    /**
+     * 최근 전달 지연 요약 (표본 수, 알림 지연 p50/p95/p99/최대, 방식별 건수). 어느 스레드에서 호출해도 됩니다.
+     */
+    public static String describeDeliveryAccuracy(Context context) {
+        return AlarmDeliveryLog.parse(prefs(context).getString(KEY_DELIVERY_LOG, null)).describe();
+    }
+
+    // 테스트용: 프로세스가 새로 뜬 것처럼 큐를 비움 (다음 작업 때 DB 에서 다시 만듦)
+    static void resetQueue() throws Exception {
+        EXECUTOR.submit(() -> {
+            queue.clear();
+            entriesById.clear();
+            isLoaded = false;
+        }).get();
+    }
+
+    // 테스트·벤치마크용: 지금까지 넣은 작업(예약·취소 등)이 모두 끝날 때까지 기다림 (메인 스레드에서 호출 금지)
+    static void awaitIdle() throws Exception {
+        EXECUTOR.submit(() -> { }).get();
+    }
+
+    // --- 내부 로직 (EXECUTOR 스레드) ---
+
+    private static RehydrationResult rehydrateOnExecutor(Context context, String reason) {
+        armedTriggerAt = -1;
+        RehydrationResult result = rebuildQueue(context, REHYDRATE_BUDGET_MS, System.currentTimeMillis());
+        rearm(context);
+
+        prefs(context).edit()
+                .putString(KEY_LAST_REHYDRATE_REASON, reason)
+                .putInt(KEY_LAST_REHYDRATE_COUNT, result.restored)
+                .putLong(KEY_LAST_REHYDRATE_MS, result.elapsedMs)
+                .putBoolean(KEY_LAST_REHYDRATE_COMPLETE, result.isComplete)
+                .apply();
+        Log.i(TAG, "알람 재등록(" + reason + "): " + result.restored + "건, " + result.elapsedMs + "ms"
+                + (result.isComplete ? "" : " (시간 초과로 일부만, 나머지는 다음 알람 때 로드)"));
+        return result;
+    }
+
+    // 프로세스 시작 후 처음 한 번, DB 의 미완료·시간 지정 항목으로 큐를 만든다.
+    private static void ensureLoaded(Context context) {
+        ensureLoaded(context, System.currentTimeMillis());
+    }
+
+    // now: 다음 발생 시각을 계산할 기준 시각 (알람 처리 중에는 울린 묶음의 시각 직전)
+    private static void ensureLoaded(Context context, long now) {
+        if (isLoaded) return;
+        RehydrationResult result = rebuildQueue(context, Long.MAX_VALUE, now);
+        Log.d(TAG, "알람 큐 로드: " + result.restored + "건, " + result.elapsedMs + "ms");
+    }
+
+    /**
+     * 큐를 비우고 DB 에서 다음 울릴 순서대로 다시 채웁니다.
+     * budgetMs 를 넘기면 멈추는데, 그때까지 읽은 항목이 가장 먼저 울릴 것들이므로 등록할 알람은 정확합니다.
+     * 이 경우 isLoaded 를 false 로 두어 다음 작업(알람 발생 등) 때 전체를 다시 읽습니다.
+     * 각 항목은 now 이후 처음 울릴 시각으로 큐에 들어갑니다.
+     */
+    private static RehydrationResult rebuildQueue(Context context, long budgetMs, long now) {
+        long start = Metrics.begin("alarm.rebuildQueue");
+        long deadline = budgetMs == Long.MAX_VALUE ? Long.MAX_VALUE : start + budgetMs * 1_000_000L;
+        queue.clear();
+        entriesById.clear();
 
+        SharedPreferences prefs = prefs(context);
+        TimeZone zone = TimeZone.getDefault();
+        int[] visited = {0};
+
+        TodoItemDataSource dataSource = new TodoItemDataSource(context);
+        dataSource.open();
+        boolean isComplete = dataSource.scanUpcomingTasksInTriggerOrder(
+                TriggerTimes.epochDay(now, zone), TriggerTimes.minuteOfDay(now, zone), item -> {
+                    // 반복 항목은 울린 표시를 남기지 않고 항상 다음 발생으로 예약
+                    if (item.isRecurring() || !prefs.getBoolean(KEY_FIRED_PREFIX + item.getId(), false)) {
+                        upsert(item, now, zone);
+                    }
+                    return ++visited[0] % BUDGET_CHECK_INTERVAL != 0 || System.nanoTime() < deadline;
+                });
+
+        isLoaded = isComplete;
+        Metrics.end("alarm.rebuildQueue", start);
+        return new RehydrationResult(queue.size(), (System.nanoTime() - start) / 1_000_000L, isComplete);
+    }
+
+    // item 은 재사용되는 객체일 수 있으므로 반복 항목은 복사해서 보관
+    private static void upsert(TodoItem item, long now, TimeZone zone) {
+        remove(item.getId());
+        long triggerAt = TriggerTimes.nextTriggerAt(item, now, zone);
+        if (triggerAt < 0) return;
+
+        Entry entry = new Entry(triggerAt, item.getId(), item.getTitle(),
+                item.isRecurring() ? new TodoItem(item) : null);
+        queue.add(entry);
+        entriesById.put(entry.id, entry);
+    }
+
+    private static void remove(long id) {
+        Entry previous = entriesById.remove(id);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+    }
+
+    /**
+     * 큐의 맨 앞 항목으로 시스템 알람 하나를 등록합니다. (이미 같은 시각으로 등록돼 있으면 생략)
+     */
+    @SuppressLint("ScheduleExactAlarm")
+    private static void rearm(Context context) {
         AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        Entry head = queue.isEmpty() ? null : queue.first();
 
+        if (head == null) {
+            PendingIntent existing = firePendingIntent(context, -1, -1, AlarmDeliveryLog.MODE_EXACT,
+                    PendingIntent.FLAG_NO_CREATE);
+            if (existing != null) {
+                alarmManager.cancel(existing);
+            }
+            armedTriggerAt = -1;
+            return;
+        }
+        if (head.triggerAt == armedTriggerAt) return;
+
+        // 방식 선택: 권한이 없으면 부정확한 알람, 정확한 알람이 자주 늦었으면 알람 시계, 그 외에는 정확한 알람
+        long now = System.currentTimeMillis();
+        AlarmDeliveryLog log = deliveryLog(context);
+        int mode;
+        if (!alarmManager.canScheduleExactAlarms()) {
+            mode = AlarmDeliveryLog.MODE_INEXACT;
+        } else if (log.shouldUseAlarmClock(now)) {
+            mode = AlarmDeliveryLog.MODE_ALARM_CLOCK;
+        } else {
+            mode = AlarmDeliveryLog.MODE_EXACT;
+        }
+        // 같은 방식의 최근 시스템 지연만큼 미리 걸어 due 시각 즈음에 도착하게 함
+        long armAt = Math.max(now, head.triggerAt - log.preFireLeadMs(mode, now));
+
+        PendingIntent pendingIntent = firePendingIntent(context, head.triggerAt, armAt, mode,
+                PendingIntent.FLAG_UPDATE_CURRENT);
+        if (mode == AlarmDeliveryLog.MODE_ALARM_CLOCK) {
+            alarmManager.setAlarmClock(new AlarmManager.AlarmClockInfo(armAt, showAppIntent(context)), pendingIntent);
+        } else if (mode == AlarmDeliveryLog.MODE_EXACT) {
+            alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, armAt, pendingIntent);
+        } else {
+            alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, armAt, pendingIntent);
+        }
+        armedTriggerAt = head.triggerAt;
+        Log.d(TAG, "다음 알람 등록: " + head.title + " → " + new Date(head.triggerAt)
+                + " (방식 " + mode + ", " + (head.triggerAt - armAt) + "ms 미리)");
+    }
+
+    private static PendingIntent firePendingIntent(Context context, long triggerAt, long armedAt, int mode, int flag) {
         Intent intent = new Intent(context, AlarmReceiver.class);
+        intent.setAction(ACTION_FIRE);
+        intent.putExtra(EXTRA_TRIGGER_AT, triggerAt);
+        intent.putExtra(EXTRA_ARMED_AT, armedAt);
+        intent.putExtra(EXTRA_MODE, mode);
+        return PendingIntent.getBroadcast(
+                context,
+                SINGLE_ALARM_REQUEST_CODE,
+                intent,
+                flag | PendingIntent.FLAG_IMMUTABLE
+        );
+    }
+
+    // 알람 시계 방식에서 사용자가 상태 표시줄의 다음 알람을 눌렀을 때 열 화면
+    private static PendingIntent showAppIntent(Context context) {
+        Intent launch = context.getPackageManager().getLaunchIntentForPackage(context.getPackageName());
+        return PendingIntent.getActivity(context, 0, launch, PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    private static AlarmDeliveryLog deliveryLog(Context context) {
+        if (deliveryLog == null) {
+            deliveryLog = AlarmDeliveryLog.parse(prefs(context).getString(KEY_DELIVERY_LOG, null));
+        }
+        return deliveryLog;
+    }
+
+    private static void recordDelivery(Context context, long receivedAt, long triggerAt, long armedAt, int mode) {
+        AlarmDeliveryLog log = deliveryLog(context);
+        log.add(receivedAt, triggerAt, armedAt, mode);
+        prefs(context).edit().putString(KEY_DELIVERY_LOG, log.serialize()).apply();
+
+        long lateMs = receivedAt - triggerAt;
+        Metrics.record("alarm.delivery.late_ms", lateMs);
+        Metrics.record("alarm.delivery.systemDelay_ms", receivedAt - armedAt);
+        if (lateMs > AlarmDeliveryLog.ALARM_CLOCK_THRESHOLD_MS) {
+            Log.w(TAG, "알람이 " + lateMs + "ms 늦게 도착 (방식 " + mode + ")");
+        }
+    }
 
-        PendingIntent pendingIntent = PendingIntent.getBroadcast(
+    // 이전 버전에서 항목별로 등록했던 알람이 남아 있으면 함께 정리
+    private static void cancelLegacyAlarm(Context context, long itemId) {
+        Intent intent = new Intent(context, AlarmReceiver.class);
+        PendingIntent legacy = PendingIntent.getBroadcast(
                 context,
                 (int) itemId,
                 intent,
                 PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE
         );
+        if (legacy != null) {
+            ((AlarmManager) context.getSystemService(Context.ALARM_SERVICE)).cancel(legacy);
+        }
+    }
 
-        if (pendingIntent != null) {
-            alarmManager.cancel(pendingIntent);
-            Log.d(TAG, "알람 취소됨 ID = " + itemId);
+    private static void recordScheduleLatency(long requestedAtNanos) {
+        Metrics.record("alarm.schedule.latency.us", (System.nanoTime() - requestedAtNanos) / 1_000L);
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    private static void clearFired(Context context, long itemId) {
+        prefs(context).edit().remove(KEY_FIRED_PREFIX + itemId).apply();
+    }
+
+    private static List<TodoItem> copyOf(List<TodoItem> items) {
+        List<TodoItem> copies = new ArrayList<>(items.size());
+        for (TodoItem item : items) {
+            copies.add(new TodoItem(item));
         }
+        return copies;
     }
 }
@@ -0,0 +1,73 @@
+package com.example.to_dolist.alarm;
+
+import com.example.to_dolist.data.Occurrences;
+import com.example.to_dolist.data.TodoItem;
+
+import java.util.TimeZone;
+
+/**
+ * "자정부터의 분" 으로 저장된 시각을 다음 알람 시각(epoch millis)으로 바꾸는 계산.
+ * SimpleDateFormat/Calendar 없이 덧셈과 시간대 오프셋만 사용하므로 객체를 만들지 않습니다.
+ * 위젯 스냅샷(TodoSnapshot)도 알람과 같은 순서를 쓰도록 이 계산을 공유합니다.
+ */
+public final class TriggerTimes {
+
+    static final long MINUTE_MS = 60_000L;
+    static final long DAY_MS = 24 * 60 * MINUTE_MS;
+
+    private TriggerTimes() {
+    }
+
+    /**
+     * 항목이 now 이후 처음 울릴 시각. 알람이 필요 없으면(시각 없음, 지난 날짜) -1.
+     * 날짜 없는 일회성 항목은 아래의 덧셈 계산으로, 날짜·반복 항목은 Occurrences 로 계산합니다.
+     */
+    public static long nextTriggerAt(TodoItem item, long now, TimeZone zone) {
+        if (!item.hasDueTime()) return -1;
+        if (!item.hasDueDate() && !item.isRecurring()) {
+            return nextTriggerAt(item.getDueMinutes(), now, zone);
+        }
+        return Occurrences.nextTriggerAt(item, now, zone.toZoneId());
+    }
+
+    /**
+     * now 이후 처음으로 오는 dueMinutes 시각. (오늘 그 시각이 이미 지났으면 내일)
+     */
+    static long nextTriggerAt(int dueMinutes, long now, TimeZone zone) {
+        long localNow = now + zone.getOffset(now);
+        long localMidnight = localNow - Math.floorMod(localNow, DAY_MS);
+        long localTarget = localMidnight + dueMinutes * MINUTE_MS;
+
+        long trigger = toUtc(localTarget, zone);
+        if (trigger <= now) {
+            trigger = toUtc(localTarget + DAY_MS, zone);
+        }
+        return trigger;
+    }
+
+    /**
+     * now 의 로컬 시각을 자정부터의 분으로.
+     */
+    public static int minuteOfDay(long now, TimeZone zone) {
+        return (int) (Math.floorMod(now + zone.getOffset(now), DAY_MS) / MINUTE_MS);
+    }
+
+    /**
+     * now 의 로컬 날짜 (LocalDate.toEpochDay 와 같은 값).
+     */
+    public static long epochDay(long now, TimeZone zone) {
+        return Math.floorDiv(now + zone.getOffset(now), DAY_MS);
+    }
+
+    // 로컬 벽시계 시각 → UTC. 경계 앞뒤의 오프셋을 각각 대 보고 Occurrences(ZonedDateTime)와 같은 규칙으로 고름:
+    // 겹치는 시각(서머타임 끝)은 앞의 것, 건너뛴 시각(서머타임 시작, 예: 02:30)은 바뀌기 전 오프셋으로 앞으로 미룸(→ 03:30)
+    private static long toUtc(long localMillis, TimeZone zone) {
+        int before = zone.getOffset(localMillis - DAY_MS);
+        int after = zone.getOffset(localMillis + DAY_MS);
+        long beforeUtc = localMillis - before;
+        if (before == after || zone.getOffset(beforeUtc) == before) return beforeUtc;
+        long afterUtc = localMillis - after;
+        if (zone.getOffset(afterUtc) == after) return afterUtc;
+        return beforeUtc;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.to_dolist.data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 길이를 앞에 붙인 바이너리 백업 형식.
+ * <pre>
+ * 머리말: int MAGIC, short VERSION
+ * 레코드: int 내용 길이, byte 종류, 내용
+ *   CATEGORY: long id, UTF 이름
+ *   TASK:     long id, long 카테고리 id, UTF 제목, int 분(-1 없음), boolean 완료,
+ *             long 날짜(epoch day, Long.MIN_VALUE 없음), UTF 반복 규칙("" 없음)
+ *   END:      long 항목 수
+ * </pre>
+ * 모르는 종류의 레코드는 길이만큼 건너뛰므로 나중에 레코드 종류를 추가해도 이전 버전이 읽을 수 있습니다.
+ * 레코드 버퍼는 재사용하므로 파일 크기와 무관하게 메모리 사용량이 일정합니다. (안드로이드 API 를 쓰지 않음)
+ */
+final class BinaryBackupCodec {
+
+    static final int MAGIC = 0x54444F42; // "TDOB"
+    static final short VERSION = 1;
+
+    static final byte TYPE_END = 0;
+    static final byte TYPE_CATEGORY = 1;
+    static final byte TYPE_TASK = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private BinaryBackupCodec() {
+    }
+
+    static TodoBackupWriter newWriter(OutputStream out) throws IOException {
+        return new Writer(out);
+    }
+
+    static TodoBackupReader newReader(InputStream in) throws IOException {
+        return new Reader(in);
+    }
+
+    private static final class Writer implements TodoBackupWriter {
+        private final DataOutputStream out;
+        // 레코드 하나를 모아 길이를 구하는 버퍼 (reset 으로 재사용)
+        private final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+        private final DataOutputStream recordOut = new DataOutputStream(record);
+        private long taskCount = 0;
+
+        Writer(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+            this.out.writeInt(MAGIC);
+            this.out.writeShort(VERSION);
+        }
+
+        @Override
+        public void writeCategory(long id, String name) throws IOException {
+            recordOut.writeLong(id);
+            recordOut.writeUTF(name);
+            flushRecord(TYPE_CATEGORY);
+        }
+
+        @Override
+        public void writeTask(TodoItem item) throws IOException {
+            recordOut.writeLong(item.getId());
+            recordOut.writeLong(item.getCategoryId());
+            recordOut.writeUTF(item.getTitle());
+            recordOut.writeInt(item.getDueMinutes());
+            recordOut.writeBoolean(item.isCompleted());
+            recordOut.writeLong(item.getDueDate());
+            recordOut.writeUTF(item.isRecurring() ? item.getRecurrence().encode() : "");
+            flushRecord(TYPE_TASK);
+            taskCount++;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            recordOut.writeLong(taskCount);
+            flushRecord(TYPE_END);
+            out.flush();
+        }
+
+        private void flushRecord(byte type) throws IOException {
+            out.writeInt(record.size());
+            out.writeByte(type);
+            record.writeTo(out);
+            record.reset();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static final class Reader implements TodoBackupReader {
+        private final DataInputStream in;
+        private final RecordBuffer record = new RecordBuffer();
+        private final DataInputStream recordIn = new DataInputStream(record);
+        private final TodoItem reused = new TodoItem();
+        private long taskCount = 0;
+
+        Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+            try {
+                if (this.in.readInt() != MAGIC) throw new IOException("백업 파일이 아님");
+                short version = this.in.readShort();
+                if (version > VERSION) throw new IOException("지원하지 않는 백업 버전: " + version);
+            } catch (EOFException e) {
+                throw new IOException("백업 파일이 아님", e);
+            }
+        }
+
+        @Override
+        public boolean readNext(Handler handler) throws IOException {
+            int length;
+            byte type;
+            try {
+                length = in.readInt();
+                type = in.readByte();
+                if (length < 0) throw new IOException("레코드 길이 오류: " + length);
+                record.fill(in, length);
+            } catch (EOFException e) {
+                throw new IOException("백업 파일이 잘림 (항목 " + taskCount + "개까지 읽음)", e);
+            }
+
+            switch (type) {
+                case TYPE_CATEGORY:
+                    handler.onCategory(recordIn.readLong(), recordIn.readUTF());
+                    return true;
+                case TYPE_TASK:
+                    reused.setId(recordIn.readLong());
+                    reused.setCategoryId(recordIn.readLong());
+                    reused.setTitle(recordIn.readUTF());
+                    reused.setDueMinutes(recordIn.readInt());
+                    reused.setCompleted(recordIn.readBoolean());
+                    reused.setDueDate(recordIn.readLong());
+                    String recurrence = recordIn.readUTF();
+                    reused.setRecurrence(recurrence.isEmpty() ? null : Recurrence.decode(recurrence));
+                    taskCount++;
+                    handler.onTask(reused);
+                    return true;
+                case TYPE_END:
+                    long expected = recordIn.readLong();
+                    if (expected != taskCount) {
+                        throw new IOException("항목 수 불일치: " + taskCount + " / " + expected);
+                    }
+                    return false;
+                default:
+                    // 이후 버전에서 추가된 레코드 (이미 길이만큼 읽었으므로 그대로 버림)
+                    return true;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // 레코드 하나를 담는 입력 버퍼. 배열은 가장 긴 레코드 크기까지만 커지고 재사용됨
+    private static final class RecordBuffer extends ByteArrayInputStream {
+        RecordBuffer() {
+            super(new byte[256]);
+        }
+
+        void fill(DataInputStream source, int length) throws IOException {
+            if (buf.length < length) {
+                buf = new byte[Math.max(length, buf.length * 2)];
+            }
+            source.readFully(buf, 0, length);
+            pos = 0;
+            count = length;
+            mark = 0;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.to_dolist.data;
+
+/**
+ * 사용자가 정의하는 카테고리 (category 테이블의 한 행).
+ * totalCount/openCount 는 todoitem 트리거가 유지하는 카운터를 그대로 읽은 값이므로,
+ * 필터 칩에 개수를 보여줄 때 COUNT(*) 로 테이블을 훑지 않습니다.
+ * 불변 객체이며, 개수가 바뀌면 저장소에서 다시 읽습니다.
+ */
+public final class Category {
+
+    // 필터의 "전체" (실제 카테고리 id 는 1 부터이므로 겹치지 않음)
+    public static final long ALL = 0;
+
+    private final long id;
+    private final String name;
+    private final int totalCount;
+    private final int openCount;
+
+    Category(long id, String name, int totalCount, int openCount) {
+        this.id = id;
+        this.name = name;
+        this.totalCount = totalCount;
+        this.openCount = openCount;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // 전체 항목 수
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    // 미완료 항목 수
+    public int getOpenCount() {
+        return openCount;
+    }
+
+    // 스피너(ArrayAdapter)에 이름이 보이도록
+    @Override
+    public String toString() {
+        return name;
+    }
+}
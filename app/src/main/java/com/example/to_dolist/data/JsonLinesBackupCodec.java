@@ -0,0 +1,206 @@
+package com.example.to_dolist.data;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON Lines 백업 형식: 한 줄에 JSON 객체 하나. 사람이 읽거나 다른 도구로 옮기기 쉬운 대신 바이너리보다 큽니다.
+ * <pre>
+ * {"format":"todolist","version":1}
+ * {"type":"category","id":1,"name":"WORK"}
+ * {"type":"task","id":7,"category":1,"title":"...","completed":false,"due_time":540,"due_date":19900,"recurrence":"D"}
+ * {"type":"end","tasks":1}
+ * </pre>
+ * 없는 값(시간·날짜·반복)은 키를 생략합니다. 모르는 키와 모르는 type 의 줄은 건너뜁니다.
+ * 스트리밍 JsonWriter/JsonReader 로 한 줄씩 처리하므로 메모리 사용량이 일정합니다.
+ */
+final class JsonLinesBackupCodec {
+
+    static final String FORMAT_NAME = "todolist";
+    static final int VERSION = 1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private JsonLinesBackupCodec() {
+    }
+
+    static TodoBackupWriter newWriter(OutputStream out) throws IOException {
+        return new LineWriter(out);
+    }
+
+    static TodoBackupReader newReader(InputStream in) throws IOException {
+        return new LineReader(in);
+    }
+
+    private static final class LineWriter implements TodoBackupWriter {
+        private final Writer out;
+        private final JsonWriter json;
+        private long taskCount = 0;
+
+        LineWriter(OutputStream out) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            // 여러 최상위 값을 이어 쓰기 위해 lenient (줄바꿈은 직접 씀)
+            this.json = new JsonWriter(this.out);
+            this.json.setLenient(true);
+            json.beginObject().name("format").value(FORMAT_NAME).name("version").value(VERSION).endObject();
+            this.out.write('\n');
+        }
+
+        @Override
+        public void writeCategory(long id, String name) throws IOException {
+            json.beginObject().name("type").value("category").name("id").value(id).name("name").value(name).endObject();
+            out.write('\n');
+        }
+
+        @Override
+        public void writeTask(TodoItem item) throws IOException {
+            json.beginObject()
+                    .name("type").value("task")
+                    .name("id").value(item.getId())
+                    .name("category").value(item.getCategoryId())
+                    .name("title").value(item.getTitle())
+                    .name("completed").value(item.isCompleted());
+            if (item.hasDueTime()) json.name("due_time").value(item.getDueMinutes());
+            if (item.hasDueDate()) json.name("due_date").value(item.getDueDate());
+            if (item.isRecurring()) json.name("recurrence").value(item.getRecurrence().encode());
+            json.endObject();
+            out.write('\n');
+            taskCount++;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.beginObject().name("type").value("end").name("tasks").value(taskCount).endObject();
+            out.write('\n');
+            json.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.close();
+        }
+    }
+
+    private static final class LineReader implements TodoBackupReader {
+        private final JsonReader json;
+        private final TodoItem reused = new TodoItem();
+        private long taskCount = 0;
+
+        LineReader(InputStream in) throws IOException {
+            json = new JsonReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE));
+            json.setLenient(true);
+            readHeader();
+        }
+
+        private void readHeader() throws IOException {
+            String format = null;
+            int version = 0;
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "format":
+                        format = json.nextString();
+                        break;
+                    case "version":
+                        version = json.nextInt();
+                        break;
+                    default:
+                        json.skipValue();
+                }
+            }
+            json.endObject();
+            if (!FORMAT_NAME.equals(format)) throw new IOException("백업 파일이 아님");
+            if (version > VERSION) throw new IOException("지원하지 않는 백업 버전: " + version);
+        }
+
+        @Override
+        public boolean readNext(Handler handler) throws IOException {
+            if (json.peek() == JsonToken.END_DOCUMENT) {
+                throw new IOException("백업 파일이 잘림 (항목 " + taskCount + "개까지 읽음)");
+            }
+
+            String type = null;
+            long id = 0;
+            long category = TodoItem.NO_CATEGORY;
+            String text = null;
+            boolean completed = false;
+            int dueMinutes = TodoItem.NO_DUE_TIME;
+            long dueDate = TodoItem.NO_DUE_DATE;
+            String recurrence = null;
+            long tasks = -1;
+
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "type":
+                        type = json.nextString();
+                        break;
+                    case "id":
+                        id = json.nextLong();
+                        break;
+                    case "category":
+                        category = json.nextLong();
+                        break;
+                    case "name":
+                    case "title":
+                        text = json.nextString();
+                        break;
+                    case "completed":
+                        completed = json.nextBoolean();
+                        break;
+                    case "due_time":
+                        dueMinutes = json.nextInt();
+                        break;
+                    case "due_date":
+                        dueDate = json.nextLong();
+                        break;
+                    case "recurrence":
+                        recurrence = json.nextString();
+                        break;
+                    case "tasks":
+                        tasks = json.nextLong();
+                        break;
+                    default:
+                        json.skipValue();
+                }
+            }
+            json.endObject();
+
+            if ("category".equals(type)) {
+                if (text == null) throw new IOException("카테고리 이름 없음: " + id);
+                handler.onCategory(id, text);
+            } else if ("task".equals(type)) {
+                if (text == null) throw new IOException("항목 제목 없음: " + id);
+                reused.setId(id);
+                reused.setCategoryId(category);
+                reused.setTitle(text);
+                reused.setCompleted(completed);
+                reused.setDueMinutes(dueMinutes);
+                reused.setDueDate(dueDate);
+                reused.setRecurrence(recurrence != null ? Recurrence.decode(recurrence) : null);
+                taskCount++;
+                handler.onTask(reused);
+            } else if ("end".equals(type)) {
+                if (tasks != taskCount) throw new IOException("항목 수 불일치: " + taskCount + " / " + tasks);
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.close();
+        }
+    }
+}
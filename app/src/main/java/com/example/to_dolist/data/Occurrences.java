@@ -0,0 +1,127 @@
+package com.example.to_dolist.data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 날짜·반복 항목의 발생(occurrence) 전개.
+ * 모든 발생을 미리 만들지 않고, 필요한 만큼만 Recurrence.firstOnOrAfter 로 다음 날짜를 바로 계산합니다.
+ * 날짜 없는 일회성 항목("다음 그 시각")은 날짜로 전개하지 않습니다. (알람은 TriggerTimes 가 계산)
+ */
+public final class Occurrences {
+
+    /**
+     * 아젠다의 한 줄: 어느 날짜에 어떤 항목이 있는지. item 은 여러 날짜가 같은 객체를 공유합니다.
+     */
+    public static final class Occurrence {
+        public final LocalDate date;
+        public final TodoItem item;
+
+        Occurrence(LocalDate date, TodoItem item) {
+            this.date = date;
+            this.item = item;
+        }
+    }
+
+    // 날짜 → 시각(없으면 맨 뒤) → id
+    static final Comparator<Occurrence> AGENDA_ORDER = (a, b) -> {
+        int byDate = a.date.compareTo(b.date);
+        if (byDate != 0) return byDate;
+        int byTime = Integer.compare(minutesForOrder(a.item), minutesForOrder(b.item));
+        return byTime != 0 ? byTime : Long.compare(a.item.getId(), b.item.getId());
+    };
+
+    private Occurrences() {
+    }
+
+    /**
+     * from(포함) 이후의 발생 날짜를 순서대로 돌려주는 지연 반복자.
+     * 반복 항목은 끝이 없고, 날짜 있는 일회성 항목은 최대 하나, 날짜 없는 일회성 항목은 없습니다.
+     */
+    public static Iterator<LocalDate> dates(TodoItem item, LocalDate from) {
+        Recurrence rule = item.getRecurrence();
+        if (rule == null) {
+            if (item.hasDueDate()) {
+                LocalDate date = LocalDate.ofEpochDay(item.getDueDate());
+                if (!date.isBefore(from)) return Collections.singletonList(date).iterator();
+            }
+            return Collections.emptyIterator();
+        }
+        // 반복 시작일이 없으면(이전 데이터 등) 조회 시작일부터
+        final LocalDate anchor = item.hasDueDate() ? LocalDate.ofEpochDay(item.getDueDate()) : from;
+        return new Iterator<LocalDate>() {
+            private LocalDate cursor = from;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public LocalDate next() {
+                LocalDate date = rule.firstOnOrAfter(anchor, cursor);
+                cursor = date.plusDays(1);
+                return date;
+            }
+        };
+    }
+
+    /**
+     * from 이후 최대 n 개의 발생 날짜.
+     */
+    public static List<LocalDate> next(TodoItem item, LocalDate from, int n) {
+        List<LocalDate> result = new ArrayList<>(Math.min(n, 64));
+        Iterator<LocalDate> dates = dates(item, from);
+        while (result.size() < n && dates.hasNext()) {
+            result.add(dates.next());
+        }
+        return result;
+    }
+
+    /**
+     * now 이후 처음 울릴 시각(epoch millis). 시각이 없거나 더 발생하지 않으면 -1.
+     * 날짜 없는 일회성 항목은 여기서 다루지 않으므로 -1 입니다.
+     * 오늘 발생이 이미 지났으면 다음 발생으로 넘어가므로 최대 두 번만 계산합니다.
+     */
+    public static long nextTriggerAt(TodoItem item, long now, ZoneId zone) {
+        if (!item.hasDueTime()) return -1;
+        LocalDate today = Instant.ofEpochMilli(now).atZone(zone).toLocalDate();
+        LocalTime time = LocalTime.ofSecondOfDay(item.getDueMinutes() * 60L);
+        Iterator<LocalDate> dates = dates(item, today);
+        while (dates.hasNext()) {
+            // 서머타임으로 건너뛴 시각은 ZonedDateTime 이 그 뒤의 유효한 시각으로 맞춤
+            long trigger = dates.next().atTime(time).atZone(zone).toInstant().toEpochMilli();
+            if (trigger > now) return trigger;
+        }
+        return -1;
+    }
+
+    /**
+     * start~end(포함) 사이의 발생을 날짜·시각 순으로 펼칩니다. items 는 getTasksDueInRange 결과.
+     * 반복 항목도 범위 안의 날짜만 계산하므로 비용은 결과 수에 비례합니다.
+     */
+    public static List<Occurrence> expand(List<TodoItem> items, LocalDate start, LocalDate end) {
+        List<Occurrence> result = new ArrayList<>(items.size());
+        for (TodoItem item : items) {
+            Iterator<LocalDate> dates = dates(item, start);
+            while (dates.hasNext()) {
+                LocalDate date = dates.next();
+                if (date.isAfter(end)) break;
+                result.add(new Occurrence(date, item));
+            }
+        }
+        Collections.sort(result, AGENDA_ORDER);
+        return result;
+    }
+
+    private static int minutesForOrder(TodoItem item) {
+        return item.hasDueTime() ? item.getDueMinutes() : Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.to_dolist.data;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * 반복 규칙: 매일, 매주(요일 지정), 매월(시작일의 날짜).
+ * 시작일(anchor)은 항목의 dueDate 이며, 매월 반복에서 그 달에 없는 날짜(31일 등)는 그 달의 마지막 날로 맞춥니다.
+ * 불변 객체이며, DB 에는 encode() 한 짧은 문자열로 저장합니다. ("D", "W:<요일 비트>", "M")
+ */
+public final class Recurrence {
+
+    public enum Frequency {
+        DAILY,
+        WEEKLY,
+        MONTHLY
+    }
+
+    // 요일 비트: 월요일이 bit 0, 일요일이 bit 6 (DayOfWeek.getValue() - 1)
+    public static final int WEEKDAYS = 0b0011111;
+    public static final int EVERY_DAY = 0b1111111;
+
+    private static final Recurrence DAILY = new Recurrence(Frequency.DAILY, EVERY_DAY);
+    private static final Recurrence MONTHLY = new Recurrence(Frequency.MONTHLY, 0);
+
+    private final Frequency frequency;
+    private final int weekdayMask;
+
+    private Recurrence(Frequency frequency, int weekdayMask) {
+        this.frequency = frequency;
+        this.weekdayMask = weekdayMask;
+    }
+
+    public static Recurrence daily() {
+        return DAILY;
+    }
+
+    /**
+     * 지정한 요일마다. weekdayMask 는 maskOf() 로 만든 요일 비트 (0 이면 IllegalArgumentException).
+     */
+    public static Recurrence weekly(int weekdayMask) {
+        if (weekdayMask <= 0 || weekdayMask > EVERY_DAY) {
+            throw new IllegalArgumentException("요일 비트가 올바르지 않음: " + weekdayMask);
+        }
+        return new Recurrence(Frequency.WEEKLY, weekdayMask);
+    }
+
+    public static Recurrence monthly() {
+        return MONTHLY;
+    }
+
+    public static int maskOf(DayOfWeek... days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= bitOf(day);
+        }
+        return mask;
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public int getWeekdayMask() {
+        return weekdayMask;
+    }
+
+    /**
+     * anchor 에서 시작하는 반복 중 from 이후(포함) 첫 날짜. 반복은 끝이 없으므로 항상 값이 있습니다.
+     * 목록을 만들지 않고 바로 계산합니다. (매일·매월은 O(1), 매주는 최대 7일 확인)
+     */
+    public LocalDate firstOnOrAfter(LocalDate anchor, LocalDate from) {
+        LocalDate start = from.isAfter(anchor) ? from : anchor;
+        switch (frequency) {
+            case WEEKLY:
+                for (int i = 0; i < 7; i++) {
+                    LocalDate day = start.plusDays(i);
+                    if ((weekdayMask & bitOf(day.getDayOfWeek())) != 0) return day;
+                }
+                throw new IllegalStateException("요일 비트가 비어 있음");
+            case MONTHLY:
+                LocalDate inMonth = dayOfMonth(YearMonth.from(start), anchor.getDayOfMonth());
+                return inMonth.isBefore(start)
+                        ? dayOfMonth(YearMonth.from(start).plusMonths(1), anchor.getDayOfMonth())
+                        : inMonth;
+            case DAILY:
+            default:
+                return start;
+        }
+    }
+
+    // --- 저장 형식 ---
+
+    public String encode() {
+        switch (frequency) {
+            case WEEKLY:
+                return "W:" + weekdayMask;
+            case MONTHLY:
+                return "M";
+            case DAILY:
+            default:
+                return "D";
+        }
+    }
+
+    /**
+     * encode() 결과를 읽습니다. null 이거나 알 수 없는 형식이면 null(반복 없음).
+     */
+    public static Recurrence decode(String text) {
+        if (text == null) return null;
+        if ("D".equals(text)) return DAILY;
+        if ("M".equals(text)) return MONTHLY;
+        if (text.startsWith("W:")) {
+            try {
+                int mask = Integer.parseInt(text.substring(2));
+                if (mask > 0 && mask <= EVERY_DAY) return new Recurrence(Frequency.WEEKLY, mask);
+            } catch (NumberFormatException ignored) {
+                // 아래에서 null
+            }
+        }
+        return null;
+    }
+
+    // --- 내부 로직 ---
+
+    private static int bitOf(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    private static LocalDate dayOfMonth(YearMonth month, int day) {
+        return month.atDay(Math.min(day, month.lengthOfMonth()));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof Recurrence)) return false;
+        Recurrence that = (Recurrence) other;
+        return frequency == that.frequency && weekdayMask == that.weekdayMask;
+    }
+
+    @Override
+    public int hashCode() {
+        return frequency.hashCode() * 31 + weekdayMask;
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
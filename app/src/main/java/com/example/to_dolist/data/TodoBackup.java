@@ -0,0 +1,55 @@
+package com.example.to_dolist.data;
+
+/**
+ * 내보내기·가져오기 설정과 결과.
+ * 내보내기는 id 순으로 EXPORT_CHUNK_ROWS 행씩 끊어 읽고(긴 커서 창 대신 키셋), 가져오기는 IMPORT_BATCH_ROWS 행마다
+ * 커밋하므로 어느 쪽도 항목 수에 비례하는 목록을 만들지 않습니다. (TodoItemDataSource.exportTo / importFrom)
+ */
+public final class TodoBackup {
+
+    // 내보내기 한 번에 읽는 행 수 (CursorWindow 하나에 들어가는 정도)
+    static final int EXPORT_CHUNK_ROWS = 1_000;
+    // 가져오기 트랜잭션 하나에 넣는 행 수 (fsync 횟수와 writer 를 붙잡는 시간의 균형)
+    static final int IMPORT_BATCH_ROWS = 500;
+
+    private TodoBackup() {
+    }
+
+    // 가져올 항목의 id 가 이미 있을 때
+    public enum IdConflict {
+        KEEP_EXISTING, // 기존 항목을 두고 백업 항목은 건너뜀
+        REPLACE,       // 백업 항목으로 덮어씀
+        KEEP_BOTH      // 백업 항목을 새 id 로 추가
+    }
+
+    /**
+     * 가져오기 결과. 파일이 중간에 잘렸거나 깨졌으면 그 전까지 커밋한 배치는 남고 isComplete 가 false 입니다.
+     */
+    public static final class ImportResult {
+        int inserted;
+        int replaced;
+        int skipped;
+        boolean isComplete;
+
+        public int getInserted() {
+            return inserted;
+        }
+
+        public int getReplaced() {
+            return replaced;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public boolean isComplete() {
+            return isComplete;
+        }
+
+        @Override
+        public String toString() {
+            return "추가 " + inserted + ", 교체 " + replaced + ", 건너뜀 " + skipped + (isComplete ? "" : " (중단됨)");
+        }
+    }
+}
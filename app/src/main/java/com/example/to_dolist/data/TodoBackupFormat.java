@@ -0,0 +1,60 @@
+package com.example.to_dolist.data;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 내보내기 형식. BINARY 는 작고 빠르며, JSON_LINES 는 사람이 읽거나 다른 도구로 옮기기 쉽습니다.
+ */
+public enum TodoBackupFormat {
+
+    BINARY("application/octet-stream", "todobackup") {
+        @Override
+        public TodoBackupWriter newWriter(OutputStream out) throws IOException {
+            return BinaryBackupCodec.newWriter(out);
+        }
+
+        @Override
+        TodoBackupReader newReader(InputStream in) throws IOException {
+            return BinaryBackupCodec.newReader(in);
+        }
+    },
+    JSON_LINES("application/x-ndjson", "jsonl") {
+        @Override
+        public TodoBackupWriter newWriter(OutputStream out) throws IOException {
+            return JsonLinesBackupCodec.newWriter(out);
+        }
+
+        @Override
+        TodoBackupReader newReader(InputStream in) throws IOException {
+            return JsonLinesBackupCodec.newReader(in);
+        }
+    };
+
+    // 파일 선택 화면(SAF)에 넘길 MIME 타입과 기본 파일 이름의 확장자
+    public final String mimeType;
+    public final String extension;
+
+    TodoBackupFormat(String mimeType, String extension) {
+        this.mimeType = mimeType;
+        this.extension = extension;
+    }
+
+    public abstract TodoBackupWriter newWriter(OutputStream out) throws IOException;
+
+    abstract TodoBackupReader newReader(InputStream in) throws IOException;
+
+    /**
+     * 첫 바이트로 형식을 판별해 읽기를 엽니다. (JSON Lines 는 '{' 로 시작, 바이너리는 MAGIC 으로 시작)
+     * 파일 이름·MIME 타입은 파일 선택 앱마다 달라 믿지 않습니다.
+     */
+    public static TodoBackupReader openReader(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        buffered.mark(1);
+        int first = buffered.read();
+        buffered.reset();
+        return (first == '{' ? JSON_LINES : BINARY).newReader(buffered);
+    }
+}
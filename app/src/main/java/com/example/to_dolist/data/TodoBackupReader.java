@@ -0,0 +1,23 @@
+package com.example.to_dolist.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 백업 파일을 한 레코드씩 읽습니다. 파일 전체를 목록으로 만들지 않으므로 메모리 사용량이 일정합니다.
+ */
+public interface TodoBackupReader extends Closeable {
+
+    // 읽은 레코드를 받는 쪽. onTask 로 넘기는 TodoItem 은 레코드마다 재사용되므로 보관하려면 복사하세요.
+    interface Handler {
+        void onCategory(long id, String name);
+
+        void onTask(TodoItem item);
+    }
+
+    /**
+     * 다음 레코드 하나를 handler 에 넘깁니다. 끝 레코드까지 읽었으면 false.
+     * 끝 레코드 없이 파일이 끝나거나 형식이 맞지 않으면 IOException.
+     */
+    boolean readNext(Handler handler) throws IOException;
+}
@@ -0,0 +1,22 @@
+package com.example.to_dolist.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 백업 파일에 카테고리와 항목을 한 레코드씩 씁니다. 레코드는 바로 버퍼를 거쳐 스트림으로 나가므로
+ * 항목 수와 무관하게 메모리 사용량이 일정합니다.
+ * 카테고리를 항목보다 먼저 써야 가져올 때 항목의 카테고리 id 를 이름으로 다시 찾을 수 있습니다.
+ */
+public interface TodoBackupWriter extends Closeable {
+
+    void writeCategory(long id, String name) throws IOException;
+
+    void writeTask(TodoItem item) throws IOException;
+
+    /**
+     * 끝 레코드(쓴 항목 수)를 쓰고 버퍼를 비웁니다. 끝 레코드가 없는 파일은 가져올 때 잘린 파일로 처리되므로,
+     * 내보내기가 중간에 실패하면 finish 없이 close 만 하세요.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,105 @@
+package com.example.to_dolist.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 저장소의 쓰기 결과를 구독자에게 알리는 변경 스트림.
+ * writer 스레드에서 발생한 변경을 모아 두었다가 다음 프레임에 한 번에 전달하므로,
+ * 한 프레임 동안의 여러 쓰기(일괄 작업 포함)는 목록 갱신 한 번으로 처리됩니다.
+ * 같은 id 의 연속된 변경은 하나로 합쳐지며, 전달 순서는 처음 변경된 순서입니다.
+ * 구독/해제와 Listener 호출은 메인 스레드에서 이뤄집니다.
+ */
+public final class TodoChangeBus {
+
+    private static final String TAG = "TodoChangeBus";
+
+    public interface Listener {
+        void onChanges(List<TodoChangeEvent> events);
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Choreographer.FrameCallback frameCallback = frameTimeNanos -> deliver();
+
+    // writer 스레드와 메인 스레드가 함께 접근 (this 로 보호)
+    private final Map<Long, TodoChangeEvent> pending = new LinkedHashMap<>();
+    private boolean isFrameScheduled = false;
+
+    TodoChangeBus() {
+    }
+
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // --- 저장소(writer 스레드)에서 호출 ---
+
+    void emit(TodoChangeEvent event) {
+        synchronized (this) {
+            addPending(event);
+            if (isFrameScheduled) return;
+            isFrameScheduled = true;
+        }
+        // Choreographer 는 메인 루퍼에서만 얻을 수 있음
+        mainHandler.post(() -> Choreographer.getInstance().postFrameCallback(frameCallback));
+    }
+
+    void emitAll(List<TodoChangeEvent> events) {
+        if (events.isEmpty()) return;
+        synchronized (this) {
+            for (TodoChangeEvent event : events) {
+                addPending(event);
+            }
+            if (isFrameScheduled) return;
+            isFrameScheduled = true;
+        }
+        mainHandler.post(() -> Choreographer.getInstance().postFrameCallback(frameCallback));
+    }
+
+    // --- 내부 로직 ---
+
+    private void addPending(TodoChangeEvent event) {
+        TodoChangeEvent earlier = pending.get(event.getId());
+        if (earlier == null) {
+            pending.put(event.getId(), event);
+            return;
+        }
+        TodoChangeEvent merged = TodoChangeEvent.merge(earlier, event);
+        if (merged == null) {
+            pending.remove(event.getId());
+        } else {
+            pending.put(event.getId(), merged);
+        }
+    }
+
+    // 메인 스레드 (프레임 콜백)
+    private void deliver() {
+        List<TodoChangeEvent> events;
+        synchronized (this) {
+            isFrameScheduled = false;
+            if (pending.isEmpty()) return;
+            events = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.onChanges(events);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "변경 알림 처리 실패", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.to_dolist.data;
+
+/**
+ * 데이터 계층에서 발생한 항목 하나의 변경.
+ * INSERTED/UPDATED 는 변경 후 항목의 복사본을, DELETED 는 id 만 가집니다.
+ */
+public final class TodoChangeEvent {
+
+    public enum Type {
+        INSERTED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final long id;
+    private final TodoItem item;
+
+    private TodoChangeEvent(Type type, long id, TodoItem item) {
+        this.type = type;
+        this.id = id;
+        this.item = item;
+    }
+
+    static TodoChangeEvent inserted(TodoItem item) {
+        return new TodoChangeEvent(Type.INSERTED, item.getId(), new TodoItem(item));
+    }
+
+    static TodoChangeEvent updated(TodoItem item) {
+        return new TodoChangeEvent(Type.UPDATED, item.getId(), new TodoItem(item));
+    }
+
+    static TodoChangeEvent deleted(long id) {
+        return new TodoChangeEvent(Type.DELETED, id, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * 변경 후 항목 (DELETED 는 null).
+     * updateTask 에 카테고리 없이 넘긴 수정은 캐시에서 찾지 못하면 카테고리가 NO_CATEGORY 일 수 있습니다.
+     */
+    public TodoItem getItem() {
+        return item;
+    }
+
+    /**
+     * 같은 프레임 안에서 같은 id 에 대해 이어진 두 변경을 하나로 합칩니다. null 이면 서로 상쇄됨.
+     */
+    static TodoChangeEvent merge(TodoChangeEvent earlier, TodoChangeEvent later) {
+        if (earlier.type == Type.INSERTED) {
+            if (later.type == Type.DELETED) return null;
+            return new TodoChangeEvent(Type.INSERTED, later.id, later.item);
+        }
+        return later;
+    }
+
+    @Override
+    public String toString() {
+        return type + "#" + id;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.to_dolist.data;
+
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.CancellationSignal;
+
+/**
+ * 삭제 표시된 항목을 영구 삭제하고, 빈 페이지가 쌓였으면 DB 파일을 줄이는 정리 작업.
+ * 기기가 유휴·충전 중일 때 하루 한 번 실행되며, 실제 작업은 저장소의 writer 스레드에서 배치 단위로 진행합니다.
+ * 실행 취소(스낵바)가 끝난 뒤에만 지우도록 삭제 후 TOMBSTONE_RETENTION_MS 가 지난 항목만 대상으로 합니다.
+ */
+public class TodoCompactionJob extends JobService {
+
+    private static final int JOB_ID = 1001;
+    private static final long INTERVAL_MS = 24 * 60 * 60 * 1000L;
+    // 스낵바가 사라진 뒤에도 넉넉히 남겨 두는 시간
+    static final long TOMBSTONE_RETENTION_MS = 10 * 60 * 1000L;
+    // 한 트랜잭션에서 지우는 행 수 (배치 사이에 다른 쓰기가 끼어듦)
+    static final int PURGE_BATCH_ROWS = 500;
+    // 이보다 빈 페이지가 적으면 파일을 줄이지 않음 (4KB 페이지 기준 1MB)
+    static final int MIN_FREE_PAGES = 256;
+
+    private CancellationSignal signal;
+
+    /**
+     * 아직 등록되지 않았으면 정리 작업을 등록합니다. (앱 시작 시 호출, 재부팅 후에도 유지)
+     */
+    public static void schedule(Context context) {
+        JobScheduler scheduler = context.getSystemService(JobScheduler.class);
+        if (scheduler.getPendingJob(JOB_ID) != null) return;
+
+        scheduler.schedule(new JobInfo.Builder(JOB_ID, new ComponentName(context, TodoCompactionJob.class))
+                .setPeriodic(INTERVAL_MS)
+                .setRequiresDeviceIdle(true)
+                .setRequiresCharging(true)
+                .setPersisted(true)
+                .build());
+    }
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        signal = new CancellationSignal();
+        TodoRepository.getInstance(this).compact(System.currentTimeMillis() - TOMBSTONE_RETENTION_MS,
+                PURGE_BATCH_ROWS, MIN_FREE_PAGES, signal, purged -> jobFinished(params, purged < 0)); // 실패하면 다시 예약
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        // 남은 배치는 다음 실행에서 이어서 (이미 커밋한 배치는 유지)
+        signal.cancel();
+        return true;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.to_dolist.data;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * 프로세스 전체에서 공유하는 DB 관리자.
+ * Activity, 저장소, AlarmReceiver 가 각자 TodoItemDbHelper 를 만들고 열고 닫는 대신
+ * 이 객체의 연결 하나를 프로세스가 살아 있는 동안 계속 사용합니다.
+ * (onPause 마다 닫지 않으므로 페이지 캐시와 컴파일된 SQL 문이 유지됩니다)
+ */
+public final class TodoDatabase {
+
+    /**
+     * 연결 튜닝 값. 첫 getInstance() 호출 전에 configure() 로 바꿀 수 있습니다.
+     */
+    public static final class Config {
+        // WAL: 쓰기 중에도 읽기 연결이 동시에 조회 가능 (읽기 연결 풀 사용)
+        public boolean writeAheadLogging = true;
+        // 연결당 페이지 캐시 크기 (KiB, PRAGMA cache_size = -N)
+        public int cacheSizeKb = 4 * 1024;
+        // 메모리 맵 I/O 크기 (bytes, 0 이면 사용 안 함)
+        public long mmapSizeBytes = 32L * 1024 * 1024;
+        // 연결당 prepared statement 캐시 크기 (최대 SQLiteDatabase.MAX_SQL_CACHE_SIZE)
+        public int statementCacheSize = SQLiteDatabase.MAX_SQL_CACHE_SIZE;
+    }
+
+    private static volatile TodoDatabase instance;
+    private static Config pendingConfig = new Config();
+
+    private final TodoItemDbHelper helper;
+    private SQLiteDatabase database;
+
+    /**
+     * 튜닝 값을 바꿉니다. 이미 DB 가 만들어진 뒤에는 효과가 없습니다.
+     */
+    public static synchronized void configure(Config config) {
+        pendingConfig = config;
+    }
+
+    public static TodoDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (TodoDatabase.class) {
+                if (instance == null) {
+                    instance = new TodoDatabase(context.getApplicationContext(), pendingConfig);
+                }
+            }
+        }
+        return instance;
+    }
+
+    private TodoDatabase(Context appContext, Config config) {
+        helper = new TodoItemDbHelper(appContext, TodoItemDbHelper.DATABASE_NAME, config);
+    }
+
+    /**
+     * 공유 연결을 반환합니다. 처음 호출될 때 열리며(디스크 I/O), 이후에는 닫지 않습니다.
+     * 메인 스레드가 아닌 곳에서 호출하세요.
+     */
+    public synchronized SQLiteDatabase getDatabase() {
+        if (database == null || !database.isOpen()) {
+            database = helper.getWritableDatabase();
+        }
+        return database;
+    }
+
+    TodoItemDbHelper getHelper() {
+        return helper;
+    }
+}
@@ -2,33 +2,102 @@ package com.example.to_dolist.data;
 
 // SQLite에 매핑되는 할 일 모델
 public class TodoItem {
+    // 시간이 지정되지 않은 항목 (DB 에서는 NULL)
+    public static final int NO_DUE_TIME = -1;
+    // 날짜가 지정되지 않은 항목 (DB 에서는 NULL)
+    public static final long NO_DUE_DATE = Long.MIN_VALUE;
+    // 카테고리를 지정하지 않은 값 (수정 시 기존 카테고리 유지, category 테이블의 id 는 1 부터)
+    public static final long NO_CATEGORY = 0;
+
     private long id; // long 타입으로 변경 (SQLite ID는 long)
     private String title;
-    private String category_id;
-    private String dueTime; // RQ-0001: HH:MM 형식의 문자열로 저장
+    private long categoryId = NO_CATEGORY; // RQ-0007: category 테이블의 id
+    private int dueMinutes = NO_DUE_TIME; // RQ-0001: 자정부터의 분 (0 ~ 1439), 문자열 파싱 없이 비교·계산
     private boolean isCompleted; // RQ-0005
+    // 날짜 (LocalDate.toEpochDay). 반복 항목은 반복 시작일, 날짜 없는 일회성 항목은 "다음 그 시각"에 울림
+    private long dueDate = NO_DUE_DATE;
+    private Recurrence recurrence; // null 이면 반복 없음
 
     public TodoItem() {
         // 기본 생성자
     }
 
-    // 새 항목 생성을 위한 생성자
-    public TodoItem(String title, String category_id, String dueTime, boolean isCompleted) {
+    // 새 항목 생성을 위한 생성자 (dueTime 은 "HH:mm", 형식이 맞지 않으면 시간 없음)
+    public TodoItem(String title, long categoryId, String dueTime, boolean isCompleted) {
+        this(title, categoryId, parseDueTime(dueTime), isCompleted);
+    }
+
+    public TodoItem(String title, long categoryId, int dueMinutes, boolean isCompleted) {
         this.title = title;
-        this.category_id = category_id;
-        this.dueTime = dueTime;
+        this.categoryId = categoryId;
+        this.dueMinutes = dueMinutes;
         this.isCompleted = isCompleted;
     }
 
+    // 다른 스레드로 넘길 때 사용할 복사 생성자
+    public TodoItem(TodoItem other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.categoryId = other.categoryId;
+        this.dueMinutes = other.dueMinutes;
+        this.isCompleted = other.isCompleted;
+        this.dueDate = other.dueDate;
+        this.recurrence = other.recurrence;
+    }
+
     // --- Getters and Setters ---
     public long getId() { return id; }
     public void setId(long id) { this.id = id; }
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
-    public String getCategoryId() { return category_id; }
-    public void setCategoryId(String category) { this.category_id = category_id; }
-    public String getDueTime() { return dueTime; }
-    public void setDueTime(String dueTime) { this.dueTime = dueTime; }
+    public long getCategoryId() { return categoryId; }
+    public void setCategoryId(long categoryId) { this.categoryId = categoryId; }
+    public boolean hasCategory() { return categoryId != NO_CATEGORY; }
+    public int getDueMinutes() { return dueMinutes; }
+    public void setDueMinutes(int dueMinutes) { this.dueMinutes = dueMinutes; }
+    public boolean hasDueTime() { return dueMinutes != NO_DUE_TIME; }
     public boolean isCompleted() { return isCompleted; }
     public void setCompleted(boolean completed) { isCompleted = completed; }
-}
\ No newline at end of file
+    public long getDueDate() { return dueDate; }
+    public void setDueDate(long dueDate) { this.dueDate = dueDate; }
+    public boolean hasDueDate() { return dueDate != NO_DUE_DATE; }
+    public Recurrence getRecurrence() { return recurrence; }
+    public void setRecurrence(Recurrence recurrence) { this.recurrence = recurrence; }
+    public boolean isRecurring() { return recurrence != null; }
+
+    // 화면 표시·입력용 "HH:mm" (시간이 없으면 null)
+    public String getDueTime() { return formatDueTime(dueMinutes); }
+    public void setDueTime(String dueTime) { this.dueMinutes = parseDueTime(dueTime); }
+
+    /**
+     * "HH:mm" 또는 "H:mm" 을 자정부터의 분으로 바꿉니다. null·형식 오류·범위 밖이면 NO_DUE_TIME.
+     * SimpleDateFormat 없이 문자만 보고 계산합니다.
+     */
+    public static int parseDueTime(String text) {
+        if (text == null) return NO_DUE_TIME;
+        int length = text.length();
+        int colon = text.indexOf(':');
+        if (colon < 1 || colon > 2 || length - colon != 3) return NO_DUE_TIME;
+
+        int hours = 0;
+        for (int i = 0; i < colon; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') return NO_DUE_TIME;
+            hours = hours * 10 + (c - '0');
+        }
+        char m1 = text.charAt(colon + 1);
+        char m2 = text.charAt(colon + 2);
+        if (m1 < '0' || m1 > '5' || m2 < '0' || m2 > '9' || hours > 23) return NO_DUE_TIME;
+        return hours * 60 + (m1 - '0') * 10 + (m2 - '0');
+    }
+
+    // 자정부터의 분 → "HH:mm" (NO_DUE_TIME 이면 null)
+    public static String formatDueTime(int dueMinutes) {
+        if (dueMinutes == NO_DUE_TIME) return null;
+        int hours = dueMinutes / 60;
+        int minutes = dueMinutes % 60;
+        return new String(new char[]{
+                (char) ('0' + hours / 10), (char) ('0' + hours % 10), ':',
+                (char) ('0' + minutes / 10), (char) ('0' + minutes % 10)});
+    }
+}
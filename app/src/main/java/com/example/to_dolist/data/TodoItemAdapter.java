@@ -0,0 +1,92 @@
+package com.example.to_dolist.data;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+
+import com.example.to_dolist.R;
+import com.example.to_dolist.metrics.Metrics;
+
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * 투두 목록용 RecyclerView 어댑터.
+ * submitList() 로 새 목록을 넘기면 백그라운드 스레드에서 id 기준 diff 를 계산하고,
+ * 실제로 바뀐 행만 다시 바인딩합니다.
+ * 목록에는 아직 읽지 않았거나 메모리에서 내린 행이 null(자리 표시)로 들어 있을 수 있습니다. (TodoItemPager)
+ * 행 하나의 inflate/바인딩 시간은 "list.inflate.us", "list.bind.us" 에 기록됩니다.
+ */
+public class TodoItemAdapter extends ListAdapter<TodoItem, TodoItemView> {
+
+    // id 가 같으면 같은 항목, 화면에 보이는 필드가 모두 같으면 같은 내용
+    static final DiffUtil.ItemCallback<TodoItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<TodoItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull TodoItem oldItem, @NonNull TodoItem newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull TodoItem oldItem, @NonNull TodoItem newItem) {
+            return oldItem.isCompleted() == newItem.isCompleted()
+                    && Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && oldItem.getCategoryId() == newItem.getCategoryId()
+                    && oldItem.getDueMinutes() == newItem.getDueMinutes()
+                    && oldItem.getDueDate() == newItem.getDueDate()
+                    && Objects.equals(oldItem.getRecurrence(), newItem.getRecurrence());
+        }
+    };
+
+    private final TodoRepository repository;
+    // 행이 바인딩될 때 위치를 알려줌 (페이지 미리 읽기용)
+    private IntConsumer onBindPosition;
+
+    public TodoItemAdapter(TodoRepository repository) {
+        super(DIFF_CALLBACK);
+        this.repository = repository;
+        setHasStableIds(true);
+    }
+
+    public void setOnBindPositionListener(IntConsumer onBindPosition) {
+        this.onBindPosition = onBindPosition;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        TodoItem item = getItem(position);
+        // 자리 표시 행은 위치 기반의 음수 id
+        return item != null ? item.getId() : Long.MIN_VALUE + position;
+    }
+
+    @NonNull
+    @Override
+    public TodoItemView onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        long start = Metrics.begin("list.inflate");
+        try {
+            View view = LayoutInflater.from(parent.getContext())
+                    .inflate(R.layout.todo_item_layout, parent, false);
+            return new TodoItemView(view, repository);
+        } finally {
+            Metrics.end("list.inflate", start);
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull TodoItemView holder, int position) {
+        long start = Metrics.begin("list.bind");
+        TodoItem item = getItem(position);
+        if (item != null) {
+            holder.bind(item);
+        } else {
+            holder.bindPlaceholder();
+        }
+        Metrics.end("list.bind", start);
+        if (onBindPosition != null) {
+            onBindPosition.accept(position);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.to_dolist.data;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * 데이터 계층이 소유하는 write-through 메모리 캐시.
+ * 전체 목록을 due_time 순으로 유지하고, 카테고리/완료 상태별 보조 인덱스를 함께 관리하므로
+ * 필터 전환 시 디스크 I/O 없이 결과 크기만큼의 비용으로 목록을 만들 수 있습니다.
+ * 모든 메서드는 저장소의 writer/read 스레드에서 동시에 호출될 수 있어 synchronized 로 보호합니다.
+ */
+class TodoItemCache {
+
+    // 이 개수를 넘으면 캐시를 포기하고 SQL 조회로 돌아갑니다. (대략 행당 수백 바이트)
+    static final int MAX_CACHED_ROWS = 20_000;
+
+    // SQLite 의 "due_time ASC" 와 같은 순서 (NULL 이 먼저), 같은 시간이면 id 순
+    // (시간 없음 NO_DUE_TIME = -1 이 어떤 분 값보다 작으므로 정수 비교만으로 같은 순서가 됨)
+    static final Comparator<TodoItem> DUE_TIME_ORDER = (a, b) -> {
+        int byTime = Integer.compare(a.getDueMinutes(), b.getDueMinutes());
+        return byTime != 0 ? byTime : Long.compare(a.getId(), b.getId());
+    };
+
+    private final Map<Long, TodoItem> byId = new HashMap<>();
+    private final TreeSet<TodoItem> all = new TreeSet<>(DUE_TIME_ORDER);
+    private final TreeSet<TodoItem> uncompleted = new TreeSet<>(DUE_TIME_ORDER);
+    private final Map<Long, TreeSet<TodoItem>> byCategory = new HashMap<>();
+    private final Map<Long, TreeSet<TodoItem>> uncompletedByCategory = new HashMap<>();
+
+    private boolean isLoaded = false;
+    private boolean isOverCapacity = false;
+    private long dataVersion = -1;
+
+    synchronized boolean isLoaded() {
+        return isLoaded;
+    }
+
+    synchronized boolean isOverCapacity() {
+        return isOverCapacity;
+    }
+
+    synchronized long getDataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * DB 에서 읽은 전체 목록으로 캐시를 채웁니다.
+     */
+    synchronized void load(List<TodoItem> items, long dataVersion) {
+        clear();
+        if (items.size() > MAX_CACHED_ROWS) {
+            isOverCapacity = true;
+            return;
+        }
+        for (TodoItem item : items) {
+            index(new TodoItem(item));
+        }
+        this.dataVersion = dataVersion;
+        isLoaded = true;
+    }
+
+    // 외부에서 DB 가 바뀌었을 때 호출 → 다음 조회 시 다시 로드
+    synchronized void invalidate() {
+        clear();
+        isOverCapacity = false;
+    }
+
+    // 행 수 제한을 넘었을 때 캐시를 비우고 SQL 조회로 전환
+    synchronized void markOverCapacity() {
+        clear();
+        isOverCapacity = true;
+    }
+
+    // --- 증분 갱신 (저장소의 createTask/updateTask/deleteTask 에서 호출) ---
+
+    synchronized void put(TodoItem item) {
+        if (!isLoaded) return;
+
+        TodoItem copy = new TodoItem(item);
+        TodoItem previous = byId.get(item.getId());
+        if (previous != null) {
+            unindex(previous);
+            // updateTask 는 카테고리가 없으면(NO_CATEGORY) 기존 값을 유지함
+            if (!copy.hasCategory()) {
+                copy.setCategoryId(previous.getCategoryId());
+            }
+        }
+        index(copy);
+
+        if (byId.size() > MAX_CACHED_ROWS) {
+            markOverCapacity();
+        }
+    }
+
+    synchronized void remove(long id) {
+        if (!isLoaded) {
+            // 행이 줄었으니 다음 조회 때 다시 캐시를 시도할 수 있음
+            isOverCapacity = false;
+            return;
+        }
+        TodoItem previous = byId.get(id);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+
+    // --- 조회 ---
+
+    // id 로 항목 복사본을 찾습니다. 캐시가 준비되지 않았거나 없으면 null
+    synchronized TodoItem get(long id) {
+        if (!isLoaded) return null;
+        TodoItem item = byId.get(id);
+        return item != null ? new TodoItem(item) : null;
+    }
+
+    /**
+     * 필터에 맞는 항목의 복사본 목록을 반환합니다. 캐시가 준비되지 않았으면 null.
+     * 정렬은 SQL 조회와 같은 (due_time, id) 순입니다.
+     */
+    synchronized List<TodoItem> query(long categoryId, boolean uncompletedOnly) {
+        if (!isLoaded) return null;
+
+        NavigableSet<TodoItem> source = sourceFor(categoryId, uncompletedOnly);
+        if (source == null) return new ArrayList<>();
+        List<TodoItem> result = new ArrayList<>(source.size());
+        for (TodoItem item : source) {
+            result.add(new TodoItem(item));
+        }
+        return result;
+    }
+
+    /**
+     * after 다음부터 최대 limit 개 (TodoItemDataSource.getTaskPage 와 같은 결과). 캐시가 준비되지 않았으면 null.
+     */
+    synchronized List<TodoItem> page(long categoryId, boolean uncompletedOnly, TodoItemPager.Key after, int limit) {
+        if (!isLoaded) return null;
+
+        List<TodoItem> result = new ArrayList<>(limit);
+        NavigableSet<TodoItem> source = sourceFor(categoryId, uncompletedOnly);
+        if (source == null) return result;
+
+        TodoItem probe = new TodoItem(null, TodoItem.NO_CATEGORY, after.dueMinutes, false);
+        probe.setId(after.id);
+        for (TodoItem item : source.tailSet(probe, false)) {
+            if (result.size() == limit) break;
+            result.add(new TodoItem(item));
+        }
+        return result;
+    }
+
+    private NavigableSet<TodoItem> sourceFor(long categoryId, boolean uncompletedOnly) {
+        if (categoryId == Category.ALL) {
+            return uncompletedOnly ? uncompleted : all;
+        }
+        return uncompletedOnly ? uncompletedByCategory.get(categoryId) : byCategory.get(categoryId);
+    }
+
+    // --- 내부 인덱스 관리 ---
+
+    private void index(TodoItem item) {
+        byId.put(item.getId(), item);
+        all.add(item);
+        categorySet(byCategory, item.getCategoryId()).add(item);
+        if (!item.isCompleted()) {
+            uncompleted.add(item);
+            categorySet(uncompletedByCategory, item.getCategoryId()).add(item);
+        }
+    }
+
+    private void unindex(TodoItem item) {
+        byId.remove(item.getId());
+        all.remove(item);
+        uncompleted.remove(item);
+        TreeSet<TodoItem> set = byCategory.get(item.getCategoryId());
+        if (set != null) set.remove(item);
+        TreeSet<TodoItem> openSet = uncompletedByCategory.get(item.getCategoryId());
+        if (openSet != null) openSet.remove(item);
+    }
+
+    private static TreeSet<TodoItem> categorySet(Map<Long, TreeSet<TodoItem>> map, long categoryId) {
+        TreeSet<TodoItem> set = map.get(categoryId);
+        if (set == null) {
+            set = new TreeSet<>(DUE_TIME_ORDER);
+            map.put(categoryId, set);
+        }
+        return set;
+    }
+
+    private void clear() {
+        byId.clear();
+        all.clear();
+        uncompleted.clear();
+        byCategory.clear();
+        uncompletedByCategory.clear();
+        isLoaded = false;
+        dataVersion = -1;
+    }
+}
@@ -3,14 +3,33 @@ package com.example.to_dolist.data;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.CancellationSignal;
+
+import com.example.to_dolist.metrics.Metrics;
+
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class TodoItemDataSource {
 
+    // 검색 순위를 매길 후보 수 (결과 1개당, 최소값). 후보 안에서만 정렬하므로 입력당 비용이 일정함
+    private static final int SEARCH_CANDIDATES_PER_RESULT = 5;
+    private static final int MIN_SEARCH_CANDIDATES = 500;
+    // 되살리기 한 번의 IN 목록 크기 (SQLite 인자 수 제한 999 아래)
+    private static final int RESTORE_CHUNK_IDS = 500;
+
     private SQLiteDatabase database;
-    private TodoItemDbHelper dbHelper;
+    private final TodoItemDbHelper dbHelper;
+    // 공유 DB(TodoDatabase)를 쓰는 경우 close() 에서 연결을 닫지 않음
+    private final TodoDatabase sharedDatabase;
 
     // 모든 열 정의
     private String[] allColumns = {
@@ -18,30 +37,34 @@ public class TodoItemDataSource {
             TodoItemDbHelper.COLUMN_TITLE,
             TodoItemDbHelper.COLUMN_CATEGORY_ID,
             TodoItemDbHelper.COLUMN_DUE_TIME,
-            TodoItemDbHelper.COLUMN_IS_COMPLETED
+            TodoItemDbHelper.COLUMN_IS_COMPLETED,
+            TodoItemDbHelper.COLUMN_DUE_DATE,
+            TodoItemDbHelper.COLUMN_RECURRENCE
     };
 
     public TodoItemDataSource(Context context) {
-        dbHelper = new TodoItemDbHelper(context);
+        sharedDatabase = TodoDatabase.getInstance(context);
+        dbHelper = sharedDatabase.getHelper();
     }
 
-    public void open() {
-        database = dbHelper.getWritableDatabase();
+    // 테스트/벤치마크용: 별도 DB 파일을 사용하는 helper 주입
+    TodoItemDataSource(TodoItemDbHelper dbHelper) {
+        this.sharedDatabase = null;
+        this.dbHelper = dbHelper;
     }
 
-    public void close() {
-        dbHelper.close();
+    // 메인 스레드가 아닌 곳에서 호출하세요. (공유 연결은 이미 열려 있으면 바로 반환)
+    public void open() {
+        database = sharedDatabase != null
+                ? sharedDatabase.getDatabase()
+                : dbHelper.getWritableDatabase();
     }
 
-    // Cursor를 Task 객체로 변환
-    private TodoItem cursorToTask(Cursor cursor) {
-        TodoItem item = new TodoItem();
-        item.setId(cursor.getInt(cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_ID)));
-        item.setTitle(cursor.getString(cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_TITLE)));
-        item.setCategoryId(cursor.getString(cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_CATEGORY_ID)));
-        item.setDueTime(cursor.getString(cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_DUE_TIME)));
-        item.setCompleted(cursor.getInt(cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_IS_COMPLETED)) == 1);
-        return item;
+    // 공유 연결은 프로세스가 끝날 때까지 유지하므로 닫지 않습니다.
+    public void close() {
+        if (sharedDatabase == null) {
+            dbHelper.close();
+        }
     }
 
     // RQ-0001: 투두(To-Do) 추가
@@ -49,87 +72,866 @@ public class TodoItemDataSource {
         ContentValues values = new ContentValues();
         values.put(TodoItemDbHelper.COLUMN_TITLE, item.getTitle());
         values.put(TodoItemDbHelper.COLUMN_CATEGORY_ID, item.getCategoryId());
-        values.put(TodoItemDbHelper.COLUMN_DUE_TIME, item.getDueTime());
+        putDueTime(values, item);
+        putSchedule(values, item);
         values.put(TodoItemDbHelper.COLUMN_IS_COMPLETED, item.isCompleted() ? 1 : 0);
 
         long insertId = database.insert(TodoItemDbHelper.TABLE_NAME, null, values);
         return insertId; // 이 ID를 사용하여 알림 등록에 활용 가능
     }
 
+    // 여러 항목을 한 트랜잭션으로 추가 (미리 컴파일한 INSERT 문을 재사용, fsync 는 커밋 시 한 번)
+    // 반환값: 입력 순서대로의 새 ID
+    public long[] bulkInsert(List<TodoItem> items) {
+        long start = Metrics.begin("db.bulkInsert");
+        long[] ids = new long[items.size()];
+        SQLiteStatement insert = database.compileStatement(
+                "INSERT INTO " + TodoItemDbHelper.TABLE_NAME + " (" +
+                        TodoItemDbHelper.COLUMN_TITLE + ", " +
+                        TodoItemDbHelper.COLUMN_CATEGORY_ID + ", " +
+                        TodoItemDbHelper.COLUMN_DUE_TIME + ", " +
+                        TodoItemDbHelper.COLUMN_IS_COMPLETED + ", " +
+                        TodoItemDbHelper.COLUMN_DUE_DATE + ", " +
+                        TodoItemDbHelper.COLUMN_RECURRENCE + ") VALUES (?, ?, ?, ?, ?, ?)");
+
+        database.beginTransaction();
+        try {
+            for (int i = 0; i < items.size(); i++) {
+                TodoItem item = items.get(i);
+                insert.clearBindings();
+                insert.bindString(1, item.getTitle());
+                insert.bindLong(2, item.getCategoryId());
+                if (item.hasDueTime()) {
+                    insert.bindLong(3, item.getDueMinutes());
+                } else {
+                    insert.bindNull(3);
+                }
+                insert.bindLong(4, item.isCompleted() ? 1 : 0);
+                bindSchedule(insert, 5, item);
+                ids[i] = insert.executeInsert();
+            }
+            database.setTransactionSuccessful();
+        } finally {
+            database.endTransaction();
+            insert.close();
+            Metrics.end("db.bulkInsert", start);
+        }
+        Metrics.record("db.bulkInsert.rows", items.size());
+        return ids;
+    }
+
+    /**
+     * 여러 항목의 수정을 한 트랜잭션으로 반영합니다. (write-behind 큐의 일괄 커밋용)
+     * updateTask 와 같이 카테고리가 없으면(NO_CATEGORY) 기존 값을 유지하고, 삭제 표시된 항목은 쓰지 않습니다.
+     * 실패하면 SQLException 이 그대로 전달되고 아무 행도 바뀌지 않습니다.
+     * 반환값: 그 사이 삭제 표시(또는 영구 삭제)되어 쓰지 않은 항목
+     */
+    public List<TodoItem> bulkUpdate(List<TodoItem> items) {
+        long start = Metrics.begin("db.bulkUpdate");
+        SQLiteStatement update = database.compileStatement(
+                "UPDATE " + TodoItemDbHelper.TABLE_NAME + " SET " +
+                        TodoItemDbHelper.COLUMN_TITLE + " = ?, " +
+                        TodoItemDbHelper.COLUMN_DUE_TIME + " = ?, " +
+                        TodoItemDbHelper.COLUMN_IS_COMPLETED + " = ?, " +
+                        TodoItemDbHelper.COLUMN_DUE_DATE + " = ?, " +
+                        TodoItemDbHelper.COLUMN_RECURRENCE + " = ?, " +
+                        TodoItemDbHelper.COLUMN_CATEGORY_ID + " = COALESCE(?, " + TodoItemDbHelper.COLUMN_CATEGORY_ID + ")" +
+                        " WHERE " + TodoItemDbHelper.LIVE + " AND " + TodoItemDbHelper.COLUMN_ID + " = ?");
+
+        List<TodoItem> skipped = new ArrayList<>();
+        database.beginTransaction();
+        try {
+            for (TodoItem item : items) {
+                update.clearBindings();
+                update.bindString(1, item.getTitle());
+                if (item.hasDueTime()) {
+                    update.bindLong(2, item.getDueMinutes());
+                } else {
+                    update.bindNull(2);
+                }
+                update.bindLong(3, item.isCompleted() ? 1 : 0);
+                bindSchedule(update, 4, item);
+                if (item.hasCategory()) {
+                    update.bindLong(6, item.getCategoryId());
+                } else {
+                    update.bindNull(6);
+                }
+                update.bindLong(7, item.getId());
+                if (update.executeUpdateDelete() == 0) {
+                    skipped.add(item);
+                }
+            }
+            database.setTransactionSuccessful();
+        } finally {
+            database.endTransaction();
+            update.close();
+            Metrics.end("db.bulkUpdate", start);
+        }
+        Metrics.record("db.bulkUpdate.rows", items.size());
+        return skipped;
+    }
+
+    /**
+     * 카테고리(Category.ALL 이면 전체) 항목의 완료 상태를 한 트랜잭션, 한 번의 UPDATE 로 변경합니다.
+     * 반환값: 실제로 상태가 바뀐 항목 (변경 후 상태) → 알람 처리를 한 번에 하기 위함
+     */
+    public List<TodoItem> bulkUpdateCompletion(long categoryId, boolean completed) {
+        List<String> args = new ArrayList<>();
+        // 이미 같은 상태인 행은 건드리지 않음
+        String where = buildBulkSelection(categoryId, !completed, args);
+        String[] whereArgs = args.toArray(new String[0]);
+
+        database.beginTransaction();
+        try {
+            List<TodoItem> affected = queryWhere(where, whereArgs);
+            SQLiteStatement update = database.compileStatement(
+                    "UPDATE " + TodoItemDbHelper.TABLE_NAME +
+                            " SET " + TodoItemDbHelper.COLUMN_IS_COMPLETED + " = ?" +
+                            " WHERE " + where);
+            try {
+                update.bindLong(1, completed ? 1 : 0);
+                for (int i = 0; i < whereArgs.length; i++) {
+                    update.bindString(i + 2, whereArgs[i]);
+                }
+                update.executeUpdateDelete();
+            } finally {
+                update.close();
+            }
+            database.setTransactionSuccessful();
+
+            for (TodoItem item : affected) {
+                item.setCompleted(completed);
+            }
+            return affected;
+        } finally {
+            database.endTransaction();
+        }
+    }
+
+    /**
+     * 조건에 맞는 항목을 한 트랜잭션, 한 번의 UPDATE 로 삭제 표시합니다. (restoreTasks 로 되돌릴 수 있음)
+     * categoryId 가 Category.ALL 이면 전체, completedFilter 가 null 이면 완료 상태와 무관하게 삭제합니다.
+     * 반환값: 삭제된 항목 (알람 일괄 취소, 실행 취소용)
+     */
+    public List<TodoItem> bulkDelete(long categoryId, Boolean completedFilter) {
+        List<String> args = new ArrayList<>();
+        String where = buildBulkSelection(categoryId, completedFilter, args);
+        String[] whereArgs = args.toArray(new String[0]);
+
+        database.beginTransaction();
+        try {
+            List<TodoItem> affected = queryWhere(where, whereArgs);
+            SQLiteStatement delete = database.compileStatement(
+                    "UPDATE " + TodoItemDbHelper.TABLE_NAME +
+                            " SET " + TodoItemDbHelper.COLUMN_DELETED_AT + " = ?" +
+                            " WHERE " + where);
+            try {
+                delete.bindLong(1, System.currentTimeMillis());
+                for (int i = 0; i < whereArgs.length; i++) {
+                    delete.bindString(i + 2, whereArgs[i]);
+                }
+                delete.executeUpdateDelete();
+            } finally {
+                delete.close();
+            }
+            database.setTransactionSuccessful();
+            return affected;
+        } finally {
+            database.endTransaction();
+        }
+    }
+
+    // 일괄 작업용 WHERE 절 (값은 args 에 추가되고 ? 로 바인딩). 삭제 표시된 항목은 항상 제외
+    private static String buildBulkSelection(long categoryId, Boolean completedFilter, List<String> args) {
+        StringBuilder where = new StringBuilder(TodoItemDbHelper.LIVE);
+        if (categoryId != Category.ALL) {
+            where.append(" AND ").append(TodoItemDbHelper.COLUMN_CATEGORY_ID).append(" = ?");
+            args.add(String.valueOf(categoryId));
+        }
+        if (completedFilter != null) {
+            where.append(" AND ").append(TodoItemDbHelper.COLUMN_IS_COMPLETED).append(" = ?");
+            args.add(completedFilter ? "1" : "0");
+        }
+        return where.toString();
+    }
+
+    private List<TodoItem> queryWhere(String where, String[] whereArgs) {
+        return readAll("db.bulkSelect", database.rawQuery(
+                "SELECT " + TodoItemQuery.COLUMNS + " FROM " + TodoItemDbHelper.TABLE_NAME +
+                        " WHERE " + where, whereArgs));
+    }
+
     // RQ-0002: 투두 삭제
-    public void deleteTask(long taskId) {
-        database.delete(TodoItemDbHelper.TABLE_NAME,
-                TodoItemDbHelper.COLUMN_ID + " = " + taskId, null);
+    // 행은 남기고 삭제 시각만 기록 (목록·검색·카운터에서 바로 빠지고, purgeDeleted 가 나중에 지움)
+    // 반환값: 실제로 삭제 표시했으면 true
+    public boolean deleteTask(long taskId) {
+        ContentValues values = new ContentValues();
+        values.put(TodoItemDbHelper.COLUMN_DELETED_AT, System.currentTimeMillis());
+        return database.update(TodoItemDbHelper.TABLE_NAME, values,
+                TodoItemDbHelper.COLUMN_ID + " = ? AND " + TodoItemDbHelper.LIVE,
+                new String[]{String.valueOf(taskId)}) == 1;
+    }
+
+    /**
+     * 삭제 표시를 지워 항목을 되살립니다. (실행 취소용) 이미 영구 삭제된 id 는 건너뜁니다.
+     * 반환값: 되살린 항목 (알람 재등록용)
+     */
+    public List<TodoItem> restoreTasks(long[] ids) {
+        List<TodoItem> restored = new ArrayList<>(ids.length);
+        database.beginTransaction();
+        try {
+            // IN 목록의 인자 수 제한(999)을 넘지 않도록 나눠서
+            for (int from = 0; from < ids.length; from += RESTORE_CHUNK_IDS) {
+                int to = Math.min(ids.length, from + RESTORE_CHUNK_IDS);
+                String[] args = new String[to - from];
+                StringBuilder where = new StringBuilder(TodoItemDbHelper.COLUMN_ID).append(" IN (");
+                for (int i = from; i < to; i++) {
+                    where.append(i == from ? "?" : ", ?");
+                    args[i - from] = String.valueOf(ids[i]);
+                }
+                where.append(") AND ").append(TodoItemDbHelper.COLUMN_DELETED_AT).append(" IS NOT NULL");
+
+                restored.addAll(queryWhere(where.toString(), args));
+                ContentValues values = new ContentValues();
+                values.putNull(TodoItemDbHelper.COLUMN_DELETED_AT);
+                database.update(TodoItemDbHelper.TABLE_NAME, values, where.toString(), args);
+            }
+            database.setTransactionSuccessful();
+            return restored;
+        } finally {
+            database.endTransaction();
+        }
+    }
+
+    /**
+     * deletedBefore(epoch ms) 이전에 삭제 표시된 항목을 오래된 순으로 최대 limit 개 영구 삭제합니다.
+     * 삭제 표시 인덱스로 찾으므로 살아 있는 항목 수와 관계없이 지울 행만큼의 비용이고,
+     * 한 번에 지우는 양을 제한해 쓰기 트랜잭션이 다른 작업을 오래 막지 않습니다.
+     * 반환값: 지운 행 수 (limit 과 같으면 더 남아 있을 수 있음)
+     */
+    public int purgeDeleted(long deletedBefore, int limit) {
+        long start = Metrics.begin("db.purge");
+        int purged = 0;
+        SQLiteStatement purge = database.compileStatement(
+                "DELETE FROM " + TodoItemDbHelper.TABLE_NAME + " WHERE " + TodoItemDbHelper.COLUMN_ID + " IN (" +
+                        "SELECT " + TodoItemDbHelper.COLUMN_ID + " FROM " + TodoItemDbHelper.TABLE_NAME +
+                        " WHERE " + TodoItemDbHelper.COLUMN_DELETED_AT + " < ?" +
+                        " ORDER BY " + TodoItemDbHelper.COLUMN_DELETED_AT + " LIMIT ?)");
+        try {
+            purge.bindLong(1, deletedBefore);
+            purge.bindLong(2, limit);
+            purged = purge.executeUpdateDelete();
+            return purged;
+        } finally {
+            purge.close();
+            Metrics.end("db.purge", start);
+            Metrics.record("db.purge.rows", purged);
+        }
+    }
+
+    /**
+     * 빈 페이지가 minFreePages 이상 쌓였으면 파일을 줄입니다. 반환값: 돌려준 페이지 수
+     * 증분(INCREMENTAL) 모드면 빈 페이지만 파일 끝에서 잘라내므로 DB 크기와 관계없이 빈 페이지 수만큼의 비용입니다.
+     * 새 DB 는 만들 때부터 증분 모드이고(TodoItemDbHelper.onCreate), 그 전 버전에서 만든 DB 만
+     * 모드를 바꾸려면 VACUUM 이 한 번 필요하므로 그 한 번만 전체를 다시 씁니다.
+     * 트랜잭션 밖에서(writer 스레드에서) 호출하세요.
+     */
+    public long reclaimFreePages(int minFreePages) {
+        long freePages = DatabaseUtils.longForQuery(database, "PRAGMA freelist_count", null);
+        if (freePages < minFreePages) {
+            return 0;
+        }
+        long start = Metrics.begin("db.vacuum");
+        try {
+            if (DatabaseUtils.longForQuery(database, "PRAGMA auto_vacuum", null) == TodoItemDbHelper.AUTO_VACUUM_INCREMENTAL) {
+                // 한 단계마다 한 페이지씩 돌려주므로 끝까지 읽어야 모두 처리됨
+                try (Cursor cursor = database.rawQuery("PRAGMA incremental_vacuum", null)) {
+                    cursor.getCount();
+                }
+            } else {
+                database.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+                database.execSQL("VACUUM");
+            }
+            return freePages - DatabaseUtils.longForQuery(database, "PRAGMA freelist_count", null);
+        } finally {
+            Metrics.end("db.vacuum", start);
+        }
     }
 
     // ★★★★★ 핵심 수정 부분 ★★★★★
-    // category_id가 null이면 덮어쓰지 않도록 처리 → Crash 100% 방지
-    public void updateTask(TodoItem item) {
+    // 카테고리가 없으면(NO_CATEGORY) 덮어쓰지 않도록 처리 → 외래 키 위반 방지
+    // 삭제 표시된 항목은 바꾸지 않음 (오래된 위젯 스냅샷 등에서 온 수정). 반환값: 실제로 바꿨으면 true
+    public boolean updateTask(TodoItem item) {
         ContentValues values = new ContentValues();
 
         values.put(TodoItemDbHelper.COLUMN_TITLE, item.getTitle());
-        values.put(TodoItemDbHelper.COLUMN_DUE_TIME, item.getDueTime());
+        putDueTime(values, item);
+        putSchedule(values, item);
         values.put(TodoItemDbHelper.COLUMN_IS_COMPLETED, item.isCompleted() ? 1 : 0);
 
-        // category_id 가 null이 아니면 업데이트 (기존 category 유지)
-        if (item.getCategoryId() != null) {
+        // 카테고리가 있을 때만 업데이트 (없으면 기존 category 유지)
+        if (item.hasCategory()) {
             values.put(TodoItemDbHelper.COLUMN_CATEGORY_ID, item.getCategoryId());
         }
 
-        database.update(
+        return database.update(
                 TodoItemDbHelper.TABLE_NAME,
                 values,
-                TodoItemDbHelper.COLUMN_ID + " = " + item.getId(),
-                null
-        );
+                TodoItemDbHelper.LIVE + " AND " + TodoItemDbHelper.COLUMN_ID + " = ?",
+                new String[]{String.valueOf(item.getId())}
+        ) > 0;
+    }
+
+    // 시간 없음은 NULL 로 저장 (정렬·인덱스에서 NULL 구간으로 따로 읽음)
+    private static void putDueTime(ContentValues values, TodoItem item) {
+        if (item.hasDueTime()) {
+            values.put(TodoItemDbHelper.COLUMN_DUE_TIME, item.getDueMinutes());
+        } else {
+            values.putNull(TodoItemDbHelper.COLUMN_DUE_TIME);
+        }
+    }
+
+    // 날짜·반복 규칙 (없으면 NULL)
+    private static void putSchedule(ContentValues values, TodoItem item) {
+        if (item.hasDueDate()) {
+            values.put(TodoItemDbHelper.COLUMN_DUE_DATE, item.getDueDate());
+        } else {
+            values.putNull(TodoItemDbHelper.COLUMN_DUE_DATE);
+        }
+        if (item.isRecurring()) {
+            values.put(TodoItemDbHelper.COLUMN_RECURRENCE, item.getRecurrence().encode());
+        } else {
+            values.putNull(TodoItemDbHelper.COLUMN_RECURRENCE);
+        }
     }
 
-    // 조회 및 필터링 공통 로직
+    // 미리 컴파일한 문장의 index, index + 1 번째 자리에 날짜·반복 규칙을 바인딩
+    private static void bindSchedule(SQLiteStatement statement, int index, TodoItem item) {
+        if (item.hasDueDate()) {
+            statement.bindLong(index, item.getDueDate());
+        } else {
+            statement.bindNull(index);
+        }
+        if (item.isRecurring()) {
+            statement.bindString(index + 1, item.getRecurrence().encode());
+        } else {
+            statement.bindNull(index + 1);
+        }
+    }
+
+    // 조회 및 필터링 공통 로직 (삭제 표시된 항목은 제외)
     public List<TodoItem> getTodoItems(String whereClause, String orderBy) {
-        List<TodoItem> items = new ArrayList<>();
+        long start = Metrics.begin("db.list");
         Cursor cursor = database.query(
                 TodoItemDbHelper.TABLE_NAME,
                 allColumns,
-                whereClause,
+                whereClause == null ? TodoItemDbHelper.LIVE : TodoItemDbHelper.LIVE + " AND (" + whereClause + ")",
                 null,
                 null,
                 null,
                 orderBy
         );
+        return readAll("db.list", start, cursor);
+    }
+
+    // 필터 형태별 고정 SQL 로 조회 (값은 ? 로 바인딩)
+    List<TodoItem> getTodoItems(TodoItemQuery query, String... args) {
+        return readAll("db.list", database.rawQuery(query.sql, args));
+    }
+
+    // Cursor를 Task 목록으로 변환 (열 위치는 쿼리마다 한 번만 찾음)
+    // rawQuery 는 첫 행을 읽을 때 실행되므로 여기서 잰 시간이 실제 쿼리 시간. 시간은 "metric.us", 반환 행 수는 "metric.rows"
+    private List<TodoItem> readAll(String metric, Cursor cursor) {
+        return readAll(metric, Metrics.begin(metric), cursor);
+    }
+
+    private List<TodoItem> readAll(String metric, long start, Cursor cursor) {
+        List<TodoItem> items;
+        try {
+            items = new ArrayList<>(cursor.getCount());
+            TodoItemRowMapper mapper = TodoItemRowMapper.forCursor(cursor);
+            while (cursor.moveToNext()) {
+                items.add(mapper.map(cursor));
+            }
+        } finally {
+            cursor.close();
+            Metrics.end(metric, start);
+        }
+        Metrics.record(metric + ".rows", items.size());
+        return items;
+    }
+
+    /**
+     * 목록을 만들지 않고 한 행씩 consumer 에 넘깁니다.
+     * 넘겨받는 TodoItem 은 모든 행에서 같은 객체를 재사용하므로, 보관하려면 new TodoItem(item) 으로 복사하세요.
+     */
+    void scan(TodoItemQuery query, Consumer<TodoItem> consumer, String... args) {
+        scanWhile(query, item -> {
+            consumer.accept(item);
+            return true;
+        }, args);
+    }
+
+    // scan 과 같지만 consumer 가 false 를 반환하면 그 자리에서 멈춤. 반환값: 계속 진행했으면 true
+    // 시간은 "db.scan.us", 읽은 행 수(중간에 멈추면 그때까지)는 "db.scan.rows"
+    private boolean scanWhile(TodoItemQuery query, Predicate<TodoItem> consumer, String... args) {
+        long start = Metrics.begin("db.scan");
+        int rows = 0;
+        try (Cursor cursor = database.rawQuery(query.sql, args)) {
+            TodoItemRowMapper mapper = TodoItemRowMapper.forCursor(cursor);
+            TodoItem reused = new TodoItem();
+            while (cursor.moveToNext()) {
+                rows++;
+                if (!consumer.test(mapper.mapInto(cursor, reused))) return false;
+            }
+            return true;
+        } finally {
+            Metrics.end("db.scan", start);
+            Metrics.record("db.scan.rows", rows);
+        }
+    }
+
+    // 화면 필터(카테고리 Category.ALL 이면 전체, 미완료만 보기 여부)에 맞는 목록 조회
+    public List<TodoItem> getTasks(long categoryId, boolean uncompletedOnly) {
+        return getTodoItems(TodoItemQuery.forFilter(categoryId, uncompletedOnly),
+                TodoItemQuery.argsForFilter(categoryId, uncompletedOnly));
+    }
+
+    /**
+     * (due_time, id) 순서에서 after 다음부터 최대 limit 개를 읽습니다. (키셋 페이지네이션)
+     * OFFSET 을 쓰지 않으므로 몇 번째 페이지든 인덱스 탐색 + limit 행만큼의 비용입니다.
+     */
+    public List<TodoItem> getTaskPage(long categoryId, boolean uncompletedOnly, TodoItemPager.Key after, int limit) {
+        TodoItemQuery query = TodoItemQuery.forFilter(categoryId, uncompletedOnly);
+        String[] filterArgs = TodoItemQuery.argsForFilter(categoryId, uncompletedOnly);
 
-        cursor.moveToFirst();
-        while (!cursor.isAfterLast()) {
-            TodoItem item = cursorToTask(cursor);
-            items.add(item);
-            cursor.moveToNext();
+        if (after.dueMinutes != TodoItem.NO_DUE_TIME) {
+            return readAll("db.page", database.rawQuery(query.nextValuePageSql, withArgs(filterArgs,
+                    String.valueOf(after.dueMinutes), String.valueOf(after.id), String.valueOf(limit))));
+        }
+
+        // NULL 구간을 먼저 읽고, 모자라면 값 구간의 처음부터 이어서 읽음
+        List<TodoItem> items = readAll("db.page", database.rawQuery(query.nullSegmentPageSql, withArgs(filterArgs,
+                String.valueOf(after.id), String.valueOf(limit))));
+        if (items.size() < limit) {
+            items.addAll(readAll("db.page", database.rawQuery(query.firstValuePageSql, withArgs(filterArgs,
+                    String.valueOf(limit - items.size())))));
         }
-        cursor.close();
         return items;
     }
 
+    /**
+     * 제목 검색: 입력한 단어들로 시작하는 단어가 모두 들어 있는 항목을 화면 필터와 함께 최대 limit 개 찾습니다.
+     * FTS 색인으로 찾고 최신 후보 몇백 개 안에서만 순위를 매기므로 테이블 크기와 관계없이 비용이 일정합니다.
+     * signal 이 취소되면 진행 중인 쿼리를 중단하고 OperationCanceledException 을 던집니다.
+     */
+    public List<TodoItem> searchTasks(String text, long categoryId, boolean uncompletedOnly, int limit,
+                                      CancellationSignal signal) {
+        String match = toMatchQuery(text);
+        if (match == null) {
+            return new ArrayList<>();
+        }
+        TodoItemQuery query = TodoItemQuery.forFilter(categoryId, uncompletedOnly);
+        String[] filterArgs = TodoItemQuery.argsForFilter(categoryId, uncompletedOnly);
+        String[] args = new String[(filterArgs == null ? 0 : filterArgs.length) + 4];
+        args[0] = match;
+        if (filterArgs != null) {
+            System.arraycopy(filterArgs, 0, args, 1, filterArgs.length);
+        }
+        args[args.length - 3] = String.valueOf(Math.max(limit * SEARCH_CANDIDATES_PER_RESULT, MIN_SEARCH_CANDIDATES));
+        args[args.length - 2] = escapeLike(text.trim()) + "%";
+        args[args.length - 1] = String.valueOf(limit);
+        return readAll("db.search", database.rawQuery(query.searchSql, args, signal));
+    }
+
+    /**
+     * 입력 문자열 → FTS MATCH 식. 단어마다 접두어 검색("회의*")으로 바꾸고 AND 로 묶습니다.
+     * FTS 문법 문자(따옴표, 괄호, -, : 등)는 버리므로 사용자가 무엇을 입력해도 문법 오류가 나지 않습니다.
+     * 검색할 단어가 없으면 null.
+     */
+    static String toMatchQuery(String text) {
+        if (text == null) return null;
+        StringBuilder match = new StringBuilder(text.length() + 8);
+        int tokenStart = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && tokenStart < 0) {
+                tokenStart = i;
+            } else if (!isWordChar && tokenStart >= 0) {
+                if (match.length() > 0) match.append(' ');
+                match.append(text, tokenStart, i).append('*');
+                tokenStart = -1;
+            }
+        }
+        return match.length() == 0 ? null : match.toString();
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String[] withArgs(String[] filterArgs, String... extra) {
+        int base = filterArgs == null ? 0 : filterArgs.length;
+        String[] args = new String[base + extra.length];
+        if (filterArgs != null) {
+            System.arraycopy(filterArgs, 0, args, 0, base);
+        }
+        System.arraycopy(extra, 0, args, base, extra.length);
+        return args;
+    }
+
     // 전체 목록 조회
     public List<TodoItem> getAllTasksSortedByTime() {
-        return getTodoItems(null, TodoItemDbHelper.COLUMN_DUE_TIME + " ASC");
+        return getTodoItems(TodoItemQuery.ALL);
     }
 
     // 카테고리별 조회
-    public List<TodoItem> getTasksByCategory(String category) {
-        String where = TodoItemDbHelper.COLUMN_CATEGORY_ID + " = '" + category + "'";
-        return getTodoItems(where, TodoItemDbHelper.COLUMN_DUE_TIME + " DESC");
+    public List<TodoItem> getTasksByCategory(long categoryId) {
+        return getTodoItems(TodoItemQuery.BY_CATEGORY, String.valueOf(categoryId));
     }
 
     // 상태별 조회
     public List<TodoItem> getTasksByCompletionStatus(boolean isCompleted) {
-        String where = TodoItemDbHelper.COLUMN_IS_COMPLETED + " = " + (isCompleted ? 1 : 0);
-        return getTodoItems(where, TodoItemDbHelper.COLUMN_DUE_TIME + " ASC");
+        return getTodoItems(TodoItemQuery.BY_COMPLETION, isCompleted ? "1" : "0");
+    }
+
+    // 전체 행 수 (캐시 가능 여부 판단용). 카테고리 카운터의 합이라 항목 테이블을 훑지 않음
+    public long getTaskCount() {
+        return DatabaseUtils.longForQuery(database, "SELECT COALESCE(SUM(" + TodoItemDbHelper.CATEGORY_COLUMN_TOTAL +
+                "), 0) FROM " + TodoItemDbHelper.CATEGORY_TABLE_NAME, null);
+    }
+
+    // 미완료 항목 수 (위젯 스냅샷용). 역시 카테고리 카운터의 합
+    public long getOpenTaskCount() {
+        return DatabaseUtils.longForQuery(database, "SELECT COALESCE(SUM(" + TodoItemDbHelper.CATEGORY_COLUMN_OPEN +
+                "), 0) FROM " + TodoItemDbHelper.CATEGORY_TABLE_NAME, null);
+    }
+
+    // 다른 연결/프로세스가 커밋하면 바뀌는 값 (자신의 커밋으로는 바뀌지 않음)
+    // 트랜잭션 안에서 실행해야 항상 같은(쓰기) 연결에서 읽힙니다.
+    public long getDataVersion() {
+        database.beginTransactionNonExclusive();
+        try {
+            return DatabaseUtils.longForQuery(database, "PRAGMA data_version", null);
+        } finally {
+            database.endTransaction();
+        }
     }
 
     // 알람 설정용 조회
     public List<TodoItem> getUpcomingTasksForAlarm() {
-        String where =
-                TodoItemDbHelper.COLUMN_IS_COMPLETED + " = 0 AND " +
-                        TodoItemDbHelper.COLUMN_DUE_TIME + " IS NOT NULL";
+        return getTodoItems(TodoItemQuery.UPCOMING_FOR_ALARM);
+    }
+
+    // 알람 재등록용: 목록 없이 한 행씩 (item 은 재사용되는 객체)
+    public void scanUpcomingTasksForAlarm(Consumer<TodoItem> consumer) {
+        scan(TodoItemQuery.UPCOMING_FOR_ALARM, consumer);
+    }
+
+    /**
+     * 알람 재등록용: 알람이 필요한 미완료 항목을 한 행씩 넘깁니다.
+     * 1) 반복 항목은 다음 발생일이 규칙마다 달라 순서를 정할 수 없으므로 모두 넘깁니다. (consumer 결과 무시)
+     * 2) 날짜가 있는 일회성 항목은 (날짜, 시각) 순, 3) 날짜 없는 항목은 nowMinutes 이후의 시각(오늘) →
+     * 그 이하의 시각(내일) 순으로 읽으므로, 2)와 3) 은 각각 중간에 멈춰도 지금까지 받은 항목이 가장 먼저 울릴 것들입니다.
+     * 2) 에서 멈춰도 3) 은 시작하므로(consumer 가 다음 행에 다시 판단) 각 묶음의 맨 앞 항목은 항상 포함됩니다.
+     * 커서는 CursorWindow 단위로 조금씩 채워지므로 행 수와 관계없이 메모리는 일정합니다.
+     * consumer 가 false 를 반환해 멈춘 묶음이 있으면 false 를 반환합니다. (item 은 재사용되는 객체)
+     */
+    public boolean scanUpcomingTasksInTriggerOrder(long todayEpochDay, int nowMinutes, Predicate<TodoItem> consumer) {
+        scan(TodoItemQuery.UPCOMING_RECURRING, consumer::test);
+        // 시간대에 따라 UTC 기준 "오늘"과 하루 어긋날 수 있으므로 어제부터 (지난 항목은 스케줄러가 건너뜀)
+        boolean isDatedComplete = scanWhile(TodoItemQuery.UPCOMING_DATED, consumer, String.valueOf(todayEpochDay - 1));
+        String minute = String.valueOf(nowMinutes);
+        boolean isUndatedComplete = scanWhile(TodoItemQuery.UPCOMING_AFTER_MINUTE, consumer, minute)
+                && scanWhile(TodoItemQuery.UPCOMING_UNTIL_MINUTE, consumer, minute);
+        return isDatedComplete && isUndatedComplete;
+    }
+
+    /**
+     * 기간 조회(아젠다)용: startDay~endDay(epoch day, 포함)에 날짜가 있는 일회성 항목과,
+     * endDay 이전에 시작한 반복 항목을 읽습니다. 반복 항목의 발생일 전개는 Occurrences 가 합니다.
+     * 둘 다 날짜 인덱스의 범위 탐색이라 몇 달 치 범위도 해당 행만 읽습니다.
+     */
+    public List<TodoItem> getTasksDueInRange(long startDay, long endDay) {
+        List<TodoItem> items = readAll("db.range", database.rawQuery(TodoItemQuery.DATED_IN_RANGE.sql,
+                new String[]{String.valueOf(startDay), String.valueOf(endDay)}));
+        items.addAll(readAll("db.range", database.rawQuery(TodoItemQuery.RECURRING_STARTED_BY.sql,
+                new String[]{String.valueOf(endDay)})));
+        return items;
+    }
+
+    // --- 카테고리 ---
+
+    /**
+     * 모든 카테고리를 만든 순서로 읽습니다. 항목 수는 트리거가 유지하는 카운터라 항목 테이블을 읽지 않습니다.
+     */
+    public List<Category> getCategories() {
+        long start = Metrics.begin("db.categories");
+        try (Cursor cursor = database.rawQuery("SELECT " +
+                TodoItemDbHelper.CATEGORY_COLUMN_ID + ", " + TodoItemDbHelper.CATEGORY_COLUMN_NAME + ", " +
+                TodoItemDbHelper.CATEGORY_COLUMN_TOTAL + ", " + TodoItemDbHelper.CATEGORY_COLUMN_OPEN +
+                " FROM " + TodoItemDbHelper.CATEGORY_TABLE_NAME +
+                " ORDER BY " + TodoItemDbHelper.CATEGORY_COLUMN_ID, null)) {
+            List<Category> categories = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                categories.add(new Category(cursor.getLong(0), cursor.getString(1), cursor.getInt(2), cursor.getInt(3)));
+            }
+            return categories;
+        } finally {
+            Metrics.end("db.categories", start);
+        }
+    }
+
+    /**
+     * 카테고리를 추가합니다. 같은 이름(대소문자 무시)이 이미 있으면 -1.
+     */
+    public long createCategory(String name) {
+        ContentValues values = new ContentValues();
+        values.put(TodoItemDbHelper.CATEGORY_COLUMN_NAME, name);
+        return database.insertWithOnConflict(TodoItemDbHelper.CATEGORY_TABLE_NAME, null, values,
+                SQLiteDatabase.CONFLICT_IGNORE);
+    }
+
+    /**
+     * 이름으로 카테고리 id 를 찾고, 없으면 만듭니다. (시드 데이터·테스트용)
+     */
+    public long getOrCreateCategory(String name) {
+        long id = createCategory(name);
+        if (id != -1) return id;
+        return DatabaseUtils.longForQuery(database, "SELECT " + TodoItemDbHelper.CATEGORY_COLUMN_ID +
+                " FROM " + TodoItemDbHelper.CATEGORY_TABLE_NAME +
+                " WHERE " + TodoItemDbHelper.CATEGORY_COLUMN_NAME + " = ?", new String[]{name});
+    }
+
+    /**
+     * 이름을 바꿉니다. 항목은 id 로 가리키므로 항목 행은 바뀌지 않습니다. 같은 이름이 이미 있으면 false.
+     */
+    public boolean renameCategory(long categoryId, String name) {
+        ContentValues values = new ContentValues();
+        values.put(TodoItemDbHelper.CATEGORY_COLUMN_NAME, name);
+        return database.updateWithOnConflict(TodoItemDbHelper.CATEGORY_TABLE_NAME, values,
+                TodoItemDbHelper.CATEGORY_COLUMN_ID + " = ?", new String[]{String.valueOf(categoryId)},
+                SQLiteDatabase.CONFLICT_IGNORE) == 1;
+    }
+
+    /**
+     * 빈 카테고리만 삭제합니다. (카운터로 확인하므로 항목 테이블을 읽지 않음) 항목이 남아 있으면 false.
+     * 카운터는 살아 있는 항목만 세므로, 이 카테고리를 가리키는 삭제 표시 항목은 먼저 영구 삭제합니다. (외래 키)
+     */
+    public boolean deleteCategory(long categoryId) {
+        String[] args = {String.valueOf(categoryId)};
+        database.beginTransaction();
+        try {
+            if (DatabaseUtils.longForQuery(database, "SELECT " + TodoItemDbHelper.CATEGORY_COLUMN_TOTAL +
+                    " FROM " + TodoItemDbHelper.CATEGORY_TABLE_NAME +
+                    " WHERE " + TodoItemDbHelper.CATEGORY_COLUMN_ID + " = ?", args) != 0) {
+                return false;
+            }
+            database.delete(TodoItemDbHelper.TABLE_NAME, TodoItemDbHelper.COLUMN_CATEGORY_ID + " = ?", args);
+            boolean isDeleted = database.delete(TodoItemDbHelper.CATEGORY_TABLE_NAME,
+                    TodoItemDbHelper.CATEGORY_COLUMN_ID + " = ?", args) == 1;
+            database.setTransactionSuccessful();
+            return isDeleted;
+        } finally {
+            database.endTransaction();
+        }
+    }
+
+    // --- 내보내기·가져오기 ---
+
+    /**
+     * 카테고리와 모든 (삭제 표시되지 않은) 항목을 writer 로 내보내고 끝 레코드를 씁니다. 반환값: 내보낸 항목 수
+     * 항목은 id 순으로 EXPORT_CHUNK_ROWS 행씩 키셋으로 읽습니다. 커서 하나로 끝까지 읽으면 CursorWindow 를
+     * 다시 채울 때마다 쿼리를 처음부터 다시 실행하므로, 짧은 쿼리를 이어 붙이고 TodoItem 하나를 재사용합니다.
+     * 청크 사이에 다른 쓰기가 끼지 않도록 writer 스레드에서 호출하세요.
+     */
+    public long exportTo(TodoBackupWriter writer) throws IOException {
+        long start = Metrics.begin("db.export");
+        long rows = 0;
+        try {
+            for (Category category : getCategories()) {
+                writer.writeCategory(category.getId(), category.getName());
+            }
+
+            String sql = "SELECT " + TodoItemQuery.COLUMNS + " FROM " + TodoItemDbHelper.TABLE_NAME +
+                    " WHERE " + TodoItemDbHelper.LIVE + " AND " + TodoItemDbHelper.COLUMN_ID + " > ? ORDER BY " + TodoItemDbHelper.COLUMN_ID +
+                    " LIMIT " + TodoBackup.EXPORT_CHUNK_ROWS;
+            TodoItem reused = new TodoItem();
+            long lastId = 0;
+            int chunkRows;
+            do {
+                chunkRows = 0;
+                try (Cursor cursor = database.rawQuery(sql, new String[]{String.valueOf(lastId)})) {
+                    TodoItemRowMapper mapper = TodoItemRowMapper.forCursor(cursor);
+                    while (cursor.moveToNext()) {
+                        writer.writeTask(mapper.mapInto(cursor, reused));
+                        lastId = reused.getId();
+                        chunkRows++;
+                    }
+                }
+                rows += chunkRows;
+            } while (chunkRows == TodoBackup.EXPORT_CHUNK_ROWS);
+
+            writer.finish();
+            return rows;
+        } finally {
+            Metrics.end("db.export", start);
+            Metrics.record("db.export.rows", rows);
+        }
+    }
+
+    /**
+     * 백업을 한 레코드씩 읽어 IMPORT_BATCH_ROWS 행마다 커밋합니다. 결과는 result 에 누적됩니다.
+     * 카테고리는 이름으로 찾거나 만들고(백업의 카테고리 id 는 이 DB 의 id 로 바꿈), 항목 id 가 이미 있으면
+     * onConflict 에 따릅니다. 파일이 깨져 IOException 이 나면 진행 중인 배치만 되돌리고, 이미 커밋한 배치는
+     * 남습니다. (result.isComplete 는 false)
+     * 수정은 UPDATE 로 하므로(INSERT OR REPLACE 는 삭제 트리거를 건너뜀) FTS 색인과 카운터가 함께 갱신됩니다.
+     * 같은 id 가 삭제 표시된 채 남아 있으면 충돌로 보지 않고 백업 내용으로 되살립니다.
+     * id 충돌은 미리 조회해서 판단하고 INSERT OR IGNORE 를 쓰지 않으므로, 그 밖의 제약 위반(NOT NULL, 외래 키 등)은
+     * 건너뛴 항목으로 세지 않고 SQLiteConstraintException 으로 가져오기를 멈춥니다. (진행 중인 배치는 되돌림)
+     */
+    public void importFrom(TodoBackupReader reader, TodoBackup.IdConflict onConflict,
+                           TodoBackup.ImportResult result) throws IOException {
+        long start = Metrics.begin("db.import");
+        String columns = TodoItemDbHelper.COLUMN_TITLE + ", " +
+                TodoItemDbHelper.COLUMN_CATEGORY_ID + ", " +
+                TodoItemDbHelper.COLUMN_DUE_TIME + ", " +
+                TodoItemDbHelper.COLUMN_IS_COMPLETED + ", " +
+                TodoItemDbHelper.COLUMN_DUE_DATE + ", " +
+                TodoItemDbHelper.COLUMN_RECURRENCE;
+        SQLiteStatement insertWithId = database.compileStatement(
+                "INSERT INTO " + TodoItemDbHelper.TABLE_NAME + " (" + columns + ", " +
+                        TodoItemDbHelper.COLUMN_ID + ") VALUES (?, ?, ?, ?, ?, ?, ?)");
+        SQLiteStatement insertNew = database.compileStatement(
+                "INSERT INTO " + TodoItemDbHelper.TABLE_NAME + " (" + columns + ") VALUES (?, ?, ?, ?, ?, ?)");
+        String updateSql = "UPDATE " + TodoItemDbHelper.TABLE_NAME + " SET " +
+                TodoItemDbHelper.COLUMN_TITLE + " = ?, " +
+                TodoItemDbHelper.COLUMN_CATEGORY_ID + " = ?, " +
+                TodoItemDbHelper.COLUMN_DUE_TIME + " = ?, " +
+                TodoItemDbHelper.COLUMN_IS_COMPLETED + " = ?, " +
+                TodoItemDbHelper.COLUMN_DUE_DATE + " = ?, " +
+                TodoItemDbHelper.COLUMN_RECURRENCE + " = ?, " +
+                TodoItemDbHelper.COLUMN_DELETED_AT + " = NULL" +
+                " WHERE " + TodoItemDbHelper.COLUMN_ID + " = ?";
+        SQLiteStatement update = database.compileStatement(updateSql);
+        SQLiteStatement revive = database.compileStatement(updateSql +
+                " AND " + TodoItemDbHelper.COLUMN_DELETED_AT + " IS NOT NULL");
+        SQLiteStatement isLive = database.compileStatement(
+                "SELECT COUNT(*) FROM " + TodoItemDbHelper.TABLE_NAME + " WHERE " +
+                        TodoItemDbHelper.COLUMN_ID + " = ? AND " + TodoItemDbHelper.LIVE);
+
+        // 백업의 카테고리 id → 이 DB 의 카테고리 id (카테고리 수만큼만 커짐)
+        Map<Long, Long> categoryIds = new HashMap<>();
+        // 커밋 전 배치의 결과 (배치가 되돌려지면 버림)
+        TodoBackup.ImportResult batch = new TodoBackup.ImportResult();
+
+        TodoBackupReader.Handler handler = new TodoBackupReader.Handler() {
+            private long fallbackCategory = TodoItem.NO_CATEGORY;
+
+            @Override
+            public void onCategory(long id, String name) {
+                categoryIds.put(id, getOrCreateCategory(name));
+            }
+
+            @Override
+            public void onTask(TodoItem item) {
+                Long mapped = categoryIds.get(item.getCategoryId());
+                long categoryId;
+                if (mapped != null) {
+                    categoryId = mapped;
+                } else {
+                    if (fallbackCategory == TodoItem.NO_CATEGORY) {
+                        fallbackCategory = getOrCreateCategory(TodoItemDbHelper.FALLBACK_CATEGORY);
+                    }
+                    categoryId = fallbackCategory;
+                }
+
+                if (item.getId() <= 0) {
+                    // id 없이 손으로 만든 JSON 줄 등
+                    bindImportRow(insertNew, item, categoryId);
+                    insertNew.executeInsert();
+                    batch.inserted++;
+                    return;
+                }
+                if (onConflict == TodoBackup.IdConflict.REPLACE) {
+                    bindImportRow(update, item, categoryId);
+                    update.bindLong(7, item.getId());
+                    if (update.executeUpdateDelete() == 1) {
+                        batch.replaced++;
+                        return;
+                    }
+                }
+                isLive.bindLong(1, item.getId());
+                if (isLive.simpleQueryForLong() > 0) {
+                    // REPLACE 는 위에서 처리했으므로 여기서는 KEEP_EXISTING / KEEP_BOTH
+                    if (onConflict == TodoBackup.IdConflict.KEEP_BOTH) {
+                        bindImportRow(insertNew, item, categoryId);
+                        insertNew.executeInsert();
+                        batch.inserted++;
+                    } else {
+                        batch.skipped++;
+                    }
+                    return;
+                }
+                bindImportRow(revive, item, categoryId);
+                revive.bindLong(7, item.getId());
+                if (revive.executeUpdateDelete() == 1) {
+                    batch.inserted++;
+                    return;
+                }
+                // id 가 비어 있으므로 여기서 나는 예외는 다른 제약 위반
+                bindImportRow(insertWithId, item, categoryId);
+                insertWithId.bindLong(7, item.getId());
+                insertWithId.executeInsert();
+                batch.inserted++;
+            }
+        };
+
+        database.beginTransaction();
+        try {
+            int batchRows = 0;
+            while (reader.readNext(handler)) {
+                if (++batchRows < TodoBackup.IMPORT_BATCH_ROWS) continue;
+                database.setTransactionSuccessful();
+                database.endTransaction();
+                addBatch(result, batch);
+                batchRows = 0;
+                database.beginTransaction();
+            }
+            database.setTransactionSuccessful();
+        } finally {
+            database.endTransaction();
+            insertWithId.close();
+            insertNew.close();
+            update.close();
+            revive.close();
+            isLive.close();
+            Metrics.end("db.import", start);
+        }
+        addBatch(result, batch);
+        result.isComplete = true;
+        Metrics.record("db.import.rows", result.inserted + result.replaced + result.skipped);
+    }
+
+    private static void bindImportRow(SQLiteStatement statement, TodoItem item, long categoryId) {
+        statement.clearBindings();
+        statement.bindString(1, item.getTitle());
+        statement.bindLong(2, categoryId);
+        if (item.hasDueTime()) {
+            statement.bindLong(3, item.getDueMinutes());
+        } else {
+            statement.bindNull(3);
+        }
+        statement.bindLong(4, item.isCompleted() ? 1 : 0);
+        bindSchedule(statement, 5, item);
+    }
 
-        return getTodoItems(where, TodoItemDbHelper.COLUMN_DUE_TIME + " ASC");
+    private static void addBatch(TodoBackup.ImportResult result, TodoBackup.ImportResult batch) {
+        result.inserted += batch.inserted;
+        result.replaced += batch.replaced;
+        result.skipped += batch.skipped;
+        batch.inserted = 0;
+        batch.replaced = 0;
+        batch.skipped = 0;
     }
 }
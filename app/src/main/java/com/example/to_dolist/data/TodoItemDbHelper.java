@@ -1,42 +1,267 @@
 package com.example.to_dolist.data;
 
 import android.content.Context;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 
 public class TodoItemDbHelper extends SQLiteOpenHelper {
 
-    private static final String DATABASE_NAME = "todolist.db";
-    private static final int DATABASE_VERSION = 1;
+    static final String DATABASE_NAME = "todolist.db";
+    // 1: 최초 스키마, 2: 필터용 인덱스 추가, 3: 카테고리 페이지 조회용 인덱스 추가,
+    // 4: due_time 을 "HH:mm" TEXT 에서 자정부터의 분(INTEGER)으로 변경, 5: 제목 전문 검색(FTS4) 추가,
+    // 6: 날짜(due_date)·반복 규칙(recurrence) 열과 기간 조회용 인덱스 추가,
+    // 7: 카테고리를 category 테이블로 분리하고 category_id 를 정수 외래 키로 변경 (항목 수 카운터 포함)
+    // 8: 삭제 표시(deleted_at) 열 추가, 인덱스를 살아 있는 항목만 담는 부분 인덱스로 변경
+    static final int DATABASE_VERSION = 8;
+    // PRAGMA auto_vacuum 값 (0 NONE, 1 FULL, 2 INCREMENTAL)
+    static final int AUTO_VACUUM_INCREMENTAL = 2;
 
     public static final String TABLE_NAME = "todoitem";
     public static final String COLUMN_ID = "id";
     public static final String COLUMN_TITLE = "title";
-    public static final String COLUMN_CATEGORY_ID = "category_id"; // RQ-0007
-    public static final String COLUMN_DUE_TIME = "due_time"; // HH:MM 형식의 시간 (TEXT)
+    public static final String COLUMN_CATEGORY_ID = "category_id"; // RQ-0007: category.id (INTEGER)
+    public static final String COLUMN_DUE_TIME = "due_time"; // 자정부터의 분 (INTEGER, 0 ~ 1439), 시간 없음은 NULL
     public static final String COLUMN_IS_COMPLETED = "is_completed"; // RQ-0005 (0: false, 1: true)
+    public static final String COLUMN_DUE_DATE = "due_date"; // LocalDate.toEpochDay (INTEGER), 날짜 없음은 NULL
+    public static final String COLUMN_RECURRENCE = "recurrence"; // Recurrence.encode() (TEXT), 반복 없음은 NULL
+    // 삭제한 시각 (epoch ms, INTEGER), 살아 있는 항목은 NULL. 삭제 표시된 행은 되돌릴 수 있고, 정리 작업이 나중에 지움
+    public static final String COLUMN_DELETED_AT = "deleted_at";
 
-    private static final String SQL_CREATE_ENTRIES =
-            "CREATE TABLE " + TABLE_NAME + " (" +
-                    COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    COLUMN_TITLE + " TEXT NOT NULL," +
-                    COLUMN_CATEGORY_ID + " TEXT NOT NULL," +
-                    COLUMN_DUE_TIME + " TEXT," +
-                    COLUMN_IS_COMPLETED + " INTEGER DEFAULT 0)";
+    // 살아 있는 항목 조건. 아래 인덱스는 모두 이 조건의 부분 인덱스라, 조회 WHERE 에 이 조건이 있어야 쓰임
+    static final String LIVE = COLUMN_DELETED_AT + " IS NULL";
+
+    private static final String SQL_CREATE_ENTRIES = createTableSql(TABLE_NAME);
+
+    // 사용자 정의 카테고리. 이름은 대소문자 구분 없이 유일하고, 항목 수는 아래 트리거가 유지함
+    public static final String CATEGORY_TABLE_NAME = "category";
+    public static final String CATEGORY_COLUMN_ID = "id";
+    public static final String CATEGORY_COLUMN_NAME = "name";
+    public static final String CATEGORY_COLUMN_TOTAL = "total_count";
+    public static final String CATEGORY_COLUMN_OPEN = "open_count"; // 미완료 항목 수
+
+    // 새로 설치했을 때 만드는 카테고리 (v6 까지의 고정 필터와 같은 순서)
+    static final String[] DEFAULT_CATEGORIES = {"WORK", "STUDY", "ETC"};
+    // 이전 데이터의 카테고리 이름이 비어 있으면 옮겨 갈 카테고리
+    static final String FALLBACK_CATEGORY = "ETC";
+
+    private static final String SQL_CREATE_CATEGORIES =
+            "CREATE TABLE IF NOT EXISTS " + CATEGORY_TABLE_NAME + " (" +
+                    CATEGORY_COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    CATEGORY_COLUMN_NAME + " TEXT NOT NULL UNIQUE COLLATE NOCASE," +
+                    CATEGORY_COLUMN_TOTAL + " INTEGER NOT NULL DEFAULT 0," +
+                    CATEGORY_COLUMN_OPEN + " INTEGER NOT NULL DEFAULT 0)";
+
+    // 항목 추가·삭제·이동·완료 변경 시 카테고리별 카운터를 같은 트랜잭션에서 갱신 (PK 로 한 행만 수정)
+    // 카운터는 살아 있는 항목만 셈: 삭제 표시·되돌리기는 빼고 더하기, 삭제 표시된 행의 정리는 카운터를 건드리지 않음
+    // 완료 상태·카테고리·삭제 여부가 실제로 바뀐 수정만 카운터를 건드림
+    private static final String SQL_ADD_NEW_TO_COUNTERS =
+            " UPDATE " + CATEGORY_TABLE_NAME + " SET " +
+                    CATEGORY_COLUMN_TOTAL + " = " + CATEGORY_COLUMN_TOTAL + " + (new." + LIVE + "), " +
+                    CATEGORY_COLUMN_OPEN + " = " + CATEGORY_COLUMN_OPEN +
+                    " + (new." + LIVE + " AND new." + COLUMN_IS_COMPLETED + " = 0)" +
+                    " WHERE " + CATEGORY_COLUMN_ID + " = new." + COLUMN_CATEGORY_ID + ";";
+    private static final String SQL_REMOVE_OLD_FROM_COUNTERS =
+            " UPDATE " + CATEGORY_TABLE_NAME + " SET " +
+                    CATEGORY_COLUMN_TOTAL + " = " + CATEGORY_COLUMN_TOTAL + " - (old." + LIVE + "), " +
+                    CATEGORY_COLUMN_OPEN + " = " + CATEGORY_COLUMN_OPEN +
+                    " - (old." + LIVE + " AND old." + COLUMN_IS_COMPLETED + " = 0)" +
+                    " WHERE " + CATEGORY_COLUMN_ID + " = old." + COLUMN_CATEGORY_ID + ";";
+
+    // 트리거 이름 (마이그레이션에서 다시 만들 때 사용)
+    static final String[] COUNTER_TRIGGERS = {
+            TABLE_NAME + "_count_ai", TABLE_NAME + "_count_ad", TABLE_NAME + "_count_au"};
+
+    private static final String[] SQL_CREATE_COUNTER_TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS " + COUNTER_TRIGGERS[0] + " AFTER INSERT ON " + TABLE_NAME +
+                    " WHEN new." + LIVE + " BEGIN" +
+                    SQL_ADD_NEW_TO_COUNTERS + " END",
+            "CREATE TRIGGER IF NOT EXISTS " + COUNTER_TRIGGERS[1] + " AFTER DELETE ON " + TABLE_NAME +
+                    " WHEN old." + LIVE + " BEGIN" +
+                    SQL_REMOVE_OLD_FROM_COUNTERS + " END",
+            "CREATE TRIGGER IF NOT EXISTS " + COUNTER_TRIGGERS[2] + " AFTER UPDATE OF " +
+                    COLUMN_CATEGORY_ID + ", " + COLUMN_IS_COMPLETED + ", " + COLUMN_DELETED_AT + " ON " + TABLE_NAME +
+                    " WHEN old." + COLUMN_CATEGORY_ID + " IS NOT new." + COLUMN_CATEGORY_ID +
+                    " OR old." + COLUMN_IS_COMPLETED + " IS NOT new." + COLUMN_IS_COMPLETED +
+                    " OR (old." + LIVE + ") <> (new." + LIVE + ") BEGIN" +
+                    SQL_REMOVE_OLD_FROM_COUNTERS + SQL_ADD_NEW_TO_COUNTERS + " END"
+    };
+
+    // 필터 형태별 인덱스 (TodoItemQuery 참고)
+    public static final String INDEX_CATEGORY_COMPLETED_DUE = "idx_todoitem_category_completed_due";
+    public static final String INDEX_COMPLETED_DUE = "idx_todoitem_completed_due";
+    public static final String INDEX_DUE = "idx_todoitem_due";
+    public static final String INDEX_CATEGORY_DUE = "idx_todoitem_category_due";
+    // 기간 조회(아젠다)와 날짜 지정 알람용: 날짜 → 시각 순
+    public static final String INDEX_DATE_DUE = "idx_todoitem_date_due";
+    // 반복 항목만 담는 부분 인덱스 (반복 항목은 적으므로 작게 유지)
+    public static final String INDEX_RECURRING = "idx_todoitem_recurring";
+    // 정리 작업용: 삭제 표시된 행만 삭제 시각 순으로 (평소에는 거의 비어 있음)
+    public static final String INDEX_DELETED = "idx_todoitem_deleted";
+
+    // 삭제 표시된 행은 목록 인덱스에 들어가지 않으므로, 쌓여 있어도 목록 조회 비용이 늘지 않음
+    private static final String[] SQL_CREATE_INDEXES = {
+            "CREATE INDEX IF NOT EXISTS " + INDEX_CATEGORY_COMPLETED_DUE + " ON " + TABLE_NAME +
+                    " (" + COLUMN_CATEGORY_ID + ", " + COLUMN_IS_COMPLETED + ", " + COLUMN_DUE_TIME + ")" +
+                    " WHERE " + LIVE,
+            "CREATE INDEX IF NOT EXISTS " + INDEX_COMPLETED_DUE + " ON " + TABLE_NAME +
+                    " (" + COLUMN_IS_COMPLETED + ", " + COLUMN_DUE_TIME + ") WHERE " + LIVE,
+            "CREATE INDEX IF NOT EXISTS " + INDEX_DUE + " ON " + TABLE_NAME +
+                    " (" + COLUMN_DUE_TIME + ") WHERE " + LIVE,
+            "CREATE INDEX IF NOT EXISTS " + INDEX_CATEGORY_DUE + " ON " + TABLE_NAME +
+                    " (" + COLUMN_CATEGORY_ID + ", " + COLUMN_DUE_TIME + ") WHERE " + LIVE,
+            "CREATE INDEX IF NOT EXISTS " + INDEX_DELETED + " ON " + TABLE_NAME +
+                    " (" + COLUMN_DELETED_AT + ") WHERE " + COLUMN_DELETED_AT + " IS NOT NULL"
+    };
+
+    private static final String[] SQL_CREATE_DATE_INDEXES = {
+            "CREATE INDEX IF NOT EXISTS " + INDEX_DATE_DUE + " ON " + TABLE_NAME +
+                    " (" + COLUMN_DUE_DATE + ", " + COLUMN_DUE_TIME + ") WHERE " + LIVE,
+            "CREATE INDEX IF NOT EXISTS " + INDEX_RECURRING + " ON " + TABLE_NAME +
+                    " (" + COLUMN_DUE_DATE + ") WHERE " + COLUMN_RECURRENCE + " IS NOT NULL AND " + LIVE
+    };
+
+    // 제목 검색용 FTS4 테이블. todoitem 을 content 로 쓰는 외부 콘텐츠 테이블이라 제목을 중복 저장하지 않음
+    // (docid = todoitem.id). prefix 인덱스로 입력 중인 1~3글자 접두어 검색도 인덱스로 처리
+    public static final String FTS_TABLE_NAME = "todoitem_fts";
+
+    private static final String SQL_CREATE_FTS =
+            "CREATE VIRTUAL TABLE IF NOT EXISTS " + FTS_TABLE_NAME + " USING fts4(" +
+                    "content=\"" + TABLE_NAME + "\", " +
+                    COLUMN_TITLE + ", " +
+                    "tokenize=unicode61, " +
+                    "prefix=\"1,2,3\")";
+
+    // todoitem 변경 시 FTS 색인을 함께 갱신 (외부 콘텐츠 테이블은 삭제 전에 옛 값을 지워야 하므로 BEFORE)
+    // 외부 콘텐츠 색인은 테이블 내용과 같아야 하므로(rebuild·integrity-check) 삭제 표시된 행도 정리될 때까지 색인에 남고,
+    // 검색 SQL 이 todoitem 과 조인할 때 걸러냄
+    // 제목이 바뀌지 않은 수정(완료 체크 등)은 색인을 건드리지 않음
+    private static final String[] SQL_CREATE_FTS_TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS " + TABLE_NAME + "_fts_ai AFTER INSERT ON " + TABLE_NAME + " BEGIN" +
+                    " INSERT INTO " + FTS_TABLE_NAME + " (docid, " + COLUMN_TITLE + ")" +
+                    " VALUES (new." + COLUMN_ID + ", new." + COLUMN_TITLE + "); END",
+            "CREATE TRIGGER IF NOT EXISTS " + TABLE_NAME + "_fts_bd BEFORE DELETE ON " + TABLE_NAME + " BEGIN" +
+                    " DELETE FROM " + FTS_TABLE_NAME + " WHERE docid = old." + COLUMN_ID + "; END",
+            "CREATE TRIGGER IF NOT EXISTS " + TABLE_NAME + "_fts_bu BEFORE UPDATE OF " + COLUMN_TITLE +
+                    " ON " + TABLE_NAME + " WHEN old." + COLUMN_TITLE + " IS NOT new." + COLUMN_TITLE + " BEGIN" +
+                    " DELETE FROM " + FTS_TABLE_NAME + " WHERE docid = old." + COLUMN_ID + "; END",
+            "CREATE TRIGGER IF NOT EXISTS " + TABLE_NAME + "_fts_au AFTER UPDATE OF " + COLUMN_TITLE +
+                    " ON " + TABLE_NAME + " WHEN old." + COLUMN_TITLE + " IS NOT new." + COLUMN_TITLE + " BEGIN" +
+                    " INSERT INTO " + FTS_TABLE_NAME + " (docid, " + COLUMN_TITLE + ")" +
+                    " VALUES (new." + COLUMN_ID + ", new." + COLUMN_TITLE + "); END"
+    };
+
+    private final TodoDatabase.Config config;
+    // 이번 열기에서 새로 만든 DB 인지 (onOpen 에서 증분 정리 모드를 확인)
+    private boolean isCreated = false;
 
     public TodoItemDbHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this(context, DATABASE_NAME);
+    }
+
+    // 테스트용: name 이 null 이면 메모리 DB
+    TodoItemDbHelper(Context context, String name) {
+        this(context, name, new TodoDatabase.Config());
+    }
+
+    TodoItemDbHelper(Context context, String name, TodoDatabase.Config config) {
+        super(context, name, null, DATABASE_VERSION);
+        this.config = config;
+        // WAL 은 열기 전에 설정해야 읽기 연결 풀이 함께 만들어짐
+        setWriteAheadLoggingEnabled(config.writeAheadLogging && name != null);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        // 연결 풀의 모든 연결(쓰기 + 읽기)에 같은 PRAGMA 를 적용
+        db.execPerConnectionSQL("PRAGMA cache_size = -" + config.cacheSizeKb, null);
+        db.execPerConnectionSQL("PRAGMA mmap_size = " + config.mmapSizeBytes, null);
+        db.setMaxSqlCacheSize(config.statementCacheSize);
+        // 없는 카테고리를 가리키는 항목, 항목이 남은 카테고리의 삭제를 막음
+        db.setForeignKeyConstraintsEnabled(true);
     }
 
     @Override
     public void onCreate(SQLiteDatabase db) {
+        // 테이블을 만들기 전에만 바꿀 수 있음. 처음부터 증분 모드면 reclaimFreePages 가 빈 페이지만 잘라냄
+        db.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+        isCreated = true;
+        createCategories(db);
         db.execSQL(SQL_CREATE_ENTRIES);
+        createIndexes(db);
+        createDateIndexes(db);
+        createSearchIndex(db);
+        createCounterTriggers(db);
+    }
+
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        if (!isCreated) return;
+        isCreated = false;
+        // WAL 로 열면 onCreate 전에 파일 머리말이 이미 쓰여서 위의 PRAGMA 가 적용되지 않음.
+        // 방금 만든 빈 DB 라 VACUUM 은 몇 페이지만 다시 쓰므로, 여기서 한 번 증분 모드로 바꿈 (트랜잭션 밖)
+        if (DatabaseUtils.longForQuery(db, "PRAGMA auto_vacuum", null) != AUTO_VACUUM_INCREMENTAL) {
+            db.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+            db.execSQL("VACUUM");
+        }
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // 데이터 마이그레이션이 복잡하므로, 여기서는 간단하게 삭제 후 재생성 처리
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_NAME);
-        onCreate(db);
+        // 버전별 단계를 순서대로 적용하고 결과를 확인 (기존 데이터는 보존, 실패하면 전체가 되돌려짐)
+        TodoMigrations.migrate(db, oldVersion, newVersion);
+    }
+
+    // category 테이블과 기본 카테고리 (이미 있으면 그대로)
+    static void createCategories(SQLiteDatabase db) {
+        db.execSQL(SQL_CREATE_CATEGORIES);
+        for (String name : DEFAULT_CATEGORIES) {
+            db.execSQL("INSERT OR IGNORE INTO " + CATEGORY_TABLE_NAME + " (" + CATEGORY_COLUMN_NAME + ") VALUES (?)",
+                    new Object[]{name});
+        }
+    }
+
+    static void createCounterTriggers(SQLiteDatabase db) {
+        for (String sql : SQL_CREATE_COUNTER_TRIGGERS) {
+            db.execSQL(sql);
+        }
+    }
+
+    // FTS 테이블과 동기화 트리거를 만들고, 기존 제목으로 색인을 한 번에 채운다
+    static void createSearchIndex(SQLiteDatabase db) {
+        db.execSQL(SQL_CREATE_FTS);
+        createSearchTriggers(db);
+        db.execSQL("INSERT INTO " + FTS_TABLE_NAME + " (" + FTS_TABLE_NAME + ") VALUES ('rebuild')");
+    }
+
+    static void createSearchTriggers(SQLiteDatabase db) {
+        for (String sql : SQL_CREATE_FTS_TRIGGERS) {
+            db.execSQL(sql);
+        }
+    }
+
+    private static String createTableSql(String tableName) {
+        return "CREATE TABLE " + tableName + " (" +
+                COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT," +
+                COLUMN_TITLE + " TEXT NOT NULL," +
+                COLUMN_CATEGORY_ID + " INTEGER NOT NULL REFERENCES " +
+                CATEGORY_TABLE_NAME + "(" + CATEGORY_COLUMN_ID + ")," +
+                COLUMN_DUE_TIME + " INTEGER," +
+                COLUMN_IS_COMPLETED + " INTEGER DEFAULT 0," +
+                COLUMN_DUE_DATE + " INTEGER," +
+                COLUMN_RECURRENCE + " TEXT," +
+                COLUMN_DELETED_AT + " INTEGER)";
+    }
+
+    static void createIndexes(SQLiteDatabase db) {
+        for (String sql : SQL_CREATE_INDEXES) {
+            db.execSQL(sql);
+        }
+    }
+
+    static void createDateIndexes(SQLiteDatabase db) {
+        for (String sql : SQL_CREATE_DATE_INDEXES) {
+            db.execSQL(sql);
+        }
     }
 }
\ No newline at end of file
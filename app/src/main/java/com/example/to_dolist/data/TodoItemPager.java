@@ -0,0 +1,337 @@
+package com.example.to_dolist.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 필터 하나에 대한 페이지 단위 목록 로더.
+ * (due_time, id) 키셋 페이지네이션으로 필요한 만큼만 읽고, 스크롤 위치 주변의 페이지만 메모리에 유지합니다.
+ * 범위를 벗어난 페이지는 키와 크기만 남기고 항목을 버리며, 목록에는 null(자리 표시)로 나타납니다.
+ * 다시 보이면 같은 키 범위로 다시 읽습니다.
+ * 데이터 변경은 applyChanges() 로 메모리에 있는 페이지에만 반영하므로, 행 하나의 변경은 행 하나만 바꿉니다.
+ * 읽어 온 페이지에는 아직 DB 에 쓰이지 않은 수정(TodoWriteBehindQueue)을 덮어써서 보여줍니다.
+ * 모든 public 메서드와 Listener 호출은 메인 스레드에서 이뤄집니다.
+ */
+public class TodoItemPager {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    // 메모리에 항목을 유지할 최대 페이지 수 (현재 페이지 기준 앞뒤로 절반씩)
+    public static final int DEFAULT_MAX_PAGES_IN_MEMORY = 8;
+    // 목록 끝에서 이 개수 이내가 바인딩되면 다음 페이지를 미리 읽음
+    private static final int PREFETCH_DISTANCE = 20;
+
+    public interface Listener {
+        // 자리 표시(null)를 포함한 현재 목록
+        void onListChanged(List<TodoItem> snapshot);
+    }
+
+    /**
+     * 정렬 키 (due_time, id). due_time 이 null 인 항목이 먼저 오고, 같은 시간이면 id 순입니다.
+     */
+    public static final class Key implements Comparable<Key> {
+        // 맨 처음 (어떤 항목보다도 앞)
+        public static final Key START = new Key(TodoItem.NO_DUE_TIME, 0);
+
+        // 자정부터의 분, 시간 없음은 TodoItem.NO_DUE_TIME
+        final int dueMinutes;
+        final long id;
+
+        Key(int dueMinutes, long id) {
+            this.dueMinutes = dueMinutes;
+            this.id = id;
+        }
+
+        static Key of(TodoItem item) {
+            return new Key(item.getDueMinutes(), item.getId());
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byTime = Integer.compare(dueMinutes, other.dueMinutes);
+            return byTime != 0 ? byTime : Long.compare(id, other.id);
+        }
+    }
+
+    // (startAfter, end] 범위의 항목들. items 가 null 이면 메모리에서 내린 상태
+    private static final class Page {
+        final Key startAfter;
+        Key end;
+        List<TodoItem> items;
+        int size;
+        boolean isLoading;
+
+        Page(Key startAfter) {
+            this.startAfter = startAfter;
+        }
+    }
+
+    private final TodoRepository repository;
+    private final long categoryId;
+    private final boolean uncompletedOnly;
+    private final int pageSize;
+    private final int maxPagesInMemory;
+    private final Listener listener;
+
+    private final List<Page> pages = new ArrayList<>();
+    private boolean isAppending = false;
+    private boolean isEndReached = false;
+    private boolean isDisposed = false;
+
+    public TodoItemPager(TodoRepository repository, long categoryId, boolean uncompletedOnly, Listener listener) {
+        this(repository, categoryId, uncompletedOnly, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES_IN_MEMORY, listener);
+    }
+
+    public TodoItemPager(TodoRepository repository, long categoryId, boolean uncompletedOnly,
+                         int pageSize, int maxPagesInMemory, Listener listener) {
+        this.repository = repository;
+        this.categoryId = categoryId;
+        this.uncompletedOnly = uncompletedOnly;
+        this.pageSize = pageSize;
+        this.maxPagesInMemory = Math.max(2, maxPagesInMemory);
+        this.listener = listener;
+    }
+
+    /**
+     * 첫 페이지를 읽습니다. 테이블 크기와 무관하게 한 페이지 분량만 조회합니다.
+     */
+    public void loadInitial() {
+        appendPage();
+    }
+
+    /**
+     * 어댑터가 position 을 바인딩할 때 호출합니다.
+     * 내려간 페이지면 다시 읽고, 끝에 가까우면 다음 페이지를 미리 읽고, 멀어진 페이지는 메모리에서 내립니다.
+     */
+    public void onItemAccessed(int position) {
+        if (isDisposed) return;
+
+        int pageIndex = pageIndexOf(position);
+        if (pageIndex < 0) return;
+
+        Page page = pages.get(pageIndex);
+        if (page.items == null && !page.isLoading) {
+            reloadPage(pageIndex);
+        }
+        if (position >= totalSize() - PREFETCH_DISTANCE) {
+            appendPage();
+        }
+        if (evictPagesOutsideWindow(pageIndex)) {
+            publish();
+        }
+    }
+
+    /**
+     * 데이터가 바뀐 뒤 호출합니다. 메모리에 있는 페이지만 같은 키 범위로 다시 읽습니다.
+     */
+    public void refresh() {
+        if (isDisposed) return;
+        if (pages.isEmpty()) {
+            isEndReached = false;
+            appendPage();
+            return;
+        }
+        for (int i = 0; i < pages.size(); i++) {
+            if (pages.get(i).items != null) {
+                reloadPage(i);
+            }
+        }
+    }
+
+    /**
+     * TodoChangeBus 의 변경을 메모리에 있는 페이지에 직접 반영합니다. (다시 조회하지 않음)
+     * 키 (due_time, id) 가 속한 페이지가 메모리에 없으면 그 페이지를 다시 읽을 때 반영되므로 건너뜁니다.
+     * 필터 일치 여부를 알 수 없는 변경(카테고리 없는 수정)이 섞여 있으면 refresh() 로 대신합니다.
+     */
+    public void applyChanges(List<TodoChangeEvent> events) {
+        if (isDisposed) return;
+
+        boolean changed = false;
+        for (TodoChangeEvent event : events) {
+            TodoItem item = event.getItem();
+            if (item != null && !isFilterKnown(item)) {
+                refresh();
+                return;
+            }
+            changed |= removeLoaded(event.getId());
+            if (item != null && matchesFilter(item)) {
+                changed |= insertLoaded(item);
+            }
+        }
+        if (changed) {
+            publish();
+        }
+    }
+
+    // 필터가 바뀌어 더 이상 쓰지 않을 때 호출 (늦게 도착한 결과 무시)
+    public void dispose() {
+        isDisposed = true;
+    }
+
+    // --- 내부 로직 ---
+
+    private void appendPage() {
+        if (isAppending || isEndReached) return;
+        isAppending = true;
+
+        final Key after = pages.isEmpty() ? Key.START : pages.get(pages.size() - 1).end;
+        repository.loadPage(categoryId, uncompletedOnly, after, null, pageSize, items -> {
+            if (isDisposed) return;
+            isAppending = false;
+
+            isEndReached = items.size() < pageSize;
+            if (!items.isEmpty()) {
+                Page page = new Page(after);
+                page.end = Key.of(items.get(items.size() - 1));
+                page.items = overlayPending(items);
+                page.size = page.items.size();
+                pages.add(page);
+            }
+            publish();
+        });
+    }
+
+    private void reloadPage(int pageIndex) {
+        final Page page = pages.get(pageIndex);
+        final boolean isLast = pageIndex == pages.size() - 1;
+        final int limit = Math.max(pageSize, page.size);
+        page.isLoading = true;
+
+        // 마지막 페이지는 뒤에 추가된 항목도 받도록 끝을 열어 두고, 나머지는 기존 범위를 그대로 다시 읽음
+        repository.loadPage(categoryId, uncompletedOnly, page.startAfter, isLast ? null : page.end, limit, items -> {
+            if (isDisposed) return;
+            page.isLoading = false;
+            page.items = overlayPending(items);
+            page.size = page.items.size();
+            if (isLast && pages.get(pages.size() - 1) == page) {
+                page.end = items.isEmpty() ? page.startAfter : Key.of(items.get(items.size() - 1));
+                isEndReached = items.size() < limit;
+            }
+            publish();
+        });
+    }
+
+    private boolean isFilterKnown(TodoItem item) {
+        return categoryId == Category.ALL || item.hasCategory();
+    }
+
+    private boolean matchesFilter(TodoItem item) {
+        if (uncompletedOnly && item.isCompleted()) return false;
+        return categoryId == Category.ALL || categoryId == item.getCategoryId();
+    }
+
+    // 메모리에 있는 id 항목을 뺍니다. (수정이면 바로 insertLoaded 로 새 키 자리에 다시 넣음)
+    private boolean removeLoaded(long id) {
+        for (Page page : pages) {
+            if (page.items == null) continue;
+            for (int i = 0; i < page.items.size(); i++) {
+                if (page.items.get(i).getId() != id) continue;
+
+                page.items.remove(i);
+                page.size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 키 순서에 맞는 페이지를 찾아 넣습니다.
+     * 마지막 페이지 뒤쪽 키는 목록 끝까지 읽었을 때만 붙이고, 아니면 다음 appendPage 가 읽어 옵니다.
+     */
+    private boolean insertLoaded(TodoItem item) {
+        if (pages.isEmpty()) {
+            if (!isEndReached || isAppending) return false;
+            Page page = new Page(Key.START);
+            page.items = new ArrayList<>();
+            page.end = Key.of(item);
+            pages.add(page);
+        }
+
+        Key key = Key.of(item);
+        Page target = null;
+        for (Page page : pages) {
+            if (key.compareTo(page.startAfter) > 0 && key.compareTo(page.end) <= 0) {
+                target = page;
+                break;
+            }
+        }
+        if (target == null) {
+            Page last = pages.get(pages.size() - 1);
+            if (!isEndReached || key.compareTo(last.end) <= 0) return false;
+            target = last;
+            target.end = key;
+        }
+        if (target.items == null) return false;
+
+        int index = Collections.binarySearch(target.items, item, TodoItemCache.DUE_TIME_ORDER);
+        if (index >= 0) {
+            target.items.set(index, item);
+            return true;
+        }
+        target.items.add(-index - 1, item);
+        target.size++;
+        return true;
+    }
+
+    // 키 범위와 끝 판정은 DB 결과 그대로 두고, 보여줄 항목에만 대기 중인 수정을 반영
+    private List<TodoItem> overlayPending(List<TodoItem> items) {
+        TodoWriteBehindQueue queue = repository.getWriteBehindQueue();
+        if (!queue.hasPending()) return items;
+
+        List<TodoItem> result = new ArrayList<>(items.size());
+        for (TodoItem item : items) {
+            TodoItem latest = queue.pendingState(item.getId());
+            if (latest == null) {
+                result.add(item);
+            } else if (matchesFilter(latest)) {
+                result.add(latest);
+            }
+        }
+        return result;
+    }
+
+    private boolean evictPagesOutsideWindow(int centerPage) {
+        int half = maxPagesInMemory / 2;
+        boolean changed = false;
+        for (int i = 0; i < pages.size(); i++) {
+            Page page = pages.get(i);
+            if (page.items != null && !page.isLoading && Math.abs(i - centerPage) > half) {
+                page.items = null;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private int pageIndexOf(int position) {
+        int offset = 0;
+        for (int i = 0; i < pages.size(); i++) {
+            offset += pages.get(i).size;
+            if (position < offset) return i;
+        }
+        return -1;
+    }
+
+    private int totalSize() {
+        int total = 0;
+        for (Page page : pages) {
+            total += page.size;
+        }
+        return total;
+    }
+
+    private void publish() {
+        List<TodoItem> snapshot = new ArrayList<>(totalSize());
+        for (Page page : pages) {
+            if (page.items != null) {
+                snapshot.addAll(page.items);
+            } else {
+                for (int i = 0; i < page.size; i++) {
+                    snapshot.add(null);
+                }
+            }
+        }
+        listener.onListChanged(snapshot);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.to_dolist.data;
+
+import static com.example.to_dolist.data.TodoItemDbHelper.COLUMN_CATEGORY_ID;
+import static com.example.to_dolist.data.TodoItemDbHelper.COLUMN_DUE_DATE;
+import static com.example.to_dolist.data.TodoItemDbHelper.COLUMN_DUE_TIME;
+import static com.example.to_dolist.data.TodoItemDbHelper.COLUMN_ID;
+import static com.example.to_dolist.data.TodoItemDbHelper.COLUMN_IS_COMPLETED;
+import static com.example.to_dolist.data.TodoItemDbHelper.COLUMN_RECURRENCE;
+import static com.example.to_dolist.data.TodoItemDbHelper.COLUMN_TITLE;
+import static com.example.to_dolist.data.TodoItemDbHelper.FTS_TABLE_NAME;
+import static com.example.to_dolist.data.TodoItemDbHelper.LIVE;
+import static com.example.to_dolist.data.TodoItemDbHelper.TABLE_NAME;
+
+/**
+ * 필터 형태별로 고정된 조회 SQL.
+ * 값은 항상 ? 로 바인딩하므로 SQL 문자열이 형태마다 하나로 고정되고,
+ * SQLite 연결의 prepared statement 캐시에서 같은 문장이 재사용됩니다.
+ * 각 형태는 TodoItemDbHelper 의 인덱스로 처리됩니다. (TodoItemQueryPlanTest 에서 확인)
+ * 모든 형태가 (due_time, id) 순으로 정렬되므로 같은 키로 페이지 조회(키셋 페이지네이션)를 할 수 있습니다.
+ * 삭제 표시된 행은 모든 형태에서 빠집니다. 인덱스가 deleted_at IS NULL 부분 인덱스라서
+ * 조건이 SQL 에 글자 그대로 들어가야 플래너가 인덱스를 고를 수 있습니다.
+ */
+enum TodoItemQuery {
+
+    // 전체 목록 → idx_todoitem_due
+    ALL(null),
+
+    // 완료 상태별 → idx_todoitem_completed_due
+    BY_COMPLETION(COLUMN_IS_COMPLETED + " = ?"),
+
+    // 카테고리별 → idx_todoitem_category_due
+    BY_CATEGORY(COLUMN_CATEGORY_ID + " = ?"),
+
+    // 카테고리 + 완료 상태 → idx_todoitem_category_completed_due
+    BY_CATEGORY_AND_COMPLETION(COLUMN_CATEGORY_ID + " = ? AND " + COLUMN_IS_COMPLETED + " = ?"),
+
+    // 알람 설정용: 미완료 + 시간 있음 → idx_todoitem_completed_due
+    UPCOMING_FOR_ALARM(COLUMN_IS_COMPLETED + " = 0 AND " + COLUMN_DUE_TIME + " IS NOT NULL"),
+
+    // 알람 재등록용 (다음 울릴 순서로 읽기): 날짜 없는 일회성 항목의 오늘 남은 시각 → 내일로 넘어가는 시각
+    // 둘 다 idx_todoitem_completed_due 의 범위 탐색 (NULL 은 비교에서 자동으로 제외)
+    UPCOMING_AFTER_MINUTE(COLUMN_IS_COMPLETED + " = 0 AND " + COLUMN_DUE_TIME + " > CAST(? AS INTEGER)"
+            + " AND " + COLUMN_DUE_DATE + " IS NULL AND " + COLUMN_RECURRENCE + " IS NULL"),
+    UPCOMING_UNTIL_MINUTE(COLUMN_IS_COMPLETED + " = 0 AND " + COLUMN_DUE_TIME + " <= CAST(? AS INTEGER)"
+            + " AND " + COLUMN_DUE_DATE + " IS NULL AND " + COLUMN_RECURRENCE + " IS NULL"),
+
+    // 알람 재등록용: 날짜가 지정된 일회성 항목을 (날짜, 시각) 순으로, 기준일(어제) 이후만 → idx_todoitem_date_due
+    UPCOMING_DATED(COLUMN_DUE_DATE + " >= CAST(? AS INTEGER) AND " + COLUMN_RECURRENCE + " IS NULL"
+            + " AND " + COLUMN_IS_COMPLETED + " = 0 AND " + COLUMN_DUE_TIME + " IS NOT NULL",
+            COLUMN_DUE_DATE + " ASC, " + COLUMN_DUE_TIME + " ASC, " + COLUMN_ID + " ASC"),
+
+    // 알람 재등록용: 반복 항목 전체 (다음 발생일은 규칙마다 계산) → idx_todoitem_recurring
+    UPCOMING_RECURRING(COLUMN_RECURRENCE + " IS NOT NULL AND " + COLUMN_IS_COMPLETED + " = 0"
+            + " AND " + COLUMN_DUE_TIME + " IS NOT NULL",
+            COLUMN_DUE_DATE + " ASC"),
+
+    // 기간 조회(아젠다): 시작일~종료일에 날짜가 있는 일회성 항목 → idx_todoitem_date_due 의 범위 탐색
+    DATED_IN_RANGE(COLUMN_DUE_DATE + " BETWEEN CAST(? AS INTEGER) AND CAST(? AS INTEGER)"
+            + " AND " + COLUMN_RECURRENCE + " IS NULL",
+            COLUMN_DUE_DATE + " ASC, " + COLUMN_DUE_TIME + " ASC, " + COLUMN_ID + " ASC"),
+
+    // 기간 조회(아젠다): 종료일 이전에 시작한 반복 항목 → idx_todoitem_recurring
+    RECURRING_STARTED_BY(COLUMN_RECURRENCE + " IS NOT NULL AND " + COLUMN_DUE_DATE + " <= CAST(? AS INTEGER)",
+            COLUMN_DUE_DATE + " ASC");
+
+    // 인덱스 항목은 (..., due_time, rowid) 순이므로 id 까지 포함해도 정렬이 추가로 필요 없음
+    static final String ORDER_BY = COLUMN_DUE_TIME + " ASC, " + COLUMN_ID + " ASC";
+
+    static final String COLUMNS =
+            COLUMN_ID + ", " + COLUMN_TITLE + ", " + COLUMN_CATEGORY_ID + ", "
+                    + COLUMN_DUE_TIME + ", " + COLUMN_IS_COMPLETED + ", "
+                    + COLUMN_DUE_DATE + ", " + COLUMN_RECURRENCE;
+
+    final String selection;
+    final String sql;
+
+    // 페이지 조회용. due_time 이 NULL 인 구간과 값이 있는 구간을 나눠서 각각 인덱스 범위로 읽음
+    // NULL 구간: 필터 인자..., 마지막 id, limit
+    final String nullSegmentPageSql;
+    // 값 구간의 첫 페이지: 필터 인자..., limit
+    final String firstValuePageSql;
+    // 값 구간의 다음 페이지: 필터 인자..., 마지막 due_time(분), 마지막 id, limit
+    final String nextValuePageSql;
+
+    // 제목 검색: MATCH 식, 필터 인자..., 후보 수, 접두어 LIKE 패턴, limit
+    // 필터를 통과한 MATCH 결과 중 최신 후보(docid 역순, FTS 가 정렬 없이 바로 제공)만 뽑은 뒤
+    // 그 안에서 "제목이 검색어로 시작" → 짧은 제목 → 최신 순으로 정렬.
+    // 한두 글자 접두어처럼 일치 항목이 아주 많아도 정렬 비용은 후보 수로 제한됨
+    final String searchSql;
+
+    TodoItemQuery(String selection) {
+        this(selection, ORDER_BY);
+    }
+
+    // 목록 화면 순서((due_time, id))가 아닌 순서로 읽는 형태용. 페이지 SQL 은 항상 목록 순서
+    TodoItemQuery(String selection, String orderBy) {
+        this.selection = selection == null ? LIVE : LIVE + " AND " + selection;
+        String select = "SELECT " + COLUMNS + " FROM " + TABLE_NAME + " WHERE " + this.selection + " AND ";
+        String limit = " LIMIT CAST(? AS INTEGER)";
+
+        this.sql = "SELECT " + COLUMNS + " FROM " + TABLE_NAME + " WHERE " + this.selection
+                + " ORDER BY " + orderBy;
+        this.nullSegmentPageSql = select
+                + COLUMN_DUE_TIME + " IS NULL AND " + COLUMN_ID + " > CAST(? AS INTEGER)"
+                + " ORDER BY " + COLUMN_ID + " ASC" + limit;
+        this.firstValuePageSql = select
+                + COLUMN_DUE_TIME + " IS NOT NULL"
+                + " ORDER BY " + ORDER_BY + limit;
+        this.nextValuePageSql = select
+                + "(" + COLUMN_DUE_TIME + ", " + COLUMN_ID + ") > (CAST(? AS INTEGER), CAST(? AS INTEGER))"
+                + " ORDER BY " + ORDER_BY + limit;
+        // FTS 테이블에는 title 열만 있으므로 필터 조건(category_id, is_completed, deleted_at 등)은 그대로 todoitem 을 가리킴
+        this.searchSql = "SELECT " + COLUMNS + " FROM ("
+                + "SELECT t." + COLUMN_ID + " AS " + COLUMN_ID + ", t." + COLUMN_TITLE + " AS " + COLUMN_TITLE
+                + ", t." + COLUMN_CATEGORY_ID + " AS " + COLUMN_CATEGORY_ID
+                + ", t." + COLUMN_DUE_TIME + " AS " + COLUMN_DUE_TIME
+                + ", t." + COLUMN_IS_COMPLETED + " AS " + COLUMN_IS_COMPLETED
+                + ", t." + COLUMN_DUE_DATE + " AS " + COLUMN_DUE_DATE
+                + ", t." + COLUMN_RECURRENCE + " AS " + COLUMN_RECURRENCE
+                + " FROM " + FTS_TABLE_NAME + " f JOIN " + TABLE_NAME + " t ON t." + COLUMN_ID + " = f.docid"
+                + " WHERE f." + COLUMN_TITLE + " MATCH ?"
+                + " AND " + this.selection
+                + " ORDER BY f.docid DESC" + limit + ")"
+                + " ORDER BY CASE WHEN " + COLUMN_TITLE + " LIKE ? ESCAPE '\\' THEN 0 ELSE 1 END,"
+                + " length(" + COLUMN_TITLE + "), " + COLUMN_ID + " DESC"
+                + limit;
+    }
+
+    /**
+     * 화면 필터(카테고리 Category.ALL 이면 전체, 미완료만 보기 여부)에 맞는 형태를 고릅니다.
+     */
+    static TodoItemQuery forFilter(long categoryId, boolean uncompletedOnly) {
+        if (categoryId == Category.ALL) {
+            return uncompletedOnly ? BY_COMPLETION : ALL;
+        }
+        return uncompletedOnly ? BY_CATEGORY_AND_COMPLETION : BY_CATEGORY;
+    }
+
+    /**
+     * forFilter() 로 고른 형태에 바인딩할 값. (category_id 는 INTEGER 열이라 문자열 인자도 정수로 비교됨)
+     */
+    static String[] argsForFilter(long categoryId, boolean uncompletedOnly) {
+        if (categoryId == Category.ALL) {
+            return uncompletedOnly ? new String[]{"0"} : null;
+        }
+        String category = String.valueOf(categoryId);
+        return uncompletedOnly ? new String[]{category, "0"} : new String[]{category};
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.to_dolist.data;
+
+import android.database.Cursor;
+
+/**
+ * Cursor 한 행을 TodoItem 으로 옮기는 매퍼.
+ * 열 위치는 쿼리(커서)마다 한 번만 찾고, 행마다 위치로 바로 읽습니다.
+ * mapInto() 는 이미 있는 객체를 재사용하므로 한 번 훑고 끝나는 작업(알람 재등록, 내보내기 등)에서
+ * 행마다 객체를 만들지 않아도 됩니다.
+ */
+final class TodoItemRowMapper {
+
+    private final int idIndex;
+    private final int titleIndex;
+    private final int categoryIndex;
+    private final int dueTimeIndex;
+    private final int completedIndex;
+    private final int dueDateIndex;
+    private final int recurrenceIndex;
+
+    private TodoItemRowMapper(int idIndex, int titleIndex, int categoryIndex,
+                              int dueTimeIndex, int completedIndex, int dueDateIndex, int recurrenceIndex) {
+        this.idIndex = idIndex;
+        this.titleIndex = titleIndex;
+        this.categoryIndex = categoryIndex;
+        this.dueTimeIndex = dueTimeIndex;
+        this.completedIndex = completedIndex;
+        this.dueDateIndex = dueDateIndex;
+        this.recurrenceIndex = recurrenceIndex;
+    }
+
+    /**
+     * 커서의 열 위치를 한 번 찾아 매퍼를 만듭니다.
+     */
+    static TodoItemRowMapper forCursor(Cursor cursor) {
+        return new TodoItemRowMapper(
+                cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_ID),
+                cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_TITLE),
+                cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_CATEGORY_ID),
+                cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_DUE_TIME),
+                cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_IS_COMPLETED),
+                cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_DUE_DATE),
+                cursor.getColumnIndexOrThrow(TodoItemDbHelper.COLUMN_RECURRENCE));
+    }
+
+    // 새 객체로 매핑 (목록으로 보관할 때)
+    TodoItem map(Cursor cursor) {
+        return mapInto(cursor, new TodoItem());
+    }
+
+    // 주어진 객체에 덮어쓰기 (한 번 훑고 버리는 경우)
+    TodoItem mapInto(Cursor cursor, TodoItem target) {
+        // INTEGER PRIMARY KEY 는 64비트이므로 getLong 으로 읽어야 잘리지 않음
+        target.setId(cursor.getLong(idIndex));
+        target.setTitle(cursor.getString(titleIndex));
+        target.setCategoryId(cursor.getLong(categoryIndex));
+        target.setDueMinutes(cursor.isNull(dueTimeIndex) ? TodoItem.NO_DUE_TIME : cursor.getInt(dueTimeIndex));
+        target.setCompleted(cursor.getInt(completedIndex) == 1);
+        target.setDueDate(cursor.isNull(dueDateIndex) ? TodoItem.NO_DUE_DATE : cursor.getLong(dueDateIndex));
+        target.setRecurrence(cursor.isNull(recurrenceIndex) ? null : Recurrence.decode(cursor.getString(recurrenceIndex)));
+        return target;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.to_dolist.data;
+
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.List;
+
+/**
+ * 입력 중 검색을 위한 컨트롤러.
+ * 글자를 입력할 때마다 바로 조회하지 않고 잠깐(DEBOUNCE_MS) 기다렸다가 마지막 입력만 조회하며,
+ * 새 입력이 들어오면 대기 중이거나 실행 중인 이전 검색을 취소합니다. (늦게 끝난 옛 결과가 화면을 덮지 않음)
+ * 모든 메서드와 Listener 호출은 메인 스레드에서 이뤄집니다.
+ */
+public class TodoItemSearch {
+
+    public static final long DEBOUNCE_MS = 150L;
+    public static final int DEFAULT_LIMIT = 200;
+
+    public interface Listener {
+        // results 가 null 이면 검색어가 비어 있음 (일반 목록으로 돌아가면 됨)
+        void onSearchResults(String query, List<TodoItem> results);
+    }
+
+    private final TodoRepository repository;
+    private final Listener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private Runnable pendingSearch;
+    private CancellationSignal inFlight;
+    private String currentQuery = "";
+
+    public TodoItemSearch(TodoRepository repository, Listener listener) {
+        this.repository = repository;
+        this.listener = listener;
+    }
+
+    public boolean isActive() {
+        return !currentQuery.isEmpty();
+    }
+
+    /**
+     * 검색어나 필터가 바뀌었을 때 호출합니다.
+     */
+    public void setQuery(String text, long categoryId, boolean uncompletedOnly) {
+        cancel();
+        currentQuery = text == null ? "" : text.trim();
+        if (currentQuery.isEmpty()) {
+            listener.onSearchResults(currentQuery, null);
+            return;
+        }
+
+        final String query = currentQuery;
+        pendingSearch = () -> {
+            pendingSearch = null;
+            CancellationSignal signal = new CancellationSignal();
+            inFlight = signal;
+            repository.searchTasks(query, categoryId, uncompletedOnly, DEFAULT_LIMIT, signal, results -> {
+                // 취소된 뒤 메인 스레드에 이미 올라와 있던 결과는 버림
+                if (signal.isCanceled() || inFlight != signal) return;
+                inFlight = null;
+                listener.onSearchResults(query, results);
+            });
+        };
+        mainHandler.postDelayed(pendingSearch, DEBOUNCE_MS);
+    }
+
+    // 대기 중인 검색과 실행 중인 쿼리를 모두 취소 (화면을 떠날 때도 호출)
+    public void cancel() {
+        if (pendingSearch != null) {
+            mainHandler.removeCallbacks(pendingSearch);
+            pendingSearch = null;
+        }
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+    }
+}
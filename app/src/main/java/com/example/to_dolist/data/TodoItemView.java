@@ -2,113 +2,142 @@ package com.example.to_dolist.data;
 
 import android.app.AlertDialog;
 import android.content.Context;
-import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.CheckBox;
+import android.widget.CompoundButton;
 import android.widget.EditText;
 import android.widget.ImageButton;
 import android.widget.TextView;
-import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.to_dolist.R;
 import com.example.to_dolist.alarm.AlarmScheduler;
+import com.google.android.material.snackbar.Snackbar;
 
-public class TodoItemView {
+/**
+ * RecyclerView 에서 재사용되는 투두 한 줄의 ViewHolder.
+ * findViewById 와 리스너 등록은 생성 시 한 번만 하고, bind() 에서는 값만 갱신합니다.
+ * 수정/삭제 후 목록 반영과 알람 취소는 저장소의 변경 스트림(TodoChangeBus)을 구독한 쪽에서 처리합니다.
+ * 체크/제목 수정은 write-behind 큐로 보내므로 탭한 프레임에 디스크 쓰기나 시스템 서비스 호출이 없습니다.
+ * 삭제는 확인 창 없이 바로 삭제 표시하고, 스낵바의 실행 취소로 되살립니다.
+ */
+public class TodoItemView extends RecyclerView.ViewHolder {
 
     private final Context context;
-    private final TodoItem item;
-    private final TodoItemDataSource dataSource;
-    private final Runnable refreshCallback;
-    private final View todoItemView;
+    private final TodoRepository repository;
 
-    public TodoItemView(Context context, TodoItem item, TodoItemDataSource dataSource, Runnable refreshCallback) {
-        this.context = context;
-        this.item = item;
-        this.dataSource = dataSource;
-        this.refreshCallback = refreshCallback;
+    private final TextView todoText;
+    private final CheckBox todoCheckbox;
+    private final CompoundButton.OnCheckedChangeListener checkedChangeListener;
 
-        LayoutInflater inflater = LayoutInflater.from(context);
-        this.todoItemView = inflater.inflate(R.layout.todo_item_layout, null, false);
+    // 현재 이 ViewHolder 에 바인딩된 항목
+    private TodoItem item;
 
-        initializeView(todoItemView);
-    }
+    public TodoItemView(@NonNull View view, TodoRepository repository) {
+        super(view);
+        this.context = view.getContext();
+        this.repository = repository;
 
-    private void initializeView(View view) {
-
-        TextView todoText = view.findViewById(R.id.todo_text);
-        CheckBox todoCheckbox = view.findViewById(R.id.todo_checkbox);
+        todoText = view.findViewById(R.id.todo_text);
+        todoCheckbox = view.findViewById(R.id.todo_checkbox);
         ImageButton editButton = view.findViewById(R.id.edit_button);
         ImageButton deleteButton = view.findViewById(R.id.delete_button);
 
+        checkedChangeListener = (buttonView, isChecked) -> onCheckedChanged(isChecked);
+        todoCheckbox.setOnCheckedChangeListener(checkedChangeListener);
+
+        deleteButton.setOnClickListener(v -> deleteWithUndo());
+        editButton.setOnClickListener(v -> showEditDialog());
+    }
+
+    /**
+     * 항목 데이터를 뷰에 반영합니다. (재사용 시 이전 항목의 리스너가 호출되지 않도록 잠시 해제)
+     */
+    public void bind(TodoItem item) {
+        this.item = item;
+
         // 제목
         todoText.setText(item.getTitle());
-        todoCheckbox.setChecked(item.isCompleted());
 
         // 체크 상태 반영
+        todoCheckbox.setEnabled(true);
+        todoCheckbox.setOnCheckedChangeListener(null);
+        todoCheckbox.setChecked(item.isCompleted());
         todoCheckbox.setText(item.isCompleted() ? "✓" : "");
+        todoCheckbox.setOnCheckedChangeListener(checkedChangeListener);
+    }
 
-        todoCheckbox.setOnCheckedChangeListener((buttonView, isChecked) -> {
+    /**
+     * 아직 읽히지 않은 행 (페이지 로딩 중)
+     */
+    public void bindPlaceholder() {
+        this.item = null;
+
+        todoText.setText("");
+        todoCheckbox.setEnabled(false);
+        todoCheckbox.setOnCheckedChangeListener(null);
+        todoCheckbox.setChecked(false);
+        todoCheckbox.setText("");
+        todoCheckbox.setOnCheckedChangeListener(checkedChangeListener);
+    }
 
-            todoCheckbox.setText(isChecked ? "✓" : "");
-            item.setCompleted(isChecked);
-            dataSource.updateTask(item);
+    private void onCheckedChanged(boolean isChecked) {
+        if (item == null) return;
 
-            if (isChecked) {
-                AlarmScheduler.cancelAlarm(context, item.getId());
-                Toast.makeText(context, "완료됨: 알람 취소됨", Toast.LENGTH_SHORT).show();
-            } else {
-                if (item.getDueTime() != null) {
-                    AlarmScheduler.scheduleAlarm(context, item);
-                    Toast.makeText(context, "미완료: 알람 재설정됨", Toast.LENGTH_SHORT).show();
-                }
-            }
+        todoCheckbox.setText(isChecked ? "✓" : "");
+        TodoItem before = new TodoItem(item);
+        item.setCompleted(isChecked);
 
-            refreshCallback.run();
-        });
-
-        deleteButton.setOnClickListener(v -> showDeleteDialog());
-        editButton.setOnClickListener(v -> showEditDialog(todoText));
+        // 화면은 바로, DB 는 잠시 뒤 모아서 (알람 취소는 변경 스트림에서, 재예약은 알람 스레드에서)
+        repository.getWriteBehindQueue().update(before, item);
+        if (!isChecked && item.hasDueTime()) {
+            AlarmScheduler.scheduleAlarm(context, item);
+        }
     }
 
-    private void showEditDialog(TextView todoTextView) {
-        Context safeContext = todoTextView.getRootView().getContext();
+    private void showEditDialog() {
+        if (item == null) return;
+        final TodoItem target = item;
+        Context safeContext = todoText.getRootView().getContext();
 
         AlertDialog.Builder builder = new AlertDialog.Builder(safeContext);
         builder.setTitle("할 일 수정");
 
         final EditText editText = new EditText(safeContext);
-        editText.setText(item.getTitle());
+        editText.setText(target.getTitle());
         builder.setView(editText);
 
         builder.setPositiveButton("저장", (dialog, which) -> {
             String newTitle = editText.getText().toString().trim();
             if (newTitle.isEmpty()) return;
 
-            item.setTitle(newTitle);
-            dataSource.updateTask(item);
-            todoTextView.setText(newTitle);
+            TodoItem before = new TodoItem(target);
+            target.setTitle(newTitle);
+            if (target == item) {
+                todoText.setText(newTitle);
+            }
 
-            refreshCallback.run();
+            repository.getWriteBehindQueue().update(before, target);
         });
 
         builder.setNegativeButton("취소", null);
         builder.show();
     }
 
-    private void showDeleteDialog() {
-        new AlertDialog.Builder(context)
-                .setTitle("삭제")
-                .setMessage("'" + item.getTitle() + "' 삭제할까요?")
-                .setPositiveButton("삭제", (dialog, which) -> {
-                    AlarmScheduler.cancelAlarm(context, item.getId());
-                    dataSource.deleteTask(item.getId());
-                    refreshCallback.run();
-                })
-                .setNegativeButton("취소", null)
+    private void deleteWithUndo() {
+        if (item == null) return;
+        final long id = item.getId();
+
+        // 모아 둔 수정이 삭제 뒤에 쓰이지 않도록 먼저 보냄 (되살릴 때도 최신 내용으로)
+        repository.getWriteBehindQueue().flush();
+        repository.deleteTask(id, null);
+        // 행은 곧 목록에서 빠지므로 스낵바는 목록(부모)에 붙임
+        View anchor = itemView.getParent() instanceof View ? (View) itemView.getParent() : itemView;
+        Snackbar.make(anchor, "'" + item.getTitle() + "' 삭제됨", Snackbar.LENGTH_LONG)
+                .setAction("실행 취소", v -> repository.restoreTasks(new long[]{id}, restored ->
+                        AlarmScheduler.scheduleAlarms(context, restored)))
                 .show();
     }
-
-    public View getView() {
-        return todoItemView;
-    }
 }
@@ -0,0 +1,317 @@
+package com.example.to_dolist.data;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import android.util.Log;
+
+import com.example.to_dolist.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 스키마 마이그레이션 단계. 버전마다 한 단계(toVersion - 1 → toVersion)이며 순서대로 적용합니다.
+ * <ul>
+ * <li>onUpgrade 는 SQLiteOpenHelper 가 한 트랜잭션으로 감싸므로, 어느 단계든 실패하면 전체가 되돌려지고
+ *     기존 데이터와 버전이 그대로 남습니다. (테이블을 지우고 새로 만드는 단계는 없음)</li>
+ * <li>열 추가는 ALTER TABLE, 열 타입·제약이 바뀌면 새 테이블로 복사한 뒤 교체(copy-swap)합니다.
+ *     복사 중에는 인덱스가 없도록 인덱스는 복사가 끝난 뒤에 만듭니다.</li>
+ * <li>단계는 그 버전 시점의 테이블·인덱스·트리거 정의를 고정해서 씁니다. (현재 정의는 TodoItemDbHelper.onCreate)
+ *     FTS 처럼 이후 버전에서 바뀌지 않은 정의와 마지막 단계만 TodoItemDbHelper 의 것을 그대로 씁니다.
+ *     (정의를 바꾸는 새 단계를 추가하면, 그 정의를 쓰던 이전 단계는 옛 정의를 여기에 고정)</li>
+ * <li>마지막에 verify 로 무결성·외래 키·FTS 색인·카운터를 확인하고, 어긋나면 예외로 전체를 되돌립니다.</li>
+ * </ul>
+ * 새 스키마 변경은 DATABASE_VERSION 을 올리고 STEPS 끝에 단계를 추가한 뒤 TodoMigrationsTest 에 그 단계의 테스트를 추가합니다.
+ */
+final class TodoMigrations {
+
+    private static final String TAG = "TodoMigrations";
+
+    private static final String TABLE = TodoItemDbHelper.TABLE_NAME;
+    private static final String ID = TodoItemDbHelper.COLUMN_ID;
+    private static final String TITLE = TodoItemDbHelper.COLUMN_TITLE;
+    private static final String CATEGORY = TodoItemDbHelper.COLUMN_CATEGORY_ID;
+    private static final String DUE_TIME = TodoItemDbHelper.COLUMN_DUE_TIME;
+    private static final String COMPLETED = TodoItemDbHelper.COLUMN_IS_COMPLETED;
+    private static final String DUE_DATE = TodoItemDbHelper.COLUMN_DUE_DATE;
+    private static final String RECURRENCE = TodoItemDbHelper.COLUMN_RECURRENCE;
+    private static final String DELETED_AT = TodoItemDbHelper.COLUMN_DELETED_AT;
+
+    // 버전 하나를 올리는 단계
+    static final class Step {
+        final int toVersion;
+        final String description;
+        private final Consumer<SQLiteDatabase> action;
+
+        Step(int toVersion, String description, Consumer<SQLiteDatabase> action) {
+            this.toVersion = toVersion;
+            this.description = description;
+            this.action = action;
+        }
+
+        void apply(SQLiteDatabase db) {
+            action.accept(db);
+        }
+    }
+
+    // --- 단계별로 고정한 정의 ---
+
+    // v2: 필터 형태별 인덱스
+    private static final String[] V2_INDEXES = {
+            "CREATE INDEX IF NOT EXISTS " + TodoItemDbHelper.INDEX_CATEGORY_COMPLETED_DUE + " ON " + TABLE +
+                    " (" + CATEGORY + ", " + COMPLETED + ", " + DUE_TIME + ")",
+            "CREATE INDEX IF NOT EXISTS " + TodoItemDbHelper.INDEX_COMPLETED_DUE + " ON " + TABLE +
+                    " (" + COMPLETED + ", " + DUE_TIME + ")",
+            "CREATE INDEX IF NOT EXISTS " + TodoItemDbHelper.INDEX_DUE + " ON " + TABLE + " (" + DUE_TIME + ")"
+    };
+
+    // v3: 카테고리 페이지 조회용 인덱스
+    private static final String[] V3_INDEXES = {
+            "CREATE INDEX IF NOT EXISTS " + TodoItemDbHelper.INDEX_CATEGORY_DUE + " ON " + TABLE +
+                    " (" + CATEGORY + ", " + DUE_TIME + ")"
+    };
+
+    // v6: 날짜·반복 인덱스
+    private static final String[] V6_INDEXES = {
+            "CREATE INDEX IF NOT EXISTS " + TodoItemDbHelper.INDEX_DATE_DUE + " ON " + TABLE +
+                    " (" + DUE_DATE + ", " + DUE_TIME + ")",
+            "CREATE INDEX IF NOT EXISTS " + TodoItemDbHelper.INDEX_RECURRING + " ON " + TABLE +
+                    " (" + DUE_DATE + ") WHERE " + RECURRENCE + " IS NOT NULL"
+    };
+
+    // v7: 카테고리 카운터 트리거 (v8 에서 삭제 표시를 반영하도록 바뀜)
+    private static final String V7_ADD_NEW_TO_COUNTERS =
+            " UPDATE " + TodoItemDbHelper.CATEGORY_TABLE_NAME + " SET " +
+                    TodoItemDbHelper.CATEGORY_COLUMN_TOTAL + " = " + TodoItemDbHelper.CATEGORY_COLUMN_TOTAL + " + 1, " +
+                    TodoItemDbHelper.CATEGORY_COLUMN_OPEN + " = " + TodoItemDbHelper.CATEGORY_COLUMN_OPEN +
+                    " + (new." + COMPLETED + " = 0)" +
+                    " WHERE " + TodoItemDbHelper.CATEGORY_COLUMN_ID + " = new." + CATEGORY + ";";
+    private static final String V7_REMOVE_OLD_FROM_COUNTERS =
+            " UPDATE " + TodoItemDbHelper.CATEGORY_TABLE_NAME + " SET " +
+                    TodoItemDbHelper.CATEGORY_COLUMN_TOTAL + " = " + TodoItemDbHelper.CATEGORY_COLUMN_TOTAL + " - 1, " +
+                    TodoItemDbHelper.CATEGORY_COLUMN_OPEN + " = " + TodoItemDbHelper.CATEGORY_COLUMN_OPEN +
+                    " - (old." + COMPLETED + " = 0)" +
+                    " WHERE " + TodoItemDbHelper.CATEGORY_COLUMN_ID + " = old." + CATEGORY + ";";
+    private static final String[] V7_COUNTER_TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS " + TodoItemDbHelper.COUNTER_TRIGGERS[0] + " AFTER INSERT ON " + TABLE +
+                    " BEGIN" + V7_ADD_NEW_TO_COUNTERS + " END",
+            "CREATE TRIGGER IF NOT EXISTS " + TodoItemDbHelper.COUNTER_TRIGGERS[1] + " AFTER DELETE ON " + TABLE +
+                    " BEGIN" + V7_REMOVE_OLD_FROM_COUNTERS + " END",
+            "CREATE TRIGGER IF NOT EXISTS " + TodoItemDbHelper.COUNTER_TRIGGERS[2] + " AFTER UPDATE OF " +
+                    CATEGORY + ", " + COMPLETED + " ON " + TABLE +
+                    " WHEN old." + CATEGORY + " IS NOT new." + CATEGORY +
+                    " OR old." + COMPLETED + " IS NOT new." + COMPLETED + " BEGIN" +
+                    V7_REMOVE_OLD_FROM_COUNTERS + V7_ADD_NEW_TO_COUNTERS + " END"
+    };
+
+    // v4: "HH:mm"/"H:mm" 문자열을 분으로 변환 (형식이 맞지 않거나 범위 밖이면 NULL)
+    private static final String SQL_DUE_TIME_TO_MINUTES =
+            "CASE" +
+                    " WHEN " + DUE_TIME + " GLOB '[0-2][0-9]:[0-5][0-9]'" +
+                    " AND CAST(substr(" + DUE_TIME + ", 1, 2) AS INTEGER) < 24" +
+                    " THEN CAST(substr(" + DUE_TIME + ", 1, 2) AS INTEGER) * 60" +
+                    " + CAST(substr(" + DUE_TIME + ", 4, 2) AS INTEGER)" +
+                    " WHEN " + DUE_TIME + " GLOB '[0-9]:[0-5][0-9]'" +
+                    " THEN CAST(substr(" + DUE_TIME + ", 1, 1) AS INTEGER) * 60" +
+                    " + CAST(substr(" + DUE_TIME + ", 3, 2) AS INTEGER)" +
+                    " ELSE NULL END";
+
+    static final List<Step> STEPS = Collections.unmodifiableList(Arrays.asList(
+            new Step(2, "필터용 인덱스", db -> execAll(db, V2_INDEXES)),
+            new Step(3, "카테고리 페이지 인덱스", db -> execAll(db, V3_INDEXES)),
+            new Step(4, "due_time 을 분(INTEGER)으로", TodoMigrations::migrateDueTimeToMinutes),
+            new Step(5, "제목 전문 검색(FTS4)", TodoItemDbHelper::createSearchIndex),
+            new Step(6, "날짜·반복 열", TodoMigrations::addDateColumns),
+            new Step(7, "카테고리 테이블과 카운터", TodoMigrations::normalizeCategories),
+            new Step(8, "삭제 표시 열과 부분 인덱스", TodoMigrations::addTombstones)
+    ));
+
+    private TodoMigrations() {
+    }
+
+    /**
+     * fromVersion 다음 단계부터 toVersion 까지 적용하고 결과를 확인합니다. (onUpgrade 의 트랜잭션 안에서 호출)
+     * 외래 키 검사는 커밋 시점으로 미뤄, 테이블을 교체하는 중간 상태에서 실패하지 않게 합니다.
+     */
+    static void migrate(SQLiteDatabase db, int fromVersion, int toVersion) {
+        long start = Metrics.begin("db.migrate");
+        try {
+            db.execSQL("PRAGMA defer_foreign_keys = ON");
+            for (Step step : STEPS) {
+                if (step.toVersion <= fromVersion || step.toVersion > toVersion) continue;
+                long stepStart = System.nanoTime();
+                step.apply(db);
+                Log.i(TAG, "v" + step.toVersion + " (" + step.description + "): " +
+                        (System.nanoTime() - stepStart) / 1_000_000 + "ms");
+            }
+            verify(db, toVersion);
+        } finally {
+            Metrics.end("db.migrate", start);
+        }
+    }
+
+    /**
+     * 마이그레이션 결과 확인. 어긋나면 SQLiteException 을 던져 onUpgrade 트랜잭션 전체를 되돌립니다.
+     * - PRAGMA integrity_check: 페이지·인덱스가 테이블 내용과 일치하는지 (복사 뒤 만든 인덱스 포함)
+     * - PRAGMA foreign_key_check: 없는 카테고리를 가리키는 항목이 없는지
+     * - (v5 이상) FTS integrity-check: 검색 색인이 제목과 일치하는지
+     * - (v7 이상) 카테고리 카운터 합계가 실제 항목 수(v8 부터는 살아 있는 항목 수)와 같은지
+     */
+    static void verify(SQLiteDatabase db, int version) {
+        String integrity = DatabaseUtils.stringForQuery(db, "PRAGMA integrity_check", null);
+        if (!"ok".equals(integrity)) {
+            throw new SQLiteException("마이그레이션 후 무결성 오류: " + integrity);
+        }
+        try (Cursor cursor = db.rawQuery("PRAGMA foreign_key_check", null)) {
+            if (cursor.moveToFirst()) {
+                throw new SQLiteException("마이그레이션 후 외래 키 오류: " + cursor.getCount() + "건 (" +
+                        cursor.getString(0) + " rowid " + cursor.getLong(1) + ")");
+            }
+        }
+        if (version >= 5) {
+            // 색인이 어긋나면 SQLITE_CORRUPT_VTAB 예외
+            db.execSQL("INSERT INTO " + TodoItemDbHelper.FTS_TABLE_NAME + " (" + TodoItemDbHelper.FTS_TABLE_NAME +
+                    ") VALUES ('integrity-check')");
+        }
+        if (version >= 7) {
+            long rows = version >= 8
+                    ? DatabaseUtils.queryNumEntries(db, TABLE, TodoItemDbHelper.LIVE)
+                    : DatabaseUtils.queryNumEntries(db, TABLE);
+            long counted = DatabaseUtils.longForQuery(db, "SELECT COALESCE(SUM(" +
+                    TodoItemDbHelper.CATEGORY_COLUMN_TOTAL + "), 0) FROM " + TodoItemDbHelper.CATEGORY_TABLE_NAME, null);
+            if (rows != counted) {
+                throw new SQLiteException("카테고리 카운터 불일치: 항목 " + rows + ", 카운터 합계 " + counted);
+            }
+        }
+    }
+
+    // --- 단계 구현 ---
+
+    /**
+     * TEXT 열에 정수를 넣으면 다시 문자열로 저장되므로(열 affinity), 새 테이블로 복사한 뒤 교체합니다.
+     */
+    private static void migrateDueTimeToMinutes(SQLiteDatabase db) {
+        String tempTable = TABLE + "_v4";
+        // v4 시점의 스키마 (카테고리는 아직 이름 TEXT, 날짜 열은 6단계에서 추가)
+        db.execSQL("CREATE TABLE " + tempTable + " (" +
+                ID + " INTEGER PRIMARY KEY AUTOINCREMENT," +
+                TITLE + " TEXT NOT NULL," +
+                CATEGORY + " TEXT NOT NULL," +
+                DUE_TIME + " INTEGER," +
+                COMPLETED + " INTEGER DEFAULT 0)");
+        db.execSQL("INSERT INTO " + tempTable + " (" + ID + ", " + TITLE + ", " + CATEGORY + ", " +
+                DUE_TIME + ", " + COMPLETED + ") SELECT " + ID + ", " + TITLE + ", " + CATEGORY + ", " +
+                SQL_DUE_TIME_TO_MINUTES + ", " + COMPLETED + " FROM " + TABLE);
+        db.execSQL("DROP TABLE " + TABLE);
+        db.execSQL("ALTER TABLE " + tempTable + " RENAME TO " + TABLE);
+        // 인덱스는 복사가 끝난 뒤에 한 번에 만든다
+        execAll(db, V2_INDEXES);
+        execAll(db, V3_INDEXES);
+    }
+
+    /**
+     * 날짜·반복 열을 추가합니다. 기존 항목은 둘 다 NULL(날짜 없음, 반복 없음)이라 동작이 그대로입니다.
+     * 이미 열이 있는 DB(중간에 실패했다 다시 올라오는 경우 등)를 위해 없는 열만 추가합니다.
+     */
+    private static void addDateColumns(SQLiteDatabase db) {
+        if (!hasColumn(db, DUE_DATE)) {
+            db.execSQL("ALTER TABLE " + TABLE + " ADD COLUMN " + DUE_DATE + " INTEGER");
+        }
+        if (!hasColumn(db, RECURRENCE)) {
+            db.execSQL("ALTER TABLE " + TABLE + " ADD COLUMN " + RECURRENCE + " TEXT");
+        }
+        execAll(db, V6_INDEXES);
+    }
+
+    /**
+     * 카테고리 이름(TEXT)을 category 테이블의 id(INTEGER)로 바꿉니다.
+     * 이전 데이터에 있던 이름은 모두 카테고리로 만들고(대소문자만 다른 이름은 하나로), 열 타입이 바뀌므로
+     * 테이블을 새로 만들어 복사합니다. 테이블을 지우면 인덱스·트리거도 함께 지워지므로 다시 만들고,
+     * FTS 색인은 id 와 제목이 그대로라 다시 채우지 않습니다. 카운터는 복사가 끝난 뒤 한 번에 계산합니다.
+     */
+    private static void normalizeCategories(SQLiteDatabase db) {
+        TodoItemDbHelper.createCategories(db);
+        db.execSQL("INSERT OR IGNORE INTO " + TodoItemDbHelper.CATEGORY_TABLE_NAME +
+                " (" + TodoItemDbHelper.CATEGORY_COLUMN_NAME + ")" +
+                " SELECT DISTINCT " + CATEGORY + " FROM " + TABLE +
+                " WHERE " + CATEGORY + " <> '' ORDER BY " + CATEGORY);
+
+        String tempTable = TABLE + "_v7";
+        // v7 시점의 스키마
+        db.execSQL("CREATE TABLE " + tempTable + " (" +
+                ID + " INTEGER PRIMARY KEY AUTOINCREMENT," +
+                TITLE + " TEXT NOT NULL," +
+                CATEGORY + " INTEGER NOT NULL REFERENCES " + TodoItemDbHelper.CATEGORY_TABLE_NAME +
+                "(" + TodoItemDbHelper.CATEGORY_COLUMN_ID + ")," +
+                DUE_TIME + " INTEGER," +
+                COMPLETED + " INTEGER DEFAULT 0," +
+                DUE_DATE + " INTEGER," +
+                RECURRENCE + " TEXT)");
+        db.execSQL("INSERT INTO " + tempTable + " (" +
+                ID + ", " + TITLE + ", " + CATEGORY + ", " + DUE_TIME + ", " +
+                COMPLETED + ", " + DUE_DATE + ", " + RECURRENCE + ") SELECT " +
+                "t." + ID + ", t." + TITLE + ", COALESCE(" +
+                "(SELECT c." + TodoItemDbHelper.CATEGORY_COLUMN_ID + " FROM " + TodoItemDbHelper.CATEGORY_TABLE_NAME + " c" +
+                " WHERE c." + TodoItemDbHelper.CATEGORY_COLUMN_NAME + " = t." + CATEGORY + "), " +
+                "(SELECT c." + TodoItemDbHelper.CATEGORY_COLUMN_ID + " FROM " + TodoItemDbHelper.CATEGORY_TABLE_NAME + " c" +
+                " WHERE c." + TodoItemDbHelper.CATEGORY_COLUMN_NAME + " = '" + TodoItemDbHelper.FALLBACK_CATEGORY + "')), " +
+                "t." + DUE_TIME + ", t." + COMPLETED + ", t." + DUE_DATE + ", t." + RECURRENCE + " FROM " + TABLE + " t");
+        db.execSQL("DROP TABLE " + TABLE);
+        db.execSQL("ALTER TABLE " + tempTable + " RENAME TO " + TABLE);
+
+        execAll(db, V2_INDEXES);
+        execAll(db, V3_INDEXES);
+        execAll(db, V6_INDEXES);
+        TodoItemDbHelper.createSearchTriggers(db);
+        db.execSQL("UPDATE " + TodoItemDbHelper.CATEGORY_TABLE_NAME + " SET " +
+                TodoItemDbHelper.CATEGORY_COLUMN_TOTAL + " = (SELECT COUNT(*) FROM " + TABLE +
+                " WHERE " + CATEGORY + " = " + TodoItemDbHelper.CATEGORY_TABLE_NAME + "." +
+                TodoItemDbHelper.CATEGORY_COLUMN_ID + "), " +
+                TodoItemDbHelper.CATEGORY_COLUMN_OPEN + " = (SELECT COUNT(*) FROM " + TABLE +
+                " WHERE " + CATEGORY + " = " + TodoItemDbHelper.CATEGORY_TABLE_NAME + "." +
+                TodoItemDbHelper.CATEGORY_COLUMN_ID + " AND " + COMPLETED + " = 0)");
+        execAll(db, V7_COUNTER_TRIGGERS);
+    }
+
+    /**
+     * 삭제 표시(deleted_at) 열을 추가하고, 목록 인덱스를 살아 있는 항목만 담는 부분 인덱스로 다시 만듭니다.
+     * 기존 항목은 모두 NULL(살아 있음)이라 카운터 값은 그대로이고, 트리거만 삭제 표시를 반영하는 정의로 바꿉니다.
+     */
+    private static void addTombstones(SQLiteDatabase db) {
+        if (!hasColumn(db, DELETED_AT)) {
+            db.execSQL("ALTER TABLE " + TABLE + " ADD COLUMN " + DELETED_AT + " INTEGER");
+        }
+        for (String index : new String[]{
+                TodoItemDbHelper.INDEX_CATEGORY_COMPLETED_DUE, TodoItemDbHelper.INDEX_COMPLETED_DUE,
+                TodoItemDbHelper.INDEX_DUE, TodoItemDbHelper.INDEX_CATEGORY_DUE,
+                TodoItemDbHelper.INDEX_DATE_DUE, TodoItemDbHelper.INDEX_RECURRING}) {
+            db.execSQL("DROP INDEX IF EXISTS " + index);
+        }
+        TodoItemDbHelper.createIndexes(db);
+        TodoItemDbHelper.createDateIndexes(db);
+        for (String trigger : TodoItemDbHelper.COUNTER_TRIGGERS) {
+            db.execSQL("DROP TRIGGER IF EXISTS " + trigger);
+        }
+        TodoItemDbHelper.createCounterTriggers(db);
+    }
+
+    private static boolean hasColumn(SQLiteDatabase db, String column) {
+        try (Cursor cursor = db.rawQuery("PRAGMA table_info(" + TABLE + ")", null)) {
+            int nameIndex = cursor.getColumnIndexOrThrow("name");
+            while (cursor.moveToNext()) {
+                if (column.equals(cursor.getString(nameIndex))) return true;
+            }
+            return false;
+        }
+    }
+
+    private static void execAll(SQLiteDatabase db, String[] statements) {
+        for (String sql : statements) {
+            db.execSQL(sql);
+        }
+    }
+}
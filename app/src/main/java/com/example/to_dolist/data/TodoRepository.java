@@ -0,0 +1,620 @@
+package com.example.to_dolist.data;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.Intent;
+import android.database.SQLException;
+import android.net.Uri;
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.OperationCanceledException;
+import android.util.Log;
+
+import com.example.to_dolist.metrics.Metrics;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TodoItemDataSource 를 감싸는 비동기 저장소.
+ * - 쓰기(추가/수정/삭제)는 단일 writer 스레드에서 순서대로 실행됩니다.
+ * - 조회는 별도의 read 스레드 풀에서 실행됩니다.
+ * - 결과 콜백은 항상 메인 스레드로 전달됩니다.
+ * 프로세스 단위 싱글톤이므로 Activity 생명주기와 무관하게 DB 연결을 유지합니다.
+ * 목록 조회는 가능하면 TodoItemCache 에서 디스크 I/O 없이 처리합니다.
+ * 모든 쓰기 결과는 TodoChangeBus 로 프레임 단위로 묶여 전달되므로, 화면은 바뀐 행만 반영하면 됩니다.
+ * 쓰기가 끝나면 위젯용 스냅샷(TodoSnapshot)도 writer 스레드에서 다시 만들고, 내용이 바뀌었을 때만 파일을 씁니다.
+ */
+public class TodoRepository {
+
+    private static final String TAG = "TodoRepository";
+    private static final int READ_POOL_SIZE = 2;
+
+    /**
+     * 메인 스레드에서 결과를 받는 콜백. 작업이 예외로 끝나도 호출되며, 그때는 실패 값을 받습니다:
+     * id·개수는 -1 (bulkInsert 는 모든 칸이 -1), Boolean 은 false, 목록은 빈 목록, 가져오기는 isComplete 가 false 인 결과.
+     * 완료만 알리는 Runnable 콜백(onComplete, onChanged)은 실패해도 그대로 호출됩니다.
+     */
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    private static volatile TodoRepository instance;
+
+    private final TodoItemDataSource dataSource;
+    private final TodoItemCache cache = new TodoItemCache();
+    private final TodoChangeBus changeBus = new TodoChangeBus();
+    private final TodoWriteBehindQueue writeBehindQueue;
+    private final ExecutorService writeExecutor;
+    private final ExecutorService readExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Context appContext;
+    private final ContentResolver contentResolver;
+    private boolean isOpen = false;
+
+    // writer 스레드에서만 접근: 스냅샷 갱신이 이미 큐에 있는지, 마지막으로 쓴 내용
+    private boolean isSnapshotScheduled = false;
+    private byte[] lastSnapshot;
+    // read pool 에서 세우고 writer 스레드에서 내림: 캐시 없이 조회할 때마다 캐시 로드를 큐에 쌓지 않도록
+    private final AtomicBoolean isCacheLoadScheduled = new AtomicBoolean(false);
+
+    public static TodoRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (TodoRepository.class) {
+                if (instance == null) {
+                    instance = new TodoRepository(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private TodoRepository(Context appContext) {
+        this.appContext = appContext;
+        dataSource = new TodoItemDataSource(appContext);
+        contentResolver = appContext.getContentResolver();
+        writeExecutor = Executors.newSingleThreadExecutor(namedThreadFactory("todo-db-write"));
+        readExecutor = Executors.newFixedThreadPool(READ_POOL_SIZE, namedThreadFactory("todo-db-read"));
+        writeBehindQueue = new TodoWriteBehindQueue(this, changeBus);
+    }
+
+    // 추가/수정/삭제 이벤트 스트림 (메인 스레드에서 구독)
+    public TodoChangeBus getChangeBus() {
+        return changeBus;
+    }
+
+    // 화면에 먼저 반영하고 나중에 모아서 쓰는 수정 큐 (메인 스레드에서 사용)
+    public TodoWriteBehindQueue getWriteBehindQueue() {
+        return writeBehindQueue;
+    }
+
+    /**
+     * 앱 시작 시 호출: writer 스레드에서 DB 를 미리 열어 둡니다. (스키마 확인·WAL 설정을 첫 조회 전에 끝냄)
+     */
+    public void warmUp() {
+        runWrite("warmUp", this::openDataSource);
+    }
+
+    // DB 는 백그라운드 스레드에서 처음 사용될 때 한 번만 연다.
+    private synchronized TodoItemDataSource openDataSource() {
+        if (!isOpen) {
+            dataSource.open();
+            isOpen = true;
+        }
+        return dataSource;
+    }
+
+    // --- 쓰기 (single writer) ---
+
+    public void createTask(TodoItem item, Callback<Long> callback) {
+        runWrite("createTask", failWith(callback, -1L), () -> {
+            long id = openDataSource().createTask(item);
+            if (id != -1) {
+                TodoItem created = new TodoItem(item);
+                created.setId(id);
+                cache.put(created);
+                changeBus.emit(TodoChangeEvent.inserted(created));
+                invalidateSnapshot();
+            }
+            postResult(callback, id);
+        });
+    }
+
+    // 그 사이 삭제 표시된 항목이면 아무것도 바뀌지 않고 이벤트도 나가지 않음
+    public void updateTask(TodoItem item, Runnable onComplete) {
+        runWrite("updateTask", onComplete, () -> {
+            if (openDataSource().updateTask(item)) {
+                cache.put(item);
+                changeBus.emit(TodoChangeEvent.updated(resolveCategory(item)));
+                invalidateSnapshot();
+            }
+            postResult(onComplete);
+        });
+    }
+
+    /**
+     * 삭제 표시만 하므로 restoreTasks 로 되돌릴 수 있습니다. 영구 삭제는 compact 가 나중에 모아서 합니다.
+     * 목록·캐시에서는 바로 빠지고 DELETED 이벤트가 나갑니다.
+     */
+    public void deleteTask(long taskId, Runnable onComplete) {
+        runWrite("deleteTask", onComplete, () -> {
+            openDataSource().deleteTask(taskId);
+            cache.remove(taskId);
+            changeBus.emit(TodoChangeEvent.deleted(taskId));
+            invalidateSnapshot();
+            postResult(onComplete);
+        });
+    }
+
+    /**
+     * 삭제 표시된 항목을 되살립니다. (스낵바의 실행 취소) 이미 영구 삭제된 항목은 빠집니다.
+     * 콜백으로 되살린 항목을 넘겨주므로 알람을 다시 등록할 수 있습니다.
+     */
+    public void restoreTasks(long[] taskIds, Callback<List<TodoItem>> callback) {
+        runWrite("restoreTasks", failWith(callback, Collections.emptyList()), () -> {
+            List<TodoItem> restored = openDataSource().restoreTasks(taskIds);
+            List<TodoChangeEvent> events = new ArrayList<>(restored.size());
+            for (TodoItem item : restored) {
+                cache.put(item);
+                events.add(TodoChangeEvent.inserted(item));
+            }
+            changeBus.emitAll(events);
+            invalidateSnapshot();
+            postResult(callback, restored);
+        });
+    }
+
+    /**
+     * write-behind 큐가 모아 둔 수정을 한 트랜잭션으로 씁니다.
+     * 변경 이벤트는 큐가 화면에 먼저 반영할 때 이미 보냈으므로 여기서는 보내지 않습니다.
+     * 다만 그 사이 삭제 표시된 항목은 쓰지 않고, 화면이 다시 넣은 행을 빼도록 DELETED 이벤트를 보냅니다.
+     * 콜백으로 성공 여부를 넘겨주며, 실패하면 DB 와 캐시는 그대로입니다.
+     */
+    void commitUpdates(List<TodoItem> items, Callback<Boolean> callback) {
+        runWrite("commitUpdates", () -> {
+            boolean isCommitted;
+            try {
+                List<TodoItem> skipped = openDataSource().bulkUpdate(items);
+                for (TodoItem item : items) {
+                    cache.put(item);
+                }
+                List<TodoChangeEvent> events = new ArrayList<>(skipped.size());
+                for (TodoItem item : skipped) {
+                    cache.remove(item.getId());
+                    events.add(TodoChangeEvent.deleted(item.getId()));
+                }
+                changeBus.emitAll(events);
+                isCommitted = true;
+                invalidateSnapshot();
+            } catch (RuntimeException e) {
+                // 닫힌 DB 의 IllegalStateException 등도 포함: 콜백이 빠지면 큐가 화면 값을 되돌리지 못함
+                Log.e(TAG, "수정 " + items.size() + "건 저장 실패", e);
+                isCommitted = false;
+            }
+            postResult(callback, isCommitted);
+        });
+    }
+
+    // --- 일괄 쓰기 (한 트랜잭션) ---
+
+    public void bulkInsert(List<TodoItem> items, Callback<long[]> callback) {
+        runWrite("bulkInsert", failWith(callback, failedIds(items.size())), () -> {
+            long[] ids = openDataSource().bulkInsert(items);
+            List<TodoChangeEvent> events = new ArrayList<>(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == -1) continue;
+                TodoItem created = new TodoItem(items.get(i));
+                created.setId(ids[i]);
+                cache.put(created);
+                events.add(TodoChangeEvent.inserted(created));
+            }
+            changeBus.emitAll(events);
+            invalidateSnapshot();
+            postResult(callback, ids);
+        });
+    }
+
+    /**
+     * 카테고리(Category.ALL 이면 전체)의 항목을 모두 완료/미완료로 바꿉니다.
+     * 콜백으로 상태가 바뀐 항목을 넘겨주므로 알람 처리를 한 번에 할 수 있습니다.
+     */
+    public void bulkUpdateCompletion(long categoryId, boolean completed, Callback<List<TodoItem>> callback) {
+        runWrite("bulkUpdateCompletion", failWith(callback, Collections.emptyList()), () -> {
+            List<TodoItem> affected = openDataSource().bulkUpdateCompletion(categoryId, completed);
+            List<TodoChangeEvent> events = new ArrayList<>(affected.size());
+            for (TodoItem item : affected) {
+                cache.put(item);
+                events.add(TodoChangeEvent.updated(item));
+            }
+            changeBus.emitAll(events);
+            invalidateSnapshot();
+            postResult(callback, affected);
+        });
+    }
+
+    /**
+     * 카테고리(Category.ALL 이면 전체)와 완료 상태(null 이면 무관) 조건에 맞는 항목을 모두 삭제 표시합니다.
+     * 콜백으로 넘겨받은 항목의 id 로 restoreTasks 를 부르면 되돌릴 수 있습니다.
+     */
+    public void bulkDelete(long categoryId, Boolean completedFilter, Callback<List<TodoItem>> callback) {
+        runWrite("bulkDelete", failWith(callback, Collections.emptyList()), () -> {
+            List<TodoItem> deleted = openDataSource().bulkDelete(categoryId, completedFilter);
+            List<TodoChangeEvent> events = new ArrayList<>(deleted.size());
+            for (TodoItem item : deleted) {
+                cache.remove(item.getId());
+                events.add(TodoChangeEvent.deleted(item.getId()));
+            }
+            changeBus.emitAll(events);
+            invalidateSnapshot();
+            postResult(callback, deleted);
+        });
+    }
+
+    /**
+     * 정리 작업(TodoCompactionJob)용: deletedBefore(epoch ms) 이전에 삭제 표시된 항목을 batchRows 개씩 영구 삭제하고,
+     * 빈 페이지가 minFreePages 이상이면 파일을 줄입니다. 콜백: 영구 삭제한 행 수 (실패하면 -1, 취소되면 호출하지 않음)
+     * 배치마다 writer 큐에 다시 넣으므로 사이사이에 화면의 쓰기가 먼저 실행됩니다.
+     */
+    public void compact(long deletedBefore, int batchRows, int minFreePages, CancellationSignal signal,
+                        Callback<Long> callback) {
+        Runnable onFailure = failWith(callback, -1L);
+        runWrite("compact", onFailure, new Runnable() {
+            private long purged = 0;
+
+            @Override
+            public void run() {
+                if (signal.isCanceled()) return;
+                TodoItemDataSource source = openDataSource();
+                int rows = source.purgeDeleted(deletedBefore, batchRows);
+                purged += rows;
+                if (rows == batchRows) {
+                    runWrite("compact", onFailure, this);
+                    return;
+                }
+                long reclaimed = source.reclaimFreePages(minFreePages);
+                Log.d(TAG, "정리: 영구 삭제 " + purged + "행, 빈 페이지 " + reclaimed + "개 반환");
+                postResult(callback, purged);
+            }
+        });
+    }
+
+    // --- 위젯 스냅샷 ---
+
+    /**
+     * 스냅샷을 지금 다시 만들어 씁니다. (파일이 없거나 시각이 지난 항목이 있을 때, 위젯에서 완료한 뒤)
+     * 앞서 큐에 들어간 쓰기가 모두 반영된 뒤 실행되며, 내용이 같아도 파일을 쓰고 ACTION_CHANGED 를 보냅니다.
+     */
+    public void refreshSnapshot(Runnable onComplete) {
+        runWrite("refreshSnapshot", onComplete, () -> {
+            lastSnapshot = null;
+            writeSnapshot();
+            postResult(onComplete);
+        });
+    }
+
+    // writer 스레드에서만 호출: 쓰기가 몰려도 큐에 쌓인 쓰기가 끝난 뒤 한 번만 다시 만듦
+    private void invalidateSnapshot() {
+        if (isSnapshotScheduled) return;
+        isSnapshotScheduled = true;
+        runWrite("writeSnapshot", () -> {
+            isSnapshotScheduled = false;
+            writeSnapshot();
+        });
+    }
+
+    // 미완료 항목 중 다음에 울릴 몇 개만 읽으므로 항목 수와 거의 무관. 바뀌었을 때만 파일을 쓰고 위젯에 알림
+    private void writeSnapshot() {
+        long start = Metrics.begin("snapshot.write");
+        try {
+            byte[] bytes = TodoSnapshot.build(openDataSource(), System.currentTimeMillis(), TimeZone.getDefault())
+                    .encode();
+            if (Arrays.equals(bytes, lastSnapshot) || !TodoSnapshot.write(appContext, bytes)) return;
+            lastSnapshot = bytes;
+            appContext.sendBroadcast(new Intent(TodoSnapshot.ACTION_CHANGED).setPackage(appContext.getPackageName()));
+        } finally {
+            Metrics.end("snapshot.write", start);
+        }
+    }
+
+    // --- 카테고리 ---
+
+    /**
+     * 카테고리 목록과 카테고리별 항목 수(트리거가 유지하는 카운터)를 읽습니다. 카테고리 행만 읽으므로 항목 수와 무관합니다.
+     */
+    public void loadCategories(Callback<List<Category>> callback) {
+        runRead("loadCategories", failWith(callback, Collections.emptyList()), () -> postResult(callback, openDataSource().getCategories()));
+    }
+
+    // 같은 이름이 이미 있으면 콜백에 -1
+    public void createCategory(String name, Callback<Long> callback) {
+        runWrite("createCategory", failWith(callback, -1L), () -> postResult(callback, openDataSource().createCategory(name)));
+    }
+
+    // 항목은 id 로 가리키므로 이름만 바뀌고 목록·캐시는 그대로. 같은 이름이 이미 있으면 false
+    public void renameCategory(long categoryId, String name, Callback<Boolean> callback) {
+        runWrite("renameCategory", failWith(callback, false), () -> postResult(callback, openDataSource().renameCategory(categoryId, name)));
+    }
+
+    // 빈 카테고리만 삭제됨 (항목이 남아 있으면 false)
+    public void deleteCategory(long categoryId, Callback<Boolean> callback) {
+        runWrite("deleteCategory", failWith(callback, false), () -> postResult(callback, openDataSource().deleteCategory(categoryId)));
+    }
+
+    // --- 내보내기·가져오기 ---
+
+    /**
+     * 모든 카테고리와 항목을 uri 에 format 으로 내보냅니다. 콜백: 내보낸 항목 수 (실패하면 -1)
+     * 모아 둔 수정을 먼저 쓰고 writer 스레드에서 실행하므로, 호출한 시점의 내용이 그대로 담깁니다.
+     * 메인 스레드에서 호출하세요.
+     */
+    public void exportTasks(Uri uri, TodoBackupFormat format, Callback<Long> callback) {
+        writeBehindQueue.flush();
+        runWrite("exportTasks", failWith(callback, -1L), () -> {
+            long rows;
+            try (OutputStream out = openOutput(uri);
+                 TodoBackupWriter writer = format.newWriter(out)) {
+                rows = openDataSource().exportTo(writer);
+            } catch (IOException | SQLException e) {
+                Log.e(TAG, "내보내기 실패: " + uri, e);
+                rows = -1;
+            }
+            postResult(callback, rows);
+        });
+    }
+
+    /**
+     * uri 의 백업(형식은 내용으로 판별)을 가져옵니다. 배치마다 커밋하므로 중간에 실패해도 앞부분은 남습니다.
+     * 바뀐 행을 하나씩 변경 이벤트로 보내지 않고(수십만 건일 수 있음) 캐시만 비우므로,
+     * 콜백에서 목록·카테고리를 다시 읽고 알람을 재등록하세요.
+     */
+    public void importTasks(Uri uri, TodoBackup.IdConflict onConflict, Callback<TodoBackup.ImportResult> callback) {
+        writeBehindQueue.flush();
+        runWrite("importTasks", failWith(callback, new TodoBackup.ImportResult()), () -> {
+            TodoBackup.ImportResult result = new TodoBackup.ImportResult();
+            try (InputStream in = openInput(uri);
+                 TodoBackupReader reader = TodoBackupFormat.openReader(in)) {
+                openDataSource().importFrom(reader, onConflict, result);
+            } catch (IOException | RuntimeException e) {
+                // 앞 배치는 이미 커밋됐을 수 있으므로 아래에서 캐시를 비우고 결과를 보내야 함
+                Log.e(TAG, "가져오기 실패 (" + result + "): " + uri, e);
+            }
+            cache.invalidate();
+            invalidateSnapshot();
+            postResult(callback, result);
+        });
+    }
+
+    private OutputStream openOutput(Uri uri) throws FileNotFoundException {
+        OutputStream out = contentResolver.openOutputStream(uri, "wt");
+        if (out == null) throw new FileNotFoundException(uri.toString());
+        return out;
+    }
+
+    private InputStream openInput(Uri uri) throws FileNotFoundException {
+        InputStream in = contentResolver.openInputStream(uri);
+        if (in == null) throw new FileNotFoundException(uri.toString());
+        return in;
+    }
+
+    // --- 조회 (read pool) ---
+
+    /**
+     * 카테고리(Category.ALL 이면 전체)와 미완료 필터에 맞는 목록을 조회합니다.
+     */
+    public void loadTasks(long categoryId, boolean uncompletedOnly, Callback<List<TodoItem>> callback) {
+        runRead("loadTasks", failWith(callback, Collections.emptyList()), () -> postResult(callback, queryTasks(categoryId, uncompletedOnly)));
+    }
+
+    /**
+     * (due_time, id) 순서에서 after 다음 항목들을 읽습니다. (TodoItemPager 용)
+     * end 가 null 이면 최대 limit 개, 아니면 end 키까지(포함) 모두 읽습니다.
+     * 캐시가 이미 올라와 있으면 캐시에서, 아니면 키셋 SQL 로 한 페이지만 읽고 캐시는 뒤에서 채웁니다.
+     */
+    public void loadPage(long categoryId, boolean uncompletedOnly, TodoItemPager.Key after,
+                         TodoItemPager.Key end, int limit, Callback<List<TodoItem>> callback) {
+        runRead("loadPage", failWith(callback, Collections.emptyList()), () -> postResult(callback, queryPageRange(categoryId, uncompletedOnly, after, end, limit)));
+    }
+
+    /**
+     * 제목 검색 (FTS). signal 이 취소되면 실행 중인 쿼리를 중단하고 콜백을 호출하지 않습니다.
+     */
+    public void searchTasks(String text, long categoryId, boolean uncompletedOnly, int limit,
+                            CancellationSignal signal, Callback<List<TodoItem>> callback) {
+        runRead("searchTasks", failWith(callback, Collections.emptyList()), () -> {
+            if (signal.isCanceled()) return;
+            try {
+                List<TodoItem> result = openDataSource().searchTasks(text, categoryId, uncompletedOnly, limit, signal);
+                if (!signal.isCanceled()) {
+                    postResult(callback, result);
+                }
+            } catch (OperationCanceledException e) {
+                // 새 입력이 들어와 취소된 검색
+            }
+        });
+    }
+
+    /**
+     * 다른 연결/프로세스에서 DB 가 바뀌었는지 확인하고, 바뀌었으면 캐시를 버린 뒤 onChanged 를 호출합니다.
+     * (onResume 등 화면 복귀 시점에 호출)
+     */
+    public void revalidate(Runnable onChanged) {
+        runWrite("revalidate", onChanged, () -> {
+            if (!cache.isLoaded()) {
+                // 캐시를 쓰지 않는 상태(행 수 초과 등)에서는 항상 다시 조회
+                postResult(onChanged);
+                return;
+            }
+            if (openDataSource().getDataVersion() != cache.getDataVersion()) {
+                Log.d(TAG, "외부 DB 변경 감지: 캐시 무효화");
+                cache.invalidate();
+                postResult(onChanged);
+            }
+        });
+    }
+
+    // 캐시를 강제로 비웁니다. (DB 파일을 직접 교체한 경우 등)
+    public void invalidateCache() {
+        runWrite("invalidateCache", cache::invalidate);
+    }
+
+    /**
+     * start~end(포함) 의 아젠다: 날짜 있는 항목과 반복 항목의 발생을 날짜·시각 순으로 펼쳐 돌려줍니다.
+     */
+    public void loadAgenda(LocalDate start, LocalDate end, Callback<List<Occurrences.Occurrence>> callback) {
+        runRead("loadAgenda", failWith(callback, Collections.emptyList()), () -> postResult(callback, Occurrences.expand(
+                openDataSource().getTasksDueInRange(start.toEpochDay(), end.toEpochDay()), start, end)));
+    }
+
+    public void getUpcomingTasksForAlarm(Callback<List<TodoItem>> callback) {
+        runRead("getUpcomingTasksForAlarm", failWith(callback, Collections.emptyList()),
+                () -> postResult(callback, openDataSource().getUpcomingTasksForAlarm()));
+    }
+
+    private List<TodoItem> queryTasks(long categoryId, boolean uncompletedOnly) {
+        List<TodoItem> cached = cache.query(categoryId, uncompletedOnly);
+        if (cached != null) {
+            return cached;
+        }
+        // writer 큐(가져오기·정리·일괄 쓰기)를 기다리지 않고 이번 조회는 SQL 로, 캐시는 뒤에서 채움
+        scheduleCacheLoad();
+        return queryTasksFromDb(categoryId, uncompletedOnly);
+    }
+
+    private List<TodoItem> queryPageRange(long categoryId, boolean uncompletedOnly,
+                                          TodoItemPager.Key after, TodoItemPager.Key end, int limit) {
+        List<TodoItem> result = new ArrayList<>();
+        TodoItemPager.Key from = after;
+        while (true) {
+            List<TodoItem> batch = queryPage(categoryId, uncompletedOnly, from, limit);
+            for (TodoItem item : batch) {
+                if (end != null && TodoItemPager.Key.of(item).compareTo(end) > 0) {
+                    return result;
+                }
+                result.add(item);
+            }
+            if (end == null || batch.size() < limit) {
+                return result;
+            }
+            from = TodoItemPager.Key.of(batch.get(batch.size() - 1));
+        }
+    }
+
+    private List<TodoItem> queryPage(long categoryId, boolean uncompletedOnly, TodoItemPager.Key after, int limit) {
+        List<TodoItem> cached = cache.page(categoryId, uncompletedOnly, after, limit);
+        if (cached != null) {
+            return cached;
+        }
+        // 첫 화면은 테이블 크기와 무관하게 한 페이지 SQL 로 처리하고, 캐시는 writer 스레드에서 나중에 채움
+        scheduleCacheLoad();
+        return openDataSource().getTaskPage(categoryId, uncompletedOnly, after, limit);
+    }
+
+    /**
+     * 캐시가 비어 있으면 writer 스레드에서 전체 목록을 읽어 채우도록 예약합니다. (read 스레드는 기다리지 않음)
+     * 쓰기와 같은 스레드에서 로드하므로 로드 도중 변경이 끼어들지 않고, 이미 예약돼 있으면 다시 넣지 않습니다.
+     */
+    private void scheduleCacheLoad() {
+        if (cache.isOverCapacity() || !isCacheLoadScheduled.compareAndSet(false, true)) return;
+        runWrite("warmCache", () -> {
+            isCacheLoadScheduled.set(false);
+            loadCacheIfNeeded();
+        });
+    }
+
+    // writer 스레드에서만 호출
+    private void loadCacheIfNeeded() {
+        if (cache.isLoaded() || cache.isOverCapacity()) return;
+
+        TodoItemDataSource source = openDataSource();
+        if (source.getTaskCount() > TodoItemCache.MAX_CACHED_ROWS) {
+            cache.markOverCapacity();
+            return;
+        }
+        long version = source.getDataVersion();
+        cache.load(source.getAllTasksSortedByTime(), version);
+    }
+
+    private List<TodoItem> queryTasksFromDb(long categoryId, boolean uncompletedOnly) {
+        return openDataSource().getTasks(categoryId, uncompletedOnly);
+    }
+
+    // --- 내부 유틸 ---
+
+    // updateTask 는 카테고리가 없으면 기존 값을 유지하므로, 이벤트에는 캐시에 있는 값을 채워 보냄
+    private TodoItem resolveCategory(TodoItem item) {
+        if (item.hasCategory()) return item;
+        TodoItem stored = cache.get(item.getId());
+        return stored != null ? stored : item;
+    }
+
+    // 내부 작업용: 실패해도 기다리는 호출자가 없음
+    private void runWrite(String name, Runnable task) {
+        runWrite(name, null, task);
+    }
+
+    // 작업이 예외로 끝나면 onFailure 를 메인 스레드에서 호출 (호출자가 결과를 영영 못 받는 일이 없도록)
+    private void runWrite(String name, Runnable onFailure, Runnable task) {
+        writeExecutor.execute(guarded(name, onFailure, task));
+    }
+
+    private void runRead(String name, Runnable onFailure, Runnable task) {
+        readExecutor.execute(guarded(name, onFailure, task));
+    }
+
+    private Runnable guarded(String name, Runnable onFailure, Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                Log.e(TAG, name + " 실패", e);
+                postResult(onFailure);
+            }
+        };
+    }
+
+    // 실패했을 때 callback 에 value 를 넘기는 onFailure
+    private static <T> Runnable failWith(Callback<T> callback, T value) {
+        return callback == null ? null : () -> callback.onResult(value);
+    }
+
+    private static long[] failedIds(int count) {
+        long[] ids = new long[count];
+        Arrays.fill(ids, -1);
+        return ids;
+    }
+
+    private <T> void postResult(Callback<T> callback, T result) {
+        if (callback != null) {
+            mainHandler.post(() -> callback.onResult(result));
+        }
+    }
+
+    private void postResult(Runnable callback) {
+        if (callback != null) {
+            mainHandler.post(callback);
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        };
+    }
+}
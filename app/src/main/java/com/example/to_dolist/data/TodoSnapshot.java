@@ -0,0 +1,194 @@
+package com.example.to_dolist.data;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import com.example.to_dolist.alarm.TriggerTimes;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TimeZone;
+
+/**
+ * 홈 화면 위젯·빠른 설정 타일이 읽는 작은 요약 파일.
+ * 다음에 울릴 미완료 항목 MAX_ROWS 개와 전체 미완료 수만 담으며, 저장소가 쓰기 뒤 writer 스레드에서 다시 만듭니다.
+ * 위젯은 이 파일만 읽으므로 그리는 동안 SQLite 를 열지 않습니다. (AtomicFile 로 교체하므로 반쯤 쓴 파일을 읽지 않음)
+ * <pre>
+ * 머리말: int MAGIC, short VERSION, int 미완료 수, int 행 수
+ * 행:     long id, long 카테고리 id, UTF 제목, int 분, long 날짜(Long.MIN_VALUE 없음),
+ *         UTF 반복 규칙("" 없음), long 다음 알람 시각(epoch ms)
+ * </pre>
+ * 만든 시각은 담지 않으므로 내용이 같으면 바이트도 같고, 저장소는 바뀌었을 때만 파일을 쓰고 위젯에 알립니다.
+ */
+public final class TodoSnapshot {
+
+    private static final String TAG = "TodoSnapshot";
+
+    // 스냅샷 파일이 바뀌면 앱 패키지에만 보내는 브로드캐스트
+    public static final String ACTION_CHANGED = "com.example.to_dolist.SNAPSHOT_CHANGED";
+    public static final int MAX_ROWS = 10;
+
+    static final String FILE_NAME = "todo_snapshot.bin";
+    static final int MAGIC = 0x54444F53; // "TDOS"
+    static final short VERSION = 1;
+
+    public static final class Entry {
+        private final TodoItem item;
+        private final long triggerAt;
+
+        Entry(TodoItem item, long triggerAt) {
+            this.item = item;
+            this.triggerAt = triggerAt;
+        }
+
+        public TodoItem getItem() { return item; }
+        public long getTriggerAt() { return triggerAt; }
+    }
+
+    private final int openCount;
+    private final List<Entry> entries;
+
+    TodoSnapshot(int openCount, List<Entry> entries) {
+        this.openCount = openCount;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    // 시각이 없는 항목까지 포함한 전체 미완료 수
+    public int getOpenCount() { return openCount; }
+
+    // 다음 알람 시각 순
+    public List<Entry> getEntries() { return entries; }
+
+    // 없으면 null
+    public Entry find(long id) {
+        for (Entry entry : entries) {
+            if (entry.item.getId() == id) return entry;
+        }
+        return null;
+    }
+
+    /**
+     * 알람과 같은 순서(다음 울릴 시각)로 앞의 MAX_ROWS 개를 고릅니다.
+     * 날짜 있는 항목과 날짜 없는 항목은 이미 그 순서로 읽히므로, 남은 자리보다 늦은 행이 나오면 그 묶음은 멈춥니다.
+     * 반복 항목은 전부 읽히지만 가장 늦은 것부터 밀려나는 힙이라 메모리는 MAX_ROWS 개로 일정합니다.
+     */
+    static TodoSnapshot build(TodoItemDataSource source, long now, TimeZone zone) {
+        PriorityQueue<Entry> earliest = new PriorityQueue<>(MAX_ROWS + 1,
+                (a, b) -> Long.compare(b.triggerAt, a.triggerAt));
+        source.scanUpcomingTasksInTriggerOrder(TriggerTimes.epochDay(now, zone), TriggerTimes.minuteOfDay(now, zone),
+                item -> {
+                    long triggerAt = TriggerTimes.nextTriggerAt(item, now, zone);
+                    if (triggerAt < 0) return true;
+                    if (earliest.size() == MAX_ROWS) {
+                        if (triggerAt >= earliest.peek().triggerAt) return false;
+                        earliest.poll();
+                    }
+                    // item 은 재사용되는 객체
+                    earliest.add(new Entry(new TodoItem(item), triggerAt));
+                    return true;
+                });
+
+        List<Entry> entries = new ArrayList<>(earliest);
+        entries.sort((a, b) -> a.triggerAt != b.triggerAt
+                ? Long.compare(a.triggerAt, b.triggerAt) : Long.compare(a.item.getId(), b.item.getId()));
+        return new TodoSnapshot((int) source.getOpenTaskCount(), entries);
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entries.size() * 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(openCount);
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                TodoItem item = entry.item;
+                out.writeLong(item.getId());
+                out.writeLong(item.getCategoryId());
+                out.writeUTF(item.getTitle());
+                out.writeInt(item.getDueMinutes());
+                out.writeLong(item.getDueDate());
+                out.writeUTF(item.isRecurring() ? item.getRecurrence().encode() : "");
+                out.writeLong(entry.triggerAt);
+            }
+        } catch (IOException e) {
+            // 메모리 버퍼라 발생하지 않음
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static TodoSnapshot decode(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        try {
+            if (in.readInt() != MAGIC) throw new IOException("스냅샷 파일이 아님");
+            short version = in.readShort();
+            if (version != VERSION) throw new IOException("지원하지 않는 스냅샷 버전: " + version);
+            int openCount = in.readInt();
+            int rows = in.readInt();
+            if (rows < 0 || rows > MAX_ROWS) throw new IOException("행 수 오류: " + rows);
+
+            List<Entry> entries = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                TodoItem item = new TodoItem();
+                item.setId(in.readLong());
+                item.setCategoryId(in.readLong());
+                item.setTitle(in.readUTF());
+                item.setDueMinutes(in.readInt());
+                item.setDueDate(in.readLong());
+                String recurrence = in.readUTF();
+                item.setRecurrence(recurrence.isEmpty() ? null : Recurrence.decode(recurrence));
+                entries.add(new Entry(item, in.readLong()));
+            }
+            return new TodoSnapshot(openCount, entries);
+        } catch (EOFException e) {
+            throw new IOException("스냅샷 파일이 잘림", e);
+        }
+    }
+
+    /**
+     * 마지막으로 쓴 스냅샷. 아직 없거나 읽을 수 없으면 null (저장소의 refreshSnapshot 으로 다시 만드세요)
+     */
+    public static TodoSnapshot read(Context context) {
+        try {
+            return decode(file(context).readFully());
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            Log.e(TAG, "스냅샷 읽기 실패", e);
+            return null;
+        }
+    }
+
+    // writer 스레드에서만 호출
+    static boolean write(Context context, byte[] bytes) {
+        AtomicFile file = file(context);
+        FileOutputStream out = null;
+        try {
+            out = file.startWrite();
+            out.write(bytes);
+            file.finishWrite(out);
+            return true;
+        } catch (IOException e) {
+            Log.e(TAG, "스냅샷 쓰기 실패", e);
+            file.failWrite(out);
+            return false;
+        }
+    }
+
+    private static AtomicFile file(Context context) {
+        return new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+    }
+}
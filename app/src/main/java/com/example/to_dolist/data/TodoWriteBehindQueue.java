@@ -0,0 +1,186 @@
+package com.example.to_dolist.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 낙관적 수정 + write-behind 큐.
+ * update() 는 디스크를 기다리지 않고 변경 이벤트를 바로 보내 화면에 먼저 반영하고,
+ * 실제 쓰기는 FLUSH_DELAY_MS 동안 모은 뒤 한 트랜잭션으로 처리합니다.
+ * 같은 id 를 여러 번 바꾸면 마지막 상태만 쓰고, 원래 상태로 돌아오면 쓰기 자체를 생략합니다.
+ * 쓰기가 실패하면 원래 상태로 되돌리는 이벤트를 보내고 RollbackListener 에 알립니다.
+ * 쓰기가 끝나면 CommitListener 에 알립니다. (DB 에서 계산되는 값 — 카테고리 카운터 등 — 을 다시 읽을 시점)
+ * 모든 메서드는 메인 스레드에서 호출합니다. (화면을 벗어날 때 flush() 로 즉시 내보냄)
+ */
+public final class TodoWriteBehindQueue {
+
+    private static final String TAG = "TodoWriteBehindQueue";
+
+    // 연속 토글을 한 번의 쓰기로 모으는 시간
+    static final long FLUSH_DELAY_MS = 400L;
+
+    public interface RollbackListener {
+        // 저장에 실패해 원래 상태로 되돌린 항목들
+        void onRolledBack(List<TodoItem> restored);
+    }
+
+    public interface CommitListener {
+        // 저장이 끝난 항목들 (화면에는 이미 반영된 상태)
+        void onCommitted(List<TodoItem> committed);
+    }
+
+    // id 하나의 대기 중인 수정: DB 에 있는(마지막으로 확정된) 상태와 화면에 보이는 최신 상태
+    private static final class Pending {
+        final TodoItem original;
+        TodoItem latest;
+
+        Pending(TodoItem original, TodoItem latest) {
+            this.original = original;
+            this.latest = latest;
+        }
+    }
+
+    private final TodoRepository repository;
+    private final TodoChangeBus changeBus;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+
+    // 아직 쓰지 않은 수정 (처음 바뀐 순서)
+    private final Map<Long, Pending> pending = new LinkedHashMap<>();
+    // 쓰는 중인 수정 (완료 전 다시 읽힌 목록에도 최신 상태를 보여주기 위함)
+    private final Map<Long, TodoItem> inFlight = new HashMap<>();
+    private boolean isFlushScheduled = false;
+    private RollbackListener rollbackListener;
+    private CommitListener commitListener;
+
+    TodoWriteBehindQueue(TodoRepository repository, TodoChangeBus changeBus) {
+        this.repository = repository;
+        this.changeBus = changeBus;
+    }
+
+    public void setRollbackListener(RollbackListener rollbackListener) {
+        this.rollbackListener = rollbackListener;
+    }
+
+    public void setCommitListener(CommitListener commitListener) {
+        this.commitListener = commitListener;
+    }
+
+    /**
+     * 항목을 before → after 로 바꿉니다. 화면에는 다음 프레임에 반영되고, DB 에는 잠시 뒤 한꺼번에 씁니다.
+     */
+    public void update(TodoItem before, TodoItem after) {
+        long id = after.getId();
+        TodoItem latest = new TodoItem(after);
+
+        Pending entry = pending.get(id);
+        if (entry == null) {
+            pending.put(id, new Pending(new TodoItem(before), latest));
+        } else if (isSameContent(entry.original, latest)) {
+            // 원래 상태로 돌아옴 → 쓸 것이 없음
+            pending.remove(id);
+        } else {
+            entry.latest = latest;
+        }
+
+        changeBus.emit(TodoChangeEvent.updated(latest));
+        scheduleFlush();
+    }
+
+    /**
+     * 쓰기 전이거나 쓰는 중인 항목의 최신 상태 (없으면 null). 다시 읽은 목록에 덮어쓸 때 사용합니다.
+     */
+    public TodoItem pendingState(long id) {
+        Pending entry = pending.get(id);
+        if (entry != null) return new TodoItem(entry.latest);
+        TodoItem committing = inFlight.get(id);
+        return committing != null ? new TodoItem(committing) : null;
+    }
+
+    public boolean hasPending() {
+        return !pending.isEmpty() || !inFlight.isEmpty();
+    }
+
+    /**
+     * 모아 둔 수정을 지금 바로 씁니다. (onPause 등)
+     */
+    public void flush() {
+        mainHandler.removeCallbacks(flushRunnable);
+        isFlushScheduled = false;
+        if (pending.isEmpty()) return;
+
+        final List<Pending> batch = new ArrayList<>(pending.values());
+        pending.clear();
+
+        List<TodoItem> items = new ArrayList<>(batch.size());
+        for (Pending entry : batch) {
+            items.add(entry.latest);
+            inFlight.put(entry.latest.getId(), entry.latest);
+        }
+        repository.commitUpdates(items, isCommitted -> onCommitted(batch, isCommitted));
+    }
+
+    // --- 내부 로직 ---
+
+    private void scheduleFlush() {
+        if (isFlushScheduled) return;
+        isFlushScheduled = true;
+        mainHandler.postDelayed(flushRunnable, FLUSH_DELAY_MS);
+    }
+
+    private void onCommitted(List<Pending> batch, boolean isCommitted) {
+        if (isCommitted && commitListener != null) {
+            List<TodoItem> committed = new ArrayList<>(batch.size());
+            for (Pending entry : batch) {
+                committed.add(entry.latest);
+            }
+            commitListener.onCommitted(committed);
+        }
+
+        List<TodoItem> restored = new ArrayList<>();
+        for (Pending entry : batch) {
+            long id = entry.latest.getId();
+            // 같은 id 를 다음 묶음이 이미 쓰는 중이면 그쪽 상태를 유지
+            if (inFlight.get(id) == entry.latest) {
+                inFlight.remove(id);
+            }
+            if (isCommitted) continue;
+
+            Pending newer = pending.get(id);
+            if (newer != null) {
+                // 그 사이 다시 바뀐 항목은 다음 쓰기가 최신 상태를 쓰므로, 되돌릴 기준만 실제 DB 상태로 맞춤
+                pending.put(id, new Pending(entry.original, newer.latest));
+                continue;
+            }
+            restored.add(new TodoItem(entry.original));
+        }
+        if (restored.isEmpty()) return;
+
+        List<TodoChangeEvent> events = new ArrayList<>(restored.size());
+        for (TodoItem item : restored) {
+            events.add(TodoChangeEvent.updated(item));
+        }
+        changeBus.emitAll(events);
+        Log.w(TAG, "저장 실패로 " + restored.size() + "건 되돌림");
+        if (rollbackListener != null) {
+            rollbackListener.onRolledBack(restored);
+        }
+    }
+
+    private static boolean isSameContent(TodoItem a, TodoItem b) {
+        return a.isCompleted() == b.isCompleted()
+                && a.getDueMinutes() == b.getDueMinutes()
+                && a.getDueDate() == b.getDueDate()
+                && Objects.equals(a.getRecurrence(), b.getRecurrence())
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && a.getCategoryId() == b.getCategoryId();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.to_dolist.metrics;
+
+import java.util.Arrays;
+
+/**
+ * 값 분포를 고정 크기 버킷으로 모으는 히스토그램. (p50/p95/p99 용)
+ * 0~15 는 값마다, 그 위는 2의 거듭제곱 구간을 8등분한 버킷에 넣으므로 백분위 오차는 12.5% 이내이고,
+ * 기록 횟수와 관계없이 메모리가 일정합니다. 여러 스레드에서 기록해도 됩니다.
+ */
+public final class Histogram {
+
+    private static final int LINEAR_LIMIT = 16;
+    // 2^k 구간 하나를 나누는 버킷 수 (2^SUB_BITS)
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int FIRST_EXPONENT = 4;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - FIRST_EXPONENT) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count;
+    private long sum;
+    private long max;
+
+    /**
+     * 값 하나를 기록합니다. 음수는 0 으로 기록합니다.
+     */
+    public synchronized void record(long value) {
+        if (value < 0) value = 0;
+        counts[bucketOf(value)]++;
+        count++;
+        sum += value;
+        if (value > max) max = value;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    public synchronized double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * 백분위 값 (percentile 은 0~100). 해당 버킷의 상한을 반환하되 최댓값을 넘지 않습니다. 기록이 없으면 0.
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    // --- 버킷 계산 ---
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + sub;
+    }
+
+    // 버킷에 들어가는 가장 큰 값
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) return bucket;
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + FIRST_EXPONENT;
+        int sub = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BITS);
+        long lower = (1L << exponent) + sub * width;
+        return lower + width - 1;
+    }
+}
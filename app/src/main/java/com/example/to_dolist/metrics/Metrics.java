@@ -0,0 +1,100 @@
+package com.example.to_dolist.metrics;
+
+import android.os.Trace;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 핫 패스 계측: Perfetto 에서 보이는 android.os.Trace 구간 + 프로세스 안의 히스토그램.
+ *
+ * <pre>
+ *   long start = Metrics.begin("db.page");
+ *   try { ... } finally { Metrics.end("db.page", start); }
+ * </pre>
+ *
+ * 시간은 마이크로초로 "이름.us" 히스토그램에, 행 수 같은 값은 record() 로 원하는 이름에 기록합니다.
+ * begin/end 는 같은 스레드에서 짝을 맞춰 호출해야 합니다. (Trace 구간이 스레드별 스택이므로)
+ * 모은 값은 MetricsDumpReceiver(adb 브로드캐스트)나 dump() 로 확인합니다.
+ */
+public final class Metrics {
+
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Trace 구간을 열고 시작 시각(nanoTime)을 반환합니다.
+     */
+    public static long begin(String section) {
+        Trace.beginSection(section);
+        return System.nanoTime();
+    }
+
+    /**
+     * begin() 으로 연 구간을 닫고 걸린 시간을 "name.us" 에 기록합니다.
+     */
+    public static void end(String name, long startNanos) {
+        long elapsedUs = (System.nanoTime() - startNanos) / 1_000L;
+        Trace.endSection();
+        histogram(name + ".us").record(elapsedUs);
+    }
+
+    /**
+     * 다른 스레드나 나중 콜백에서 끝나는 구간을 엽니다. (Trace 비동기 구간, cookie 로 짝을 맞춤)
+     */
+    public static long beginAsync(String section, int cookie) {
+        Trace.beginAsyncSection(section, cookie);
+        return System.nanoTime();
+    }
+
+    /**
+     * beginAsync() 로 연 구간을 닫고 걸린 시간을 "name.us" 에 기록합니다. 어느 스레드에서 호출해도 됩니다.
+     */
+    public static void endAsync(String name, int cookie, long startNanos) {
+        long elapsedUs = (System.nanoTime() - startNanos) / 1_000L;
+        Trace.endAsyncSection(name, cookie);
+        histogram(name + ".us").record(elapsedUs);
+    }
+
+    /**
+     * Trace 구간 없이 값 하나를 기록합니다. (행 수, 지연 시간 등)
+     */
+    public static void record(String name, long value) {
+        histogram(name).record(value);
+    }
+
+    public static Histogram histogram(String name) {
+        Histogram histogram = HISTOGRAMS.get(name);
+        if (histogram == null) {
+            histogram = HISTOGRAMS.computeIfAbsent(name, key -> new Histogram());
+        }
+        return histogram;
+    }
+
+    /**
+     * 모든 히스토그램을 이름순으로 한 줄씩: 이름 count mean p50 p95 p99 max
+     */
+    public static String dump() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.US, "%-32s %8s %10s %8s %8s %8s %8s%n",
+                "metric", "count", "mean", "p50", "p95", "p99", "max"));
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(HISTOGRAMS).entrySet()) {
+            Histogram h = entry.getValue();
+            if (h.getCount() == 0) continue;
+            out.append(String.format(Locale.US, "%-32s %8d %10.1f %8d %8d %8d %8d%n",
+                    entry.getKey(), h.getCount(), h.getMean(),
+                    h.getPercentile(50), h.getPercentile(95), h.getPercentile(99), h.getMax()));
+        }
+        return out.toString();
+    }
+
+    public static void reset() {
+        for (Histogram histogram : HISTOGRAMS.values()) {
+            histogram.reset();
+        }
+    }
+}
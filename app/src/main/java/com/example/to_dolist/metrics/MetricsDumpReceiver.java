@@ -0,0 +1,44 @@
+package com.example.to_dolist.metrics;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+import com.example.to_dolist.alarm.AlarmScheduler;
+
+/**
+ * adb 로 히스토그램을 꺼내 보는 수신자. DUMP 권한이 있는 쪽(adb shell)만 보낼 수 있습니다.
+ *
+ * <pre>
+ *   adb shell am broadcast -a com.example.to_dolist.DUMP_METRICS -n com.example.to_dolist/.metrics.MetricsDumpReceiver
+ *   adb shell am broadcast -a com.example.to_dolist.DUMP_METRICS --ez reset true -n ...   (출력 후 초기화)
+ * </pre>
+ *
+ * 프로세스가 다시 시작돼도 남는 알람 전달 지연 백분위(AlarmScheduler.describeDeliveryAccuracy)를 마지막 줄에 덧붙입니다.
+ * 결과는 브로드캐스트 결과 데이터(am broadcast 출력)와 logcat(태그 Metrics)에 함께 남습니다.
+ * 히스토그램은 앱 프로세스가 떠 있을 때의 값만 있으므로 재현 직후 바로 꺼내세요.
+ */
+public class MetricsDumpReceiver extends BroadcastReceiver {
+
+    private static final String TAG = "Metrics";
+
+    static final String ACTION_DUMP = "com.example.to_dolist.DUMP_METRICS";
+    static final String EXTRA_RESET = "reset";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (!ACTION_DUMP.equals(intent.getAction())) return;
+
+        String dump = Metrics.dump() + AlarmScheduler.describeDeliveryAccuracy(context);
+        for (String line : dump.split("\n")) {
+            Log.i(TAG, line);
+        }
+        if (intent.getBooleanExtra(EXTRA_RESET, false)) {
+            Metrics.reset();
+        }
+        if (isOrderedBroadcast()) {
+            setResultData(dump);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.to_dolist.widget;
+
+import android.app.PendingIntent;
+import android.content.Intent;
+import android.service.quicksettings.Tile;
+import android.service.quicksettings.TileService;
+
+import com.example.to_dolist.MainActivity;
+import com.example.to_dolist.R;
+import com.example.to_dolist.data.TodoSnapshot;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 빠른 설정 타일: 남은 수와 다음 항목을 보여 주고, 누르면 앱을 엽니다.
+ * 위젯과 같은 스냅샷 파일만 읽으며, 스냅샷이 바뀔 때(TodoWidgetProvider 가 requestListeningState)만 갱신하는 active 타일입니다.
+ */
+public class TodoTileService extends TileService {
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "todo-tile"));
+
+    @Override
+    public void onStartListening() {
+        EXECUTOR.execute(() -> {
+            TodoSnapshot snapshot = TodoSnapshot.read(this);
+            TodoSnapshot.Entry next = null;
+            if (snapshot != null) {
+                long now = System.currentTimeMillis();
+                for (TodoSnapshot.Entry entry : snapshot.getEntries()) {
+                    if (entry.getTriggerAt() > now) {
+                        next = entry;
+                        break;
+                    }
+                }
+            }
+            String subtitle = next == null ? null
+                    : TodoWidgetProvider.describeTime(next.getTriggerAt(), LocalDate.now(), ZoneId.systemDefault())
+                    + " " + next.getItem().getTitle();
+            boolean hasOpen = snapshot != null && snapshot.getOpenCount() > 0;
+            // Tile 은 메인 스레드에서 갱신
+            getMainExecutor().execute(() -> {
+                Tile tile = getQsTile();
+                if (tile == null) return;
+                tile.setLabel(getString(R.string.tile_label));
+                tile.setSubtitle(subtitle);
+                tile.setState(hasOpen ? Tile.STATE_ACTIVE : Tile.STATE_INACTIVE);
+                tile.updateTile();
+            });
+        });
+    }
+
+    @Override
+    public void onClick() {
+        startActivityAndCollapse(PendingIntent.getActivity(this, 0,
+                new Intent(this, MainActivity.class).addFlags(Intent.FLAG_ACTIVITY_NEW_TASK),
+                PendingIntent.FLAG_IMMUTABLE));
+    }
+}
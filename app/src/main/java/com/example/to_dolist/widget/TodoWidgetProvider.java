@@ -0,0 +1,169 @@
+package com.example.to_dolist.widget;
+
+import android.app.PendingIntent;
+import android.appwidget.AppWidgetManager;
+import android.appwidget.AppWidgetProvider;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.service.quicksettings.TileService;
+import android.util.Log;
+import android.widget.RemoteViews;
+
+import com.example.to_dolist.MainActivity;
+import com.example.to_dolist.R;
+import com.example.to_dolist.alarm.AlarmScheduler;
+import com.example.to_dolist.data.TodoItem;
+import com.example.to_dolist.data.TodoRepository;
+import com.example.to_dolist.data.TodoSnapshot;
+import com.example.to_dolist.data.TodoWriteBehindQueue;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 홈 화면 위젯: 다음에 울릴 미완료 항목과 남은 수를 보여 주고, 한 번 눌러 완료할 수 있습니다.
+ * 그릴 때는 TodoSnapshot 파일만 읽으므로 앱을 띄우거나 SQLite 를 열지 않습니다. (파일 읽기는 goAsync 로 백그라운드에서)
+ * 스냅샷이 바뀌면 저장소가 ACTION_CHANGED 를 보내므로 주기 갱신은 지난 항목을 숨기는 용도로만 씁니다.
+ * 완료는 목록 화면(TodoItemView)과 같은 write-behind 큐를 거치고 바로 flush 해서, 열린 화면에도 그대로 반영됩니다.
+ */
+public class TodoWidgetProvider extends AppWidgetProvider {
+
+    private static final String TAG = "TodoWidgetProvider";
+
+    static final String ACTION_COMPLETE = "com.example.to_dolist.widget.COMPLETE";
+    static final String EXTRA_TASK_ID = "TASK_ID";
+
+    // 그리기와 파일 읽기는 순서대로 (메인 스레드를 막지 않음)
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "todo-widget"));
+
+    @Override
+    public void onUpdate(Context context, AppWidgetManager manager, int[] appWidgetIds) {
+        PendingResult result = goAsync();
+        EXECUTOR.execute(() -> {
+            try {
+                render(context, manager, appWidgetIds, true);
+            } finally {
+                result.finish();
+            }
+        });
+    }
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (TodoSnapshot.ACTION_CHANGED.equals(action)) {
+            PendingResult result = goAsync();
+            EXECUTOR.execute(() -> {
+                try {
+                    AppWidgetManager manager = AppWidgetManager.getInstance(context);
+                    render(context, manager, manager.getAppWidgetIds(
+                            new ComponentName(context, TodoWidgetProvider.class)), false);
+                } finally {
+                    result.finish();
+                }
+            });
+            TileService.requestListeningState(context, new ComponentName(context, TodoTileService.class));
+        } else if (ACTION_COMPLETE.equals(action)) {
+            complete(context, intent.getLongExtra(EXTRA_TASK_ID, -1));
+        } else {
+            super.onReceive(context, intent);
+        }
+    }
+
+    /**
+     * TodoItemView 의 체크와 같은 경로: write-behind 큐로 바꾸고 알람을 취소합니다.
+     * 위젯에서는 화면이 없으므로 바로 flush 하고, 스냅샷이 다시 써질 때까지 브로드캐스트를 붙잡아 둡니다.
+     * (메인 스레드에서 실행)
+     */
+    private void complete(Context context, long taskId) {
+        TodoRepository repository = TodoRepository.getInstance(context);
+        TodoWriteBehindQueue queue = repository.getWriteBehindQueue();
+        TodoItem before = queue.pendingState(taskId);
+        if (before == null) {
+            // 위젯에 보이는 항목은 모두 스냅샷에 있음 (스냅샷이 그새 바뀌었으면 다시 그리기만)
+            TodoSnapshot snapshot = TodoSnapshot.read(context);
+            TodoSnapshot.Entry entry = snapshot != null ? snapshot.find(taskId) : null;
+            if (entry == null) {
+                Log.e(TAG, "위젯의 항목을 찾을 수 없습니다: " + taskId);
+                PendingResult result = goAsync();
+                repository.refreshSnapshot(result::finish);
+                return;
+            }
+            before = entry.getItem();
+        }
+        if (before.isCompleted()) return;
+
+        TodoItem after = new TodoItem(before);
+        after.setCompleted(true);
+        queue.update(before, after);
+        queue.flush();
+        AlarmScheduler.cancelAlarm(context, taskId);
+        PendingResult result = goAsync();
+        repository.refreshSnapshot(result::finish);
+    }
+
+    // 백그라운드 스레드에서 호출. 스냅샷이 없거나 이미 지난 항목이 있으면 저장소에 다시 만들어 달라고 요청
+    private static void render(Context context, AppWidgetManager manager, int[] appWidgetIds, boolean mayRefresh) {
+        if (appWidgetIds.length == 0) return;
+        long now = System.currentTimeMillis();
+        TodoSnapshot snapshot = TodoSnapshot.read(context);
+        boolean isStale = snapshot == null;
+
+        RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.widget_todo);
+        views.setOnClickPendingIntent(R.id.widget_header, PendingIntent.getActivity(context, 0,
+                new Intent(context, MainActivity.class).addFlags(Intent.FLAG_ACTIVITY_NEW_TASK),
+                PendingIntent.FLAG_IMMUTABLE));
+        views.setTextViewText(R.id.widget_header,
+                context.getString(R.string.widget_open_count, snapshot != null ? snapshot.getOpenCount() : 0));
+
+        RemoteViews.RemoteCollectionItems.Builder rows = new RemoteViews.RemoteCollectionItems.Builder()
+                .setHasStableIds(true)
+                .setViewTypeCount(1);
+        if (snapshot != null) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate today = LocalDate.now(zone);
+            for (TodoSnapshot.Entry entry : snapshot.getEntries()) {
+                if (entry.getTriggerAt() <= now) {
+                    isStale = true;
+                    continue;
+                }
+                rows.addItem(entry.getItem().getId(), row(context, entry, today, zone));
+            }
+        }
+        views.setRemoteAdapter(R.id.widget_list, rows.build());
+        views.setEmptyView(R.id.widget_list, R.id.widget_empty);
+        views.setPendingIntentTemplate(R.id.widget_list, PendingIntent.getBroadcast(context, 0,
+                new Intent(context, TodoWidgetProvider.class).setAction(ACTION_COMPLETE),
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_MUTABLE));
+        manager.updateAppWidget(appWidgetIds, views);
+
+        if (isStale && mayRefresh) {
+            TodoRepository.getInstance(context).refreshSnapshot(null);
+        }
+    }
+
+    private static RemoteViews row(Context context, TodoSnapshot.Entry entry, LocalDate today, ZoneId zone) {
+        TodoItem item = entry.getItem();
+        RemoteViews row = new RemoteViews(context.getPackageName(), R.layout.widget_todo_row);
+        row.setTextViewText(R.id.widget_row_title, item.getTitle());
+        row.setTextViewText(R.id.widget_row_time, describeTime(entry.getTriggerAt(), today, zone));
+        row.setOnClickFillInIntent(R.id.widget_row_complete, new Intent().putExtra(EXTRA_TASK_ID, item.getId()));
+        return row;
+    }
+
+    // 오늘이면 "HH:mm", 내일이면 "내일 HH:mm", 그 뒤는 "M/d HH:mm"
+    static String describeTime(long triggerAt, LocalDate today, ZoneId zone) {
+        ZonedDateTime at = Instant.ofEpochMilli(triggerAt).atZone(zone);
+        String time = TodoItem.formatDueTime(at.getHour() * 60 + at.getMinute());
+        LocalDate day = at.toLocalDate();
+        if (day.equals(today)) return time;
+        if (day.equals(today.plusDays(1))) return "내일 " + time;
+        return day.getMonthValue() + "/" + day.getDayOfMonth() + " " + time;
+    }
+}
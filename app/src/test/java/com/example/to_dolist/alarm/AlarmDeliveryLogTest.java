@@ -0,0 +1,69 @@
+package com.example.to_dolist.alarm;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 전달 지연 기록의 백분위, 미리 걸기·알람 시계 전환 판단, 직렬화를 확인합니다.
+ */
+public class AlarmDeliveryLogTest {
+
+    private static final long NOW = 1_710_072_000_000L;
+
+    @Test
+    public void latenessPercentiles_useDueTime() {
+        AlarmDeliveryLog log = new AlarmDeliveryLog();
+        for (int i = 1; i <= 100; i++) {
+            long triggerAt = NOW - i * 60_000L;
+            log.add(triggerAt + i * 100L, triggerAt, triggerAt, AlarmDeliveryLog.MODE_EXACT);
+        }
+        assertEquals(5_000, log.latenessPercentile(50));
+        assertEquals(9_500, log.latenessPercentile(95));
+        assertEquals(9_900, log.latenessPercentile(99));
+    }
+
+    @Test
+    public void preFireLead_isMedianSystemDelay_capped() {
+        AlarmDeliveryLog log = new AlarmDeliveryLog();
+        assertEquals(0, log.preFireLeadMs(AlarmDeliveryLog.MODE_EXACT, NOW));
+
+        for (long delay : new long[]{1_000, 2_000, 3_000, 4_000, 5_000}) {
+            log.add(NOW - 1_000, NOW - 1_000 - delay, NOW - 1_000 - delay, AlarmDeliveryLog.MODE_EXACT);
+        }
+        assertEquals(3_000, log.preFireLeadMs(AlarmDeliveryLog.MODE_EXACT, NOW));
+        // 다른 방식의 표본은 섞지 않음
+        assertEquals(0, log.preFireLeadMs(AlarmDeliveryLog.MODE_INEXACT, NOW));
+
+        for (int i = 0; i < 10; i++) {
+            log.add(NOW - 1_000, NOW - 600_000, NOW - 600_000, AlarmDeliveryLog.MODE_INEXACT);
+        }
+        assertEquals(AlarmDeliveryLog.MAX_LEAD_MS, log.preFireLeadMs(AlarmDeliveryLog.MODE_INEXACT, NOW));
+    }
+
+    @Test
+    public void frequentlyLateExactAlarms_switchToAlarmClock_untilSamplesExpire() {
+        AlarmDeliveryLog log = new AlarmDeliveryLog();
+        for (int i = 0; i < 10; i++) {
+            log.add(NOW - 1_000, NOW - 300_000, NOW - 300_000, AlarmDeliveryLog.MODE_EXACT);
+        }
+        assertTrue(log.shouldUseAlarmClock(NOW));
+        assertFalse(log.shouldUseAlarmClock(NOW + AlarmDeliveryLog.SAMPLE_MAX_AGE_MS));
+    }
+
+    @Test
+    public void serialize_roundTrip_keepsNewestWhenFull() {
+        AlarmDeliveryLog log = new AlarmDeliveryLog();
+        for (int i = 0; i < AlarmDeliveryLog.CAPACITY + 10; i++) {
+            log.add(NOW + i, NOW, NOW + i - 5, AlarmDeliveryLog.MODE_ALARM_CLOCK);
+        }
+        AlarmDeliveryLog restored = AlarmDeliveryLog.parse(log.serialize() + ";broken,record");
+
+        assertEquals(AlarmDeliveryLog.CAPACITY, restored.size());
+        assertEquals(log.serialize(), restored.serialize());
+        // 가장 오래된 10건은 밀려남 (알림 지연 = i)
+        assertEquals(10, restored.latenessPercentile(0));
+    }
+}
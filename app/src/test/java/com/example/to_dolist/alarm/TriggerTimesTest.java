@@ -0,0 +1,78 @@
+package com.example.to_dolist.alarm;
+
+import com.example.to_dolist.data.TodoItem;
+
+import org.junit.Test;
+
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 분 단위 due time 파싱과 다음 알람 시각 계산을 확인합니다. (서머타임 경계 포함)
+ */
+public class TriggerTimesTest {
+
+    private static final TimeZone SEOUL = TimeZone.getTimeZone("Asia/Seoul");
+    private static final TimeZone NEW_YORK = TimeZone.getTimeZone("America/New_York");
+
+    @Test
+    public void parseAndFormat_roundTrip() {
+        assertEquals(540, TodoItem.parseDueTime("09:00"));
+        assertEquals(425, TodoItem.parseDueTime("7:05"));
+        assertEquals(1439, TodoItem.parseDueTime("23:59"));
+        assertEquals("07:05", TodoItem.formatDueTime(425));
+        assertEquals(null, TodoItem.formatDueTime(TodoItem.NO_DUE_TIME));
+    }
+
+    @Test
+    public void parse_rejectsMalformedInput() {
+        assertEquals(TodoItem.NO_DUE_TIME, TodoItem.parseDueTime(null));
+        assertEquals(TodoItem.NO_DUE_TIME, TodoItem.parseDueTime(""));
+        assertEquals(TodoItem.NO_DUE_TIME, TodoItem.parseDueTime("24:00"));
+        assertEquals(TodoItem.NO_DUE_TIME, TodoItem.parseDueTime("12:60"));
+        assertEquals(TodoItem.NO_DUE_TIME, TodoItem.parseDueTime("1200"));
+        assertEquals(TodoItem.NO_DUE_TIME, TodoItem.parseDueTime("ab:cd"));
+    }
+
+    @Test
+    public void laterToday_staysToday() {
+        // 2024-03-01 08:00 KST = 2024-02-29T23:00Z
+        long now = 1_709_247_600_000L;
+        // 09:30 KST = 00:30Z
+        assertEquals(1_709_253_000_000L, TriggerTimes.nextTriggerAt(570, now, SEOUL));
+    }
+
+    @Test
+    public void alreadyPassed_movesToTomorrow() {
+        long now = 1_709_247_600_000L; // 08:00 KST
+        long expected = 1_709_247_600_000L - 60 * TriggerTimes.MINUTE_MS + TriggerTimes.DAY_MS; // 내일 07:00 KST
+        assertEquals(expected, TriggerTimes.nextTriggerAt(420, now, SEOUL));
+        // 정확히 지금이면 내일
+        assertEquals(now + TriggerTimes.DAY_MS, TriggerTimes.nextTriggerAt(480, now, SEOUL));
+    }
+
+    @Test
+    public void daylightSavingStart_keepsWallClockTime() {
+        // 2024-03-09 12:00 EST (UTC-5) = 17:00Z, 다음 날 새벽 2시에 EDT(UTC-4) 로 바뀜
+        long now = 1_710_003_600_000L;
+        // 내일 09:00 EDT = 2024-03-10T13:00Z
+        assertEquals(1_710_075_600_000L, TriggerTimes.nextTriggerAt(540, now, NEW_YORK));
+    }
+
+    @Test
+    public void daylightSavingGap_movesForwardLikeOccurrences() {
+        // 2025-03-09 02:00 EST 에 03:00 EDT 로 건너뜀: 02:01 은 없는 시각이므로 03:01 EDT (= 07:01Z)
+        long dayBefore = 1_741_453_200_000L; // 2025-03-08 12:00 EST
+        assertEquals(1_741_503_660_000L, TriggerTimes.nextTriggerAt(2 * 60 + 1, dayBefore, NEW_YORK));
+
+        // 01:46 EST 에 02:42 항목: 한 시간 일찍(01:42 EST, 이미 지남) 잡혀 다음 날로 넘어가면 안 됨 → 03:42 EDT
+        long beforeGap = 1_741_502_760_000L; // 2025-03-09 01:46 EST
+        assertEquals(1_741_506_120_000L, TriggerTimes.nextTriggerAt(2 * 60 + 42, beforeGap, NEW_YORK));
+
+        // 날짜가 있는 항목(Occurrences)과 같은 시각
+        TodoItem dated = new TodoItem("건너뛴 시각", 1, 2 * 60 + 42, false);
+        dated.setDueDate(20_156); // 2025-03-09
+        assertEquals(1_741_506_120_000L, TriggerTimes.nextTriggerAt(dated, beforeGap, NEW_YORK));
+    }
+}
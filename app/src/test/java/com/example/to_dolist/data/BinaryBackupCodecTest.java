@@ -0,0 +1,133 @@
+package com.example.to_dolist.data;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 바이너리 백업 형식: 왕복 보존, 잘린 파일·다른 파일 거부, 모르는 레코드 건너뛰기.
+ */
+public class BinaryBackupCodecTest {
+
+    @Test
+    public void roundTrip_keepsCategoriesAndAllTaskFields() throws IOException {
+        TodoItem plain = task(7, 1, "회의록 정리", TodoItem.NO_DUE_TIME, false);
+        TodoItem scheduled = task(9, 2, "운동", 18 * 60 + 30, true);
+        scheduled.setDueDate(19_900);
+        scheduled.setRecurrence(Recurrence.daily());
+
+        byte[] file = write(Arrays.asList(plain, scheduled));
+        List<String> categories = new ArrayList<>();
+        List<TodoItem> tasks = new ArrayList<>();
+        readAll(file, categories, tasks);
+
+        assertEquals(Arrays.asList("1:WORK", "2:공부"), categories);
+        assertEquals(2, tasks.size());
+        assertEquals(7, tasks.get(0).getId());
+        assertEquals("회의록 정리", tasks.get(0).getTitle());
+        assertFalse(tasks.get(0).hasDueTime());
+        assertFalse(tasks.get(0).hasDueDate());
+        assertNull(tasks.get(0).getRecurrence());
+
+        TodoItem read = tasks.get(1);
+        assertEquals(2, read.getCategoryId());
+        assertEquals(18 * 60 + 30, read.getDueMinutes());
+        assertTrue(read.isCompleted());
+        assertEquals(19_900, read.getDueDate());
+        assertEquals(Recurrence.daily(), read.getRecurrence());
+    }
+
+    @Test
+    public void truncatedFile_isRejected() throws IOException {
+        byte[] file = write(Arrays.asList(task(1, 1, "a", 0, false), task(2, 1, "b", 0, false)));
+        // 끝 레코드(길이 4 + 종류 1 + 항목 수 8)를 잘라냄
+        byte[] truncated = Arrays.copyOf(file, file.length - 13);
+        try {
+            readAll(truncated, new ArrayList<>(), new ArrayList<>());
+            fail("잘린 파일을 끝까지 읽음");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("잘림"));
+        }
+    }
+
+    @Test
+    public void otherFile_isRejected() {
+        try {
+            BinaryBackupCodec.newReader(new ByteArrayInputStream("{\"format\":1}".getBytes()));
+            fail("다른 형식의 파일을 열었음");
+        } catch (IOException expected) {
+            // 정상
+        }
+    }
+
+    @Test
+    public void unknownRecordType_isSkipped() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(BinaryBackupCodec.MAGIC);
+        out.writeShort(BinaryBackupCodec.VERSION);
+        // 이후 버전에서 추가된 레코드라고 가정
+        out.writeInt(3);
+        out.writeByte(42);
+        out.write(new byte[]{1, 2, 3});
+        out.writeInt(8);
+        out.writeByte(BinaryBackupCodec.TYPE_END);
+        out.writeLong(0);
+
+        List<TodoItem> tasks = new ArrayList<>();
+        readAll(bytes.toByteArray(), new ArrayList<>(), tasks);
+        assertEquals(0, tasks.size());
+    }
+
+    // --- helpers ---
+
+    private static TodoItem task(long id, long categoryId, String title, int dueMinutes, boolean completed) {
+        TodoItem item = new TodoItem(title, categoryId, dueMinutes, completed);
+        item.setId(id);
+        return item;
+    }
+
+    private static byte[] write(List<TodoItem> tasks) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TodoBackupWriter writer = BinaryBackupCodec.newWriter(bytes)) {
+            writer.writeCategory(1, "WORK");
+            writer.writeCategory(2, "공부");
+            for (TodoItem task : tasks) {
+                writer.writeTask(task);
+            }
+            writer.finish();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void readAll(byte[] file, List<String> categories, List<TodoItem> tasks) throws IOException {
+        try (TodoBackupReader reader = BinaryBackupCodec.newReader(new ByteArrayInputStream(file))) {
+            TodoBackupReader.Handler handler = new TodoBackupReader.Handler() {
+                @Override
+                public void onCategory(long id, String name) {
+                    categories.add(id + ":" + name);
+                }
+
+                @Override
+                public void onTask(TodoItem item) {
+                    tasks.add(new TodoItem(item));
+                }
+            };
+            while (reader.readNext(handler)) {
+                // 끝 레코드까지
+            }
+        }
+    }
+}
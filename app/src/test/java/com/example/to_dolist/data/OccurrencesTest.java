@@ -0,0 +1,100 @@
+package com.example.to_dolist.data;
+
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 반복 규칙의 다음 날짜 계산(요일 비트, 월말 보정), 지연 전개, 기간 전개, 다음 알람 시각을 확인합니다.
+ */
+public class OccurrencesTest {
+
+    private static final ZoneId SEOUL = ZoneId.of("Asia/Seoul");
+
+    @Test
+    public void weekly_picksNextMaskedWeekday() {
+        Recurrence rule = Recurrence.weekly(Recurrence.maskOf(DayOfWeek.MONDAY, DayOfWeek.THURSDAY));
+        LocalDate anchor = LocalDate.of(2024, 3, 4); // 월요일
+        assertEquals(LocalDate.of(2024, 3, 7), rule.firstOnOrAfter(anchor, LocalDate.of(2024, 3, 5)));
+        assertEquals(LocalDate.of(2024, 3, 11), rule.firstOnOrAfter(anchor, LocalDate.of(2024, 3, 8)));
+        // 조회 시작이 시작일보다 앞이면 시작일부터
+        assertEquals(anchor, rule.firstOnOrAfter(anchor, LocalDate.of(2024, 1, 1)));
+    }
+
+    @Test
+    public void monthly_clampsToLastDayOfShortMonths() {
+        TodoItem item = dated(LocalDate.of(2024, 1, 31), Recurrence.monthly());
+        assertEquals(Arrays.asList(
+                        LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29),
+                        LocalDate.of(2024, 3, 31), LocalDate.of(2024, 4, 30)),
+                Occurrences.next(item, LocalDate.of(2024, 1, 1), 4));
+    }
+
+    @Test
+    public void encodeDecode_roundTrips() {
+        for (Recurrence rule : new Recurrence[]{
+                Recurrence.daily(), Recurrence.monthly(), Recurrence.weekly(Recurrence.WEEKDAYS)}) {
+            assertEquals(rule, Recurrence.decode(rule.encode()));
+        }
+        assertNull(Recurrence.decode(null));
+        assertNull(Recurrence.decode("W:0"));
+        assertNull(Recurrence.decode("X"));
+    }
+
+    @Test
+    public void next_onlyComputesRequestedCount() {
+        TodoItem item = dated(LocalDate.of(2024, 3, 1), Recurrence.weekly(Recurrence.WEEKDAYS));
+        List<LocalDate> dates = Occurrences.next(item, LocalDate.of(2024, 3, 8), 3);
+        // 금 → 월 → 화 (주말 건너뜀)
+        assertEquals(Arrays.asList(
+                LocalDate.of(2024, 3, 8), LocalDate.of(2024, 3, 11), LocalDate.of(2024, 3, 12)), dates);
+
+        TodoItem once = dated(LocalDate.of(2024, 3, 1), null);
+        assertTrue(Occurrences.next(once, LocalDate.of(2024, 3, 2), 3).isEmpty());
+    }
+
+    @Test
+    public void expand_ordersByDateThenTime() {
+        TodoItem daily = dated(LocalDate.of(2024, 3, 1), Recurrence.daily());
+        daily.setId(1);
+        daily.setDueMinutes(20 * 60);
+        TodoItem once = dated(LocalDate.of(2024, 3, 2), null);
+        once.setId(2);
+        once.setDueMinutes(8 * 60);
+
+        List<Occurrences.Occurrence> agenda = Occurrences.expand(
+                Arrays.asList(daily, once), LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 3));
+        assertEquals(3, agenda.size());
+        assertEquals(2, agenda.get(0).item.getId());
+        assertEquals(1, agenda.get(1).item.getId());
+        assertEquals(LocalDate.of(2024, 3, 3), agenda.get(2).date);
+    }
+
+    @Test
+    public void nextTriggerAt_skipsTodayWhenTimePassed() {
+        TodoItem item = dated(LocalDate.of(2024, 3, 1), Recurrence.daily());
+        item.setDueMinutes(9 * 60);
+        long now = LocalDate.of(2024, 3, 10).atTime(10, 0).atZone(SEOUL).toInstant().toEpochMilli();
+        long expected = LocalDate.of(2024, 3, 11).atTime(9, 0).atZone(SEOUL).toInstant().toEpochMilli();
+        assertEquals(expected, Occurrences.nextTriggerAt(item, now, SEOUL));
+
+        TodoItem past = dated(LocalDate.of(2024, 3, 1), null);
+        past.setDueMinutes(9 * 60);
+        assertEquals(-1, Occurrences.nextTriggerAt(past, now, SEOUL));
+    }
+
+    private static TodoItem dated(LocalDate date, Recurrence rule) {
+        TodoItem item = new TodoItem("반복", 3, TodoItem.NO_DUE_TIME, false);
+        item.setDueDate(date.toEpochDay());
+        item.setRecurrence(rule);
+        return item;
+    }
+}
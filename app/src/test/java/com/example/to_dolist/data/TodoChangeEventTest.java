@@ -0,0 +1,53 @@
+package com.example.to_dolist.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 같은 프레임 안의 연속된 변경이 하나로 합쳐지는 규칙을 확인합니다.
+ */
+public class TodoChangeEventTest {
+
+    private static TodoItem item(long id, boolean completed) {
+        TodoItem item = new TodoItem("할 일 " + id, 1, 540, completed);
+        item.setId(id);
+        return item;
+    }
+
+    @Test
+    public void insertThenUpdate_staysInsertWithLatestItem() {
+        TodoChangeEvent merged = TodoChangeEvent.merge(
+                TodoChangeEvent.inserted(item(1, false)), TodoChangeEvent.updated(item(1, true)));
+
+        assertEquals(TodoChangeEvent.Type.INSERTED, merged.getType());
+        assertTrue(merged.getItem().isCompleted());
+    }
+
+    @Test
+    public void insertThenDelete_cancelsOut() {
+        assertNull(TodoChangeEvent.merge(
+                TodoChangeEvent.inserted(item(1, false)), TodoChangeEvent.deleted(1)));
+    }
+
+    @Test
+    public void updateThenDelete_isDelete() {
+        TodoChangeEvent merged = TodoChangeEvent.merge(
+                TodoChangeEvent.updated(item(1, false)), TodoChangeEvent.deleted(1));
+
+        assertEquals(TodoChangeEvent.Type.DELETED, merged.getType());
+        assertNull(merged.getItem());
+    }
+
+    @Test
+    public void event_holdsCopyOfItem() {
+        TodoItem source = item(2, false);
+        TodoChangeEvent event = TodoChangeEvent.updated(source);
+        source.setCompleted(true);
+
+        assertEquals(false, event.getItem().isCompleted());
+        assertEquals(2, event.getId());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.to_dolist.data;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 위젯 스냅샷 형식: 왕복 보존, 같은 내용이면 같은 바이트, 잘린 파일·다른 파일 거부.
+ */
+public class TodoSnapshotTest {
+
+    @Test
+    public void roundTrip_keepsEntriesInOrder() throws IOException {
+        TodoItem once = task(3, 1, "회의 준비", 9 * 60);
+        TodoItem daily = task(5, 2, "운동", 18 * 60 + 30);
+        daily.setDueDate(19_900);
+        daily.setRecurrence(Recurrence.daily());
+        TodoSnapshot snapshot = new TodoSnapshot(12, Arrays.asList(
+                new TodoSnapshot.Entry(once, 1_000L), new TodoSnapshot.Entry(daily, 2_000L)));
+
+        TodoSnapshot read = TodoSnapshot.decode(snapshot.encode());
+
+        assertEquals(12, read.getOpenCount());
+        assertEquals(2, read.getEntries().size());
+        assertEquals(1_000L, read.getEntries().get(0).getTriggerAt());
+        assertEquals("회의 준비", read.getEntries().get(0).getItem().getTitle());
+        assertEquals(9 * 60, read.getEntries().get(0).getItem().getDueMinutes());
+        assertFalse(read.getEntries().get(0).getItem().isRecurring());
+        TodoItem readDaily = read.find(5).getItem();
+        assertEquals(2, readDaily.getCategoryId());
+        assertEquals(19_900, readDaily.getDueDate());
+        assertEquals(Recurrence.daily().encode(), readDaily.getRecurrence().encode());
+        assertNull(read.find(99));
+    }
+
+    @Test
+    public void sameContent_encodesToSameBytes() {
+        // 저장소는 바이트가 같으면 파일을 쓰지 않고 위젯에 알리지도 않음
+        byte[] first = new TodoSnapshot(1, entries(task(1, 1, "a", 60), 5_000L)).encode();
+        byte[] second = new TodoSnapshot(1, entries(task(1, 1, "a", 60), 5_000L)).encode();
+        byte[] changed = new TodoSnapshot(1, entries(task(1, 1, "b", 60), 5_000L)).encode();
+
+        assertArrayEquals(first, second);
+        assertFalse(Arrays.equals(first, changed));
+    }
+
+    @Test
+    public void truncatedOrForeignFile_isRejected() {
+        byte[] bytes = new TodoSnapshot(1, entries(task(1, 1, "제목", 60), 5_000L)).encode();
+        assertRejected(Arrays.copyOf(bytes, bytes.length - 3));
+        assertRejected(new byte[0]);
+        assertRejected("not a snapshot".getBytes());
+    }
+
+    @Test
+    public void emptySnapshot_roundTrips() throws IOException {
+        TodoSnapshot read = TodoSnapshot.decode(new TodoSnapshot(0, new ArrayList<>()).encode());
+        assertEquals(0, read.getOpenCount());
+        assertTrue(read.getEntries().isEmpty());
+    }
+
+    // --- helpers ---
+
+    private static void assertRejected(byte[] bytes) {
+        try {
+            TodoSnapshot.decode(bytes);
+            fail("IOException 이 발생해야 함");
+        } catch (IOException expected) {
+            // 위젯은 null 로 받아 스냅샷을 다시 만들도록 요청
+        }
+    }
+
+    private static List<TodoSnapshot.Entry> entries(TodoItem item, long triggerAt) {
+        List<TodoSnapshot.Entry> entries = new ArrayList<>();
+        entries.add(new TodoSnapshot.Entry(item, triggerAt));
+        return entries;
+    }
+
+    private static TodoItem task(long id, long categoryId, String title, int dueMinutes) {
+        TodoItem item = new TodoItem(title, categoryId, dueMinutes, false);
+        item.setId(id);
+        return item;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.to_dolist.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 히스토그램 버킷 경계와 백분위 오차(12.5% 이내)를 확인합니다.
+ */
+public class HistogramTest {
+
+    @Test
+    public void buckets_coverAllValuesInOrder() {
+        long previousUpper = -1;
+        for (int bucket = 0; bucket <= Histogram.bucketOf(Long.MAX_VALUE); bucket++) {
+            long upper = Histogram.upperBoundOf(bucket);
+            assertTrue(upper > previousUpper);
+            assertEquals(bucket, Histogram.bucketOf(previousUpper + 1));
+            assertEquals(bucket, Histogram.bucketOf(upper));
+            previousUpper = upper;
+        }
+        assertEquals(Long.MAX_VALUE, previousUpper);
+    }
+
+    @Test
+    public void percentiles_withinRelativeError() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(5_000.5, histogram.getMean(), 1e-9);
+        assertWithin(5_000, histogram.getPercentile(50));
+        assertWithin(9_500, histogram.getPercentile(95));
+        assertWithin(9_900, histogram.getPercentile(99));
+        assertEquals(10_000, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void smallValues_areExact_andResetClears() {
+        Histogram histogram = new Histogram();
+        histogram.record(3);
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(-5);
+        assertEquals(3, histogram.getPercentile(50));
+        assertEquals(7, histogram.getPercentile(99));
+        assertEquals(0, histogram.getPercentile(1));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue("expected ~" + expected + " but was " + actual,
+                actual >= expected && actual <= expected * 1.125);
+    }
+}
@@ -0,0 +1,42 @@
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+/*
+ * 안드로이드 의존성이 없는 순수 로직(시각 계산, 시간 파싱/포맷, 시드 데이터)의 JVM JMH 벤치마크.
+ * 앱 소스를 복사하지 않고 해당 파일만 그대로 컴파일해 측정합니다.
+ * 실행: ./gradlew :benchmark-jvm:jmh
+ * 결과: build/results/jmh/results.json (ns/op, gc 프로파일러의 gc.alloc.rate.norm = B/op)
+ */
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            srcDir("../benchmark/src/main/java")
+            include(
+                "com/example/to_dolist/data/TodoItem.java",
+                "com/example/to_dolist/data/Recurrence.java",
+                "com/example/to_dolist/data/Occurrences.java",
+                "com/example/to_dolist/alarm/TriggerTimes.java",
+                "com/example/to_dolist/benchmark/SeedData.java",
+            )
+        }
+    }
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    timeUnit = "ns"
+    benchmarkMode = listOf("avgt")
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+}
@@ -0,0 +1,70 @@
+package com.example.to_dolist.alarm;
+
+import com.example.to_dolist.benchmark.SeedData;
+import com.example.to_dolist.data.TodoItem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * 알람 재등록 때 항목마다 하는 다음 울림 시각 계산.
+ * 서머타임이 없는 시간대와 있는 시간대를 나눠 측정합니다. (ns/op 는 항목 하나당)
+ */
+@State(Scope.Benchmark)
+public class TriggerTimesBenchmark {
+
+    // 재등록 한 번에 계산하는 항목 수
+    private static final int BATCH = 1_000;
+
+    @Param({"1000", "10000", "100000"})
+    public int tasks;
+
+    @Param({"Asia/Seoul", "America/New_York"})
+    public String zoneId;
+
+    private int[] dueMinutes;
+    private TimeZone zone;
+    private long now;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        List<TodoItem> items = SeedData.tasks(tasks);
+        int[] minutes = new int[items.size()];
+        int count = 0;
+        for (TodoItem item : items) {
+            if (item.hasDueTime()) minutes[count++] = item.getDueMinutes();
+        }
+        dueMinutes = Arrays.copyOf(minutes, count);
+        zone = TimeZone.getTimeZone(zoneId);
+        // 2024-03-10 12:00 UTC: 뉴욕 서머타임 시작일
+        now = 1_710_072_000_000L;
+        cursor = 0;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void nextTriggerAt(Blackhole blackhole) {
+        int[] minutes = dueMinutes;
+        int index = cursor;
+        for (int i = 0; i < BATCH; i++) {
+            if (index == minutes.length) index = 0;
+            blackhole.consume(TriggerTimes.nextTriggerAt(minutes[index++], now, zone));
+        }
+        cursor = index;
+    }
+
+    @Benchmark
+    public int minuteOfDay() {
+        return TriggerTimes.minuteOfDay(now, zone);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.to_dolist.data;
+
+import com.example.to_dolist.benchmark.SeedData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * 목록 바인딩·입력 처리 때마다 도는 "HH:mm" ↔ 분 변환과 항목 복사.
+ * ns/op 와 B/op 는 모두 항목 하나당입니다.
+ */
+@State(Scope.Benchmark)
+public class DueTimeFormatBenchmark {
+
+    private static final int BATCH = 1_000;
+
+    @Param({"1000", "10000", "100000"})
+    public int tasks;
+
+    private int[] dueMinutes;
+    private String[] dueTexts;
+    private TodoItem[] items;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        List<TodoItem> seed = SeedData.tasks(tasks);
+        items = seed.toArray(new TodoItem[0]);
+        dueMinutes = new int[items.length];
+        dueTexts = new String[items.length];
+        for (int i = 0; i < items.length; i++) {
+            dueMinutes[i] = items[i].getDueMinutes();
+            dueTexts[i] = TodoItem.formatDueTime(dueMinutes[i]);
+        }
+        cursor = 0;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void parseDueTime(Blackhole blackhole) {
+        int index = nextStart();
+        for (int i = 0; i < BATCH; i++, index++) {
+            if (index == dueTexts.length) index = 0;
+            blackhole.consume(TodoItem.parseDueTime(dueTexts[index]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void formatDueTime(Blackhole blackhole) {
+        int index = nextStart();
+        for (int i = 0; i < BATCH; i++, index++) {
+            if (index == dueMinutes.length) index = 0;
+            blackhole.consume(TodoItem.formatDueTime(dueMinutes[index]));
+        }
+    }
+
+    // 변경 이벤트·캐시가 항목마다 만드는 방어적 복사
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void copyItem(Blackhole blackhole) {
+        int index = nextStart();
+        for (int i = 0; i < BATCH; i++, index++) {
+            if (index == items.length) index = 0;
+            blackhole.consume(new TodoItem(items[index]));
+        }
+    }
+
+    private int nextStart() {
+        int start = cursor;
+        cursor = (start + BATCH) % items.length;
+        return start;
+    }
+}
@@ -0,0 +1,49 @@
+plugins {
+    alias(libs.plugins.android.test)
+}
+
+/*
+ * androidx.benchmark 마이크로벤치마크.
+ * :app 의 benchmark 빌드(디버그 불가, release 와 같은 코드)를 같은 프로세스에서 계측하므로
+ * 데이터 계층·알람 스케줄러를 앱과 같은 조건에서 ns/op, allocs/op 로 측정합니다.
+ * 실행: ./gradlew :benchmark:connectedBenchmarkAndroidTest
+ * 결과: build/outputs/connected_android_test_additional_output/ 의 *-benchmarkData.json
+ */
+android {
+    namespace = "com.example.to_dolist.benchmark"
+    compileSdk = 36
+
+    defaultConfig {
+        minSdk = 34
+        targetSdk = 36
+
+        testInstrumentationRunner = "androidx.benchmark.junit4.AndroidBenchmarkRunner"
+    }
+
+    buildTypes {
+        create("benchmark") {
+            isDebuggable = false
+            signingConfig = getByName("debug").signingConfig
+            matchingFallbacks += listOf("release")
+        }
+    }
+
+    targetProjectPath = ":app"
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+}
+
+dependencies {
+    implementation(libs.ext.junit)
+    implementation(libs.benchmark.junit4)
+    implementation(libs.recyclerview)
+}
+
+androidComponents {
+    beforeVariants(selector().all()) {
+        it.enable = it.buildType == "benchmark"
+    }
+}
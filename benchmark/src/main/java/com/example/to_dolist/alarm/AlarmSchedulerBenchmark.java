@@ -0,0 +1,86 @@
+package com.example.to_dolist.alarm;
+
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.to_dolist.benchmark.SeedData;
+import com.example.to_dolist.data.TodoItem;
+import com.example.to_dolist.data.TodoItemDataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * AlarmScheduler.scheduleAlarm 의 지연: 호출부터 알람 스레드에서 큐 갱신·시스템 알람 재등록이 끝날 때까지.
+ * 대기 중인 알람 수(큐 크기)별로 측정합니다. 앱의 공유 DB 를 쓰므로 전용 카테고리로 넣고 끝나면 지웁니다.
+ */
+@RunWith(Parameterized.class)
+public class AlarmSchedulerBenchmark {
+
+    private static final String CATEGORY_NAME = "SCHEDULER_BENCHMARK";
+
+    @Parameterized.Parameters(name = "tasks={0}")
+    public static Collection<Object[]> sizes() {
+        return Arrays.asList(new Object[][]{{100}, {10_000}});
+    }
+
+    @Rule
+    public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final int tasks;
+    private Context context;
+    private TodoItemDataSource dataSource;
+    private long category;
+    private TodoItem target;
+
+    public AlarmSchedulerBenchmark(int tasks) {
+        this.tasks = tasks;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dataSource = new TodoItemDataSource(context);
+        dataSource.open();
+        category = dataSource.getOrCreateCategory(CATEGORY_NAME);
+
+        List<TodoItem> items = SeedData.tasks(tasks, SeedData.DEFAULT_SEED, category);
+        long[] ids = dataSource.bulkInsert(items);
+        for (int i = 0; i < items.size(); i++) {
+            TodoItem item = items.get(i);
+            if (target == null && item.hasDueTime() && !item.isCompleted()) {
+                target = item;
+                target.setId(ids[i]);
+            }
+        }
+        AlarmScheduler.rehydrateNow(context, "benchmark");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dataSource.bulkDelete(category, null);
+        dataSource.deleteCategory(category);
+        dataSource.close();
+        AlarmScheduler.rehydrateNow(context, "benchmark-cleanup");
+    }
+
+    @Test
+    public void scheduleAlarm_untilApplied() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            AlarmScheduler.scheduleAlarm(context, target);
+            AlarmScheduler.awaitIdle();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.to_dolist.benchmark;
+
+import com.example.to_dolist.data.TodoItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 재현 가능한 벤치마크 데이터 생성기. 같은 (count, seed) 면 항상 같은 목록을 만듭니다.
+ * 안드로이드 마이크로벤치마크와 JVM(JMH) 벤치마크가 같은 분포를 쓰도록 순수 자바로만 작성합니다.
+ * (:benchmark-jvm 은 이 파일을 소스로 직접 포함)
+ */
+public final class SeedData {
+
+    public static final long DEFAULT_SEED = 20_240_601L;
+    // 새로 설치한 DB 의 기본 카테고리 id (WORK, STUDY, ETC 순서로 만들어짐)
+    public static final long[] CATEGORY_IDS = {1, 2, 3};
+
+    // 시간 지정 비율 70%, 완료 비율 25% (실사용 목록과 비슷한 분포)
+    private static final double DUE_TIME_RATIO = 0.7;
+    private static final double COMPLETED_RATIO = 0.25;
+
+    private static final String[] VERBS = {"정리", "준비", "검토", "작성", "예약", "확인", "공부", "연락"};
+    private static final String[] NOUNS = {"회의록", "보고서", "장보기", "운동", "영어 단어", "세금", "여행 일정", "코드 리뷰"};
+
+    private SeedData() {
+    }
+
+    public static List<TodoItem> tasks(int count) {
+        return tasks(count, DEFAULT_SEED, TodoItem.NO_CATEGORY);
+    }
+
+    /**
+     * categoryId 가 NO_CATEGORY 면 세 기본 카테고리에 고르게 나누고, 아니면 모두 그 카테고리로 만듭니다.
+     * (공유 DB 에 넣는 벤치마크는 전용 카테고리를 써서 끝나고 지움)
+     */
+    public static List<TodoItem> tasks(int count, long seed, long categoryId) {
+        Random random = new Random(seed);
+        List<TodoItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = NOUNS[random.nextInt(NOUNS.length)] + " " + VERBS[random.nextInt(VERBS.length)] + " " + i;
+            long itemCategory = categoryId != TodoItem.NO_CATEGORY
+                    ? categoryId : CATEGORY_IDS[random.nextInt(CATEGORY_IDS.length)];
+            int dueMinutes = random.nextDouble() < DUE_TIME_RATIO ? random.nextInt(24 * 60) : TodoItem.NO_DUE_TIME;
+            boolean completed = random.nextDouble() < COMPLETED_RATIO;
+            items.add(new TodoItem(title, itemCategory, dueMinutes, completed));
+        }
+        return items;
+    }
+}
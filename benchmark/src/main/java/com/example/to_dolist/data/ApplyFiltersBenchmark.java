@@ -0,0 +1,99 @@
+package com.example.to_dolist.data;
+
+import android.app.Instrumentation;
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.to_dolist.benchmark.SeedData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MainActivity.applyFilters 와 같은 경로의 전체 시간:
+ * 새 TodoItemPager → 첫 페이지 조회(read 풀) → 메인 스레드 publish → 어댑터 diff 반영까지.
+ * 필터(미완료 여부)를 번갈아 바꿔 매번 다른 목록으로 diff 하게 합니다.
+ * 앱의 공유 DB 와 저장소 싱글톤을 쓰므로 전용 카테고리로 넣고 끝나면 지웁니다.
+ */
+@RunWith(Parameterized.class)
+public class ApplyFiltersBenchmark {
+
+    private static final String CATEGORY_NAME = "FILTER_BENCHMARK";
+
+    @Parameterized.Parameters(name = "rows={0}")
+    public static Collection<Object[]> sizes() {
+        return Arrays.asList(new Object[][]{{1_000}, {10_000}});
+    }
+
+    @Rule
+    public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final int rows;
+    private Instrumentation instrumentation;
+    private TodoRepository repository;
+    private TodoItemDataSource dataSource;
+    private long category;
+    private TodoItemAdapter adapter;
+
+    public ApplyFiltersBenchmark(int rows) {
+        this.rows = rows;
+    }
+
+    @Before
+    public void setUp() {
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+        Context context = instrumentation.getTargetContext();
+        repository = TodoRepository.getInstance(context);
+        dataSource = new TodoItemDataSource(context);
+        dataSource.open();
+        category = dataSource.getOrCreateCategory(CATEGORY_NAME);
+        dataSource.bulkInsert(SeedData.tasks(rows, SeedData.DEFAULT_SEED, category));
+        repository.invalidateCache();
+        instrumentation.runOnMainSync(() -> adapter = new TodoItemAdapter(repository));
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.bulkDelete(category, null);
+        dataSource.deleteCategory(category);
+        dataSource.close();
+        repository.invalidateCache();
+    }
+
+    @Test
+    public void applyFilters_untilListCommitted() throws Exception {
+        boolean uncompletedOnly = false;
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            uncompletedOnly = !uncompletedOnly;
+            awaitFirstPage(uncompletedOnly);
+        }
+    }
+
+    private void awaitFirstPage(boolean uncompletedOnly) throws InterruptedException {
+        CountDownLatch committed = new CountDownLatch(1);
+        instrumentation.runOnMainSync(() -> {
+            TodoItemPager[] pager = new TodoItemPager[1];
+            pager[0] = new TodoItemPager(repository, category, uncompletedOnly, snapshot -> {
+                pager[0].dispose();
+                adapter.submitList(snapshot, committed::countDown);
+            });
+            pager[0].loadInitial();
+        });
+        if (!committed.await(10, TimeUnit.SECONDS)) {
+            throw new AssertionError("첫 페이지가 반영되지 않음");
+        }
+    }
+}
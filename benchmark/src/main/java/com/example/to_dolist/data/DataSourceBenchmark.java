@@ -0,0 +1,107 @@
+package com.example.to_dolist.data;
+
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.to_dolist.benchmark.SeedData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * TodoItemDataSource 의 조회·추가 비용 (메모리 DB, 행 수별).
+ * 필터 목록 전체 조회, 키셋 첫 페이지/중간 페이지, 단건 추가, 100건 일괄 추가를 측정합니다.
+ */
+@RunWith(Parameterized.class)
+public class DataSourceBenchmark {
+
+    private static final int PAGE_SIZE = TodoItemPager.DEFAULT_PAGE_SIZE;
+    private static final int BULK_SIZE = 100;
+
+    @Parameterized.Parameters(name = "rows={0}")
+    public static Collection<Object[]> sizes() {
+        return Arrays.asList(new Object[][]{{1_000}, {10_000}, {100_000}});
+    }
+
+    @Rule
+    public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final int rows;
+    private TodoItemDataSource dataSource;
+
+    public DataSourceBenchmark(int rows) {
+        this.rows = rows;
+    }
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dataSource = new TodoItemDataSource(new TodoItemDbHelper(context, null));
+        dataSource.open();
+        dataSource.bulkInsert(SeedData.tasks(rows));
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    public void filteredList_uncompletedWork() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            consume(dataSource.getTasks(SeedData.CATEGORY_IDS[0], true));
+        }
+    }
+
+    @Test
+    public void firstPage() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            consume(dataSource.getTaskPage(Category.ALL, false, TodoItemPager.Key.START, PAGE_SIZE));
+        }
+    }
+
+    @Test
+    public void middlePage() {
+        // 정오 근처, id 는 중간값: 인덱스 탐색 + 한 페이지만 읽어야 하므로 행 수와 무관해야 함
+        TodoItemPager.Key middle = new TodoItemPager.Key(12 * 60, rows / 2);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            consume(dataSource.getTaskPage(Category.ALL, false, middle, PAGE_SIZE));
+        }
+    }
+
+    @Test
+    public void insertOne() {
+        TodoItem item = new TodoItem("벤치마크 추가", SeedData.CATEGORY_IDS[0], 9 * 60, false);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            dataSource.createTask(item);
+        }
+    }
+
+    @Test
+    public void bulkInsert100() {
+        List<TodoItem> batch = SeedData.tasks(BULK_SIZE);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            dataSource.bulkInsert(batch);
+        }
+    }
+
+    private static void consume(List<TodoItem> items) {
+        if (items.size() < 0) throw new AssertionError();
+    }
+}
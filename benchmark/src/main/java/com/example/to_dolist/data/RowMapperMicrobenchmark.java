@@ -0,0 +1,83 @@
+package com.example.to_dolist.data;
+
+import android.database.MatrixCursor;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.to_dolist.benchmark.SeedData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+/**
+ * 커서 한 행을 TodoItem 으로 바꾸는 비용 (이전의 cursorToTask). ns/행, allocs/행.
+ * DB I/O 를 빼기 위해 MatrixCursor 를 돌아가며 읽습니다.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RowMapperMicrobenchmark {
+
+    private static final int ROWS = 1_000;
+
+    @Rule
+    public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private MatrixCursor cursor;
+
+    @Before
+    public void setUp() {
+        String[] columns = TodoItemQuery.COLUMNS.split(",\\s*");
+        cursor = new MatrixCursor(columns, ROWS);
+        List<TodoItem> items = SeedData.tasks(ROWS);
+        for (int i = 0; i < items.size(); i++) {
+            TodoItem item = items.get(i);
+            cursor.addRow(new Object[]{
+                    (long) (i + 1),
+                    item.getTitle(),
+                    item.getCategoryId(),
+                    item.hasDueTime() ? item.getDueMinutes() : null,
+                    item.isCompleted() ? 1 : 0,
+                    item.hasDueDate() ? item.getDueDate() : null,
+                    item.isRecurring() ? item.getRecurrence().encode() : null
+            });
+        }
+    }
+
+    @After
+    public void tearDown() {
+        cursor.close();
+    }
+
+    @Test
+    public void mapNewObject() {
+        TodoItemRowMapper mapper = TodoItemRowMapper.forCursor(cursor);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            nextRow();
+            mapper.map(cursor);
+        }
+    }
+
+    @Test
+    public void mapIntoReused() {
+        TodoItemRowMapper mapper = TodoItemRowMapper.forCursor(cursor);
+        TodoItem target = new TodoItem();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            nextRow();
+            mapper.mapInto(cursor, target);
+        }
+    }
+
+    private void nextRow() {
+        if (!cursor.moveToNext()) {
+            cursor.moveToFirst();
+        }
+    }
+}
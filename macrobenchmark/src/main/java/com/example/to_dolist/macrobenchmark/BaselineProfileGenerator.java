@@ -0,0 +1,35 @@
+package com.example.to_dolist.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+/**
+ * 실행 경로의 Baseline Profile 을 기기에서 수집합니다. (API 33 이상 또는 루팅 기기)
+ * 결과 파일의 com/example/to_dolist 규칙으로 app/src/main/baseline-prof.txt 를 갱신합니다.
+ * 실행: ./gradlew :macrobenchmark:connectedBenchmarkAndroidTest
+ *       -Pandroid.testInstrumentationRunnerArguments.class=com.example.to_dolist.macrobenchmark.BaselineProfileGenerator
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public final BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void generateLaunchProfile() {
+        baselineProfileRule.collect(LaunchJourney.TARGET_PACKAGE, scope -> {
+            LaunchJourney.allowExactAlarms(scope);
+            scope.pressHome();
+            scope.startActivityAndWait();
+            LaunchJourney.awaitFullDisplay(scope);
+            LaunchJourney.scrollList(scope);
+            return Unit.INSTANCE;
+        });
+    }
+}
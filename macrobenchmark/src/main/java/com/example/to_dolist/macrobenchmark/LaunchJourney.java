@@ -0,0 +1,65 @@
+package com.example.to_dolist.macrobenchmark;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * 측정과 프로파일 생성이 함께 쓰는 사용자 흐름: 앱 실행 → 첫 목록 표시 대기 → 목록 스크롤.
+ */
+final class LaunchJourney {
+
+    static final String TARGET_PACKAGE = "com.example.to_dolist";
+
+    private static final long FULL_DISPLAY_TIMEOUT_MS = 5_000L;
+    private static final long POLL_INTERVAL_MS = 50L;
+
+    private LaunchJourney() {
+    }
+
+    /**
+     * 정확한 알람 권한이 없으면 앱이 설정 화면을 띄우므로 측정 전에 미리 허용해 둡니다.
+     */
+    static void allowExactAlarms(MacrobenchmarkScope scope) {
+        try {
+            scope.getDevice().executeShellCommand("appops set " + TARGET_PACKAGE + " SCHEDULE_EXACT_ALARM allow");
+        } catch (IOException e) {
+            throw new AssertionError("정확한 알람 권한 설정 실패", e);
+        }
+    }
+
+    /**
+     * 자리 표시 행이 실제 항목(또는 빈 목록 안내)으로 바뀔 때까지 기다립니다. (앱의 reportFullyDrawn 시점과 같음)
+     */
+    static void awaitFullDisplay(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        long deadline = System.currentTimeMillis() + FULL_DISPLAY_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (device.hasObject(By.res(TARGET_PACKAGE, "todo_text").text(Pattern.compile(".+")))
+                    || device.hasObject(By.res(TARGET_PACKAGE, "todo_empty_view"))) {
+                return;
+            }
+            device.wait(Until.hasObject(By.pkg(TARGET_PACKAGE)), POLL_INTERVAL_MS);
+        }
+        throw new AssertionError("첫 목록이 " + FULL_DISPLAY_TIMEOUT_MS + "ms 안에 표시되지 않음");
+    }
+
+    static void scrollList(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        UiObject2 list = device.findObject(By.res(TARGET_PACKAGE, "todo_recycler_view"));
+        if (list == null) return;
+
+        // 제스처가 시스템 내비게이션과 겹치지 않도록 여백을 둠
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        list.fling(Direction.DOWN);
+        device.waitForIdle();
+        list.fling(Direction.UP);
+        device.waitForIdle();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.to_dolist.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * 콜드 스타트 시간 측정: timeToInitialDisplayMs (첫 프레임, 자리 표시 행)와
+ * timeToFullDisplayMs (첫 페이지가 반영된 뒤 reportFullyDrawn).
+ * 컴파일 없음과 Baseline Profile 적용을 비교해 프로파일이 실행 경로를 덮는지 확인합니다.
+ * 실행: ./gradlew :macrobenchmark:connectedBenchmarkAndroidTest
+ */
+@RunWith(Parameterized.class)
+public class StartupBenchmark {
+
+    private static final int ITERATIONS = 10;
+
+    @Parameterized.Parameters(name = "compilation={0}")
+    public static Collection<Object[]> compilationModes() {
+        return Arrays.asList(new Object[][]{
+                {new CompilationMode.None()},
+                {new CompilationMode.Partial()}
+        });
+    }
+
+    @Rule
+    public final MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final CompilationMode compilationMode;
+
+    public StartupBenchmark(CompilationMode compilationMode) {
+        this.compilationMode = compilationMode;
+    }
+
+    @Test
+    public void coldStartup() {
+        benchmarkRule.measureRepeated(
+                LaunchJourney.TARGET_PACKAGE,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    LaunchJourney.allowExactAlarms(scope);
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    LaunchJourney.awaitFullDisplay(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -21,3 +21,6 @@ dependencyResolutionManagement {
 
 rootProject.name = "To-Do List"
 include(":app")
+include(":macrobenchmark")
+include(":benchmark")
+include(":benchmark-jvm")